@@ -23,6 +23,7 @@ export default function GameBoard({ matchId, initialMatch, onExit, allCards: all
   const [effectOverlay, setEffectOverlay] = useState(null);
   const [loadError, setLoadError] = useState(null);
   const { playCard: wsPlayCard, attack: wsAttack, endTurn: wsEndTurn, subscribeToMatch, subscribeToErrors, connected: wsConnected } = useMatchWebSocket();
+  const [now, setNow] = useState(() => Date.now());
   const [gameError, setGameError] = useState(null);
   const [gameErrorContext, setGameErrorContext] = useState('');
   const [gameSounds, setGameSounds] = useState({});
@@ -108,6 +109,12 @@ export default function GameBoard({ matchId, initialMatch, onExit, allCards: all
     }
   }, [match, onExit]);
 
+  useEffect(() => {
+    if (match?.status !== 'IN_PROGRESS' || !match?.turnDeadline) return;
+    const interval = setInterval(() => setNow(Date.now()), 1000);
+    return () => clearInterval(interval);
+  }, [match?.status, match?.turnDeadline]);
+
   useEffect(() => {
     if (match?.gameState && match.currentTurnPlayerId !== user?.id) {
       setSelectedAttacker(null);
@@ -226,6 +233,9 @@ export default function GameBoard({ matchId, initialMatch, onExit, allCards: all
   const isMyTurn = match.currentTurnPlayerId === user?.id;
   const attackerMinion = selectedAttacker ? me.board?.find((m) => m.instanceId === selectedAttacker) : null;
   const canAttackHero = !selectedAttacker || (attackerMinion?.canAttackHero !== false);
+  const turnSecondsLeft = match.turnDeadline
+    ? Math.max(0, Math.ceil((Date.parse(match.turnDeadline) - now) / 1000))
+    : null;
 
   return (
     <div className="game-board">
@@ -263,7 +273,10 @@ export default function GameBoard({ matchId, initialMatch, onExit, allCards: all
       <div className="game-status">
         {match.status === 'IN_PROGRESS' && (
           <>
-            <p>{isMyTurn ? 'Ваш ход' : 'Ход соперника'}</p>
+            <p>
+              {isMyTurn ? 'Ваш ход' : 'Ход соперника'}
+              {turnSecondsLeft !== null && ` · ${turnSecondsLeft} с`}
+            </p>
             {selectedAttacker && (
               <p className="attack-hint">
                 {attackerMinion?.canAttackHero === false
@@ -429,7 +442,7 @@ export default function GameBoard({ matchId, initialMatch, onExit, allCards: all
             {me.portraitUrl ? <img src={me.portraitUrl} alt="" /> : <span>{(me.heroName || 'Я').charAt(0)}</span>}
           </div>
           <span className="my-hero-stats">
-            {me.heroName ? `${me.heroName} · ` : ''}Мана: {me.mana} | HP: {me.health}{me.maxHeroHealth != null ? ` / ${me.maxHeroHealth}` : ''} | В колоде: {me.deck?.length ?? 0}
+            {me.heroName ? `${me.heroName} · ` : ''}Мана: {me.mana} | HP: {me.health}{me.maxHeroHealth != null ? ` / ${me.maxHeroHealth}` : ''} | В колоде: {me.deckCount ?? 0}
           </span>
           {selectedBattlecry?.card?.battlecryType === 'HEAL' && (
             <button type="button" className="btn btn-outline btn-sm" onClick={() => handleTargetClick('hero')}>
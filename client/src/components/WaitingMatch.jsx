@@ -1,10 +1,16 @@
-import React, { useEffect, useState } from 'react';
+import React, { useEffect, useRef, useState } from 'react';
 import api from '../api/client';
 import { useMatchWebSocket } from '../context/MatchWebSocketContext';
 
+// Заявка в очереди матчмейкинга ещё не матч: строки в БД нет, пока не найден соперник
+const findStartedMatch = (since) => api.get('/api/matches').then(({ data }) => (data || [])
+  .find((m) => m.status === 'IN_PROGRESS' && (!since || Date.parse(m.createdAt) >= Date.parse(since))));
+
 export default function WaitingMatch({ match, onUpdate, onCancel }) {
-  const { subscribeToMatch, connected } = useMatchWebSocket();
+  const { subscribeToMatchmaking, subscribeToErrors, cancelSearch, connected } = useMatchWebSocket();
   const [myHeroName, setMyHeroName] = useState('');
+  const onCancelRef = useRef(onCancel);
+  onCancelRef.current = onCancel;
 
   useEffect(() => {
     if (!match?.hero1Id) return;
@@ -17,28 +23,37 @@ export default function WaitingMatch({ match, onUpdate, onCancel }) {
   }, [match?.hero1Id]);
 
   useEffect(() => {
+    const check = () => findStartedMatch(match.createdAt)
+      .then((started) => { if (started) onUpdate(started); })
+      .catch(() => {});
     if (connected) {
-      const unsubscribe = subscribeToMatch(match.id, (data) => {
+      const unsubscribe = subscribeToMatchmaking((data) => {
         if (data.status === 'IN_PROGRESS') onUpdate(data);
       });
-      return unsubscribe;
+      // пара найдена, но матч не создался — заявка уже снята, возвращаемся к выбору колоды
+      const unsubscribeErrors = subscribeToErrors(() => onCancelRef.current());
+      // соперник мог найтись до подписки
+      check();
+      return () => {
+        unsubscribe();
+        unsubscribeErrors();
+      };
     }
-    const id = setInterval(() => {
-      api.get(`/api/matches/${match.id}`).then(({ data }) => {
-        if (data.status === 'IN_PROGRESS') onUpdate(data);
-      });
-    }, 2000);
+    const id = setInterval(check, 2000);
     return () => clearInterval(id);
-  }, [match.id, onUpdate, subscribeToMatch, connected]);
+  }, [match.createdAt, onUpdate, subscribeToMatchmaking, subscribeToErrors, connected]);
+
+  const handleCancel = () => {
+    cancelSearch().catch(() => {}).finally(() => onCancel());
+  };
 
   return (
     <div className="play-page">
       <h2>Ожидание соперника...</h2>
-      <p>Матч #{match.id}</p>
       {myHeroName && (
         <p className="waiting-hero-picked">Ваш герой: <strong>{myHeroName}</strong></p>
       )}
-      <button type="button" onClick={onCancel} className="btn btn-secondary">Отмена</button>
+      <button type="button" onClick={handleCancel} className="btn btn-secondary">Отмена</button>
     </div>
   );
 }
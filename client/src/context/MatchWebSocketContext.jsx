@@ -1,7 +1,8 @@
 import React, { createContext, useContext, useEffect, useState, useCallback, useRef } from 'react';
 import { Client } from '@stomp/stompjs';
 import SockJS from 'sockjs-client';
-import { WS_URL } from '../api/client';
+import api, { WS_URL } from '../api/client';
+import { applyMatchDelta } from '../utils/matchDelta';
 import { getAccessToken } from '../utils/tokenStorage';
 
 const MatchWebSocketContext = createContext(null);
@@ -126,17 +127,66 @@ export function MatchWebSocketProvider({ children }) {
       subscriptionsRef.current.get(key).unsubscribe();
     }
 
-    const sub = client.subscribe(`/topic/match/${matchId}`, (msg) => {
-      callback(JSON.parse(msg.body));
+    // Сервер шлёт дельты от версии к версии; при расхождении версий берём полный снимок и доигрываем накопленное
+    let current = null;
+    let pending = null;
+    let active = true;
+    const resync = () => {
+      api.get(`/api/matches/${matchId}`)
+        .then(({ data }) => {
+          if (!active) return;
+          current = data;
+          for (const d of pending || []) {
+            current = applyMatchDelta(current, d) || current;
+          }
+          pending = null;
+          callback(current);
+        })
+        .catch(() => { pending = null; });
+    };
+
+    const sub = client.subscribe(`/user/queue/match/${matchId}`, (msg) => {
+      const delta = JSON.parse(msg.body);
+      if (pending) {
+        pending.push(delta);
+        return;
+      }
+      const next = applyMatchDelta(current, delta);
+      if (!next) {
+        pending = [delta];
+        resync();
+        return;
+      }
+      current = next;
+      callback(current);
     });
     subscriptionsRef.current.set(key, sub);
 
     return () => {
+      active = false;
       sub.unsubscribe();
       subscriptionsRef.current.delete(key);
     };
   }, []);
 
+  // Уведомление о найденном сопернике приходит в ту же очередь, что и ответ на поиск
+  const subscribeToMatchmaking = useCallback((callback) => {
+    const client = clientRef.current;
+    if (!client?.connected) return () => {};
+
+    const sub = client.subscribe('/user/queue/matches', (msg) => callback(JSON.parse(msg.body)));
+    return () => sub.unsubscribe();
+  }, []);
+
+  const cancelSearch = useCallback(() => {
+    const client = clientRef.current;
+    if (client?.connected) {
+      client.publish({ destination: '/app/matches/cancel', body: JSON.stringify({}) });
+      return Promise.resolve();
+    }
+    return api.delete('/api/matches/find');
+  }, []);
+
   const subscribeToErrors = useCallback((callback) => {
     const client = clientRef.current;
     if (!client?.connected) return () => {};
@@ -160,6 +210,8 @@ export function MatchWebSocketProvider({ children }) {
     attack,
     endTurn,
     subscribeToMatch,
+    subscribeToMatchmaking,
+    cancelSearch,
     subscribeToErrors,
   };
 
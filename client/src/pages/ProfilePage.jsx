@@ -23,7 +23,7 @@ export default function ProfilePage() {
   useEffect(() => {
     Promise.all([
       api.get('/api/me/stats').then(({ data }) => data).catch(() => ({ wins: 0, losses: 0, draws: 0, totalMatches: 0 })),
-      api.get('/api/matches').then(({ data }) => data).catch(() => []),
+      api.get('/api/matches/history', { params: { limit: 10 } }).then(({ data }) => data?.items).catch(() => []),
     ]).then(([statsData, matchesData]) => {
       setStats(statsData);
       setMatches(matchesData || []);
@@ -164,11 +164,11 @@ export default function ProfilePage() {
           <div className="profile-matches">
             <h3>Последние матчи</h3>
             <ul className="matches-list">
-              {matches.slice(0, 10).map((m) => (
-                <li key={m.id}>
-                  Матч #{m.id} — {m.status === 'FINISHED' ? (m.winnerId === user?.id ? 'Победа' : m.winnerId ? 'Поражение' : 'Ничья') : m.status}
+              {matches.map((m) => (
+                <li key={m.matchId}>
+                  Матч #{m.matchId}{m.opponentName ? ` против ${m.opponentName}` : ''} — {m.status === 'FINISHED' ? ({ WIN: 'Победа', LOSS: 'Поражение', DRAW: 'Ничья' })[m.result] : m.status}
                   {m.status === 'FINISHED' && (
-                    <Link to={`/replay/${m.id}`} className="btn btn-outline btn-sm match-replay-btn">
+                    <Link to={`/replay/${m.matchId}`} className="btn btn-outline btn-sm match-replay-btn">
                       Реплей
                     </Link>
                   )}
@@ -1,4 +1,4 @@
-import React, { useState, useEffect, useCallback } from 'react';
+import React, { useState, useEffect, useCallback, useRef } from 'react';
 import { Link, useParams } from 'react-router-dom';
 import api from '../api/client';
 import CardDisplay from '../components/CardDisplay';
@@ -9,8 +9,10 @@ export default function ReplayPage() {
   const [steps, setSteps] = useState([]);
   const [allCards, setAllCards] = useState([]);
   const [stepIndex, setStepIndex] = useState(0);
+  const [gs, setGs] = useState(null);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState('');
+  const statesRef = useRef(new Map());
 
   const getCard = useCallback((cardType, cardId) => {
     return allCards.find((c) => c.cardType === cardType && c.id === cardId);
@@ -20,14 +22,23 @@ export default function ReplayPage() {
     if (!matchId) return;
     setLoading(true);
     setError('');
+    statesRef.current = new Map();
+    const loadIndex = async () => {
+      const all = [];
+      for (;;) {
+        const { data } = await api.get(`/api/matches/${matchId}/replay`, { params: { offset: all.length, limit: 500 } });
+        all.push(...(data?.steps || []));
+        if (!data?.steps?.length || all.length >= data.totalSteps) return all;
+      }
+    };
     Promise.all([
       api.get(`/api/matches/${matchId}`),
-      api.get(`/api/matches/${matchId}/replay`),
+      loadIndex(),
       api.get('/api/cards'),
     ])
-      .then(([matchRes, replayRes, cardsRes]) => {
+      .then(([matchRes, index, cardsRes]) => {
         setMatch(matchRes.data);
-        setSteps(replayRes.data || []);
+        setSteps(index);
         setAllCards(cardsRes.data || []);
         setStepIndex(0);
       })
@@ -37,8 +48,27 @@ export default function ReplayPage() {
       .finally(() => setLoading(false));
   }, [matchId]);
 
+  useEffect(() => {
+    if (!matchId || !steps.length) return;
+    const cached = statesRef.current.get(stepIndex);
+    if (cached !== undefined) {
+      setGs(cached);
+      return;
+    }
+    let cancelled = false;
+    api.get(`/api/matches/${matchId}/replay/steps/${stepIndex}`)
+      .then(({ data }) => {
+        const state = data?.gameState || null;
+        statesRef.current.set(stepIndex, state);
+        if (!cancelled) setGs(state);
+      })
+      .catch((e) => {
+        if (!cancelled) setError(e.response?.data?.message || e.message || 'Не удалось загрузить шаг реплея');
+      });
+    return () => { cancelled = true; };
+  }, [matchId, steps, stepIndex]);
+
   const currentStep = steps[stepIndex];
-  const gs = currentStep?.gameState;
 
   if (loading) {
     return (
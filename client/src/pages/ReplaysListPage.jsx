@@ -1,35 +1,36 @@
 import React, { useState, useEffect } from 'react';
 import { Link } from 'react-router-dom';
 import api from '../api/client';
-import { useAuth } from '../context/AuthContext';
+
+const RESULT_TEXT = { WIN: 'Победа', LOSS: 'Поражение', DRAW: 'Ничья' };
+const RESULT_CLASS = { WIN: 'replay-result-win', LOSS: 'replay-result-loss', DRAW: 'replay-result-draw' };
+const MODE_TEXT = { CASUAL: 'Обычный', RANKED: 'Ранговый', PRACTICE: 'Тренировка' };
 
 export default function ReplaysListPage() {
-  const { user } = useAuth();
   const [matches, setMatches] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
   const [loading, setLoading] = useState(true);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [error, setError] = useState('');
 
+  const loadPage = (cursor) => api.get('/api/matches/history', { params: { cursor, limit: 24 } })
+    .then(({ data }) => {
+      setMatches((prev) => (cursor ? prev : []).concat(data?.items || []));
+      setNextCursor(data?.nextCursor || null);
+    })
+    .catch((e) => setError(e.response?.data?.message || e.message || 'Не удалось загрузить реплеи'));
+
   useEffect(() => {
     setError('');
-    api.get('/api/matches')
-      .then(({ data }) => setMatches(data || []))
-      .catch((e) => setError(e.response?.data?.message || e.message || 'Не удалось загрузить реплеи'))
-      .finally(() => setLoading(false));
+    loadPage(null).finally(() => setLoading(false));
   }, []);
 
-  const finishedMatches = matches.filter((m) => m.status === 'FINISHED');
-
-  const getResultText = (m) => {
-    if (m.winnerId === user?.id) return 'Победа';
-    if (m.winnerId === null) return 'Ничья';
-    return 'Поражение';
+  const loadMore = () => {
+    setLoadingMore(true);
+    loadPage(nextCursor).finally(() => setLoadingMore(false));
   };
 
-  const getResultClass = (m) => {
-    if (m.winnerId === user?.id) return 'replay-result-win';
-    if (m.winnerId === null) return 'replay-result-draw';
-    return 'replay-result-loss';
-  };
+  const finishedMatches = matches.filter((m) => m.status === 'FINISHED');
 
   if (loading) {
     return (
@@ -54,18 +55,25 @@ export default function ReplaysListPage() {
         )}
         <div className="replays-grid">
           {finishedMatches.map((m) => (
-            <Link key={m.id} to={`/replay/${m.id}`} className="replay-card">
+            <Link key={m.matchId} to={`/replay/${m.matchId}`} className="replay-card">
               <div className="replay-card-header">
-                <span className="replay-card-id">Матч #{m.id}</span>
-                <span className={`replay-card-result ${getResultClass(m)}`}>{getResultText(m)}</span>
+                <span className="replay-card-id">Матч #{m.matchId}</span>
+                <span className={`replay-card-result ${RESULT_CLASS[m.result] || ''}`}>{RESULT_TEXT[m.result] || ''}</span>
               </div>
               <div className="replay-card-meta">
-                {m.matchMode === 'CASUAL' ? 'Обычный' : 'Ранговый'} • {m.createdAt ? new Date(m.createdAt).toLocaleDateString('ru-RU') : ''}
+                {m.opponentName ? `против ${m.opponentName} • ` : ''}
+                {MODE_TEXT[m.matchMode] || m.matchMode}
+                {m.turnCount ? ` • ходов: ${m.turnCount}` : ''} • {m.createdAt ? new Date(m.createdAt).toLocaleDateString('ru-RU') : ''}
               </div>
               <span className="replay-card-watch">Смотреть реплей →</span>
             </Link>
           ))}
         </div>
+        {nextCursor && (
+          <button onClick={loadMore} className="btn btn-outline" disabled={loadingMore}>
+            {loadingMore ? 'Загрузка...' : 'Показать ещё'}
+          </button>
+        )}
       </div>
     </div>
   );
@@ -0,0 +1,48 @@
+/**
+ * Применяет дельту с /user/queue/match/{id} к последнему известному MatchDto (проекции своего места).
+ * Дельта применима, только если delta.baseVersion совпадает с match.stateVersion.
+ * @returns {object|null} новый MatchDto или null, если нужна полная синхронизация
+ */
+export function applyMatchDelta(match, delta) {
+  if (delta.snapshot) return delta.snapshot;
+  if (!match?.gameState || match.stateVersion !== delta.baseVersion) return null;
+  const gameState = {
+    ...match.gameState,
+    turnNumber: delta.turnNumber ?? match.gameState.turnNumber,
+    currentTurnPlayerId: delta.currentTurnPlayerId ?? match.gameState.currentTurnPlayerId,
+    player1: applyPlayerPatch(match.gameState.player1, delta.player1),
+    player2: applyPlayerPatch(match.gameState.player2, delta.player2),
+  };
+  return {
+    ...match,
+    status: delta.status ?? match.status,
+    winnerId: delta.winnerId ?? null,
+    currentTurnPlayerId: delta.currentTurnPlayerId ?? match.currentTurnPlayerId,
+    turnDeadline: delta.turnDeadline ?? null,
+    stateVersion: delta.version,
+    gameState,
+  };
+}
+
+function applyPlayerPatch(player, patch) {
+  if (!patch || !player) return player;
+  const next = { ...player };
+  for (const key of ['health', 'maxHeroHealth', 'mana', 'maxMana', 'fatigueCounter', 'deckCount', 'handCount']) {
+    if (patch[key] != null) next[key] = patch[key];
+  }
+
+  if (patch.hand) {
+    next.hand = patch.hand;
+  } else if (patch.handRemoved || patch.handAdded) {
+    const removed = new Set(patch.handRemoved || []);
+    next.hand = (player.hand || []).filter((c) => !removed.has(c.instanceId)).concat(patch.handAdded || []);
+  }
+
+  if (patch.boardUpserts || patch.boardOrder) {
+    const byId = new Map((player.board || []).map((m) => [m.instanceId, m]));
+    (patch.boardUpserts || []).forEach((m) => byId.set(m.instanceId, m));
+    const order = patch.boardOrder || (player.board || []).map((m) => m.instanceId);
+    next.board = order.map((id) => byId.get(id)).filter(Boolean);
+  }
+  return next;
+}
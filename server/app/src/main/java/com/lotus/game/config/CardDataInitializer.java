@@ -4,6 +4,7 @@ import com.lotus.game.entity.Minion;
 import com.lotus.game.entity.Spell;
 import com.lotus.game.repository.MinionRepository;
 import com.lotus.game.repository.SpellRepository;
+import com.lotus.game.service.CardRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
@@ -21,6 +22,7 @@ public class CardDataInitializer {
 
     private final MinionRepository minionRepository;
     private final SpellRepository spellRepository;
+    private final CardRegistry cardRegistry;
 
     @EventListener(ApplicationReadyEvent.class)
     public void initCards() {
@@ -74,5 +76,7 @@ public class CardDataInitializer {
                     spellRepository.save(s);
                     log.info("Updated spell '{}' with damage=6", s.getName());
                 });
+
+        cardRegistry.reload();
     }
 }
@@ -0,0 +1,33 @@
+package com.lotus.game.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Считает SQL-операторы Hibernate в текущем потоке между {@link #start()} и {@link #stop()}.
+ * Подключается через spring.jpa.properties.hibernate.session_factory.statement_inspector; вне замера
+ * (фоновые задачи, write-behind) операторы не считаются.
+ */
+public class DbStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    static void start() {
+        COUNT.set(new int[1]);
+    }
+
+    /** @return число операторов с момента {@link #start()} */
+    static int stop() {
+        int[] count = COUNT.get();
+        COUNT.remove();
+        return count != null ? count[0] : 0;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,29 @@
+package com.lotus.game.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Миграция: matches.game_state из text в bytea. Старый JSON сохраняется как UTF-8 байты
+ * и читается {@link GameStateConverter} как fallback; новые записи идут в бинарном формате.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class GameStateBinaryMigration {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void migrate() {
+        try {
+            jdbcTemplate.execute("ALTER TABLE matches ALTER COLUMN game_state TYPE bytea USING convert_to(game_state, 'UTF8')");
+            log.info("Migration: matches.game_state column converted to bytea");
+        } catch (Exception e) {
+            log.debug("Migration game_state bytea: {} (may already be applied)", e.getMessage());
+        }
+    }
+}
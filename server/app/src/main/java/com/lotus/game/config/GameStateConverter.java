@@ -0,0 +1,43 @@
+package com.lotus.game.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lotus.game.engine.GameState;
+import com.lotus.game.engine.GameStateCodec;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.io.IOException;
+
+/**
+ * Пишет GameState в bytea через {@link GameStateCodec}. Старые строки (JSON, сконвертированный
+ * миграцией в UTF-8 байты) по-прежнему читаются.
+ */
+@Converter
+public class GameStateConverter implements AttributeConverter<GameState, byte[]> {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Override
+    public byte[] convertToDatabaseColumn(GameState attribute) {
+        if (attribute == null) return null;
+        return GameStateCodec.encode(attribute);
+    }
+
+    @Override
+    public GameState convertToEntityAttribute(byte[] dbData) {
+        if (dbData == null || dbData.length == 0) return null;
+        if (GameStateCodec.isBinary(dbData)) {
+            return GameStateCodec.decode(dbData);
+        }
+        try {
+            return MAPPER.readValue(dbData, GameState.class);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot deserialize GameState", e);
+        }
+    }
+
+    public static GameState deepCopy(GameState state) {
+        if (state == null) return null;
+        return state.copy();
+    }
+}
@@ -0,0 +1,147 @@
+package com.lotus.game.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lotus.game.service.ClusterNodes;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Режим брокера redis-relay (app.websocket.broker): сообщения в /topic и /user/... из локального брокера
+ * один раз сериализуются и публикуются в Redis-канал broker:relay, остальные узлы отдают их своему
+ * SimpleBroker, который доставляет их подходящим подпискам. Так чат, уведомления и матчи работают
+ * между репликами без sticky-сессий.
+ */
+@Component
+@Slf4j
+public class RedisBrokerRelay implements ChannelInterceptor {
+
+    private static final String CHANNEL = "broker:relay";
+    private static final String RELAYED_HEADER = "lotusRelayedFrom";
+
+    private final boolean enabled;
+    private final ClusterNodes nodes;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisConnectionFactory connectionFactory;
+    private final ObjectMapper objectMapper;
+    private final SimpMessagingTemplate messagingTemplate;
+
+    private RedisMessageListenerContainer container;
+
+    public RedisBrokerRelay(@Value("${app.websocket.broker:simple}") String mode,
+                            ClusterNodes nodes,
+                            StringRedisTemplate redisTemplate,
+                            RedisConnectionFactory connectionFactory,
+                            ObjectMapper objectMapper,
+                            @Lazy SimpMessagingTemplate messagingTemplate) {
+        this.enabled = "redis-relay".equalsIgnoreCase(mode);
+        this.nodes = nodes;
+        this.redisTemplate = redisTemplate;
+        this.connectionFactory = connectionFactory;
+        this.objectMapper = objectMapper;
+        this.messagingTemplate = messagingTemplate;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) return;
+        container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener((message, pattern) -> onRelayed(message.getBody()), new ChannelTopic(CHANNEL));
+        container.afterPropertiesSet();
+        container.start();
+        log.info("WebSocket broker relay over Redis enabled on node {}", nodes.nodeId());
+    }
+
+    @PreDestroy
+    void stop() throws Exception {
+        if (container != null) {
+            container.stop();
+            container.destroy();
+        }
+    }
+
+    /** Перехватчик brokerChannel: локальная доставка идёт как обычно, копия уходит другим узлам. */
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        if (enabled && shouldRelay(message)) {
+            publish(message);
+        }
+        return message;
+    }
+
+    /**
+     * Пересылаются только исходные публикации: не пришедшие с другого узла, не разрешённые уже в
+     * конкретную сессию (simpOrigDestination) и не ответы в одну сессию (@SendToUser broadcast=false).
+     */
+    private static boolean shouldRelay(Message<?> message) {
+        MessageHeaders headers = message.getHeaders();
+        if (SimpMessageHeaderAccessor.getMessageType(headers) != SimpMessageType.MESSAGE
+                || headers.containsKey(RELAYED_HEADER)
+                || headers.containsKey(SimpMessageHeaderAccessor.ORIGINAL_DESTINATION)
+                || SimpMessageHeaderAccessor.getSessionId(headers) != null
+                || !(message.getPayload() instanceof byte[])) {
+            return false;
+        }
+        String destination = SimpMessageHeaderAccessor.getDestination(headers);
+        return destination != null && (destination.startsWith("/topic/") || destination.startsWith("/user/"));
+    }
+
+    private void publish(Message<?> message) {
+        Object contentType = message.getHeaders().get(MessageHeaders.CONTENT_TYPE);
+        RelayedMessage relayed = new RelayedMessage(
+                nodes.nodeId(),
+                SimpMessageHeaderAccessor.getDestination(message.getHeaders()),
+                contentType != null ? contentType.toString() : null,
+                (byte[]) message.getPayload());
+        try {
+            redisTemplate.convertAndSend(CHANNEL, objectMapper.writeValueAsString(relayed));
+        } catch (Exception e) {
+            log.warn("Broker relay publish to {} failed: {}", relayed.destination(), e.getMessage());
+        }
+    }
+
+    private void onRelayed(byte[] body) {
+        RelayedMessage relayed;
+        try {
+            relayed = objectMapper.readValue(new String(body, StandardCharsets.UTF_8), RelayedMessage.class);
+        } catch (Exception e) {
+            log.warn("Dropping malformed relayed message: {}", e.getMessage());
+            return;
+        }
+        if (nodes.nodeId().equals(relayed.origin())) return;
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(relayed.destination());
+        if (relayed.contentType() != null) {
+            accessor.setContentType(MimeType.valueOf(relayed.contentType()));
+        }
+        accessor.setHeader(RELAYED_HEADER, relayed.origin());
+        messagingTemplate.send(relayed.destination(),
+                MessageBuilder.createMessage(relayed.payload(), accessor.getMessageHeaders()));
+    }
+
+    private record RelayedMessage(String origin, String destination, String contentType, byte[] payload) {
+    }
+}
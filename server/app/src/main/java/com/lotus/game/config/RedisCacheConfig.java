@@ -4,13 +4,20 @@ import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CachingConfigurer;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.interceptor.CacheErrorHandler;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.data.redis.cache.CacheStatistics;
+import org.springframework.data.redis.cache.RedisCache;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
@@ -18,6 +25,7 @@ import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSeriali
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 
 import java.time.Duration;
+import java.util.List;
 import java.util.Map;
 
 @Configuration
@@ -29,7 +37,12 @@ public class RedisCacheConfig implements CachingConfigurer {
     public static final String CACHE_GAME_SOUNDS = "gameSounds";
     public static final String CACHE_MATCHES = "matches";
 
+    /**
+     * Только при spring.cache.type=redis; при другом типе (simple в профиле loadtest) кэш-менеджер
+     * создаёт автоконфигурация Spring Boot, и к Redis никто не обращается.
+     */
     @Bean
+    @ConditionalOnProperty(name = "spring.cache.type", havingValue = "redis", matchIfMissing = true)
     public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
         ObjectMapper mapper = new ObjectMapper();
         mapper.registerModule(new JavaTimeModule());
@@ -56,9 +69,39 @@ public class RedisCacheConfig implements CachingConfigurer {
                 .cacheDefaults(defaultConfig)
                 .withInitialCacheConfigurations(cacheConfigurations)
                 .transactionAware()
+                .enableStatistics()
                 .build();
     }
 
+    /**
+     * Доля попаданий с момента старта (lotus.cache.hit.ratio). Счётчики cache.gets с result=hit/miss
+     * по тем же кэшам регистрирует actuator — по ним считается доля за окно.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "spring.cache.type", havingValue = "redis", matchIfMissing = true)
+    public MeterBinder cacheHitRatioMetrics(CacheManager cacheManager) {
+        return registry -> {
+            for (String name : List.of(CACHE_CARDS, CACHE_GAME_SOUNDS, CACHE_MATCHES)) {
+                Gauge.builder("lotus.cache.hit.ratio", cacheManager, cm -> hitRatio(cm.getCache(name)))
+                        .description("Доля попаданий в кэш")
+                        .tag("cache", name)
+                        .register(registry);
+            }
+        };
+    }
+
+    private static double hitRatio(Cache cache) {
+        if (cache instanceof TransactionAwareCacheDecorator decorator) {
+            cache = decorator.getTargetCache();
+        }
+        if (!(cache instanceof RedisCache redisCache)) {
+            return Double.NaN;
+        }
+        CacheStatistics stats = redisCache.getStatistics();
+        long lookups = stats.getHits() + stats.getMisses();
+        return lookups == 0 ? Double.NaN : (double) stats.getHits() / lookups;
+    }
+
     /**
      * При ошибке Redis (таймаут, сериализация) — логируем и продолжаем без кэша,
      * чтобы запросы не падали с network error.
@@ -2,41 +2,32 @@ package com.lotus.game.config;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.lotus.game.dto.game.GameState;
+import com.lotus.game.dto.game.ReplayPayload;
 import jakarta.persistence.AttributeConverter;
 import jakarta.persistence.Converter;
 
 @Converter
-public class GameStateConverter implements AttributeConverter<GameState, String> {
+public class ReplayPayloadConverter implements AttributeConverter<ReplayPayload, String> {
 
     private static final ObjectMapper MAPPER = new ObjectMapper();
 
     @Override
-    public String convertToDatabaseColumn(GameState attribute) {
+    public String convertToDatabaseColumn(ReplayPayload attribute) {
         if (attribute == null) return null;
         try {
             return MAPPER.writeValueAsString(attribute);
         } catch (JsonProcessingException e) {
-            throw new IllegalArgumentException("Cannot serialize GameState", e);
+            throw new IllegalArgumentException("Cannot serialize replay payload", e);
         }
     }
 
     @Override
-    public GameState convertToEntityAttribute(String dbData) {
+    public ReplayPayload convertToEntityAttribute(String dbData) {
         if (dbData == null || dbData.isBlank()) return null;
         try {
-            return MAPPER.readValue(dbData, GameState.class);
+            return MAPPER.readValue(dbData, ReplayPayload.class);
         } catch (JsonProcessingException e) {
-            throw new IllegalArgumentException("Cannot deserialize GameState", e);
-        }
-    }
-
-    public static GameState deepCopy(GameState state) {
-        if (state == null) return null;
-        try {
-            return MAPPER.readValue(MAPPER.writeValueAsString(state), GameState.class);
-        } catch (JsonProcessingException e) {
-            throw new IllegalArgumentException("Cannot copy GameState", e);
+            throw new IllegalArgumentException("Cannot deserialize replay payload", e);
         }
     }
 }
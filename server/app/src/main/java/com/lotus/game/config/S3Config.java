@@ -1,6 +1,6 @@
 package com.lotus.game.config;
 
-import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
@@ -13,8 +13,9 @@ import java.net.URI;
 @Configuration
 public class S3Config {
 
+    /** Пустой yandex.storage.access-key (как в профиле loadtest) отключает S3 вместе с загрузкой картинок. */
     @Bean
-    @ConditionalOnProperty(name = "yandex.storage.access-key", matchIfMissing = false)
+    @ConditionalOnExpression("!'${yandex.storage.access-key:}'.isBlank()")
     public S3Client s3Client(YandexStorageProperties props) {
         return S3Client.builder()
                 .endpointOverride(URI.create(props.getEndpoint()))
@@ -3,6 +3,7 @@ package com.lotus.game.config;
 import com.lotus.game.security.JwtAuthFilter;
 import com.lotus.game.security.UserDetailsServiceImpl;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpStatus;
@@ -23,6 +24,7 @@ import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 
 @Configuration
 @EnableWebSecurity
@@ -34,6 +36,12 @@ public class SecurityConfig {
     private final UserDetailsServiceImpl userDetailsService;
     private final OAuth2LoginSuccessHandler oauth2LoginSuccessHandler;
 
+    @Value("${server.port:8080}")
+    private int serverPort;
+
+    @Value("${management.server.port:-1}")
+    private int managementPort;
+
     private static final String[] AUTH_WHITELIST = {
             "/api/auth/register",
             "/api/auth/verify-email",
@@ -65,6 +73,7 @@ public class SecurityConfig {
                 .sessionManagement(s -> s.sessionCreationPolicy(SessionCreationPolicy.IF_REQUIRED))
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(AUTH_WHITELIST).permitAll()
+                        .requestMatchers(managementPortRequests()).permitAll()
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
                         .anyRequest().authenticated()
                 )
@@ -88,6 +97,14 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * Actuator (метрики Prometheus) слушает отдельный management.server.port, который наружу не публикуется,
+     * поэтому запросы на него пропускаются без токена. Если порт не вынесен, actuator закрыт авторизацией.
+     */
+    private RequestMatcher managementPortRequests() {
+        return request -> managementPort > 0 && managementPort != serverPort && request.getLocalPort() == managementPort;
+    }
+
     @Bean
     public AuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
@@ -16,14 +16,22 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     private final WebSocketAuthInterceptor webSocketAuthInterceptor;
+    private final RedisBrokerRelay brokerRelay;
 
     @Value("${app.frontend.url:http://localhost:5173}")
     private String allowedOrigin;
 
+    /**
+     * Подписки обслуживает SimpleBroker в JVM; в режиме app.websocket.broker=redis-relay публикации
+     * дополнительно расходятся по остальным узлам через {@link RedisBrokerRelay}.
+     */
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         config.enableSimpleBroker("/topic", "/queue");
         config.setApplicationDestinationPrefixes("/app");
+        if (brokerRelay.isEnabled()) {
+            config.configureBrokerChannel().interceptors(brokerRelay);
+        }
     }
 
     @Override
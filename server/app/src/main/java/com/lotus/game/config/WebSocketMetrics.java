@@ -0,0 +1,46 @@
+package com.lotus.game.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.messaging.SubProtocolWebSocketHandler;
+
+import java.util.function.ToIntFunction;
+
+/**
+ * Открытые STOMP-сессии узла (lotus.websocket.sessions) по транспорту SockJS: websocket, http-streaming,
+ * http-polling. Счётчики берутся из SubProtocolWebSocketHandler при каждом съёме метрик.
+ */
+@Component
+public class WebSocketMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final ObjectProvider<WebSocketHandler> handler;
+
+    public WebSocketMetrics(MeterRegistry meterRegistry,
+                            @Qualifier("subProtocolWebSocketHandler") ObjectProvider<WebSocketHandler> handler) {
+        this.meterRegistry = meterRegistry;
+        this.handler = handler;
+    }
+
+    @PostConstruct
+    void registerGauges() {
+        register("websocket", SubProtocolWebSocketHandler.Stats::getWebSocketSessions);
+        register("http-streaming", SubProtocolWebSocketHandler.Stats::getHttpStreamingSessions);
+        register("http-polling", SubProtocolWebSocketHandler.Stats::getHttpPollingSessions);
+    }
+
+    private void register(String transport, ToIntFunction<SubProtocolWebSocketHandler.Stats> value) {
+        Gauge.builder("lotus.websocket.sessions", handler, h -> {
+                    WebSocketHandler current = h.getIfAvailable();
+                    return current instanceof SubProtocolWebSocketHandler sub ? value.applyAsInt(sub.getStats()) : 0;
+                })
+                .description("Открытые WebSocket/SockJS-сессии")
+                .tag("transport", transport)
+                .register(meterRegistry);
+    }
+}
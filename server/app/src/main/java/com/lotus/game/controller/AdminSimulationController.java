@@ -0,0 +1,28 @@
+package com.lotus.game.controller;
+
+import com.lotus.game.dto.game.SimulationRequest;
+import com.lotus.game.engine.sim.SimulationReport;
+import com.lotus.game.service.BalanceSimulationService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin/simulations")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminSimulationController {
+
+    private final BalanceSimulationService simulationService;
+
+    /** Самоигра бот против бота для двух колод: доли побед, средняя длина партии, влияние карт, games/s. */
+    @PostMapping
+    public ResponseEntity<SimulationReport> simulate(@Valid @RequestBody SimulationRequest request) {
+        return ResponseEntity.ok(simulationService.simulate(request));
+    }
+}
@@ -1,6 +1,7 @@
 package com.lotus.game.controller;
 
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -37,6 +38,20 @@ public class GlobalExceptionHandler {
                         .build());
     }
 
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorBody> handleConflict(OptimisticLockingFailureException ex, HttpServletRequest req) {
+        log.warning("Conflict [" + req.getRequestURI() + "]: " + ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(ErrorBody.builder()
+                        .timestamp(Instant.now().toString())
+                        .status(HttpStatus.CONFLICT.value())
+                        .error("Конфликт")
+                        .message("Данные изменились параллельно, повторите действие")
+                        .path(req.getRequestURI())
+                        .build());
+    }
+
     @ExceptionHandler({MissingServletRequestPartException.class, MultipartException.class})
     public ResponseEntity<ErrorBody> handleMultipart(Exception ex, HttpServletRequest req) {
         String msg = ex instanceof MissingServletRequestPartException m
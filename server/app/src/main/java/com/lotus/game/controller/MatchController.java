@@ -0,0 +1,115 @@
+package com.lotus.game.controller;
+
+import com.lotus.game.dto.game.*;
+import com.lotus.game.entity.Match;
+import com.lotus.game.security.GameUserDetails;
+import com.lotus.game.service.MatchCommandRouter;
+import com.lotus.game.service.MatchService;
+import com.lotus.game.service.MatchmakingService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/matches")
+@RequiredArgsConstructor
+public class MatchController {
+
+    private final MatchService matchService;
+    private final MatchCommandRouter matchRouter;
+    private final MatchmakingService matchmakingService;
+
+    @PostMapping("/find")
+    public ResponseEntity<MatchDto> findOrCreateMatch(@RequestParam Long deckId,
+                                                       @RequestParam(defaultValue = "RANKED") String mode,
+                                                       @RequestParam String heroId,
+                                                       @AuthenticationPrincipal GameUserDetails user) {
+        if (user == null) return ResponseEntity.status(401).build();
+        Match.MatchMode matchMode = "CASUAL".equalsIgnoreCase(mode) ? Match.MatchMode.CASUAL : Match.MatchMode.RANKED;
+        return ResponseEntity.ok(matchmakingService.findMatch(user.getId(), deckId, matchMode, heroId));
+    }
+
+    /** Тренировочный матч против серверного бота. */
+    @PostMapping("/practice")
+    public ResponseEntity<MatchDto> startPractice(@RequestParam Long deckId,
+                                                  @RequestParam String heroId,
+                                                  @AuthenticationPrincipal GameUserDetails user) {
+        if (user == null) return ResponseEntity.status(401).build();
+        return ResponseEntity.ok(matchmakingService.startPractice(user.getId(), deckId, heroId));
+    }
+
+    @DeleteMapping("/find")
+    public ResponseEntity<Void> cancelSearch(@AuthenticationPrincipal GameUserDetails user) {
+        if (user == null) return ResponseEntity.status(401).build();
+        matchmakingService.cancel(user.getId());
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<MatchDto> getMatch(@PathVariable Long id, @AuthenticationPrincipal GameUserDetails user) {
+        if (user == null) return ResponseEntity.status(401).build();
+        return ResponseEntity.ok(matchRouter.getMatch(id, user.getId()));
+    }
+
+    @GetMapping("/{id}/replay")
+    public ResponseEntity<ReplayPageDto> getReplay(@PathVariable Long id,
+                                                   @RequestParam(defaultValue = "0") int offset,
+                                                   @RequestParam(defaultValue = "100") int limit,
+                                                   @AuthenticationPrincipal GameUserDetails user) {
+        if (user == null) return ResponseEntity.status(401).build();
+        return ResponseEntity.ok(matchService.getReplayPage(id, user.getId(), offset, limit));
+    }
+
+    @GetMapping("/{id}/replay/steps/{step}")
+    public ResponseEntity<ReplayStepDto> getReplayStep(@PathVariable Long id, @PathVariable int step,
+                                                       @AuthenticationPrincipal GameUserDetails user) {
+        if (user == null) return ResponseEntity.status(401).build();
+        return ResponseEntity.ok(matchService.getReplayStep(id, user.getId(), step));
+    }
+
+    /** История матчей постранично; state матчей не отдаётся (см. GET /api/matches/{id}). */
+    @GetMapping("/history")
+    public ResponseEntity<MatchHistoryPageDto> getHistory(@RequestParam(required = false) String cursor,
+                                                          @RequestParam(defaultValue = "20") int limit,
+                                                          @AuthenticationPrincipal GameUserDetails user) {
+        if (user == null) return ResponseEntity.status(401).build();
+        return ResponseEntity.ok(matchService.getHistory(user.getId(), cursor, limit));
+    }
+
+    /**
+     * Все матчи игрока одним списком; состояние — только у идущих.
+     * @deprecated используйте GET /api/matches/history
+     */
+    @Deprecated
+    @GetMapping
+    public ResponseEntity<List<MatchDto>> getMyMatches(@AuthenticationPrincipal GameUserDetails user) {
+        if (user == null) return ResponseEntity.status(401).build();
+        return ResponseEntity.ok(matchRouter.getMyMatches(user.getId()));
+    }
+
+    @PostMapping("/{id}/play")
+    public ResponseEntity<MatchDto> playCard(@PathVariable Long id,
+                                           @Valid @RequestBody PlayCardRequest request,
+                                           @AuthenticationPrincipal GameUserDetails user) {
+        if (user == null) return ResponseEntity.status(401).build();
+        return ResponseEntity.ok(matchRouter.playCard(id, user.getId(), request));
+    }
+
+    @PostMapping("/{id}/attack")
+    public ResponseEntity<MatchDto> attack(@PathVariable Long id,
+                                         @Valid @RequestBody AttackRequest request,
+                                         @AuthenticationPrincipal GameUserDetails user) {
+        if (user == null) return ResponseEntity.status(401).build();
+        return ResponseEntity.ok(matchRouter.attack(id, user.getId(), request));
+    }
+
+    @PostMapping("/{id}/end-turn")
+    public ResponseEntity<MatchDto> endTurn(@PathVariable Long id, @AuthenticationPrincipal GameUserDetails user) {
+        if (user == null) return ResponseEntity.status(401).build();
+        return ResponseEntity.ok(matchRouter.endTurn(id, user.getId()));
+    }
+}
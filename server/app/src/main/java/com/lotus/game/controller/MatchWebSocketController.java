@@ -3,7 +3,9 @@ package com.lotus.game.controller;
 import com.lotus.game.dto.game.*;
 import com.lotus.game.entity.Match;
 import com.lotus.game.security.GameUserDetails;
+import com.lotus.game.service.MatchCommandRouter;
 import com.lotus.game.service.MatchService;
+import com.lotus.game.service.MatchmakingService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.handler.annotation.MessageExceptionHandler;
@@ -21,13 +23,28 @@ import java.util.Map;
 public class MatchWebSocketController {
 
     private final MatchService matchService;
+    private final MatchCommandRouter matchRouter;
+    private final MatchmakingService matchmakingService;
 
     @MessageMapping("/matches/find")
     @SendToUser(destinations = "/queue/matches", broadcast = false)
     public MatchDto findMatch(@Payload FindMatchWsRequest request, Principal principal) {
         GameUserDetails user = (GameUserDetails) ((org.springframework.security.authentication.UsernamePasswordAuthenticationToken) principal).getPrincipal();
         Match.MatchMode mode = "CASUAL".equalsIgnoreCase(request.getMode()) ? Match.MatchMode.CASUAL : Match.MatchMode.RANKED;
-        return matchService.findOrCreateMatch(user.getId(), request.getDeckId(), mode, request.getHeroId());
+        return matchmakingService.findMatch(user.getId(), request.getDeckId(), mode, request.getHeroId());
+    }
+
+    @MessageMapping("/matches/practice")
+    @SendToUser(destinations = "/queue/matches", broadcast = false)
+    public MatchDto startPractice(@Payload FindMatchWsRequest request, Principal principal) {
+        GameUserDetails user = (GameUserDetails) ((org.springframework.security.authentication.UsernamePasswordAuthenticationToken) principal).getPrincipal();
+        return matchmakingService.startPractice(user.getId(), request.getDeckId(), request.getHeroId());
+    }
+
+    @MessageMapping("/matches/cancel")
+    public void cancelSearch(Principal principal) {
+        GameUserDetails user = (GameUserDetails) ((org.springframework.security.authentication.UsernamePasswordAuthenticationToken) principal).getPrincipal();
+        matchmakingService.cancel(user.getId());
     }
 
     @MessageMapping("/matches/{matchId}/play")
@@ -39,7 +56,7 @@ public class MatchWebSocketController {
         req.setInstanceId((String) payload.get("instanceId"));
         req.setTargetPosition(payload.get("targetPosition") != null ? ((Number) payload.get("targetPosition")).intValue() : null);
         req.setTargetInstanceId((String) payload.get("targetInstanceId"));
-        matchService.playCard(matchId, user.getId(), req);
+        matchRouter.playCard(matchId, user.getId(), req);
     }
 
     @MessageMapping("/matches/{matchId}/attack")
@@ -50,14 +67,14 @@ public class MatchWebSocketController {
         AttackRequest req = new AttackRequest();
         req.setAttackerInstanceId((String) payload.get("attackerInstanceId"));
         req.setTargetInstanceId((String) payload.get("targetInstanceId"));
-        matchService.attack(matchId, user.getId(), req);
+        matchRouter.attack(matchId, user.getId(), req);
     }
 
     @MessageMapping("/matches/{matchId}/end-turn")
     public void endTurn(@org.springframework.messaging.handler.annotation.DestinationVariable Long matchId,
                         Principal principal) {
         GameUserDetails user = (GameUserDetails) ((org.springframework.security.authentication.UsernamePasswordAuthenticationToken) principal).getPrincipal();
-        matchService.endTurn(matchId, user.getId());
+        matchRouter.endTurn(matchId, user.getId());
     }
 
     @MessageMapping("/matches/{matchId}/get")
@@ -65,7 +82,7 @@ public class MatchWebSocketController {
     public MatchDto getMatch(@org.springframework.messaging.handler.annotation.DestinationVariable Long matchId,
                              Principal principal) {
         GameUserDetails user = (GameUserDetails) ((org.springframework.security.authentication.UsernamePasswordAuthenticationToken) principal).getPrincipal();
-        return matchService.getMatch(matchId, user.getId());
+        return matchRouter.getMatch(matchId, user.getId());
     }
 
     @MessageExceptionHandler
@@ -2,8 +2,9 @@ package com.lotus.game.controller;
 
 import com.lotus.game.dto.user.UpdateProfileRequest;
 import com.lotus.game.entity.User;
-import com.lotus.game.repository.MatchRepository;
+import com.lotus.game.entity.UserStats;
 import com.lotus.game.service.RatingService;
+import com.lotus.game.service.UserStatsService;
 import com.lotus.game.repository.UserRepository;
 import com.lotus.game.security.GameUserDetails;
 import jakarta.validation.Valid;
@@ -13,6 +14,7 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.stream.Collectors;
 
@@ -22,7 +24,7 @@ import java.util.stream.Collectors;
 public class MeController {
 
     private final UserRepository userRepository;
-    private final MatchRepository matchRepository;
+    private final UserStatsService userStatsService;
 
     @GetMapping
     public ResponseEntity<Map<String, Object>> me(@AuthenticationPrincipal GameUserDetails user) {
@@ -53,19 +55,42 @@ public class MeController {
         User dbUser = userRepository.findById(userId).orElse(null);
         int rating = dbUser != null ? dbUser.getRating() : 1000;
         String rank = RatingService.getRankName(rating);
-        long wins = matchRepository.countWins(userId);
-        long draws = matchRepository.countDraws(userId);
-        long losses = matchRepository.countLosses(userId);
+        UserStats totals = userStatsService.totals(userId).orElseGet(UserStats::new);
         Map<String, Object> stats = new HashMap<>();
-        stats.put("wins", wins);
-        stats.put("losses", losses);
-        stats.put("draws", draws);
-        stats.put("totalMatches", wins + draws + losses);
+        stats.put("wins", totals.getWins());
+        stats.put("losses", totals.getLosses());
+        stats.put("draws", totals.getDraws());
+        stats.put("totalMatches", totals.getTotal());
         stats.put("rating", rating);
         stats.put("rank", rank);
         return ResponseEntity.ok(stats);
     }
 
+    /** Победы, поражения и ничьи по режимам и по героям. */
+    @GetMapping("/stats/breakdown")
+    public ResponseEntity<Map<String, Object>> statsBreakdown(@AuthenticationPrincipal GameUserDetails user) {
+        if (user == null) {
+            return ResponseEntity.status(401).build();
+        }
+        Map<String, Object> byMode = new LinkedHashMap<>();
+        Map<String, Object> byHero = new LinkedHashMap<>();
+        for (UserStats s : userStatsService.breakdown(user.getId())) {
+            if (s.getScope().startsWith(UserStats.MODE_PREFIX)) {
+                byMode.put(s.getScope().substring(UserStats.MODE_PREFIX.length()), counters(s));
+            } else if (s.getScope().startsWith(UserStats.HERO_PREFIX)) {
+                byHero.put(s.getScope().substring(UserStats.HERO_PREFIX.length()), counters(s));
+            }
+        }
+        Map<String, Object> body = new HashMap<>();
+        body.put("byMode", byMode);
+        body.put("byHero", byHero);
+        return ResponseEntity.ok(body);
+    }
+
+    private static Map<String, Object> counters(UserStats s) {
+        return Map.of("wins", s.getWins(), "losses", s.getLosses(), "draws", s.getDraws(), "totalMatches", s.getTotal());
+    }
+
     @PutMapping
     public ResponseEntity<Map<String, Object>> updateProfile(
             @AuthenticationPrincipal GameUserDetails userDetails,
@@ -0,0 +1,42 @@
+package com.lotus.game.dto.cluster;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.lotus.game.dto.game.MatchDto;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Сообщение между узлами кластера (канал узла в Redis pub/sub):
+ * COMMAND — команда матча для владельца, REPLY — ответ на неё, DELIVER — сообщение в user-destination,
+ * CARDS_CHANGED — карты изменены в админке, узел перестраивает снимок определений (см. CardRegistry).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ClusterEnvelope {
+
+    private Kind kind;
+    private String requestId;
+    private String replyTo;
+
+    private MatchCommand command;
+    private MatchDto result;
+    private String error;
+    private String errorType;
+
+    private String username;
+    private String destination;
+    /** Уже сериализованное тело сообщения: узел-получатель отдаёт его подписчикам без повторной сериализации. */
+    private byte[] payload;
+
+    public enum Kind {
+        COMMAND,
+        REPLY,
+        DELIVER,
+        CARDS_CHANGED
+    }
+}
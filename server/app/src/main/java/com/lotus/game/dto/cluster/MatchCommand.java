@@ -0,0 +1,31 @@
+package com.lotus.game.dto.cluster;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.lotus.game.dto.game.AttackRequest;
+import com.lotus.game.dto.game.PlayCardRequest;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Команда над матчем, пересылаемая узлу-владельцу матча. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MatchCommand {
+
+    private Type type;
+    private Long matchId;
+    private Long userId;
+    private PlayCardRequest play;
+    private AttackRequest attack;
+
+    public enum Type {
+        GET,
+        PLAY,
+        ATTACK,
+        END_TURN
+    }
+}
@@ -0,0 +1,72 @@
+package com.lotus.game.dto.game;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.lotus.game.engine.GameState;
+import com.lotus.game.entity.Match;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Обновление матча для /user/queue/match/{id}: изменения проекции игрока относительно версии baseVersion.
+ * Первое сообщение матча (или после потери базы на сервере) несёт полный snapshot.
+ * Клиент, у которого версия не совпадает с baseVersion, запрашивает полный снимок через GET /api/matches/{id}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MatchDeltaDto {
+
+    private Long matchId;
+    private long version;
+    private long baseVersion;
+    /** Полное состояние вместо изменений */
+    private MatchDto snapshot;
+
+    private Match.MatchStatus status;
+    private Long winnerId;
+    private Long currentTurnPlayerId;
+    private Integer turnNumber;
+    private String turnDeadline;
+    private PlayerPatch player1;
+    private PlayerPatch player2;
+
+    /**
+     * Изменения одного игрока. Рука (только своя): сначала удаляются handRemoved, затем в конец добавляются handAdded
+     * (или hand целиком, если порядок изменился иначе). Стол: boardUpserts — новые и изменённые миньоны,
+     * boardOrder — порядок id, если состав или порядок изменились.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class PlayerPatch {
+        private Integer health;
+        private Integer maxHeroHealth;
+        private Integer mana;
+        private Integer maxMana;
+        private Integer fatigueCounter;
+        private Integer deckCount;
+        private Integer handCount;
+        private List<String> handRemoved;
+        private List<GameState.CardInHand> handAdded;
+        private List<GameState.CardInHand> hand;
+        private List<GameState.BoardMinion> boardUpserts;
+        private List<String> boardOrder;
+
+        @JsonIgnore
+        public boolean isEmpty() {
+            return health == null && maxHeroHealth == null && mana == null && maxMana == null
+                    && fatigueCounter == null && deckCount == null && handCount == null
+                    && handRemoved == null && handAdded == null && hand == null
+                    && boardUpserts == null && boardOrder == null;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.lotus.game.dto.game;
+
+import com.lotus.game.engine.GameState;
+import com.lotus.game.entity.Match;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MatchDto {
+
+    private Long id;
+    private Long player1Id;
+    private Long player2Id;
+    private Long deck1Id;
+    private Long deck2Id;
+    private String hero1Id;
+    private String hero2Id;
+    private Match.MatchMode matchMode;
+    private Match.MatchStatus status;
+    private Long winnerId;
+    private Long currentTurnPlayerId;
+    private String createdAt;
+    /** Когда ход будет завершён сервером, если игрок не закончит его сам */
+    private String turnDeadline;
+    /** Проекция для конкретного игрока (см. {@link MatchStateView}) */
+    private MatchStateView gameState;
+    /** Версия состояния для дельт своего места на /user/queue/match/{id} */
+    private long stateVersion;
+
+    /**
+     * @param viewerId игрок, для которого строится проекция состояния
+     */
+    public static MatchDto from(Match match, Long viewerId) {
+        return MatchDto.builder()
+                .id(match.getId())
+                .player1Id(match.getPlayer1Id())
+                .player2Id(match.getPlayer2Id())
+                .deck1Id(match.getDeck1Id())
+                .deck2Id(match.getDeck2Id())
+                .hero1Id(match.getHero1Id())
+                .hero2Id(match.getHero2Id())
+                .matchMode(match.getMatchMode())
+                .status(match.getStatus())
+                .winnerId(match.getWinnerId())
+                .currentTurnPlayerId(match.getCurrentTurnPlayerId())
+                .createdAt(match.getCreatedAt() != null ? match.getCreatedAt().toString() : null)
+                .turnDeadline(match.getTurnDeadline() != null ? match.getTurnDeadline().toString() : null)
+                .gameState(MatchStateView.of(match.getGameState(), seatOf(match, viewerId)))
+                .stateVersion(match.getStateVersion())
+                .build();
+    }
+
+    public static int seatOf(Match match, Long userId) {
+        if (userId == null) return 0;
+        if (userId.equals(match.getPlayer1Id())) return 1;
+        if (userId.equals(match.getPlayer2Id())) return 2;
+        return 0;
+    }
+}
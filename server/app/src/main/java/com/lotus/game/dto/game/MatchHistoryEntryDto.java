@@ -0,0 +1,36 @@
+package com.lotus.game.dto.game;
+
+import com.lotus.game.entity.Match;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Матч в истории игрока — с его стороны: свой герой, соперник, результат. Без состояния партии.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MatchHistoryEntryDto {
+
+    public enum Result {
+        WIN,
+        LOSS,
+        DRAW
+    }
+
+    private Long matchId;
+    private Match.MatchMode matchMode;
+    private Match.MatchStatus status;
+    /** null, пока матч не завершён */
+    private Result result;
+    private String heroId;
+    private Long opponentId;
+    private String opponentName;
+    private String opponentHeroId;
+    /** Номер последнего хода; у старых матчей заполняется MatchTurnCountBackfill, null — если состояние не сохранилось */
+    private Integer turnCount;
+    private String createdAt;
+}
@@ -0,0 +1,21 @@
+package com.lotus.game.dto.game;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Страница истории матчей, от новых к старым. nextCursor передаётся в следующий запрос как cursor;
+ * null — страниц больше нет.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MatchHistoryPageDto {
+    private List<MatchHistoryEntryDto> items;
+    private String nextCursor;
+}
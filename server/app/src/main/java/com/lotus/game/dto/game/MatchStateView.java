@@ -0,0 +1,78 @@
+package com.lotus.game.dto.game;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.lotus.game.engine.GameState;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Состояние матча глазами одного игрока: своя рука, у соперника — только число карт в руке;
+ * колоды обоих — только количеством (порядок колоды не раскрывается).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MatchStateView {
+
+    private PlayerView player1;
+    private PlayerView player2;
+    private int turnNumber;
+    private Long currentTurnPlayerId;
+
+    /**
+     * @param viewerSeat 1 или 2 — чья рука видна; 0 — ничья
+     */
+    public static MatchStateView of(GameState state, int viewerSeat) {
+        if (state == null) return null;
+        return MatchStateView.builder()
+                .player1(PlayerView.of(state.getPlayer1(), viewerSeat == 1))
+                .player2(PlayerView.of(state.getPlayer2(), viewerSeat == 2))
+                .turnNumber(state.getTurnNumber())
+                .currentTurnPlayerId(state.getCurrentTurnPlayerId())
+                .build();
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class PlayerView {
+        private String heroId;
+        private String heroName;
+        private String portraitUrl;
+        private Integer maxHeroHealth;
+        private int health;
+        private int mana;
+        private int maxMana;
+        private int fatigueCounter;
+        private int deckCount;
+        private int handCount;
+        /** Только для своего места */
+        private List<GameState.CardInHand> hand;
+        private List<GameState.BoardMinion> board;
+
+        public static PlayerView of(GameState.PlayerState p, boolean own) {
+            if (p == null) return null;
+            return PlayerView.builder()
+                    .heroId(p.getHeroId())
+                    .heroName(p.getHeroName())
+                    .portraitUrl(p.getPortraitUrl())
+                    .maxHeroHealth(p.getMaxHeroHealth())
+                    .health(p.getHealth())
+                    .mana(p.getMana())
+                    .maxMana(p.getMaxMana())
+                    .fatigueCounter(p.getFatigueCounter())
+                    .deckCount(p.getDeck() != null ? p.getDeck().size() : 0)
+                    .handCount(p.getHand() != null ? p.getHand().size() : 0)
+                    .hand(own && p.getHand() != null ? p.getHand().stream().map(GameState.CardInHand::copy).toList() : null)
+                    .board(p.getBoard() != null ? p.getBoard().stream().map(GameState.BoardMinion::copy).toList() : List.of())
+                    .build();
+        }
+    }
+}
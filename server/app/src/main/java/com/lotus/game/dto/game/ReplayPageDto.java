@@ -0,0 +1,22 @@
+package com.lotus.game.dto.game;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Страница индекса реплея: шаги без состояния. Состояние конкретного шага запрашивается отдельно.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReplayPageDto {
+    private Long matchId;
+    private int totalSteps;
+    private int offset;
+    private List<ReplayStepDto> steps;
+}
@@ -0,0 +1,26 @@
+package com.lotus.game.dto.game;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Входные данные действия и записанные исходы случайности — достаточно, чтобы переиграть действие.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class ReplayPayload {
+    private String instanceId;
+    private String targetInstanceId;
+    private Integer targetPosition;
+    private String attackerInstanceId;
+    private List<Integer> rolls;
+    private List<String> instanceIds;
+}
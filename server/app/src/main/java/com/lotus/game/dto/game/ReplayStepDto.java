@@ -1,5 +1,7 @@
 package com.lotus.game.dto.game;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.lotus.game.engine.GameState;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -12,8 +14,9 @@ import lombok.NoArgsConstructor;
 public class ReplayStepDto {
     private int stepIndex;
     private int turnNumber;
-    private String actionType;  // "INIT", "PLAY", "ATTACK", "END_TURN"
+    private String actionType;  // "INIT", "PLAY", "ATTACK", "END_TURN", "CONCEDE"
     private Long playerId;
     private String description;
-    private GameState gameState;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private GameState gameState;  // только в ответе на запрос конкретного шага
 }
@@ -0,0 +1,26 @@
+package com.lotus.game.dto.game;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class SimulationRequest {
+
+    @NotNull
+    private Long deckAId;
+    private String heroAId;
+
+    @NotNull
+    private Long deckBId;
+    private String heroBId;
+
+    @Min(1)
+    private int games = 1000;
+
+    /** Зерно прогона; одинаковое зерно и колоды дают одинаковый отчёт. Пусто — случайное. */
+    private Long seed;
+
+    @Min(1)
+    private Integer maxTurns;
+}
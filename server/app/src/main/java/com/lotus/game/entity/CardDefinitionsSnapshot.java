@@ -0,0 +1,35 @@
+package com.lotus.game.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Сохранённая версия определений карт (см. CardRegistry): id строки — номер версии, на который ссылается матч
+ * (matches.card_definitions_version). Одинаковый набор карт даёт одну строку, на каком бы узле он ни был собран.
+ */
+@Entity
+@Table(name = "card_definitions")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CardDefinitionsSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /** SHA-256 от definitions. */
+    @Column(name = "content_hash", nullable = false, unique = true, length = 64)
+    private String contentHash;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    /** Миньоны и заклинания в JSON, по возрастанию id. */
+    @Column(name = "definitions", nullable = false, columnDefinition = "text")
+    private String definitions;
+}
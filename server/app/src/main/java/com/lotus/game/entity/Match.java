@@ -0,0 +1,191 @@
+package com.lotus.game.entity;
+
+import com.lotus.game.dto.game.ReplayStepDto;
+import com.lotus.game.engine.GameState;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "matches",
+        indexes = {
+                @Index(name = "idx_match_status_last_action", columnList = "status, last_action_at"),
+                @Index(name = "idx_match_player1_created", columnList = "player1_id, createdAt, id"),
+                @Index(name = "idx_match_player2_created", columnList = "player2_id, createdAt, id")
+        })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Match {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "player1_id", nullable = false)
+    private Long player1Id;
+
+    @Column(name = "player2_id")
+    private Long player2Id;
+
+    @Column(name = "deck1_id", nullable = false)
+    private Long deck1Id;
+
+    @Column(name = "deck2_id")
+    private Long deck2Id;
+
+    @Column(name = "hero1_id", length = 64)
+    private String hero1Id;
+
+    @Column(name = "hero2_id", length = 64)
+    private String hero2Id;
+
+    @Column(name = "player1_rating")
+    private Integer player1Rating;
+
+    @Column(name = "player2_rating")
+    private Integer player2Rating;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "match_mode", nullable = false, length = 20)
+    @Builder.Default
+    private MatchMode matchMode = MatchMode.RANKED;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private MatchStatus status = MatchStatus.WAITING;
+
+    @Column(name = "winner_id")
+    private Long winnerId;
+
+    @Column(name = "current_turn_player")
+    private Long currentTurnPlayerId;
+
+    /** Номер хода из game_state, продублированный для истории матчей (game_state там не читается). */
+    @Column(name = "turn_count")
+    private Integer turnCount;
+
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+
+    /** Время последнего действия; по нему фоновая очистка находит брошенные матчи (см. MatchReaperService). */
+    @Column(name = "last_action_at")
+    private Instant lastActionAt;
+
+    /** Когда состояние и журнал реплея перенесены в match_archives; у такого матча game_state и replay_data пусты. */
+    @Column(name = "archived_at")
+    private Instant archivedAt;
+
+    /** Оптимистическая блокировка: запись устаревшей копии матча завершается ошибкой, а не затирает чужие изменения. */
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
+    @Column(name = "game_state", columnDefinition = "bytea")
+    @Convert(converter = com.lotus.game.config.GameStateConverter.class)
+    private GameState gameState;
+
+    @Column(name = "replay_data", columnDefinition = "text")
+    @Convert(converter = com.lotus.game.config.ReplayStepsConverter.class)
+    private java.util.List<ReplayStepDto> replaySteps = new java.util.ArrayList<>();
+
+    /** Журнал действий live-матча (см. MatchReplayService); в таблицу match_replay_events пишется write-behind. */
+    @Transient
+    @Builder.Default
+    private java.util.List<MatchReplayEvent> replayLog = java.util.Collections.synchronizedList(new java.util.ArrayList<>());
+
+    /** Сколько записей replayLog уже передано на сохранение. */
+    @Transient
+    private int replayLogFlushed;
+
+    /** Номер версии определений карт (card_definitions.id), с которой начался матч; null — матч начат раньше. */
+    @Column(name = "card_definitions_version")
+    private Long cardDefinitionsVersion;
+
+    /** Версия определений карт, с которой идёт матч; изменения карт в админке на него не влияют. */
+    @Transient
+    private com.lotus.game.engine.CardDefinitions cardDefinitions;
+
+    /** Версия состояния, последней разосланная подписчикам (см. MatchBroadcastService). */
+    @Transient
+    private long stateVersion;
+
+    /** Копия состояния на момент последней рассылки — база для следующей дельты. */
+    @Transient
+    private GameState broadcastState;
+
+    /** Имена игроков для рассылки в user-destination; заполняются при первой рассылке. */
+    @Transient
+    private String player1Username;
+
+    @Transient
+    private String player2Username;
+
+    /** Срок текущего хода (см. TurnTimerService); null — таймер не взведён. */
+    @Transient
+    private Instant turnDeadline;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = Instant.now();
+        }
+        if (lastActionAt == null) {
+            lastActionAt = createdAt;
+        }
+        if (turnCount == null && gameState != null) {
+            turnCount = gameState.getTurnNumber();
+        }
+    }
+
+    /**
+     * Копия всех столбцов матча (без @Transient-полей) с глубокой копией game_state: снимок для записи вне очереди
+     * команд матча. Новый столбец добавляется и сюда — MatchTest проверяет это по списку полей.
+     */
+    public Match persistentCopy() {
+        return Match.builder()
+                .id(id)
+                .player1Id(player1Id)
+                .player2Id(player2Id)
+                .deck1Id(deck1Id)
+                .deck2Id(deck2Id)
+                .hero1Id(hero1Id)
+                .hero2Id(hero2Id)
+                .player1Rating(player1Rating)
+                .player2Rating(player2Rating)
+                .matchMode(matchMode)
+                .status(status)
+                .winnerId(winnerId)
+                .currentTurnPlayerId(currentTurnPlayerId)
+                .turnCount(turnCount)
+                .createdAt(createdAt)
+                .lastActionAt(lastActionAt)
+                .archivedAt(archivedAt)
+                .version(version)
+                .cardDefinitionsVersion(cardDefinitionsVersion)
+                .gameState(com.lotus.game.config.GameStateConverter.deepCopy(gameState))
+                .replaySteps(replaySteps != null ? new java.util.ArrayList<>(replaySteps) : new java.util.ArrayList<>())
+                .build();
+    }
+
+    public enum MatchStatus {
+        WAITING,      // ожидает второго игрока
+        IN_PROGRESS,
+        FINISHED
+    }
+
+    public enum MatchMode {
+        RANKED,   // влияет на рейтинг, матчмейкинг по силе
+        CASUAL,   // не влияет на рейтинг, свободный матчмейкинг
+        PRACTICE; // против серверного бота (PracticeBotService), без рейтинга и наград
+
+        /** Режимы, для которых есть очередь матчмейкинга. */
+        public boolean isMatchmade() {
+            return this != PRACTICE;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.lotus.game.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Холодный архив завершённого матча: финальное состояние и журнал реплея одним deflate-блобом
+ * (формат — MatchArchiveCodec). В таблице matches у такого матча остаются только сводные колонки и archived_at.
+ */
+@Entity
+@Table(name = "match_archives")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MatchArchive {
+
+    @Id
+    @Column(name = "match_id")
+    private Long matchId;
+
+    @Column(name = "archived_at", nullable = false)
+    private Instant archivedAt;
+
+    @Column(name = "step_count", nullable = false)
+    private int stepCount;
+
+    /** Размер до сжатия, для оценки выигрыша. */
+    @Column(name = "raw_size", nullable = false)
+    private int rawSize;
+
+    @Column(name = "payload", nullable = false, columnDefinition = "bytea")
+    private byte[] payload;
+}
@@ -0,0 +1,57 @@
+package com.lotus.game.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Событие outbox по матчу. Пишется write-behind в той же транзакции, что и строка матча, поэтому событие
+ * существует тогда и только тогда, когда завершение матча сохранено. Обрабатывает {@code PostMatchPipeline}.
+ */
+@Entity
+@Table(name = "match_outbox",
+        uniqueConstraints = @UniqueConstraint(name = "uk_match_outbox_match_type", columnNames = {"match_id", "event_type"}),
+        indexes = @Index(name = "idx_match_outbox_pending", columnList = "processed_at, id"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MatchOutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "match_id", nullable = false)
+    private Long matchId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 32)
+    private EventType eventType;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    /** null — событие ещё не обработано. */
+    @Column(name = "processed_at")
+    private Instant processedAt;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = Instant.now();
+        }
+    }
+
+    public enum EventType {
+        MATCH_FINISHED
+    }
+}
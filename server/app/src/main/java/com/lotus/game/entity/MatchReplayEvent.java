@@ -0,0 +1,58 @@
+package com.lotus.game.entity;
+
+import com.lotus.game.dto.game.ReplayPayload;
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Запись журнала реплея: типизированное действие с входными данными и исходами случайности.
+ * Периодически запись несёт keyframe — полное состояние после действия (GameStateCodec).
+ */
+@Entity
+@Table(name = "match_replay_events",
+        indexes = @Index(name = "idx_replay_event_match_step", columnList = "match_id, step_index", unique = true))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class MatchReplayEvent {
+
+    public enum ActionType {
+        INIT,
+        PLAY,
+        ATTACK,
+        END_TURN,
+        CONCEDE
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "match_id", nullable = false)
+    private Long matchId;
+
+    @Column(name = "step_index", nullable = false)
+    private int stepIndex;
+
+    @Column(name = "turn_number", nullable = false)
+    private int turnNumber;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "action_type", nullable = false, length = 20)
+    private ActionType actionType;
+
+    @Column(name = "player_id")
+    private Long playerId;
+
+    @Column(name = "description", length = 300)
+    private String description;
+
+    @Column(name = "payload", columnDefinition = "text")
+    @Convert(converter = com.lotus.game.config.ReplayPayloadConverter.class)
+    private ReplayPayload payload;
+
+    @Column(name = "keyframe", columnDefinition = "bytea")
+    private byte[] keyframe;
+}
@@ -0,0 +1,27 @@
+package com.lotus.game.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Отметка о том, что результат матча уже учтён в user_stats: вставляется в той же транзакции, что и счётчики,
+ * поэтому завершение матча и backfill не могут посчитать матч дважды.
+ */
+@Entity
+@Table(name = "match_stats_applied")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MatchStatsApplied {
+
+    @Id
+    @Column(name = "match_id")
+    private Long matchId;
+
+    @Column(name = "applied_at", nullable = false)
+    private Instant appliedAt;
+}
@@ -0,0 +1,34 @@
+package com.lotus.game.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Отметка о том, что итоги матча для игрока (рейтинг, прогресс героев, награда) уже применены.
+ * Вставляется в транзакции обработки события, уникальность (user_id, match_id) исключает повторное применение.
+ */
+@Entity
+@Table(name = "post_match_processed",
+        uniqueConstraints = @UniqueConstraint(name = "uk_post_match_user_match", columnNames = {"user_id", "match_id"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PostMatchProcessed {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "match_id", nullable = false)
+    private Long matchId;
+
+    @Column(name = "processed_at", nullable = false)
+    private Instant processedAt;
+}
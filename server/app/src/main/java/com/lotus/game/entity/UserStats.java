@@ -0,0 +1,46 @@
+package com.lotus.game.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Счётчики результатов игрока в одном разрезе: {@link #SCOPE_ALL} — все матчи, {@code MODE:<режим>} — по режиму,
+ * {@code HERO:<id героя>} — по герою. Обновляются при завершении матча (см. UserStatsService).
+ */
+@Entity
+@Table(name = "user_stats",
+        uniqueConstraints = @UniqueConstraint(name = "uk_user_stats_user_scope", columnNames = {"user_id", "scope"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserStats {
+
+    public static final String SCOPE_ALL = "ALL";
+    public static final String MODE_PREFIX = "MODE:";
+    public static final String HERO_PREFIX = "HERO:";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "scope", nullable = false, length = 80)
+    private String scope;
+
+    @Column(name = "wins", nullable = false)
+    private long wins;
+
+    @Column(name = "losses", nullable = false)
+    private long losses;
+
+    @Column(name = "draws", nullable = false)
+    private long draws;
+
+    public long getTotal() {
+        return wins + losses + draws;
+    }
+}
@@ -0,0 +1,13 @@
+package com.lotus.game.repository;
+
+import com.lotus.game.entity.CardDefinitionsSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface CardDefinitionsSnapshotRepository extends JpaRepository<CardDefinitionsSnapshot, Long> {
+
+    Optional<CardDefinitionsSnapshot> findByContentHash(String contentHash);
+}
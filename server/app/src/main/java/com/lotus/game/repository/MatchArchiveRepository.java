@@ -0,0 +1,9 @@
+package com.lotus.game.repository;
+
+import com.lotus.game.entity.MatchArchive;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface MatchArchiveRepository extends JpaRepository<MatchArchive, Long> {
+}
@@ -0,0 +1,39 @@
+package com.lotus.game.repository;
+
+import com.lotus.game.entity.MatchOutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface MatchOutboxRepository extends JpaRepository<MatchOutboxEvent, Long> {
+
+    boolean existsByMatchIdAndEventType(Long matchId, MatchOutboxEvent.EventType eventType);
+
+    /** Необработанные события по возрастанию id; исчерпавшие попытки пропускаются. */
+    @Query("SELECT e FROM MatchOutboxEvent e WHERE e.processedAt IS NULL AND e.attempts < :maxAttempts " +
+            "AND e.id > :afterId ORDER BY e.id")
+    List<MatchOutboxEvent> findPending(@Param("maxAttempts") int maxAttempts, @Param("afterId") Long afterId,
+                                       Pageable pageable);
+
+    /** 0 — событие уже обработано (другим узлом). */
+    @Modifying
+    @Query("UPDATE MatchOutboxEvent e SET e.processedAt = :processedAt WHERE e.id = :id AND e.processedAt IS NULL")
+    int markProcessed(@Param("id") Long id, @Param("processedAt") Instant processedAt);
+
+    @Modifying
+    @Query("UPDATE MatchOutboxEvent e SET e.attempts = e.attempts + 1, e.lastError = :error WHERE e.id = :id")
+    int recordFailure(@Param("id") Long id, @Param("error") String error);
+
+    long countByProcessedAtIsNull();
+
+    /** Время создания самого старого необработанного события — для метрики отставания. */
+    @Query("SELECT MIN(e.createdAt) FROM MatchOutboxEvent e WHERE e.processedAt IS NULL")
+    Instant findOldestPendingCreatedAt();
+}
@@ -0,0 +1,10 @@
+package com.lotus.game.repository;
+
+import com.lotus.game.entity.Match;
+
+/**
+ * Итог завершённого матча — всё, что нужно для user_stats, без состояния партии.
+ */
+public record MatchOutcome(Long matchId, Match.MatchMode matchMode, Long player1Id, String hero1Id,
+                           Long player2Id, String hero2Id, Long winnerId) {
+}
@@ -0,0 +1,20 @@
+package com.lotus.game.repository;
+
+import com.lotus.game.entity.MatchReplayEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface MatchReplayEventRepository extends JpaRepository<MatchReplayEvent, Long> {
+
+    List<MatchReplayEvent> findByMatchIdOrderByStepIndexAsc(Long matchId);
+
+    @Modifying
+    @Query("DELETE FROM MatchReplayEvent e WHERE e.matchId = :matchId")
+    int deleteByMatchId(@Param("matchId") Long matchId);
+}
@@ -0,0 +1,86 @@
+package com.lotus.game.repository;
+
+import com.lotus.game.entity.Match;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface MatchRepository extends JpaRepository<Match, Long> {
+
+    /** Сводка матча для истории (см. {@link MatchSummary}) */
+    String HISTORY_SELECT = "SELECT m.id AS id, m.player1Id AS player1Id, m.player2Id AS player2Id, " +
+            "m.hero1Id AS hero1Id, m.hero2Id AS hero2Id, m.matchMode AS matchMode, m.status AS status, " +
+            "m.winnerId AS winnerId, m.turnCount AS turnCount, m.createdAt AS createdAt, u.username AS opponentName " +
+            "FROM Match m LEFT JOIN User u " +
+            "ON u.id = CASE WHEN m.player1Id = :userId THEN m.player2Id ELSE m.player1Id END " +
+            "WHERE (m.player1Id = :userId OR m.player2Id = :userId) AND m.status <> 'WAITING' ";
+
+    Optional<Match> findFirstByStatusOrderByCreatedAtAsc(Match.MatchStatus status);
+
+    List<Match> findByStatus(Match.MatchStatus status);
+
+
+    List<Match> findByPlayer1IdOrPlayer2IdOrderByCreatedAtDesc(Long player1Id, Long player2Id);
+
+    /** Первая страница истории игрока; соперник без строки в users (бот тренировочного матча) даёт null. */
+    @Query(HISTORY_SELECT + "ORDER BY m.createdAt DESC, m.id DESC")
+    List<MatchSummary> findHistory(@Param("userId") Long userId, Pageable pageable);
+
+    /** Следующая страница истории: матчи строго раньше (createdAt, id) последнего показанного. */
+    @Query(HISTORY_SELECT + "AND (m.createdAt < :createdAt OR (m.createdAt = :createdAt AND m.id < :id)) " +
+            "ORDER BY m.createdAt DESC, m.id DESC")
+    List<MatchSummary> findHistoryBefore(@Param("userId") Long userId, @Param("createdAt") Instant createdAt,
+                                         @Param("id") Long id, Pageable pageable);
+
+    /** Текущая версия строки — write-behind сверяет с ней live-копию после конфликта (см. MatchWriteBehindService). */
+    @Query("SELECT m.version FROM Match m WHERE m.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /** Массовое удаление строк WAITING, созданных раньше cutoff: у них нет второго игрока и партии. */
+    @Modifying
+    @Query("DELETE FROM Match m WHERE m.status = 'WAITING' AND m.createdAt < :cutoff")
+    int deleteWaitingCreatedBefore(@Param("cutoff") Instant cutoff);
+
+    /** Идущие матчи без действий с cutoff; строки до появления last_action_at сравниваются по created_at. */
+    @Query("SELECT m.id FROM Match m WHERE m.status = 'IN_PROGRESS' AND m.id > :afterId " +
+            "AND (m.lastActionAt < :cutoff OR (m.lastActionAt IS NULL AND m.createdAt < :cutoff)) ORDER BY m.id")
+    List<Long> findInactiveInProgressIds(@Param("cutoff") Instant cutoff, @Param("afterId") Long afterId, Pageable pageable);
+
+    /** Итоги завершённых матчей по возрастанию id — для backfill user_stats (см. UserStatsBackfill). */
+    @Query("SELECT new com.lotus.game.repository.MatchOutcome(m.id, m.matchMode, m.player1Id, m.hero1Id, " +
+            "m.player2Id, m.hero2Id, m.winnerId) FROM Match m " +
+            "WHERE m.status = 'FINISHED' AND m.id > :afterId ORDER BY m.id")
+    List<MatchOutcome> findFinishedOutcomes(@Param("afterId") Long afterId, Pageable pageable);
+
+    /** Итог одного завершённого матча — для обработки события outbox (см. PostMatchPipeline). */
+    @Query("SELECT new com.lotus.game.repository.MatchOutcome(m.id, m.matchMode, m.player1Id, m.hero1Id, " +
+            "m.player2Id, m.hero2Id, m.winnerId) FROM Match m WHERE m.id = :matchId AND m.status = 'FINISHED'")
+    Optional<MatchOutcome> findFinishedOutcome(@Param("matchId") Long matchId);
+
+    /** Завершённые матчи без действий с cutoff, ещё не перенесённые в архив (см. MatchArchiveService). */
+    @Query("SELECT m.id FROM Match m WHERE m.status = 'FINISHED' AND m.archivedAt IS NULL AND m.id > :afterId " +
+            "AND (m.lastActionAt < :cutoff OR (m.lastActionAt IS NULL AND m.createdAt < :cutoff)) ORDER BY m.id")
+    List<Long> findArchivableIds(@Param("cutoff") Instant cutoff, @Param("afterId") Long afterId, Pageable pageable);
+
+    /** Завершённые матчи без turn_count, сыгранные до появления колонки (см. MatchTurnCountBackfill). */
+    @Query("SELECT m.id FROM Match m WHERE m.status = 'FINISHED' AND m.turnCount IS NULL AND m.id > :afterId ORDER BY m.id")
+    List<Long> findFinishedIdsWithoutTurnCount(@Param("afterId") Long afterId, Pageable pageable);
+
+    /** Без изменения version: завершённый матч больше не пишется write-behind'ом. 0 — номер хода уже заполнен. */
+    @Modifying
+    @Query("UPDATE Match m SET m.turnCount = :turnCount WHERE m.id = :id AND m.turnCount IS NULL")
+    int fillTurnCount(@Param("id") Long id, @Param("turnCount") Integer turnCount);
+
+    @Query("SELECT COUNT(m) FROM Match m WHERE m.status = 'FINISHED' AND m.player2Id IS NOT NULL " +
+            "AND (m.player1Id = :userId OR m.player2Id = :userId)")
+    long countFinishedMatchesForUser(@Param("userId") Long userId);
+}
@@ -0,0 +1,19 @@
+package com.lotus.game.repository;
+
+import com.lotus.game.entity.MatchStatsApplied;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+@Repository
+public interface MatchStatsAppliedRepository extends JpaRepository<MatchStatsApplied, Long> {
+
+    /** Именно INSERT (save сделал бы merge): повторная отметка того же матча падает на первичном ключе. */
+    @Modifying
+    @Query(value = "INSERT INTO match_stats_applied (match_id, applied_at) VALUES (:matchId, :appliedAt)", nativeQuery = true)
+    int insert(@Param("matchId") Long matchId, @Param("appliedAt") Instant appliedAt);
+}
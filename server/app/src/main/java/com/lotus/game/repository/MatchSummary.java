@@ -0,0 +1,33 @@
+package com.lotus.game.repository;
+
+import com.lotus.game.entity.Match;
+
+import java.time.Instant;
+
+/**
+ * Сводка матча для истории: только лёгкие колонки matches и имя соперника, без game_state и replay_data.
+ */
+public interface MatchSummary {
+
+    Long getId();
+
+    Long getPlayer1Id();
+
+    Long getPlayer2Id();
+
+    String getHero1Id();
+
+    String getHero2Id();
+
+    Match.MatchMode getMatchMode();
+
+    Match.MatchStatus getStatus();
+
+    Long getWinnerId();
+
+    Integer getTurnCount();
+
+    Instant getCreatedAt();
+
+    String getOpponentName();
+}
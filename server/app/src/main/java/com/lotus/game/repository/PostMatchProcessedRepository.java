@@ -0,0 +1,11 @@
+package com.lotus.game.repository;
+
+import com.lotus.game.entity.PostMatchProcessed;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PostMatchProcessedRepository extends JpaRepository<PostMatchProcessed, Long> {
+
+    boolean existsByUserIdAndMatchId(Long userId, Long matchId);
+}
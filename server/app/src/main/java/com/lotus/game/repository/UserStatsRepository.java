@@ -0,0 +1,26 @@
+package com.lotus.game.repository;
+
+import com.lotus.game.entity.UserStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UserStatsRepository extends JpaRepository<UserStats, Long> {
+
+    Optional<UserStats> findByUserIdAndScope(Long userId, String scope);
+
+    List<UserStats> findByUserIdOrderByScopeAsc(Long userId);
+
+    /** Атомарное приращение счётчиков; 0 — строки для разреза ещё нет. */
+    @Modifying
+    @Query("UPDATE UserStats s SET s.wins = s.wins + :wins, s.losses = s.losses + :losses, s.draws = s.draws + :draws " +
+            "WHERE s.userId = :userId AND s.scope = :scope")
+    int increment(@Param("userId") Long userId, @Param("scope") String scope,
+                  @Param("wins") long wins, @Param("losses") long losses, @Param("draws") long draws);
+}
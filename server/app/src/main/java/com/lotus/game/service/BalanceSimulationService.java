@@ -0,0 +1,63 @@
+package com.lotus.game.service;
+
+import com.lotus.game.dto.game.SimulationRequest;
+import com.lotus.game.engine.GameState;
+import com.lotus.game.engine.sim.SelfPlaySimulator;
+import com.lotus.game.engine.sim.SimulationConfig;
+import com.lotus.game.engine.sim.SimulationReport;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Прогон самоигры для баланса карт: колоды и герои берутся так же, как при старте настоящего матча
+ * ({@link MatchService#openingPlayerState}), партии играет {@link SelfPlaySimulator} на тех же правилах.
+ * Одновременно идёт не больше одного прогона — он занимает все выделенные ядра.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BalanceSimulationService {
+
+    private final MatchService matchService;
+    private final CardRegistry cardRegistry;
+    private final SelfPlaySimulator simulator = new SelfPlaySimulator();
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Value("${app.simulation.max-games:20000}")
+    private int maxGames;
+
+    @Value("${app.simulation.parallelism:0}")
+    private int parallelism;
+
+    public SimulationReport simulate(SimulationRequest request) {
+        if (request.getGames() > maxGames) {
+            throw new IllegalArgumentException("Не больше " + maxGames + " партий за прогон");
+        }
+        GameState.PlayerState sideA = matchService.openingPlayerState(request.getHeroAId(), request.getDeckAId());
+        GameState.PlayerState sideB = matchService.openingPlayerState(request.getHeroBId(), request.getDeckBId());
+        if (sideA.getDeck().isEmpty() || sideB.getDeck().isEmpty()) {
+            throw new IllegalArgumentException("Колода пуста");
+        }
+        long seed = request.getSeed() != null ? request.getSeed() : ThreadLocalRandom.current().nextLong();
+        int maxTurns = request.getMaxTurns() != null ? request.getMaxTurns() : SimulationConfig.DEFAULT_MAX_TURNS;
+        SimulationConfig config = new SimulationConfig(request.getGames(), seed, parallelism, maxTurns);
+
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalArgumentException("Симуляция уже выполняется");
+        }
+        try {
+            SimulationReport report = simulator.run(cardRegistry.current(), sideA, sideB, config);
+            log.info("Simulation decks {} vs {}: {} games, seed {}, A {}%, {} games/s",
+                    request.getDeckAId(), request.getDeckBId(), report.games(), seed,
+                    Math.round(report.winRateA() * 100), Math.round(report.gamesPerSecond()));
+            return report;
+        } finally {
+            running.set(false);
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.lotus.game.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lotus.game.engine.CardDefinitions;
+import com.lotus.game.engine.CardDefinitions.MinionDef;
+import com.lotus.game.engine.CardDefinitions.SpellDef;
+import com.lotus.game.entity.CardDefinitionsSnapshot;
+import com.lotus.game.entity.Minion;
+import com.lotus.game.entity.Spell;
+import com.lotus.game.repository.CardDefinitionsSnapshotRepository;
+import com.lotus.game.repository.MinionRepository;
+import com.lotus.game.repository.SpellRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Текущая версия {@link CardDefinitions}. Снимок загружается при первом обращении и заменяется целиком
+ * после изменения карт; читатели никогда не видят частично обновлённый набор.
+ * <p>
+ * Каждая версия сохраняется в таблицу card_definitions, а её номер — в строку матча: матч, загруженный после
+ * рестарта или смены владельца, продолжает играть по картам, с которыми начался ({@link #version}). Прежние
+ * версии держатся в памяти, пока на них ссылается хотя бы один live-матч.
+ */
+@Component
+@Slf4j
+public class CardRegistry {
+
+    private final MinionRepository minionRepository;
+    private final SpellRepository spellRepository;
+    private final CardDefinitionsSnapshotRepository snapshotRepository;
+    private final ObjectMapper objectMapper;
+    private final ClusterBus bus;
+    /** Отдельная транзакция: reloadAfterCommit вызывается, когда транзакция изменения карт уже завершена. */
+    private final TransactionTemplate newTransaction;
+
+    /** Загруженные версии; слабые ссылки — версию удерживают только матчи, которые по ней играют. */
+    private final ConcurrentHashMap<Long, WeakReference<CardDefinitions>> versions = new ConcurrentHashMap<>();
+    private volatile CardDefinitions current;
+
+    public CardRegistry(MinionRepository minionRepository,
+                        SpellRepository spellRepository,
+                        CardDefinitionsSnapshotRepository snapshotRepository,
+                        ObjectMapper objectMapper,
+                        ClusterBus bus,
+                        PlatformTransactionManager transactionManager) {
+        this.minionRepository = minionRepository;
+        this.spellRepository = spellRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.objectMapper = objectMapper;
+        this.bus = bus;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PostConstruct
+    void init() {
+        bus.onCardsChanged(this::reload);
+    }
+
+    public CardDefinitions current() {
+        CardDefinitions snapshot = current;
+        return snapshot != null ? snapshot : reload();
+    }
+
+    /**
+     * Версия, с которой начался матч. null (матч начат до появления card_definitions_version) или удалённая
+     * версия дают текущую.
+     */
+    public CardDefinitions version(Long version) {
+        CardDefinitions latest = current();
+        if (version == null || latest.version() == version) {
+            return latest;
+        }
+        WeakReference<CardDefinitions> ref = versions.get(version);
+        CardDefinitions cached = ref != null ? ref.get() : null;
+        if (cached != null) {
+            return cached;
+        }
+        versions.values().removeIf(r -> r.get() == null);
+        return snapshotRepository.findById(version)
+                .map(row -> {
+                    StoredDefinitions defs = read(row.getDefinitions());
+                    return remember(CardDefinitions.of(row.getId(), defs.minions(), defs.spells()));
+                })
+                .orElseGet(() -> {
+                    log.warn("Card definitions v{} not found, using current v{}", version, latest.version());
+                    return latest;
+                });
+    }
+
+    public synchronized CardDefinitions reload() {
+        StoredDefinitions defs = new StoredDefinitions(
+                minionRepository.findAll().stream().map(CardRegistry::minionDef)
+                        .sorted(Comparator.comparingLong(MinionDef::id)).toList(),
+                spellRepository.findAll().stream().map(CardRegistry::spellDef)
+                        .sorted(Comparator.comparingLong(SpellDef::id)).toList());
+        CardDefinitions snapshot = remember(CardDefinitions.of(store(write(defs)), defs.minions(), defs.spells()));
+        current = snapshot;
+        log.info("Card definitions v{} loaded: {} cards", snapshot.version(), snapshot.size());
+        return snapshot;
+    }
+
+    /**
+     * Перестраивает снимок после коммита текущей транзакции (или сразу, если транзакции нет) и просит остальные
+     * узлы кластера сделать то же: иначе они играли бы новые матчи по старым картам до рестарта.
+     */
+    public void reloadAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            reloadEverywhere();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                reloadEverywhere();
+            }
+        });
+    }
+
+    private void reloadEverywhere() {
+        reload();
+        bus.publishCardsChanged();
+    }
+
+    /**
+     * Номер версии для набора карт: существующая строка с тем же содержимым или новая. Если строку одновременно
+     * вставил другой узел, уникальный content_hash отклонит вставку, и берётся его строка.
+     */
+    private long store(String definitions) {
+        String hash = sha256(definitions);
+        try {
+            return newTransaction.execute(tx -> snapshotRepository.findByContentHash(hash)
+                    .orElseGet(() -> snapshotRepository.saveAndFlush(CardDefinitionsSnapshot.builder()
+                            .contentHash(hash)
+                            .createdAt(Instant.now())
+                            .definitions(definitions)
+                            .build())))
+                    .getId();
+        } catch (DataIntegrityViolationException e) {
+            return newTransaction.execute(tx -> snapshotRepository.findByContentHash(hash))
+                    .orElseThrow(() -> e)
+                    .getId();
+        }
+    }
+
+    private CardDefinitions remember(CardDefinitions snapshot) {
+        WeakReference<CardDefinitions> ref = versions.get(snapshot.version());
+        CardDefinitions existing = ref != null ? ref.get() : null;
+        if (existing != null) {
+            return existing;
+        }
+        versions.put(snapshot.version(), new WeakReference<>(snapshot));
+        return snapshot;
+    }
+
+    private String write(StoredDefinitions defs) {
+        try {
+            return objectMapper.writeValueAsString(defs);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize card definitions", e);
+        }
+    }
+
+    private StoredDefinitions read(String json) {
+        try {
+            return objectMapper.readValue(json, StoredDefinitions.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot deserialize card definitions", e);
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static MinionDef minionDef(Minion m) {
+        return new MinionDef(
+                m.getId(),
+                m.getName(),
+                m.getManaCost() != null ? m.getManaCost() : 0,
+                m.getAttack() != null ? m.getAttack() : 0,
+                m.getHealth() != null ? m.getHealth() : 0,
+                Boolean.TRUE.equals(m.getTaunt()),
+                Boolean.TRUE.equals(m.getCharge()),
+                Boolean.TRUE.equals(m.getDivineShield()),
+                Boolean.TRUE.equals(m.getWindfury()),
+                Boolean.TRUE.equals(m.getStealth()),
+                Boolean.TRUE.equals(m.getPoisonous()),
+                Boolean.TRUE.equals(m.getLifesteal()),
+                Boolean.TRUE.equals(m.getRush()),
+                m.getBattlecryType(),
+                m.getBattlecryValue() != null ? m.getBattlecryValue() : 0,
+                m.getBattlecrySummonCardId(),
+                m.getDeathrattleType(),
+                m.getDeathrattleValue() != null ? m.getDeathrattleValue() : 0,
+                m.getDeathrattleSummonCardId());
+    }
+
+    static SpellDef spellDef(Spell s) {
+        return new SpellDef(
+                s.getId(),
+                s.getName(),
+                s.getManaCost() != null ? s.getManaCost() : 0,
+                s.getDamage() != null ? s.getDamage() : 0);
+    }
+
+    record StoredDefinitions(List<MinionDef> minions, List<SpellDef> spells) {
+    }
+}
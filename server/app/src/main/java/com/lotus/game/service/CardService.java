@@ -35,6 +35,7 @@ public class CardService {
     private final UserRepository userRepository;
     private final GameConfigService gameConfigService;
     private final ObjectProvider<StorageService> storageServiceProvider;
+    private final CardRegistry cardRegistry;
 
     @Transactional(readOnly = true)
     @Cacheable(value = RedisCacheConfig.CACHE_CARDS, key = "'all'")
@@ -99,7 +100,9 @@ public class CardService {
                 .deathrattleValue(req.getDeathrattleValue())
                 .deathrattleSummonCardId(req.getDeathrattleSummonCardId())
                 .build();
-        return CardDto.fromMinion(minionRepository.save(m));
+        CardDto saved = CardDto.fromMinion(minionRepository.save(m));
+        cardRegistry.reloadAfterCommit();
+        return saved;
     }
 
     @Transactional
@@ -120,7 +123,9 @@ public class CardService {
                 .description(req.getDescription() != null ? req.getDescription().trim() : null)
                 .damage(req.getDamage() != null ? req.getDamage() : 0)
                 .build();
-        return CardDto.fromSpell(spellRepository.save(s));
+        CardDto saved = CardDto.fromSpell(spellRepository.save(s));
+        cardRegistry.reloadAfterCommit();
+        return saved;
     }
 
     @Transactional
@@ -148,7 +153,9 @@ public class CardService {
         if (req.getDeathrattleType() != null) m.setDeathrattleType(req.getDeathrattleType().isBlank() ? null : req.getDeathrattleType());
         if (req.getDeathrattleValue() != null) m.setDeathrattleValue(req.getDeathrattleValue());
         if (req.getDeathrattleSummonCardId() != null) m.setDeathrattleSummonCardId(req.getDeathrattleSummonCardId());
-        return CardDto.fromMinion(minionRepository.save(m));
+        CardDto saved = CardDto.fromMinion(minionRepository.save(m));
+        cardRegistry.reloadAfterCommit();
+        return saved;
     }
 
     @Transactional
@@ -160,7 +167,9 @@ public class CardService {
         if (req.getManaCost() != null) s.setManaCost(req.getManaCost());
         if (req.getDescription() != null) s.setDescription(req.getDescription());
         if (req.getDamage() != null) s.setDamage(req.getDamage());
-        return CardDto.fromSpell(spellRepository.save(s));
+        CardDto saved = CardDto.fromSpell(spellRepository.save(s));
+        cardRegistry.reloadAfterCommit();
+        return saved;
     }
 
     @Transactional
@@ -173,6 +182,7 @@ public class CardService {
         deckCardRepository.deleteByMinionId(id);
         cleanupCardReferences(cardKey);
         minionRepository.delete(minion);
+        cardRegistry.reloadAfterCommit();
     }
 
     @Transactional
@@ -185,6 +195,7 @@ public class CardService {
         deckCardRepository.deleteBySpellId(id);
         cleanupCardReferences(cardKey);
         spellRepository.delete(spell);
+        cardRegistry.reloadAfterCommit();
     }
 
     private void cleanupCardReferences(String cardKey) {
@@ -0,0 +1,237 @@
+package com.lotus.game.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lotus.game.dto.cluster.ClusterEnvelope;
+import com.lotus.game.dto.cluster.MatchCommand;
+import com.lotus.game.dto.game.MatchDto;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Обмен сообщениями между узлами через Redis pub/sub: у каждого узла свой канал cluster:node:{nodeId}.
+ * Обработчики команд, доставки и изменения карт регистрируют MatchCommandRouter, ClusterMessaging и CardRegistry. В режиме standalone
+ * шина не подписывается на Redis.
+ * <p>
+ * Сообщения канала разбирает один поток в порядке публикации. Доставки уходят в отдельный однопоточный исполнитель,
+ * поэтому сообщения одному игроку приходят в STOMP в том же порядке; команды выполняются в пуле из
+ * app.cluster.bus-threads потоков и не задерживают ответы на собственные пересланные команды узла.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ClusterBus {
+
+    private static final String CHANNEL_PREFIX = "cluster:node:";
+
+    private final ClusterNodes nodes;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisConnectionFactory connectionFactory;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.cluster.forward-timeout-ms:5000}")
+    private long forwardTimeoutMs;
+
+    /** Потоки для команд, пересланных на этот узел, и перезагрузки карт. */
+    @Value("${app.cluster.bus-threads:8}")
+    private int busThreads;
+
+    private final ConcurrentHashMap<String, CompletableFuture<ClusterEnvelope>> inflight = new ConcurrentHashMap<>();
+    private volatile Function<MatchCommand, MatchDto> commandHandler;
+    private volatile DeliveryHandler deliveryHandler;
+    private volatile Runnable cardsChangedHandler;
+
+    private RedisMessageListenerContainer container;
+    private ExecutorService listenerExecutor;
+    private ExecutorService deliveryExecutor;
+    private ExecutorService commandExecutor;
+
+    @FunctionalInterface
+    public interface DeliveryHandler {
+        void deliver(String username, String destination, byte[] payload);
+    }
+
+    public void onCommand(Function<MatchCommand, MatchDto> handler) {
+        this.commandHandler = handler;
+    }
+
+    public void onDelivery(DeliveryHandler handler) {
+        this.deliveryHandler = handler;
+    }
+
+    public void onCardsChanged(Runnable handler) {
+        this.cardsChangedHandler = handler;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!nodes.isClustered()) return;
+        listenerExecutor = Executors.newSingleThreadExecutor();
+        deliveryExecutor = Executors.newSingleThreadExecutor();
+        commandExecutor = Executors.newFixedThreadPool(busThreads);
+        container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.setTaskExecutor(listenerExecutor);
+        container.addMessageListener(this::onMessage, new ChannelTopic(CHANNEL_PREFIX + nodes.nodeId()));
+        container.afterPropertiesSet();
+        container.start();
+    }
+
+    @PreDestroy
+    void stop() throws Exception {
+        if (container != null) {
+            container.stop();
+            container.destroy();
+        }
+        for (ExecutorService executor : new ExecutorService[]{listenerExecutor, deliveryExecutor, commandExecutor}) {
+            if (executor != null) {
+                executor.shutdown();
+            }
+        }
+    }
+
+    /** Выполняет команду на узле-владельце и ждёт ответа не дольше app.cluster.forward-timeout-ms. */
+    public MatchDto forward(String node, MatchCommand command) {
+        String requestId = UUID.randomUUID().toString();
+        CompletableFuture<ClusterEnvelope> future = new CompletableFuture<>();
+        inflight.put(requestId, future);
+        ClusterEnvelope reply;
+        try {
+            publish(node, ClusterEnvelope.builder()
+                    .kind(ClusterEnvelope.Kind.COMMAND)
+                    .requestId(requestId)
+                    .replyTo(nodes.nodeId())
+                    .command(command)
+                    .build());
+            reply = future.get(forwardTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Узел " + node + " не ответил на команду матча " + command.getMatchId());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while forwarding match command", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Match command forwarding failed", e.getCause());
+        } finally {
+            inflight.remove(requestId);
+        }
+        if (reply.getError() != null) {
+            throw remoteException(reply);
+        }
+        return reply.getResult();
+    }
+
+    public void deliver(String node, String username, String destination, byte[] payload) {
+        publish(node, ClusterEnvelope.builder()
+                .kind(ClusterEnvelope.Kind.DELIVER)
+                .username(username)
+                .destination(destination)
+                .payload(payload)
+                .build());
+    }
+
+    /** Сообщает остальным живым узлам, что карты изменены; в режиме standalone узлов кроме этого нет. */
+    public void publishCardsChanged() {
+        if (!nodes.isClustered()) return;
+        for (String node : nodes.liveNodes()) {
+            if (node.equals(nodes.nodeId())) continue;
+            try {
+                publish(node, ClusterEnvelope.builder().kind(ClusterEnvelope.Kind.CARDS_CHANGED).build());
+            } catch (RuntimeException e) {
+                log.warn("Cannot notify node {} about changed cards: {}", node, e.getMessage());
+            }
+        }
+    }
+
+    private void publish(String node, ClusterEnvelope envelope) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL_PREFIX + node, objectMapper.writeValueAsString(envelope));
+        } catch (com.fasterxml.jackson.core.JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize cluster message", e);
+        }
+    }
+
+    /** Выполняется в единственном потоке слушателя: здесь только разбор и передача дальше, без блокировок. */
+    private void onMessage(Message message, byte[] pattern) {
+        ClusterEnvelope envelope;
+        try {
+            envelope = objectMapper.readValue(new String(message.getBody(), StandardCharsets.UTF_8), ClusterEnvelope.class);
+        } catch (Exception e) {
+            log.warn("Dropping malformed cluster message: {}", e.getMessage());
+            return;
+        }
+        switch (envelope.getKind()) {
+            case COMMAND -> commandExecutor.execute(() -> handleCommand(envelope));
+            case REPLY -> {
+                CompletableFuture<ClusterEnvelope> future = inflight.get(envelope.getRequestId());
+                if (future != null) future.complete(envelope);
+            }
+            case DELIVER -> deliveryExecutor.execute(() -> deliver(envelope));
+            case CARDS_CHANGED -> commandExecutor.execute(() -> {
+                Runnable handler = cardsChangedHandler;
+                if (handler != null) handler.run();
+            });
+        }
+    }
+
+    private void deliver(ClusterEnvelope envelope) {
+        DeliveryHandler handler = deliveryHandler;
+        if (handler == null) return;
+        try {
+            handler.deliver(envelope.getUsername(), envelope.getDestination(), envelope.getPayload());
+        } catch (RuntimeException e) {
+            log.warn("Cannot deliver cluster message to {}: {}", envelope.getUsername(), e.getMessage());
+        }
+    }
+
+    private void handleCommand(ClusterEnvelope request) {
+        ClusterEnvelope.ClusterEnvelopeBuilder reply = ClusterEnvelope.builder()
+                .kind(ClusterEnvelope.Kind.REPLY)
+                .requestId(request.getRequestId());
+        try {
+            Function<MatchCommand, MatchDto> handler = commandHandler;
+            if (handler == null) {
+                throw new IllegalStateException("Node " + nodes.nodeId() + " does not accept match commands yet");
+            }
+            reply.result(handler.apply(request.getCommand()));
+        } catch (RuntimeException e) {
+            reply.error(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName())
+                    .errorType(e.getClass().getSimpleName());
+            if (!(e instanceof IllegalArgumentException)) {
+                log.warn("Forwarded match command {} failed: {}", request.getCommand(), e.getMessage());
+            }
+        }
+        publish(request.getReplyTo(), reply.build());
+    }
+
+    /** Ошибки владельца воспроизводятся тем же типом, что и при локальном выполнении (см. GlobalExceptionHandler). */
+    private static RuntimeException remoteException(ClusterEnvelope reply) {
+        String type = reply.getErrorType();
+        if (IllegalArgumentException.class.getSimpleName().equals(type)) {
+            return new IllegalArgumentException(reply.getError());
+        }
+        if (type != null && type.contains("OptimisticLock")) {
+            return new OptimisticLockingFailureException(reply.getError());
+        }
+        return new IllegalStateException(reply.getError());
+    }
+}
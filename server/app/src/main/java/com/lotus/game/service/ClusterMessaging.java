@@ -0,0 +1,123 @@
+package com.lotus.game.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lotus.game.config.RedisBrokerRelay;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.messaging.AbstractSubProtocolEvent;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.security.Principal;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Сообщения в user-destination с учётом кластера. Сообщение сериализуется один раз и отдаётся локальному
+ * брокеру, а также узлам, где у пользователя есть WebSocket-сессии (Redis set cluster:presence:{username}).
+ * В режиме брокера redis-relay по узлам сообщения разносит {@link RedisBrokerRelay}, и presence не нужен.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ClusterMessaging {
+
+    private static final String PRESENCE_PREFIX = "cluster:presence:";
+    private static final Map<String, Object> JSON_HEADERS =
+            Map.of(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.APPLICATION_JSON);
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ObjectMapper objectMapper;
+    private final StringRedisTemplate redisTemplate;
+    private final ClusterNodes nodes;
+    private final ClusterBus bus;
+    private final RedisBrokerRelay brokerRelay;
+
+    /** Число локальных сессий пользователя: в presence узел записывается на первой и удаляется после последней. */
+    private final ConcurrentHashMap<String, Integer> localSessions = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        bus.onDelivery(this::sendLocal);
+    }
+
+    /** @param payload объект для JSON или уже сериализованные байты */
+    public void sendToUser(String username, String destination, Object payload) {
+        byte[] body = payload instanceof byte[] bytes ? bytes : serialize(payload);
+        sendLocal(username, destination, body);
+        if (!tracksPresence()) return;
+        try {
+            Set<String> userNodes = redisTemplate.opsForSet().members(PRESENCE_PREFIX + username);
+            if (userNodes == null) return;
+            Set<String> live = nodes.liveNodes();
+            for (String node : userNodes) {
+                if (!node.equals(nodes.nodeId()) && live.contains(node)) {
+                    bus.deliver(node, username, destination, body);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Cluster delivery of {} to {} failed: {}", destination, username, e.getMessage());
+        }
+    }
+
+    private void sendLocal(String username, String destination, byte[] body) {
+        messagingTemplate.convertAndSendToUser(username, destination, body, JSON_HEADERS);
+    }
+
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        String username = usernameOf(event);
+        if (username == null || !tracksPresence()) return;
+        if (localSessions.merge(username, 1, Integer::sum) == 1) {
+            updatePresence(username, true);
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        String username = usernameOf(event);
+        if (username == null || !tracksPresence()) return;
+        Integer left = localSessions.computeIfPresent(username, (u, n) -> n > 1 ? n - 1 : null);
+        if (left == null) {
+            updatePresence(username, false);
+        }
+    }
+
+    private boolean tracksPresence() {
+        return nodes.isClustered() && !brokerRelay.isEnabled();
+    }
+
+    private void updatePresence(String username, boolean present) {
+        try {
+            if (present) {
+                redisTemplate.opsForSet().add(PRESENCE_PREFIX + username, nodes.nodeId());
+            } else {
+                redisTemplate.opsForSet().remove(PRESENCE_PREFIX + username, nodes.nodeId());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Presence update for {} failed: {}", username, e.getMessage());
+        }
+    }
+
+    private static String usernameOf(AbstractSubProtocolEvent event) {
+        Principal user = event.getUser();
+        return user != null ? user.getName() : null;
+    }
+
+    private byte[] serialize(Object payload) {
+        try {
+            return objectMapper.writeValueAsBytes(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize message", e);
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.lotus.game.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Состав кластера и владение матчами. Режим задаётся app.cluster.mode:
+ * - standalone (по умолчанию) — один узел, все матчи локальные
+ * - redis — узлы отмечаются heartbeat'ом в Redis (sorted set cluster:nodes, score — время отметки),
+ *   владелец матча выбирается консистентным хэшем по живым узлам
+ * <p>
+ * Новый узел получает матчи не сразу: он входит в кольцо владения только через handover-grace после первой
+ * отметки (время входа — hash cluster:joined). Пока узел ждёт, прежние владельцы на своём heartbeat видят его
+ * в целевом кольце, записывают уходящие к нему матчи и снимают их с учёта, а команды по ним отклоняют
+ * ({@link #isHandingOver}) — так оба узла не принимают команды одного матча одновременно.
+ */
+@Component
+@Slf4j
+public class ClusterNodes {
+
+    private static final String NODES_KEY = "cluster:nodes";
+    private static final String JOINED_KEY = "cluster:joined";
+    private static final int VIRTUAL_NODES = 64;
+
+    private final StringRedisTemplate redisTemplate;
+    private final boolean clustered;
+    private final String nodeId;
+    private final long nodeTtlMs;
+    private final long handoverGraceMs;
+    private final long heartbeatIntervalMs;
+    private final List<Runnable> membershipListeners = new CopyOnWriteArrayList<>();
+
+    private volatile Membership membership;
+    /**
+     * Свой поток: общий планировщик могут надолго занять архивация или очистка, а пропуск heartbeat дольше node-ttl
+     * означает, что другие узлы заберут матчи этого узла, пока он ещё держит их live.
+     */
+    private ScheduledExecutorService heartbeatExecutor;
+
+    public ClusterNodes(StringRedisTemplate redisTemplate,
+                        @Value("${app.cluster.mode:standalone}") String mode,
+                        @Value("${app.cluster.node-id:}") String nodeId,
+                        @Value("${app.cluster.node-ttl-ms:6000}") long nodeTtlMs,
+                        @Value("${app.cluster.handover-grace-ms:5000}") long handoverGraceMs,
+                        @Value("${app.cluster.heartbeat-interval-ms:2000}") long heartbeatIntervalMs) {
+        this.redisTemplate = redisTemplate;
+        this.clustered = "redis".equalsIgnoreCase(mode);
+        this.nodeId = nodeId == null || nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId.trim();
+        this.nodeTtlMs = nodeTtlMs;
+        this.handoverGraceMs = handoverGraceMs;
+        this.heartbeatIntervalMs = heartbeatIntervalMs;
+        Ring self = Ring.of(List.of(this.nodeId));
+        this.membership = new Membership(self, self);
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    public boolean isClustered() {
+        return clustered;
+    }
+
+    /** Все живые узлы, включая ещё не вступившие во владение. */
+    public Set<String> liveNodes() {
+        return membership.target().nodes();
+    }
+
+    /** Текущий владелец матча — ему пересылаются команды. */
+    public String ownerOf(Long matchId) {
+        return membership.ring().ownerOf("match:" + matchId);
+    }
+
+    /** Владелец матча после вступления ожидающих узлов. */
+    public String targetOwnerOf(Long matchId) {
+        return membership.target().ownerOf("match:" + matchId);
+    }
+
+    /** Узел владеет матчем и не передаёт его ожидающему узлу. */
+    public boolean ownsMatch(Long matchId) {
+        if (!clustered) return true;
+        Membership m = membership;
+        String key = "match:" + matchId;
+        return nodeId.equals(m.ring().ownerOf(key)) && nodeId.equals(m.target().ownerOf(key));
+    }
+
+    /** Матч ещё числится за этим узлом, но уже записан и отдаётся узлу, который вот-вот вступит во владение. */
+    public boolean isHandingOver(Long matchId) {
+        if (!clustered) return false;
+        Membership m = membership;
+        String key = "match:" + matchId;
+        return nodeId.equals(m.ring().ownerOf(key)) && !nodeId.equals(m.target().ownerOf(key));
+    }
+
+    /** Слушатель вызывается в потоке heartbeat после того, как новое кольцо уже действует. */
+    public void onMembershipChange(Runnable listener) {
+        membershipListeners.add(listener);
+    }
+
+    @PostConstruct
+    void join() {
+        if (clustered) {
+            log.info("Cluster node {} joining, takes ownership in {} ms", nodeId, handoverGraceMs);
+            redisTemplate.opsForHash().put(JOINED_KEY, nodeId, String.valueOf(System.currentTimeMillis()));
+            heartbeat();
+            heartbeatExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "cluster-heartbeat");
+                t.setDaemon(true);
+                return t;
+            });
+            heartbeatExecutor.scheduleWithFixedDelay(this::heartbeat, heartbeatIntervalMs, heartbeatIntervalMs,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public void heartbeat() {
+        if (!clustered) return;
+        try {
+            long now = System.currentTimeMillis();
+            redisTemplate.opsForZSet().add(NODES_KEY, nodeId, now);
+            redisTemplate.opsForZSet().removeRangeByScore(NODES_KEY, 0, now - nodeTtlMs);
+            redisTemplate.opsForHash().putIfAbsent(JOINED_KEY, nodeId, String.valueOf(now));
+            Set<String> live = new TreeSet<>();
+            Set<String> members = redisTemplate.opsForZSet().rangeByScore(NODES_KEY, now - nodeTtlMs, Double.MAX_VALUE);
+            if (members != null) live.addAll(members);
+            live.add(nodeId);
+            Set<String> owners = owners(live, redisTemplate.opsForHash().entries(JOINED_KEY), now);
+            Membership current = membership;
+            if (!live.equals(current.target().nodes()) || !owners.equals(current.ring().nodes())) {
+                membership = new Membership(Ring.of(owners), Ring.of(live));
+                log.info("Cluster membership changed: {} (owners {})", live, owners);
+                membershipListeners.forEach(Runnable::run);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Cluster heartbeat failed, keeping last known membership: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Узлы, вступившие во владение: отметились не позже чем handover-grace назад. Если таких нет (первый узел
+     * или перезапуск всего кластера), передавать матчи некому и владеют все живые узлы.
+     */
+    private Set<String> owners(Set<String> live, Map<Object, Object> joined, long now) {
+        Set<String> owners = new TreeSet<>();
+        for (String node : live) {
+            Object at = joined.get(node);
+            if (at != null && Long.parseLong(at.toString()) <= now - handoverGraceMs) {
+                owners.add(node);
+            }
+        }
+        Object[] departed = joined.keySet().stream().filter(n -> !live.contains(n.toString())).toArray();
+        if (departed.length > 0) {
+            redisTemplate.opsForHash().delete(JOINED_KEY, departed);
+        }
+        return owners.isEmpty() ? live : owners;
+    }
+
+    @PreDestroy
+    void leave() {
+        if (!clustered) return;
+        if (heartbeatExecutor != null) {
+            heartbeatExecutor.shutdownNow();
+        }
+        try {
+            redisTemplate.opsForZSet().remove(NODES_KEY, nodeId);
+            redisTemplate.opsForHash().delete(JOINED_KEY, nodeId);
+        } catch (RuntimeException e) {
+            log.debug("Cluster leave failed: {}", e.getMessage());
+        }
+    }
+
+    static long hash(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(key.getBytes(StandardCharsets.UTF_8));
+            long h = 0;
+            for (int i = 0; i < 8; i++) {
+                h = (h << 8) | (digest[i] & 0xff);
+            }
+            return h;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** ring — узлы-владельцы, target — все живые узлы; различаются, пока новый узел ждёт handover-grace. */
+    private record Membership(Ring ring, Ring target) {
+    }
+
+    /** Кольцо консистентного хэша: у каждого узла VIRTUAL_NODES точек, ключ принадлежит следующей точке по часовой. */
+    private record Ring(Set<String> nodes, TreeMap<Long, String> points) {
+
+        static Ring of(Collection<String> nodes) {
+            TreeMap<Long, String> points = new TreeMap<>();
+            for (String node : nodes) {
+                for (int i = 0; i < VIRTUAL_NODES; i++) {
+                    points.put(hash(node + "#" + i), node);
+                }
+            }
+            return new Ring(Set.copyOf(nodes), points);
+        }
+
+        String ownerOf(String key) {
+            Map.Entry<Long, String> point = points.ceilingEntry(hash(key));
+            return (point != null ? point : points.firstEntry()).getValue();
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package com.lotus.game.service;
 
 import com.lotus.game.dto.game.HeroDto;
-import com.lotus.game.entity.Match;
 import com.lotus.game.entity.User;
 import com.lotus.game.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
@@ -63,16 +62,9 @@ public class HeroProgressService {
         return user.getUnlockedHeroIds().contains(heroId.trim());
     }
 
+    /** Стартовые герой и карты и награда за матч; вызывается обработчиком outbox ({@link PostMatchPipeline}). */
     @Transactional
-    public void onMatchFinishedForPlayers(Match match) {
-        if (match.getStatus() != Match.MatchStatus.FINISHED || match.getPlayer2Id() == null) {
-            return;
-        }
-        refreshAfterMatch(match.getPlayer1Id(), match.getId());
-        refreshAfterMatch(match.getPlayer2Id(), match.getId());
-    }
-
-    private void refreshAfterMatch(Long userId, Long matchId) {
+    public void onMatchFinished(Long userId, Long matchId) {
         User user = userRepository.findById(userId).orElse(null);
         if (user == null || isAdmin(user)) {
             return;
@@ -0,0 +1,94 @@
+package com.lotus.game.service;
+
+import com.lotus.game.entity.Match;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToLongFunction;
+
+/**
+ * Очереди матчмейкинга в памяти инстанса. Подбор и изъятие пар выполняются под блокировкой очереди режима;
+ * замена заявки берёт блокировки обеих очередей (старого и нового режима) в порядке режимов.
+ */
+@Component
+@ConditionalOnProperty(name = "app.matchmaking.queue-store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryMatchmakingQueue implements MatchmakingQueue {
+
+    private final Map<Match.MatchMode, TreeSet<MatchmakingTicket>> queues = new EnumMap<>(Match.MatchMode.class);
+    private final ConcurrentHashMap<Long, MatchmakingTicket> ticketsByUser = new ConcurrentHashMap<>();
+
+    public InMemoryMatchmakingQueue() {
+        for (Match.MatchMode mode : Match.MatchMode.values()) {
+            queues.put(mode, new TreeSet<>(MatchmakingPairing.QUEUE_ORDER));
+        }
+    }
+
+    @Override
+    public MatchmakingTicket enqueue(MatchmakingTicket ticket) {
+        while (true) {
+            MatchmakingTicket previous = ticketsByUser.get(ticket.userId());
+            Match.MatchMode previousMode = previous != null ? previous.mode() : ticket.mode();
+            boolean previousFirst = previousMode.ordinal() <= ticket.mode().ordinal();
+            TreeSet<MatchmakingTicket> first = queues.get(previousFirst ? previousMode : ticket.mode());
+            TreeSet<MatchmakingTicket> second = queues.get(previousFirst ? ticket.mode() : previousMode);
+            synchronized (first) {
+                synchronized (second) {
+                    if (ticketsByUser.get(ticket.userId()) != previous) {
+                        continue; // заявку успели заменить или забрать в пару — повторяем с новым состоянием
+                    }
+                    boolean replaced = previous != null && removeLocked(queues.get(previousMode), previous);
+                    queues.get(ticket.mode()).add(ticket);
+                    ticketsByUser.put(ticket.userId(), ticket);
+                    return replaced ? previous : null;
+                }
+            }
+        }
+    }
+
+    @Override
+    public MatchmakingTicket cancel(Long userId) {
+        MatchmakingTicket ticket = ticketsByUser.get(userId);
+        if (ticket == null) {
+            return null;
+        }
+        TreeSet<MatchmakingTicket> queue = queues.get(ticket.mode());
+        synchronized (queue) {
+            return removeLocked(queue, ticket) ? ticket : null;
+        }
+    }
+
+    @Override
+    public int size(Match.MatchMode mode) {
+        TreeSet<MatchmakingTicket> queue = queues.get(mode);
+        synchronized (queue) {
+            return queue.size();
+        }
+    }
+
+    @Override
+    public List<Pair> claimPairs(Match.MatchMode mode, ToLongFunction<MatchmakingTicket> window) {
+        TreeSet<MatchmakingTicket> queue = queues.get(mode);
+        synchronized (queue) {
+            List<Pair> pairs = MatchmakingPairing.select(new ArrayList<>(queue), window);
+            for (Pair pair : pairs) {
+                removeLocked(queue, pair.first());
+                removeLocked(queue, pair.second());
+            }
+            return pairs;
+        }
+    }
+
+    private boolean removeLocked(TreeSet<MatchmakingTicket> queue, MatchmakingTicket ticket) {
+        if (!queue.remove(ticket)) {
+            return false;
+        }
+        ticketsByUser.remove(ticket.userId(), ticket);
+        return true;
+    }
+}
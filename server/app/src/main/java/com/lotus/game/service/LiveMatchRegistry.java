@@ -0,0 +1,110 @@
+package com.lotus.game.service;
+
+import com.lotus.game.entity.Match;
+import com.lotus.game.repository.MatchReplayEventRepository;
+import com.lotus.game.repository.MatchRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Реестр live-матчей. Для матчей в статусе IN_PROGRESS источник истины — объект {@link Match} в памяти:
+ * действия мутируют его напрямую, а в таблицу matches он попадает через {@link MatchWriteBehindService}.
+ * Матч остаётся в реестре до тех пор, пока его финальное (FINISHED) состояние не записано в БД.
+ */
+@Component("liveMatchRegistry")
+@RequiredArgsConstructor
+public class LiveMatchRegistry {
+
+    private final MatchRepository matchRepository;
+    private final MatchReplayEventRepository replayEventRepository;
+    private final CardRegistry cardRegistry;
+    private final ClusterNodes clusterNodes;
+    private final MatchCommandExecutor commands;
+    private final ObjectProvider<TurnTimerService> turnTimers;
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentHashMap<Long, Match> live = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void registerGauges() {
+        for (Match.MatchMode mode : Match.MatchMode.values()) {
+            Gauge.builder("lotus.match.active", live, l -> l.values().stream()
+                            .filter(m -> m.getMatchMode() == mode && m.getStatus() == Match.MatchStatus.IN_PROGRESS)
+                            .count())
+                    .description("Идущие матчи на этом узле")
+                    .tag("mode", mode.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    public Optional<Match> find(Long matchId) {
+        if (matchId == null) return Optional.empty();
+        return Optional.ofNullable(live.get(matchId));
+    }
+
+    public boolean isLive(Long matchId) {
+        return matchId != null && live.containsKey(matchId);
+    }
+
+    /**
+     * Возвращает live-матч, при промахе читает строку из БД. Матч IN_PROGRESS (например, после рестарта)
+     * регистрируется в реестре, только если этот узел им владеет ({@link ClusterNodes#ownsMatch}); иначе, как и
+     * для остальных статусов, возвращается строка из БД без регистрации — иначе чтение на чужом узле (реплей)
+     * создало бы вторую, устаревшую live-копию. Зарегистрированному матчу сразу взводится таймер хода: после
+     * рестарта или смены владельца прежнего таймера нет, а действия в матче может больше и не быть.
+     */
+    public Match getOrLoad(Long matchId) {
+        Match match = live.get(matchId);
+        if (match != null) {
+            return match;
+        }
+        Match loaded = matchRepository.findById(matchId)
+                .orElseThrow(() -> new IllegalArgumentException("Match not found: " + matchId));
+        if (loaded.getStatus() != Match.MatchStatus.IN_PROGRESS || !clusterNodes.ownsMatch(matchId)) {
+            return loaded;
+        }
+        loaded.getReplayLog().addAll(replayEventRepository.findByMatchIdOrderByStepIndexAsc(matchId));
+        loaded.setReplayLogFlushed(loaded.getReplayLog().size());
+        loaded.setCardDefinitions(cardRegistry.version(loaded.getCardDefinitionsVersion()));
+        Match existing = live.putIfAbsent(matchId, loaded);
+        if (existing != null) {
+            return existing;
+        }
+        turnTimers.ifAvailable(timers -> commands.execute(matchId, () -> {
+            timers.onCommit(loaded, loaded.getCurrentTurnPlayerId(), true);
+            return null;
+        }));
+        return loaded;
+    }
+
+    public void register(Match match) {
+        live.put(match.getId(), match);
+    }
+
+    /** Снимает матч с учёта после записи финального состояния. */
+    void releaseIfFinished(Long matchId) {
+        live.computeIfPresent(matchId, (id, m) -> m.getStatus() == Match.MatchStatus.FINISHED ? null : m);
+    }
+
+    /** Снимает матч с учёта, когда им начинает владеть другой узел (см. MatchWriteBehindService#flushAndRelease). */
+    void release(Long matchId) {
+        live.remove(matchId);
+    }
+
+    public Collection<Match> all() {
+        return List.copyOf(live.values());
+    }
+
+    public int size() {
+        return live.size();
+    }
+}
@@ -0,0 +1,131 @@
+package com.lotus.game.service;
+
+import com.lotus.game.config.ReplayPayloadConverter;
+import com.lotus.game.config.ReplayStepsConverter;
+import com.lotus.game.dto.game.ReplayStepDto;
+import com.lotus.game.engine.GameState;
+import com.lotus.game.engine.GameStateCodec;
+import com.lotus.game.entity.MatchReplayEvent;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Формат блоба {@link com.lotus.game.entity.MatchArchive}: версия, финальное состояние ({@link GameStateCodec}),
+ * старые шаги replay_data (JSON) и записи журнала реплея, всё через deflate. Keyframes журнала сохраняются,
+ * поэтому перемотка архивного реплея переигрывает столько же действий, сколько до архивации.
+ */
+final class MatchArchiveCodec {
+
+    private static final int FORMAT_VERSION = 1;
+    private static final ReplayStepsConverter STEPS = new ReplayStepsConverter();
+    private static final ReplayPayloadConverter PAYLOADS = new ReplayPayloadConverter();
+
+    private MatchArchiveCodec() {
+    }
+
+    /** Содержимое архива матча. */
+    record ArchivedMatch(GameState finalState, List<ReplayStepDto> legacySteps, List<MatchReplayEvent> events) {
+    }
+
+    /** Несжатая форма; {@link #compress} сжимает её для хранения. */
+    static byte[] encode(ArchivedMatch archived) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(FORMAT_VERSION);
+            writeBytes(out, archived.finalState() != null ? GameStateCodec.encode(archived.finalState()) : null);
+            writeString(out, STEPS.convertToDatabaseColumn(archived.legacySteps()));
+            out.writeInt(archived.events().size());
+            for (MatchReplayEvent e : archived.events()) {
+                out.writeInt(e.getStepIndex());
+                out.writeInt(e.getTurnNumber());
+                out.writeUTF(e.getActionType().name());
+                out.writeBoolean(e.getPlayerId() != null);
+                if (e.getPlayerId() != null) out.writeLong(e.getPlayerId());
+                writeString(out, e.getDescription());
+                writeString(out, PAYLOADS.convertToDatabaseColumn(e.getPayload()));
+                writeBytes(out, e.getKeyframe());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static byte[] compress(byte[] raw) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(raw.length / 4 + 64);
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (DeflaterOutputStream out = new DeflaterOutputStream(bytes, deflater)) {
+            out.write(raw);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            deflater.end();
+        }
+        return bytes.toByteArray();
+    }
+
+    static ArchivedMatch decode(Long matchId, byte[] compressed) {
+        Inflater inflater = new Inflater();
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(compressed), inflater))) {
+            int version = in.readInt();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Unsupported match archive format: " + version);
+            }
+            byte[] state = readBytes(in);
+            List<ReplayStepDto> legacy = STEPS.convertToEntityAttribute(readString(in));
+            int count = in.readInt();
+            List<MatchReplayEvent> events = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                events.add(MatchReplayEvent.builder()
+                        .matchId(matchId)
+                        .stepIndex(in.readInt())
+                        .turnNumber(in.readInt())
+                        .actionType(MatchReplayEvent.ActionType.valueOf(in.readUTF()))
+                        .playerId(in.readBoolean() ? in.readLong() : null)
+                        .description(readString(in))
+                        .payload(PAYLOADS.convertToEntityAttribute(readString(in)))
+                        .keyframe(readBytes(in))
+                        .build());
+            }
+            return new ArchivedMatch(state != null ? GameStateCodec.decode(state) : null, legacy, events);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Corrupted archive of match " + matchId, e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] value) throws IOException {
+        out.writeInt(value != null ? value.length : -1);
+        if (value != null) out.write(value);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) return null;
+        byte[] value = new byte[length];
+        in.readFully(value);
+        return value;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        writeBytes(out, value != null ? value.getBytes(StandardCharsets.UTF_8) : null);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] value = readBytes(in);
+        return value != null ? new String(value, StandardCharsets.UTF_8) : null;
+    }
+}
@@ -0,0 +1,125 @@
+package com.lotus.game.service;
+
+import com.lotus.game.entity.Match;
+import com.lotus.game.entity.MatchArchive;
+import com.lotus.game.entity.MatchReplayEvent;
+import com.lotus.game.repository.MatchArchiveRepository;
+import com.lotus.game.repository.MatchReplayEventRepository;
+import com.lotus.game.repository.MatchRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Холодный архив завершённых матчей. Матчи старше after-days переносятся в match_archives: финальное состояние,
+ * replay_data и записи match_replay_events сжимаются в один deflate-блоб ({@link MatchArchiveCodec}),
+ * после чего тяжёлые колонки в matches обнуляются, а записи журнала удаляются. Каждый матч архивируется в своей
+ * транзакции; гонку двух узлов решает первичный ключ архива и версия строки матча.
+ * <p>
+ * Чтение прозрачно: {@link MatchReplayService} и {@link MatchService#getMatch} берут журнал и состояние
+ * из архива, если у матча заполнен archived_at.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MatchArchiveService {
+
+    private final MatchRepository matchRepository;
+    private final MatchReplayEventRepository replayEventRepository;
+    private final MatchArchiveRepository archiveRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.match.archive.after-days:30}")
+    private long afterDays;
+
+    @Value("${app.match.archive.batch-size:100}")
+    private int batchSize;
+
+    @Scheduled(initialDelayString = "${app.match.archive.interval-ms:3600000}",
+            fixedDelayString = "${app.match.archive.interval-ms:3600000}")
+    public void archiveFinished() {
+        if (afterDays < 0) {
+            return;
+        }
+        Instant cutoff = Instant.now().minus(Duration.ofDays(afterDays));
+        int archived = 0;
+        Long afterId = 0L;
+        while (true) {
+            List<Long> ids = matchRepository.findArchivableIds(cutoff, afterId, PageRequest.of(0, batchSize));
+            for (Long matchId : ids) {
+                try {
+                    Boolean done = transactionTemplate.execute(tx -> archive(matchId));
+                    if (Boolean.TRUE.equals(done)) {
+                        archived++;
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("Match {} was not archived: {}", matchId, e.getMessage());
+                }
+            }
+            if (ids.size() < batchSize) {
+                break;
+            }
+            afterId = ids.get(ids.size() - 1);
+        }
+        if (archived > 0) {
+            log.info("Archived {} finished matches older than {} days", archived, afterDays);
+        }
+    }
+
+    /** Журнал и финальное состояние архивного матча. */
+    public MatchArchiveCodec.ArchivedMatch load(Long matchId) {
+        MatchArchive archive = archiveRepository.findById(matchId)
+                .orElseThrow(() -> new IllegalArgumentException("Match archive not found: " + matchId));
+        return MatchArchiveCodec.decode(matchId, archive.getPayload());
+    }
+
+    private boolean archive(Long matchId) {
+        Match match = matchRepository.findById(matchId).orElse(null);
+        if (match == null || match.getStatus() != Match.MatchStatus.FINISHED || match.getArchivedAt() != null) {
+            return false;
+        }
+        List<MatchReplayEvent> events = replayEventRepository.findByMatchIdOrderByStepIndexAsc(matchId);
+        byte[] raw = MatchArchiveCodec.encode(new MatchArchiveCodec.ArchivedMatch(match.getGameState(),
+                match.getReplaySteps() != null ? match.getReplaySteps() : List.of(), events));
+        byte[] payload = MatchArchiveCodec.compress(raw);
+        Instant now = Instant.now();
+        archiveRepository.save(MatchArchive.builder()
+                .matchId(matchId)
+                .archivedAt(now)
+                .stepCount(events.size() + (match.getReplaySteps() != null ? match.getReplaySteps().size() : 0))
+                .rawSize(raw.length)
+                .payload(payload)
+                .build());
+        replayEventRepository.deleteByMatchId(matchId);
+        if (match.getTurnCount() == null && match.getGameState() != null) {
+            match.setTurnCount(match.getGameState().getTurnNumber()); // после архивации game_state пуст
+        }
+        match.setGameState(null);
+        match.setReplaySteps(new ArrayList<>());
+        match.setArchivedAt(now);
+        archivedBytes("raw", raw.length);
+        archivedBytes("stored", payload.length);
+        return true;
+    }
+
+    private void archivedBytes(String kind, int bytes) {
+        Counter.builder("lotus.match.archive.bytes")
+                .description("Объём перенесённых в архив матчей")
+                .baseUnit("bytes")
+                .tag("kind", kind)
+                .register(meterRegistry)
+                .increment(bytes);
+    }
+}
@@ -0,0 +1,96 @@
+package com.lotus.game.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lotus.game.dto.game.MatchDeltaDto;
+import com.lotus.game.dto.game.MatchDto;
+import com.lotus.game.dto.game.MatchStateView;
+import com.lotus.game.engine.GameState;
+import com.lotus.game.entity.Match;
+import com.lotus.game.entity.User;
+import com.lotus.game.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * Рассылка обновлений матча. Каждый игрок получает дельту своей проекции ({@link MatchStateView})
+ * в user-destination /queue/match/{id}; сообщение для места сериализуется один раз на версию.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MatchBroadcastService {
+
+    public static final String MATCH_QUEUE_PREFIX = "/queue/match/";
+
+    private final ClusterMessaging messaging;
+    private final ObjectMapper objectMapper;
+    private final UserRepository userRepository;
+
+    /**
+     * Рассылает изменения матча с прошлой рассылки и увеличивает его stateVersion.
+     * Вызывается в очереди команд матча (MatchCommandExecutor), поэтому версии идут строго по порядку.
+     */
+    public void broadcastMatchUpdate(Match match) {
+        GameState previous = match.getBroadcastState();
+        GameState current = match.getGameState() != null ? match.getGameState().copy() : null;
+        long baseVersion = match.getStateVersion();
+        match.setStateVersion(baseVersion + 1);
+        match.setBroadcastState(current);
+
+        sendToSeat(match, match.getPlayer1Id(), previous, current, baseVersion);
+        if (match.getPlayer2Id() != null && !PracticeBotService.isBot(match.getPlayer2Id())) {
+            sendToSeat(match, match.getPlayer2Id(), previous, current, baseVersion);
+        }
+    }
+
+    private void sendToSeat(Match match, Long userId, GameState previous, GameState current, long baseVersion) {
+        String username = usernameOf(match, userId);
+        if (username == null) return;
+        MatchDeltaDto update;
+        if (previous == null || current == null) {
+            update = MatchDeltaDto.builder()
+                    .matchId(match.getId())
+                    .version(match.getStateVersion())
+                    .baseVersion(baseVersion)
+                    .snapshot(MatchDto.from(match, userId))
+                    .build();
+        } else {
+            int seat = MatchDto.seatOf(match, userId);
+            MatchStateView before = MatchStateView.of(previous, seat);
+            MatchStateView after = MatchStateView.of(current, seat);
+            update = MatchDeltaDto.builder()
+                    .matchId(match.getId())
+                    .version(match.getStateVersion())
+                    .baseVersion(baseVersion)
+                    .status(match.getStatus())
+                    .winnerId(match.getWinnerId())
+                    .currentTurnPlayerId(match.getCurrentTurnPlayerId())
+                    .turnNumber(before.getTurnNumber() != after.getTurnNumber() ? after.getTurnNumber() : null)
+                    .turnDeadline(match.getTurnDeadline() != null ? match.getTurnDeadline().toString() : null)
+                    .player1(MatchDeltaEncoder.diff(before.getPlayer1(), after.getPlayer1()))
+                    .player2(MatchDeltaEncoder.diff(before.getPlayer2(), after.getPlayer2()))
+                    .build();
+        }
+        byte[] payload;
+        try {
+            payload = objectMapper.writeValueAsBytes(update);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize match update", e);
+        }
+        messaging.sendToUser(username, MATCH_QUEUE_PREFIX + match.getId(), payload);
+        log.debug("Sent match {} v{} to {} ({} bytes)", match.getId(), match.getStateVersion(), username, payload.length);
+    }
+
+    /** Имена игроков для user-destination читаются один раз за жизнь live-матча. */
+    private String usernameOf(Match match, Long userId) {
+        boolean first = userId.equals(match.getPlayer1Id());
+        String cached = first ? match.getPlayer1Username() : match.getPlayer2Username();
+        if (cached != null) return cached;
+        String username = userRepository.findById(userId).map(User::getUsername).orElse(null);
+        if (first) match.setPlayer1Username(username);
+        else match.setPlayer2Username(username);
+        return username;
+    }
+}
@@ -0,0 +1,60 @@
+package com.lotus.game.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Последовательное выполнение команд одного матча. У каждого матча свой «почтовый ящик» — честная (FIFO)
+ * блокировка: действия одного матча выполняются по одному в порядке поступления, разные матчи не мешают
+ * друг другу. Ящик существует, пока есть хотя бы одна команда в работе или в ожидании.
+ */
+@Component
+public class MatchCommandExecutor {
+
+    private final ConcurrentHashMap<Long, Mailbox> mailboxes = new ConcurrentHashMap<>();
+    private final AtomicInteger queued = new AtomicInteger();
+
+    public MatchCommandExecutor(MeterRegistry meterRegistry) {
+        Gauge.builder("lotus.match.commands.queued", queued, AtomicInteger::get)
+                .description("Команды матчей, ожидающие выполнения")
+                .register(meterRegistry);
+        Gauge.builder("lotus.match.commands.mailboxes", mailboxes, ConcurrentHashMap::size)
+                .description("Матчи с командами в работе")
+                .register(meterRegistry);
+    }
+
+    public <T> T execute(Long matchId, Supplier<T> command) {
+        Mailbox mailbox = mailboxes.compute(matchId, (id, m) -> {
+            Mailbox box = m != null ? m : new Mailbox();
+            box.refs++;
+            return box;
+        });
+        queued.incrementAndGet();
+        mailbox.lock.lock();
+        queued.decrementAndGet();
+        try {
+            return command.get();
+        } finally {
+            mailbox.lock.unlock();
+            mailboxes.computeIfPresent(matchId, (id, m) -> --m.refs == 0 ? null : m);
+        }
+    }
+
+    /** Число команд, ожидающих выполнения в конкретном матче. */
+    public int queueDepth(Long matchId) {
+        Mailbox mailbox = mailboxes.get(matchId);
+        return mailbox != null ? mailbox.lock.getQueueLength() : 0;
+    }
+
+    private static final class Mailbox {
+        private final ReentrantLock lock = new ReentrantLock(true);
+        /** Меняется только внутри compute/computeIfPresent по ключу матча. */
+        private int refs;
+    }
+}
@@ -0,0 +1,126 @@
+package com.lotus.game.service;
+
+import com.lotus.game.dto.cluster.MatchCommand;
+import com.lotus.game.dto.game.AttackRequest;
+import com.lotus.game.dto.game.MatchDto;
+import com.lotus.game.dto.game.PlayCardRequest;
+import com.lotus.game.entity.Match;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Маршрутизация команд матча: live-состояние матча живёт только на узле-владельце ({@link ClusterNodes}),
+ * поэтому чтение и действия выполняются там, а с других узлов пересылаются через {@link ClusterBus}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MatchCommandRouter {
+
+    private final MatchService matchService;
+    private final ClusterNodes nodes;
+    private final ClusterBus bus;
+    private final LiveMatchRegistry liveMatches;
+    private final MatchWriteBehindService writeBehind;
+    private final MatchCommandExecutor commands;
+
+    @PostConstruct
+    void init() {
+        bus.onCommand(this::executeLocally);
+        nodes.onMembershipChange(this::releaseForeignMatches);
+    }
+
+    public MatchDto getMatch(Long matchId, Long userId) {
+        return route(MatchCommand.builder().type(MatchCommand.Type.GET).matchId(matchId).userId(userId).build());
+    }
+
+    public MatchDto playCard(Long matchId, Long userId, PlayCardRequest request) {
+        return route(MatchCommand.builder().type(MatchCommand.Type.PLAY).matchId(matchId).userId(userId).play(request).build());
+    }
+
+    public MatchDto attack(Long matchId, Long userId, AttackRequest request) {
+        return route(MatchCommand.builder().type(MatchCommand.Type.ATTACK).matchId(matchId).userId(userId).attack(request).build());
+    }
+
+    public MatchDto endTurn(Long matchId, Long userId) {
+        return route(MatchCommand.builder().type(MatchCommand.Type.END_TURN).matchId(matchId).userId(userId).build());
+    }
+
+    /**
+     * Матчи игрока: идущие читаются у владельца через {@link #getMatch} (в очереди команд матча, а не из
+     * разделяемого live-объекта), остальные отдаются сводкой без состояния.
+     *
+     * @deprecated список без пагинации; используйте GET /api/matches/history ({@link MatchService#getHistory})
+     */
+    @Deprecated
+    public List<MatchDto> getMyMatches(Long userId) {
+        return matchService.getMyMatchSummaries(userId).stream()
+                .map(m -> m.getStatus() == Match.MatchStatus.IN_PROGRESS ? liveView(m, userId) : m)
+                .toList();
+    }
+
+    /** Матч на передаче другому узлу или недоступный владелец не должны ронять весь список. */
+    private MatchDto liveView(MatchDto summary, Long userId) {
+        try {
+            return getMatch(summary.getId(), userId);
+        } catch (OptimisticLockingFailureException | IllegalStateException e) {
+            log.debug("Match {} listed without state: {}", summary.getId(), e.getMessage());
+            return summary;
+        }
+    }
+
+    private MatchDto route(MatchCommand command) {
+        if (nodes.ownsMatch(command.getMatchId())) {
+            return executeLocally(command);
+        }
+        if (nodes.isHandingOver(command.getMatchId())) {
+            // матч уже записан для нового владельца; клиент повторит команду, когда тот вступит во владение
+            throw new OptimisticLockingFailureException("Match " + command.getMatchId() + " is being handed over to node "
+                    + nodes.targetOwnerOf(command.getMatchId()));
+        }
+        return bus.forward(nodes.ownerOf(command.getMatchId()), command);
+    }
+
+    /** Пересланная команда выполняется здесь без повторной маршрутизации, даже если кольцо успело смениться. */
+    private MatchDto executeLocally(MatchCommand command) {
+        return switch (command.getType()) {
+            case GET -> matchService.getMatch(command.getMatchId(), command.getUserId());
+            case PLAY -> matchService.playCard(command.getMatchId(), command.getUserId(), command.getPlay());
+            case ATTACK -> matchService.attack(command.getMatchId(), command.getUserId(), command.getAttack());
+            case END_TURN -> matchService.endTurn(command.getMatchId(), command.getUserId());
+        };
+    }
+
+    /**
+     * После смены состава узлов матчи, перешедшие к другим владельцам, записываются в БД и снимаются с учёта:
+     * новый владелец загрузит их из БД при первой команде. Матчи ожидающего узла снимаются сразу, как только
+     * он появился в кластере, — до того, как он вступит во владение. Матч, запись которого не удалась, остаётся
+     * live здесь и передаётся повторно на следующем такте.
+     */
+    private synchronized void releaseForeignMatches() {
+        for (Match match : liveMatches.all()) {
+            if (nodes.ownsMatch(match.getId())) continue;
+            boolean released = commands.execute(match.getId(), () ->
+                    !liveMatches.isLive(match.getId()) || writeBehind.flushAndRelease(match));
+            if (released) {
+                log.info("Match {} handed over to node {}", match.getId(), nodes.targetOwnerOf(match.getId()));
+            } else {
+                log.warn("Match {} not handed over to node {}: its state is not saved yet",
+                        match.getId(), nodes.targetOwnerOf(match.getId()));
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.cluster.heartbeat-interval-ms:2000}")
+    void retryHandovers() {
+        if (nodes.isClustered()) {
+            releaseForeignMatches();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.lotus.game.service;
+
+import com.lotus.game.dto.game.MatchDeltaDto;
+import com.lotus.game.dto.game.MatchStateView;
+import com.lotus.game.engine.GameState;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Разница между двумя проекциями игрока в виде {@link MatchDeltaDto.PlayerPatch}.
+ */
+final class MatchDeltaEncoder {
+
+    private MatchDeltaEncoder() {
+    }
+
+    /** @return изменения проекции игрока или null, если ничего не изменилось */
+    static MatchDeltaDto.PlayerPatch diff(MatchStateView.PlayerView prev, MatchStateView.PlayerView next) {
+        MatchDeltaDto.PlayerPatch patch = new MatchDeltaDto.PlayerPatch();
+        if (prev.getHealth() != next.getHealth()) patch.setHealth(next.getHealth());
+        if (!Objects.equals(prev.getMaxHeroHealth(), next.getMaxHeroHealth())) patch.setMaxHeroHealth(next.getMaxHeroHealth());
+        if (prev.getMana() != next.getMana()) patch.setMana(next.getMana());
+        if (prev.getMaxMana() != next.getMaxMana()) patch.setMaxMana(next.getMaxMana());
+        if (prev.getFatigueCounter() != next.getFatigueCounter()) patch.setFatigueCounter(next.getFatigueCounter());
+        if (prev.getDeckCount() != next.getDeckCount()) patch.setDeckCount(next.getDeckCount());
+        if (prev.getHandCount() != next.getHandCount()) patch.setHandCount(next.getHandCount());
+        if (prev.getHand() != null && next.getHand() != null) {
+            diffHand(prev.getHand(), next.getHand(), patch);
+        } else if (next.getHand() != null) {
+            patch.setHand(next.getHand());
+        }
+        diffBoard(prev.getBoard(), next.getBoard(), patch);
+        return patch.isEmpty() ? null : patch;
+    }
+
+    private static void diffHand(List<GameState.CardInHand> prev, List<GameState.CardInHand> next, MatchDeltaDto.PlayerPatch patch) {
+        Set<String> nextIds = new HashSet<>();
+        next.forEach(c -> nextIds.add(c.getInstanceId()));
+        List<String> removed = new ArrayList<>();
+        List<GameState.CardInHand> kept = new ArrayList<>();
+        for (GameState.CardInHand c : prev) {
+            if (nextIds.contains(c.getInstanceId())) kept.add(c);
+            else removed.add(c.getInstanceId());
+        }
+        if (next.size() < kept.size() || !next.subList(0, kept.size()).equals(kept)) {
+            patch.setHand(next);
+            return;
+        }
+        if (!removed.isEmpty()) patch.setHandRemoved(removed);
+        if (next.size() > kept.size()) patch.setHandAdded(List.copyOf(next.subList(kept.size(), next.size())));
+    }
+
+    private static void diffBoard(List<GameState.BoardMinion> prev, List<GameState.BoardMinion> next, MatchDeltaDto.PlayerPatch patch) {
+        Map<String, GameState.BoardMinion> prevById = new HashMap<>();
+        prev.forEach(m -> prevById.put(m.getInstanceId(), m));
+        List<GameState.BoardMinion> upserts = new ArrayList<>();
+        for (GameState.BoardMinion m : next) {
+            if (!m.equals(prevById.get(m.getInstanceId()))) upserts.add(m);
+        }
+        if (!upserts.isEmpty()) patch.setBoardUpserts(upserts);
+        List<String> prevOrder = prev.stream().map(GameState.BoardMinion::getInstanceId).toList();
+        List<String> nextOrder = next.stream().map(GameState.BoardMinion::getInstanceId).toList();
+        if (!prevOrder.equals(nextOrder)) patch.setBoardOrder(nextOrder);
+    }
+}
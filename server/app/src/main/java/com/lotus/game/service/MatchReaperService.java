@@ -0,0 +1,119 @@
+package com.lotus.game.service;
+
+import com.lotus.game.entity.Match;
+import com.lotus.game.repository.MatchRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Фоновая очистка матчей. Строки WAITING (остались от прежнего матчмейкинга через таблицу matches) старше
+ * waiting-ttl удаляются одним запросом. Матчи IN_PROGRESS без действий дольше inactivity завершаются сдачей
+ * игрока, чей сейчас ход, через {@link MatchService#concede} — с реплеем, рейтингом и наградами, как обычная партия.
+ * <p>
+ * Live-матчи с таймером хода ({@link TurnTimerService}) завершаются раньше сами; очистка подбирает матчи, которые
+ * никто не загрузил после рестарта или смены владельца. В кластере каждый узел закрывает только свои матчи.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MatchReaperService {
+
+    private final MatchRepository matchRepository;
+    private final MatchService matchService;
+    private final LiveMatchRegistry liveMatches;
+    private final MatchCommandExecutor commands;
+    private final ClusterNodes clusterNodes;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.match.reaper.waiting-ttl-minutes:30}")
+    private long waitingTtlMinutes;
+
+    @Value("${app.match.reaper.inactivity-minutes:30}")
+    private long inactivityMinutes;
+
+    @Value("${app.match.reaper.batch-size:100}")
+    private int batchSize;
+
+    @Scheduled(initialDelayString = "${app.match.reaper.interval-ms:60000}",
+            fixedDelayString = "${app.match.reaper.interval-ms:60000}")
+    public void reap() {
+        Instant now = Instant.now();
+        Integer waiting = transactionTemplate.execute(tx ->
+                matchRepository.deleteWaitingCreatedBefore(now.minus(Duration.ofMinutes(waitingTtlMinutes))));
+        reclaimed("waiting", waiting != null ? waiting : 0);
+        int abandoned = resolveAbandoned(now.minus(Duration.ofMinutes(inactivityMinutes)));
+        reclaimed("abandoned", abandoned);
+        if ((waiting != null && waiting > 0) || abandoned > 0) {
+            log.info("Match reaper: {} stale waiting rows removed, {} abandoned matches finished", waiting, abandoned);
+        }
+    }
+
+    private int resolveAbandoned(Instant cutoff) {
+        int resolved = 0;
+        Long afterId = 0L;
+        while (true) {
+            List<Long> ids = matchRepository.findInactiveInProgressIds(cutoff, afterId, PageRequest.of(0, batchSize));
+            for (Long matchId : ids) {
+                if (!clusterNodes.ownsMatch(matchId)) {
+                    continue;
+                }
+                try {
+                    if (resolve(matchId, cutoff)) {
+                        resolved++;
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("Match reaper could not finish match {}: {}", matchId, e.getMessage());
+                }
+            }
+            if (ids.size() < batchSize) {
+                return resolved;
+            }
+            afterId = ids.get(ids.size() - 1);
+        }
+    }
+
+    /**
+     * Проверка повторяется по live-состоянию в очереди команд матча: строка в БД отстаёт от памяти
+     * на действия внутри хода.
+     */
+    private boolean resolve(Long matchId, Instant cutoff) {
+        return commands.execute(matchId, () -> {
+            Match match = liveMatches.getOrLoad(matchId);
+            if (match.getStatus() != Match.MatchStatus.IN_PROGRESS) {
+                return false;
+            }
+            Instant lastAction = match.getLastActionAt() != null ? match.getLastActionAt() : match.getCreatedAt();
+            if (lastAction.isAfter(cutoff)) {
+                return false;
+            }
+            matchService.concede(matchId, abandonedBy(match));
+            return true;
+        });
+    }
+
+    /** Матч бросил тот, чей сейчас ход; в тренировочном матче — всегда игрок, а не бот. */
+    private static Long abandonedBy(Match match) {
+        Long current = match.getCurrentTurnPlayerId();
+        return current == null || PracticeBotService.isBot(current) ? match.getPlayer1Id() : current;
+    }
+
+    private void reclaimed(String reason, int count) {
+        Counter.builder("lotus.match.reaped")
+                .description("Матчи, закрытые фоновой очисткой")
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment(count);
+    }
+}
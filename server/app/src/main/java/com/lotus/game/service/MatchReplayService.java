@@ -0,0 +1,312 @@
+package com.lotus.game.service;
+
+import com.lotus.game.config.GameStateConverter;
+import com.lotus.game.dto.game.AttackRequest;
+import com.lotus.game.dto.game.PlayCardRequest;
+import com.lotus.game.dto.game.ReplayPageDto;
+import com.lotus.game.dto.game.ReplayPayload;
+import com.lotus.game.dto.game.ReplayStepDto;
+import com.lotus.game.engine.GameRandom;
+import com.lotus.game.engine.GameState;
+import com.lotus.game.engine.GameStateCodec;
+import com.lotus.game.engine.RecordingGameRandom;
+import com.lotus.game.engine.ReplayGameRandom;
+import com.lotus.game.entity.Match;
+import com.lotus.game.entity.MatchReplayEvent;
+import com.lotus.game.repository.MatchReplayEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Реплеи как журнал действий: на каждое действие пишется тип, входные данные и исходы случайности,
+ * раз в keyframe-interval действий — полное состояние. Состояния шагов восстанавливаются по запросу
+ * переигрыванием действий от ближайшего keyframe.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MatchReplayService {
+
+    private final MatchReplayEventRepository replayEventRepository;
+    private final MatchRules rules;
+    private final MatchArchiveService archive;
+    private final CardRegistry cardRegistry;
+
+    @Value("${app.match.replay.keyframe-interval:16}")
+    private int keyframeInterval;
+
+    @Value("${app.match.replay.cache-max-bytes:33554432}")
+    private long timelineCacheMaxBytes;
+
+    /**
+     * LRU журналов завершённых матчей: перемотка не читает БД повторно. Память ограничена суммарной оценкой
+     * {@link Timeline#bytes()}; журнал больше всего лимита не кэшируется.
+     */
+    private final LinkedHashMap<Long, Timeline> timelineCache = new LinkedHashMap<>(16, 0.75f, true);
+    /** Сумма {@link Timeline#bytes()} по timelineCache; меняется под его монитором. */
+    private long timelineCacheBytes;
+
+    public void recordInit(Match match) {
+        append(match, MatchReplayEvent.ActionType.INIT, null, "Match started", null, true);
+    }
+
+    public void record(Match match, MatchReplayEvent.ActionType type, Long playerId, String description,
+                       ReplayPayload payload, RecordingGameRandom rng) {
+        if (!rng.getRolls().isEmpty()) payload.setRolls(List.copyOf(rng.getRolls()));
+        if (!rng.getInstanceIds().isEmpty()) payload.setInstanceIds(List.copyOf(rng.getInstanceIds()));
+        append(match, type, playerId, description, payload, false);
+    }
+
+    public static ReplayPayload payloadOf(PlayCardRequest request) {
+        return ReplayPayload.builder()
+                .instanceId(request.getInstanceId())
+                .targetPosition(request.getTargetPosition())
+                .targetInstanceId(request.getTargetInstanceId())
+                .build();
+    }
+
+    public static ReplayPayload payloadOf(AttackRequest request) {
+        return ReplayPayload.builder()
+                .attackerInstanceId(request.getAttackerInstanceId())
+                .targetInstanceId(request.getTargetInstanceId())
+                .build();
+    }
+
+    /** Сразу записывает ещё не сохранённые записи журнала (используется при старте матча, внутри транзакции). */
+    public void persistPending(Match match) {
+        List<MatchReplayEvent> events = match.getReplayLog();
+        synchronized (events) {
+            List<MatchReplayEvent> pending = events.subList(match.getReplayLogFlushed(), events.size());
+            replayEventRepository.saveAll(pending.stream().map(e -> e.toBuilder().id(null).build()).toList());
+            match.setReplayLogFlushed(events.size());
+        }
+    }
+
+    /**
+     * Страница индекса реплея: шаги без состояния. Старые матчи (replay_data) идут первыми шагами.
+     */
+    public ReplayPageDto page(Match match, boolean live, int offset, int limit) {
+        Timeline timeline = timeline(match, live);
+        int total = timeline.size();
+        int from = Math.min(Math.max(offset, 0), total);
+        int to = Math.min(from + Math.max(limit, 0), total);
+        List<ReplayStepDto> steps = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            steps.add(timeline.header(i));
+        }
+        return ReplayPageDto.builder()
+                .matchId(match.getId())
+                .totalSteps(total)
+                .offset(from)
+                .steps(steps)
+                .build();
+    }
+
+    /**
+     * Шаг реплея с состоянием после действия: ближайший keyframe не дальше шага плюс переигрывание
+     * не более keyframe-interval действий по версии карт, с которой шёл матч. Если переигрывание всё же разошлось
+     * с записью, состояние не отдаётся.
+     */
+    public ReplayStepDto stateAt(Match match, boolean live, int step) {
+        Timeline timeline = timeline(match, live);
+        if (step < 0 || step >= timeline.size()) {
+            throw new IllegalArgumentException("Replay step out of range: " + step);
+        }
+        ReplayStepDto result = timeline.header(step);
+        if (step < timeline.legacy().size()) {
+            result.setGameState(GameStateConverter.deepCopy(timeline.legacy().get(step).getGameState()));
+            return result;
+        }
+        List<MatchReplayEvent> events = timeline.events();
+        int target = step - timeline.legacy().size();
+        Map.Entry<Integer, GameState> keyframe = timeline.keyframes().floorEntry(target);
+        if (keyframe == null) {
+            return result;
+        }
+        Match scratch = scratchMatch(match, keyframe.getValue().copy());
+        for (int i = keyframe.getKey() + 1; i <= target; i++) {
+            try {
+                apply(scratch, events.get(i));
+            } catch (RuntimeException e) {
+                log.warn("Replay of match {} diverged at step {}: {}", match.getId(), events.get(i).getStepIndex(), e.getMessage());
+                return result;
+            }
+        }
+        result.setGameState(scratch.getGameState());
+        return result;
+    }
+
+    /**
+     * Журнал live-матча копируется из памяти; журнал завершённого матча читается из БД (или из архива) один раз
+     * и кэшируется. Идущий матч, прочитанный из БД (узел им не владеет), кэшировать нельзя: write-behind ещё
+     * дописывает его журнал, и после завершения отдавался бы обрезанный индекс.
+     */
+    private Timeline timeline(Match match, boolean live) {
+        if (live || match.getStatus() != Match.MatchStatus.FINISHED) {
+            return buildTimeline(match, live);
+        }
+        synchronized (timelineCache) {
+            Timeline cached = timelineCache.get(match.getId());
+            if (cached != null) {
+                return cached;
+            }
+        }
+        Timeline loaded = buildTimeline(match, false);
+        if (loaded.bytes() > timelineCacheMaxBytes) {
+            return loaded;
+        }
+        synchronized (timelineCache) {
+            Timeline previous = timelineCache.put(match.getId(), loaded);
+            timelineCacheBytes += loaded.bytes() - (previous != null ? previous.bytes() : 0);
+            Iterator<Timeline> eldest = timelineCache.values().iterator();
+            while (timelineCacheBytes > timelineCacheMaxBytes && eldest.hasNext()) {
+                timelineCacheBytes -= eldest.next().bytes();
+                eldest.remove();
+            }
+        }
+        return loaded;
+    }
+
+    private Timeline buildTimeline(Match match, boolean live) {
+        if (!live && match.getArchivedAt() != null) {
+            MatchArchiveCodec.ArchivedMatch archived = archive.load(match.getId());
+            return Timeline.of(archived.legacySteps(), archived.events());
+        }
+        List<ReplayStepDto> legacy = match.getReplaySteps() != null ? match.getReplaySteps() : List.of();
+        List<MatchReplayEvent> events;
+        if (live) {
+            List<MatchReplayEvent> log = match.getReplayLog();
+            synchronized (log) {
+                events = List.copyOf(log);
+            }
+        } else {
+            events = List.copyOf(replayEventRepository.findByMatchIdOrderByStepIndexAsc(match.getId()));
+        }
+        return Timeline.of(legacy, events);
+    }
+
+    private void append(Match match, MatchReplayEvent.ActionType type, Long playerId, String description,
+                        ReplayPayload payload, boolean forceKeyframe) {
+        List<MatchReplayEvent> events = match.getReplayLog();
+        int legacySteps = match.getReplaySteps() != null ? match.getReplaySteps().size() : 0;
+        GameState state = match.getGameState();
+        synchronized (events) {
+            boolean keyframe = forceKeyframe || events.isEmpty() || events.size() % keyframeInterval == 0;
+            events.add(MatchReplayEvent.builder()
+                    .matchId(match.getId())
+                    .stepIndex(legacySteps + events.size())
+                    .turnNumber(state != null ? state.getTurnNumber() : 1)
+                    .actionType(type)
+                    .playerId(playerId)
+                    .description(description)
+                    .payload(payload)
+                    .keyframe(keyframe && state != null ? GameStateCodec.encode(state) : null)
+                    .build());
+        }
+    }
+
+    private void apply(Match scratch, MatchReplayEvent event) {
+        ReplayPayload p = event.getPayload() != null ? event.getPayload() : new ReplayPayload();
+        GameRandom rng = new ReplayGameRandom(p.getRolls(), p.getInstanceIds());
+        switch (event.getActionType()) {
+            case PLAY -> {
+                PlayCardRequest req = new PlayCardRequest();
+                req.setInstanceId(p.getInstanceId());
+                req.setTargetPosition(p.getTargetPosition());
+                req.setTargetInstanceId(p.getTargetInstanceId());
+                rules.playCard(scratch, event.getPlayerId(), req, rng);
+            }
+            case ATTACK -> {
+                AttackRequest req = new AttackRequest();
+                req.setAttackerInstanceId(p.getAttackerInstanceId());
+                req.setTargetInstanceId(p.getTargetInstanceId());
+                rules.attack(scratch, event.getPlayerId(), req, rng);
+            }
+            case END_TURN -> rules.endTurn(scratch, event.getPlayerId(), rng);
+            case CONCEDE -> rules.concede(scratch, event.getPlayerId(), rng);
+            case INIT -> {
+            }
+        }
+    }
+
+    private Match scratchMatch(Match source, GameState state) {
+        return Match.builder()
+                .id(source.getId())
+                .player1Id(source.getPlayer1Id())
+                .player2Id(source.getPlayer2Id())
+                .matchMode(source.getMatchMode())
+                .status(Match.MatchStatus.IN_PROGRESS)
+                .currentTurnPlayerId(state.getCurrentTurnPlayerId())
+                .gameState(state)
+                .cardDefinitionsVersion(source.getCardDefinitionsVersion())
+                .cardDefinitions(cardRegistry.version(source.getCardDefinitionsVersion()))
+                .build();
+    }
+
+    /**
+     * Журнал матча для перемотки: keyframe'ы хранятся декодированными (по индексу записи), в самих записях остаются
+     * только действия. bytes — оценка занимаемой памяти: закодированный размер состояний плюс постоянная на шаг.
+     */
+    private record Timeline(List<ReplayStepDto> legacy, List<MatchReplayEvent> events,
+                            NavigableMap<Integer, GameState> keyframes, long bytes) {
+
+        /** Грубая оценка шага без состояния: заголовок, описание и payload. */
+        private static final int STEP_BYTES = 256;
+
+        static Timeline of(List<ReplayStepDto> legacy, List<MatchReplayEvent> log) {
+            long bytes = (long) STEP_BYTES * (legacy.size() + log.size());
+            for (ReplayStepDto step : legacy) {
+                if (step.getGameState() != null) {
+                    bytes += GameStateCodec.encode(step.getGameState()).length;
+                }
+            }
+            List<MatchReplayEvent> events = new ArrayList<>(log.size());
+            TreeMap<Integer, GameState> keyframes = new TreeMap<>();
+            for (MatchReplayEvent event : log) {
+                if (event.getKeyframe() != null) {
+                    bytes += event.getKeyframe().length;
+                    keyframes.put(events.size(), GameStateCodec.decode(event.getKeyframe()));
+                    event = event.toBuilder().keyframe(null).build();
+                }
+                events.add(event);
+            }
+            return new Timeline(List.copyOf(legacy), List.copyOf(events), Collections.unmodifiableNavigableMap(keyframes), bytes);
+        }
+
+        int size() {
+            return legacy.size() + events.size();
+        }
+
+        ReplayStepDto header(int step) {
+            if (step < legacy.size()) {
+                ReplayStepDto s = legacy.get(step);
+                return ReplayStepDto.builder()
+                        .stepIndex(step)
+                        .turnNumber(s.getTurnNumber())
+                        .actionType(s.getActionType())
+                        .playerId(s.getPlayerId())
+                        .description(s.getDescription())
+                        .build();
+            }
+            MatchReplayEvent e = events.get(step - legacy.size());
+            return ReplayStepDto.builder()
+                    .stepIndex(step)
+                    .turnNumber(e.getTurnNumber())
+                    .actionType(e.getActionType().name())
+                    .playerId(e.getPlayerId())
+                    .description(e.getDescription())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.lotus.game.service;
+
+import com.lotus.game.dto.game.AttackRequest;
+import com.lotus.game.dto.game.PlayCardRequest;
+import com.lotus.game.engine.ActionResult;
+import com.lotus.game.engine.CardDefinitions;
+import com.lotus.game.engine.GameAction;
+import com.lotus.game.engine.GameEngine;
+import com.lotus.game.engine.GameRandom;
+import com.lotus.game.engine.MatchState;
+import com.lotus.game.entity.Match;
+import org.springframework.stereotype.Component;
+
+/**
+ * Адаптер {@link GameEngine} к JPA-сущности матча: собирает {@link MatchState} из {@link Match}, применяет действие
+ * и переносит результат обратно. Сами правила живут в модуле lotus-game-engine без Spring и БД.
+ */
+@Component
+public class MatchRules {
+
+    public static final String HERO_TARGET = GameEngine.HERO_TARGET;
+
+    private final GameEngine engine = new GameEngine();
+
+    /** @return описание действия для реплея */
+    public String playCard(Match match, Long userId, PlayCardRequest request, GameRandom rng) {
+        return apply(match, new GameAction.PlayCard(userId, request.getInstanceId(),
+                request.getTargetPosition(), request.getTargetInstanceId()), rng).description();
+    }
+
+    public String attack(Match match, Long userId, AttackRequest request, GameRandom rng) {
+        return apply(match, new GameAction.Attack(userId, request.getAttackerInstanceId(),
+                request.getTargetInstanceId()), rng).description();
+    }
+
+    public String endTurn(Match match, Long userId, GameRandom rng) {
+        return apply(match, new GameAction.EndTurn(userId), rng).description();
+    }
+
+    public String concede(Match match, Long userId, GameRandom rng) {
+        return apply(match, new GameAction.Concede(userId), rng).description();
+    }
+
+    public GameEngine engine() {
+        return engine;
+    }
+
+    /** Глубокая копия состояния матча для поиска хода бота; сам матч не меняется. */
+    public MatchState snapshot(Match match) {
+        return stateOf(match).copy();
+    }
+
+    private ActionResult apply(Match match, GameAction action, GameRandom rng) {
+        MatchState state = stateOf(match);
+        ActionResult result = engine.apply(state, action, rng);
+        writeBack(match, state);
+        return result;
+    }
+
+    private MatchState stateOf(Match match) {
+        return MatchState.builder()
+                .player1Id(match.getPlayer1Id())
+                .player2Id(match.getPlayer2Id())
+                .status(match.getStatus() == Match.MatchStatus.IN_PROGRESS
+                        ? MatchState.Status.IN_PROGRESS : MatchState.Status.FINISHED)
+                .winnerId(match.getWinnerId())
+                .currentTurnPlayerId(match.getCurrentTurnPlayerId())
+                .game(match.getGameState())
+                .cards(cards(match))
+                .build();
+    }
+
+    private void writeBack(Match match, MatchState state) {
+        if (state.isFinished() && match.getStatus() != Match.MatchStatus.FINISHED) {
+            match.setStatus(Match.MatchStatus.FINISHED);
+            match.setWinnerId(state.getWinnerId());
+        }
+        match.setCurrentTurnPlayerId(state.getCurrentTurnPlayerId());
+        match.setGameState(state.getGame());
+    }
+
+    /**
+     * Версия карт, закреплённая за матчем. Её задают старт матча, загрузка live-матча и реплей; без неё
+     * матч сыграл бы по текущим картам, поэтому это ошибка, а не подстановка.
+     */
+    private static CardDefinitions cards(Match match) {
+        CardDefinitions pinned = match.getCardDefinitions();
+        if (pinned == null) {
+            throw new IllegalStateException("Match " + match.getId() + " has no pinned card definitions");
+        }
+        return pinned;
+    }
+}
@@ -0,0 +1,398 @@
+package com.lotus.game.service;
+
+import com.lotus.game.dto.game.*;
+import com.lotus.game.engine.GameRandom;
+import com.lotus.game.engine.GameState;
+import com.lotus.game.engine.RecordingGameRandom;
+import com.lotus.game.entity.Deck;
+import com.lotus.game.entity.DeckCard;
+import com.lotus.game.entity.Match;
+import com.lotus.game.entity.MatchReplayEvent;
+import com.lotus.game.entity.Minion;
+import com.lotus.game.entity.Spell;
+import com.lotus.game.config.RedisCacheConfig;
+import com.lotus.game.repository.DeckRepository;
+import com.lotus.game.repository.MatchRepository;
+import com.lotus.game.repository.MatchSummary;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@Service
+@RequiredArgsConstructor
+public class MatchService {
+
+    private static final int MAX_REPLAY_PAGE_SIZE = 500;
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+
+    private final MatchRepository matchRepository;
+    private final DeckRepository deckRepository;
+    private final MatchBroadcastService broadcastService;
+    private final CacheManager cacheManager;
+    private final HeroCatalog heroCatalog;
+    private final HeroPortraitService heroPortraitService;
+    private final LiveMatchRegistry liveMatches;
+    private final MatchWriteBehindService writeBehind;
+    private final MatchRules rules;
+    private final CardRegistry cardRegistry;
+    private final MatchCommandExecutor commands;
+    private final MatchReplayService replayService;
+    private final ClusterNodes clusterNodes;
+    private final ObjectProvider<PracticeBotService> practiceBots;
+    private final ObjectProvider<TurnTimerService> turnTimers;
+    private final MatchArchiveService archive;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Создаёт матч для пары, найденной матчмейкингом (см. {@link MatchmakingService}). Первым ходит
+     * дольше ждавший игрок. Строка матча сразу пишется со статусом IN_PROGRESS.
+     */
+    @Transactional
+    public Match startMatch(MatchmakingTicket first, MatchmakingTicket second) {
+        Match match = Match.builder()
+                .player1Id(first.userId())
+                .deck1Id(first.deckId())
+                .hero1Id(first.heroId())
+                .player1Rating(first.rating())
+                .player2Id(second.userId())
+                .deck2Id(second.deckId())
+                .hero2Id(second.heroId())
+                .player2Rating(second.rating())
+                .matchMode(first.mode())
+                .status(Match.MatchStatus.IN_PROGRESS)
+                .currentTurnPlayerId(first.userId())
+                .build();
+        match.setPlayer1Username(first.username());
+        match.setPlayer2Username(second.username());
+        match.setCardDefinitions(cardRegistry.current());
+        match.setCardDefinitionsVersion(match.getCardDefinitions().version());
+        match.setGameState(initGameState(match));
+        match = matchRepository.save(match);
+        replayService.recordInit(match);
+        replayService.persistPending(match);
+        if (clusterNodes.ownsMatch(match.getId())) {
+            liveMatches.register(match); // иначе владелец загрузит матч из БД при первой команде
+            Match started = match;
+            turnTimers.ifAvailable(timers -> timers.onCommit(started, started.getPlayer1Id(), true));
+        }
+        evictMatchCacheForPlayers(match);
+        broadcastService.broadcastMatchUpdate(match);
+        return match;
+    }
+
+    /**
+     * Live-матчи отдаются из памяти в обход Redis-кэша: их состояние меняется на каждом действии. Идущий матч,
+     * прочитанный из БД (не владелец или ещё не загружен), тоже не кэшируется.
+     * Финальное состояние архивного матча читается из match_archives.
+     */
+    @Transactional(readOnly = true)
+    @Cacheable(value = RedisCacheConfig.CACHE_MATCHES, key = "#matchId + '_' + #userId",
+            condition = "!@liveMatchRegistry.isLive(#matchId)",
+            unless = "#result.status?.name() == 'IN_PROGRESS'")
+    public MatchDto getMatch(Long matchId, Long userId) {
+        Match match = loadMatch(matchId, userId);
+        if (match.getArchivedAt() != null) {
+            MatchDto dto = MatchDto.from(match, userId);
+            dto.setGameState(MatchStateView.of(archive.load(matchId).finalState(), MatchDto.seatOf(match, userId)));
+            return dto;
+        }
+        if (!liveMatches.isLive(matchId)) {
+            return MatchDto.from(match, userId);
+        }
+        // чтение live-состояния встаёт в очередь матча, чтобы не видеть действие на середине
+        return commands.execute(matchId, () -> MatchDto.from(match, userId));
+    }
+
+    @Transactional(readOnly = true)
+    public ReplayPageDto getReplayPage(Long matchId, Long userId, int offset, int limit) {
+        Match match = loadMatch(matchId, userId);
+        return replayService.page(match, liveMatches.isLive(matchId), offset, Math.min(limit, MAX_REPLAY_PAGE_SIZE));
+    }
+
+    /**
+     * Шаг реплея отдаёт полное состояние партии (обе руки, порядок колод), поэтому доступен только после
+     * завершения матча; идущий матч игрок видит через {@link #getMatch} в своей проекции.
+     */
+    @Transactional(readOnly = true)
+    public ReplayStepDto getReplayStep(Long matchId, Long userId, int step) {
+        Match match = loadMatch(matchId, userId);
+        if (match.getStatus() != Match.MatchStatus.FINISHED) {
+            throw new IllegalArgumentException("Replay steps are available after the match is finished");
+        }
+        return replayService.stateAt(match, liveMatches.isLive(matchId), step);
+    }
+
+    /**
+     * Все матчи игрока сводками без состояния (game_state не читается), от новых к старым.
+     * Состояние идущих матчей достраивает {@link MatchCommandRouter#getMyMatches} через владельца матча.
+     *
+     * @deprecated список без пагинации; используйте {@link #getHistory}
+     */
+    @Deprecated
+    @Transactional(readOnly = true)
+    public List<MatchDto> getMyMatchSummaries(Long userId) {
+        return matchRepository.findHistory(userId, Pageable.unpaged()).stream()
+                .map(MatchService::summaryDto)
+                .toList();
+    }
+
+    private static MatchDto summaryDto(MatchSummary row) {
+        return MatchDto.builder()
+                .id(row.getId())
+                .player1Id(row.getPlayer1Id())
+                .player2Id(row.getPlayer2Id())
+                .hero1Id(row.getHero1Id())
+                .hero2Id(row.getHero2Id())
+                .matchMode(row.getMatchMode())
+                .status(row.getStatus())
+                .winnerId(row.getWinnerId())
+                .createdAt(row.getCreatedAt() != null ? row.getCreatedAt().toString() : null)
+                .build();
+    }
+
+    /**
+     * История матчей игрока по сводной проекции (без game_state и replay_data), от новых к старым.
+     * Пагинация по ключу (created_at, id): cursor — значение nextCursor предыдущей страницы.
+     */
+    @Transactional(readOnly = true)
+    public MatchHistoryPageDto getHistory(Long userId, String cursor, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_HISTORY_PAGE_SIZE));
+        PageRequest page = PageRequest.of(0, size + 1);
+        List<MatchSummary> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = matchRepository.findHistory(userId, page);
+        } else {
+            int sep = cursor.lastIndexOf('_');
+            try {
+                rows = matchRepository.findHistoryBefore(userId, Instant.parse(cursor.substring(0, sep)),
+                        Long.parseLong(cursor.substring(sep + 1)), page);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid history cursor: " + cursor);
+            }
+        }
+        boolean more = rows.size() > size;
+        List<MatchSummary> shown = more ? rows.subList(0, size) : rows;
+        MatchSummary last = more ? shown.get(size - 1) : null;
+        return MatchHistoryPageDto.builder()
+                .items(shown.stream().map(row -> historyEntry(row, userId)).toList())
+                .nextCursor(last != null ? last.getCreatedAt() + "_" + last.getId() : null)
+                .build();
+    }
+
+    private static MatchHistoryEntryDto historyEntry(MatchSummary row, Long userId) {
+        boolean first = userId.equals(row.getPlayer1Id());
+        Long opponentId = first ? row.getPlayer2Id() : row.getPlayer1Id();
+        MatchHistoryEntryDto.Result result = null;
+        if (row.getStatus() == Match.MatchStatus.FINISHED) {
+            result = row.getWinnerId() == null ? MatchHistoryEntryDto.Result.DRAW
+                    : row.getWinnerId().equals(userId) ? MatchHistoryEntryDto.Result.WIN
+                    : MatchHistoryEntryDto.Result.LOSS;
+        }
+        String opponentName = row.getOpponentName();
+        if (opponentName == null && PracticeBotService.isBot(opponentId)) {
+            opponentName = PracticeBotService.BOT_NAME;
+        }
+        return MatchHistoryEntryDto.builder()
+                .matchId(row.getId())
+                .matchMode(row.getMatchMode())
+                .status(row.getStatus())
+                .result(result)
+                .heroId(first ? row.getHero1Id() : row.getHero2Id())
+                .opponentId(opponentId)
+                .opponentName(opponentName)
+                .opponentHeroId(first ? row.getHero2Id() : row.getHero1Id())
+                .turnCount(row.getTurnCount())
+                .createdAt(row.getCreatedAt() != null ? row.getCreatedAt().toString() : null)
+                .build();
+    }
+
+    public MatchDto playCard(Long matchId, Long userId, PlayCardRequest request) {
+        return timed(MatchReplayEvent.ActionType.PLAY, () -> commands.execute(matchId, () -> {
+            Match match = loadLiveMatch(matchId, userId);
+            RecordingGameRandom rng = new RecordingGameRandom(GameRandom.system());
+            String description = rules.playCard(match, userId, request, rng);
+            replayService.record(match, MatchReplayEvent.ActionType.PLAY, userId, description,
+                    MatchReplayService.payloadOf(request), rng);
+            return commitAction(match, userId, false);
+        }));
+    }
+
+    public MatchDto attack(Long matchId, Long userId, AttackRequest request) {
+        return timed(MatchReplayEvent.ActionType.ATTACK, () -> commands.execute(matchId, () -> {
+            Match match = loadLiveMatch(matchId, userId);
+            RecordingGameRandom rng = new RecordingGameRandom(GameRandom.system());
+            String description = rules.attack(match, userId, request, rng);
+            replayService.record(match, MatchReplayEvent.ActionType.ATTACK, userId, description,
+                    MatchReplayService.payloadOf(request), rng);
+            return commitAction(match, userId, false);
+        }));
+    }
+
+    public MatchDto endTurn(Long matchId, Long userId) {
+        return timed(MatchReplayEvent.ActionType.END_TURN, () -> commands.execute(matchId, () -> {
+            Match match = loadLiveMatch(matchId, userId);
+            RecordingGameRandom rng = new RecordingGameRandom(GameRandom.system());
+            String description = rules.endTurn(match, userId, rng);
+            replayService.record(match, MatchReplayEvent.ActionType.END_TURN, userId, description,
+                    new ReplayPayload(), rng);
+            return commitAction(match, userId, true);
+        }));
+    }
+
+    /**
+     * Сдача: матч завершается победой соперника обычным путём (реплей, рейтинг, награды, рассылка).
+     * Используется таймером хода для игроков, пропустивших несколько ходов подряд.
+     */
+    public MatchDto concede(Long matchId, Long userId) {
+        return timed(MatchReplayEvent.ActionType.CONCEDE, () -> commands.execute(matchId, () -> {
+            Match match = loadLiveMatch(matchId, userId);
+            RecordingGameRandom rng = new RecordingGameRandom(GameRandom.system());
+            String description = rules.concede(match, userId, rng);
+            replayService.record(match, MatchReplayEvent.ActionType.CONCEDE, userId, description,
+                    new ReplayPayload(), rng);
+            return commitAction(match, userId, true);
+        }));
+    }
+
+    /**
+     * Время действия от прихода команды до рассылки, включая ожидание в очереди матча (lotus.match.action).
+     * outcome=rejected — действие отклонено правилами или проверками доступа.
+     */
+    private MatchDto timed(MatchReplayEvent.ActionType action, Supplier<MatchDto> command) {
+        long start = System.nanoTime();
+        String outcome = "rejected";
+        try {
+            MatchDto result = command.get();
+            outcome = "ok";
+            return result;
+        } finally {
+            Timer.builder("lotus.match.action")
+                    .description("Выполнение действия в матче")
+                    .tag("action", action.name())
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Завершение действия над live-матчем: в БД состояние уходит только на границе хода и при завершении матча
+     * (через write-behind), остальные действия живут в памяти. Итоги завершённого матча (рейтинг, награды, статистика)
+     * применяются асинхронно через outbox ({@link PostMatchPipeline}).
+     */
+    private MatchDto commitAction(Match match, Long userId, boolean turnBoundary) {
+        match.setLastActionAt(Instant.now());
+        boolean finished = match.getStatus() == Match.MatchStatus.FINISHED;
+        if (turnBoundary || finished) {
+            writeBehind.schedule(match);
+        }
+        if (finished) {
+            evictMatchCacheForPlayers(match);
+            Counter.builder("lotus.match.finished")
+                    .description("Завершённые матчи")
+                    .tag("mode", match.getMatchMode().name())
+                    .register(meterRegistry)
+                    .increment();
+        }
+        turnTimers.ifAvailable(timers -> timers.onCommit(match, userId, turnBoundary));
+        broadcastService.broadcastMatchUpdate(match);
+        if (turnBoundary && !finished) {
+            practiceBots.ifAvailable(bots -> bots.onTurnChanged(match));
+        }
+        return MatchDto.from(match, userId);
+    }
+
+    /**
+     * Действия выполняются только над live-копией: идущий матч, которым этот узел не владеет, реестр отдаёт
+     * строкой из БД, и изменения в ней разошлись бы с владельцем. Команда повторяется после маршрутизации к нему.
+     */
+    private Match loadLiveMatch(Long matchId, Long userId) {
+        Match match = loadMatch(matchId, userId);
+        if (match.getStatus() == Match.MatchStatus.IN_PROGRESS && !liveMatches.isLive(matchId)) {
+            throw new OptimisticLockingFailureException("Match " + matchId + " is owned by another node");
+        }
+        return match;
+    }
+
+    private Match loadMatch(Long matchId, Long userId) {
+        Match match = liveMatches.getOrLoad(matchId);
+        if (!match.getPlayer1Id().equals(userId) && !Objects.equals(match.getPlayer2Id(), userId)) {
+            throw new IllegalArgumentException("Access denied");
+        }
+        return match;
+    }
+
+    private GameState initGameState(Match match) {
+        GameState.PlayerState p1 = openingPlayerState(match.getHero1Id(), match.getDeck1Id());
+        GameState.PlayerState p2 = openingPlayerState(match.getHero2Id(), match.getDeck2Id());
+        return rules.engine().newGame(match.getPlayer1Id(), match.getPlayer2Id(), p1, p2,
+                match.getCardDefinitions(), GameRandom.system()).getGame();
+    }
+
+    /**
+     * Игрок до начала партии: герой с портретом и здоровьем, колода в порядке хранения.
+     * Тасовку и стартовую руку делает {@link com.lotus.game.engine.GameEngine#newGame}.
+     */
+    @Transactional(readOnly = true)
+    public GameState.PlayerState openingPlayerState(String heroId, Long deckId) {
+        Deck deck = deckRepository.findById(deckId)
+                .orElseThrow(() -> new IllegalArgumentException("Deck not found: " + deckId));
+        HeroDto hero = heroCatalog.resolveForMatch(heroId);
+        String portrait = heroPortraitService.resolvePortraitUrl(hero.getId());
+        if (portrait.isBlank()) {
+            portrait = hero.getPortraitUrl() != null ? hero.getPortraitUrl() : "";
+        }
+        return GameState.PlayerState.builder()
+                .heroId(hero.getId())
+                .heroName(hero.getName())
+                .portraitUrl(portrait)
+                .maxHeroHealth(hero.getStartingHealth())
+                .health(hero.getStartingHealth())
+                .deck(flattenDeck(deck))
+                .build();
+    }
+
+    private List<GameState.CardRef> flattenDeck(Deck deck) {
+        List<GameState.CardRef> result = new ArrayList<>();
+        List<DeckCard> cards = deck.getCards();
+        if (cards == null) return result;
+        for (DeckCard dc : cards) {
+            Minion m = dc.getMinion();
+            Spell s = dc.getSpell();
+            String type = m != null ? "MINION" : "SPELL";
+            Long id = m != null ? m.getId() : (s != null ? s.getId() : null);
+            if (id == null) continue;
+            int count = dc.getCount() != null ? dc.getCount() : 0;
+            for (int i = 0; i < count; i++) {
+                result.add(GameState.CardRef.builder().cardType(type).cardId(id).build());
+            }
+        }
+        return result;
+    }
+
+    private void evictMatchCacheForPlayers(Match match) {
+        var cache = cacheManager.getCache(RedisCacheConfig.CACHE_MATCHES);
+        if (cache != null) {
+            cache.evict(match.getId() + "_" + match.getPlayer1Id());
+            if (match.getPlayer2Id() != null) {
+                cache.evict(match.getId() + "_" + match.getPlayer2Id());
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.lotus.game.service;
+
+import com.lotus.game.entity.GameConfig;
+import com.lotus.game.entity.Match;
+import com.lotus.game.repository.GameConfigRepository;
+import com.lotus.game.repository.MatchRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Однократное заполнение matches.turn_count у матчей, завершённых до появления колонки: номер хода берётся
+ * из game_state, у архивных матчей — из финального состояния в match_archives. Матчи без состояния остаются
+ * с пустым turn_count. Проход идёт пачками по id в фоновом потоке; по окончании в game_config ставится
+ * {@link #KEY_DONE}, и последующие старты проход пропускают.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MatchTurnCountBackfill {
+
+    public static final String KEY_DONE = "match.turnCountBackfillDone";
+
+    private final MatchRepository matchRepository;
+    private final MatchArchiveService archive;
+    private final GameConfigRepository configRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.match.turn-count-backfill.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.match.turn-count-backfill.batch-size:200}")
+    private int batchSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled || isDone()) {
+            return;
+        }
+        Thread thread = new Thread(this::run, "turn-count-backfill");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run() {
+        try {
+            long scanned = 0;
+            long filled = 0;
+            Long afterId = 0L;
+            while (true) {
+                List<Long> ids = matchRepository.findFinishedIdsWithoutTurnCount(afterId, PageRequest.of(0, batchSize));
+                Integer batchFilled = transactionTemplate.execute(tx -> {
+                    int n = 0;
+                    for (Long matchId : ids) {
+                        Integer turnCount = turnCount(matchId);
+                        if (turnCount != null) {
+                            n += matchRepository.fillTurnCount(matchId, turnCount);
+                        }
+                    }
+                    return n;
+                });
+                filled += batchFilled != null ? batchFilled : 0;
+                scanned += ids.size();
+                if (ids.size() < batchSize) {
+                    break;
+                }
+                afterId = ids.get(ids.size() - 1);
+            }
+            configRepository.save(GameConfig.builder().configKey(KEY_DONE).configValue("true").build());
+            log.info("Turn count backfill finished: {} finished matches scanned, {} filled", scanned, filled);
+        } catch (RuntimeException e) {
+            log.error("Turn count backfill failed, will resume on next start: {}", e.getMessage(), e);
+        }
+    }
+
+    private Integer turnCount(Long matchId) {
+        Match match = matchRepository.findById(matchId).orElse(null);
+        if (match == null) {
+            return null;
+        }
+        if (match.getGameState() != null) {
+            return match.getGameState().getTurnNumber();
+        }
+        if (match.getArchivedAt() != null) {
+            try {
+                var finalState = archive.load(matchId).finalState();
+                return finalState != null ? finalState.getTurnNumber() : null;
+            } catch (RuntimeException e) {
+                log.warn("Turn count of archived match {} not restored: {}", matchId, e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    private boolean isDone() {
+        return configRepository.findByConfigKey(KEY_DONE)
+                .map(GameConfig::getConfigValue)
+                .map(Boolean::parseBoolean)
+                .orElse(false);
+    }
+}
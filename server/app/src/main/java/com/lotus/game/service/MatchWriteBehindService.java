@@ -0,0 +1,234 @@
+package com.lotus.game.service;
+
+import com.lotus.game.entity.Match;
+import com.lotus.game.entity.MatchOutboxEvent;
+import com.lotus.game.entity.MatchReplayEvent;
+import com.lotus.game.repository.MatchOutboxRepository;
+import com.lotus.game.repository.MatchReplayEventRepository;
+import com.lotus.game.repository.MatchRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind для live-матчей: действие лишь ставит снимок матча в очередь, а фоновый поток
+ * пачками пишет накопившиеся снимки в таблицу matches. Для одного матча хранится только последний снимок,
+ * а новые записи журнала реплея накапливаются и пишутся в той же транзакции.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MatchWriteBehindService {
+
+    private final MatchRepository matchRepository;
+    private final MatchReplayEventRepository replayEventRepository;
+    private final MatchOutboxRepository outboxRepository;
+    private final LiveMatchRegistry liveMatches;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.match.write-behind.batch-size:50}")
+    private int batchSize;
+
+    private final ConcurrentHashMap<Long, PendingWrite> pending = new ConcurrentHashMap<>();
+    /** Версия строки после последней успешной записи: снимок мог быть сделан до того, как предыдущая запись завершилась. */
+    private final ConcurrentHashMap<Long, Long> persistedVersions = new ConcurrentHashMap<>();
+
+    /**
+     * Снимок делается в потоке действия, поэтому фоновая запись не видит последующих мутаций live-состояния.
+     */
+    public void schedule(Match live) {
+        PendingWrite write = new PendingWrite(snapshot(live), takeUnflushedEvents(live));
+        pending.merge(live.getId(), write, PendingWrite::followedBy);
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    @Scheduled(fixedDelayString = "${app.match.write-behind.flush-interval-ms:250}")
+    public synchronized void flush() {
+        while (!pending.isEmpty()) {
+            List<PendingWrite> batch = drain();
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                persist(batch);
+            } catch (OptimisticLockingFailureException e) {
+                // конфликт версии у одного из матчей не должен блокировать запись остальных
+                boolean allSaved = true;
+                for (PendingWrite w : batch) {
+                    allSaved &= persistSingle(w);
+                }
+                if (!allSaved) {
+                    return;
+                }
+            } catch (Exception e) {
+                log.warn("Write-behind flush of {} matches failed, will retry: {}", batch.size(), e.getMessage());
+                batch.forEach(this::requeue);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Записывает матч, уходящий к другому узлу, и снимает его с учёта, только если снимок действительно сохранён:
+     * иначе новый владелец загрузил бы из БД устаревшее состояние. Вызывается внутри команды матча.
+     *
+     * @return false, если запись не удалась и матч остаётся live на этом узле до следующей попытки
+     */
+    public boolean flushAndRelease(Match live) {
+        schedule(live);
+        flush();
+        if (pending.containsKey(live.getId())) {
+            return false;
+        }
+        // матч может вернуться на этот узел: тогда он загрузится из БД со своей версией строки
+        persistedVersions.remove(live.getId());
+        liveMatches.release(live.getId());
+        return true;
+    }
+
+    @PreDestroy
+    public void flushAllOnShutdown() {
+        liveMatches.all().forEach(this::schedule);
+        flush();
+    }
+
+    private void persist(List<PendingWrite> batch) {
+        for (PendingWrite w : batch) {
+            Long persisted = persistedVersions.get(w.snapshot().getId());
+            if (persisted != null) {
+                w.snapshot().setVersion(persisted);
+            }
+        }
+        List<Match> saved = transactionTemplate.execute(tx -> {
+            List<Match> result = matchRepository.saveAll(batch.stream().map(PendingWrite::snapshot).toList());
+            replayEventRepository.saveAll(batch.stream().flatMap(w -> w.events().stream()).toList());
+            enqueueFinished(result);
+            return result;
+        });
+        for (Match m : saved) {
+            if (m.getStatus() == Match.MatchStatus.FINISHED) {
+                persistedVersions.remove(m.getId());
+                liveMatches.releaseIfFinished(m.getId());
+            } else {
+                persistedVersions.put(m.getId(), m.getVersion());
+            }
+        }
+    }
+
+    /**
+     * Событие MATCH_FINISHED пишется в транзакции, сохраняющей завершённый матч: итоги (рейтинг, награды,
+     * статистику) применяет {@link PostMatchPipeline}. Повторный снимок того же матча события не дублирует.
+     */
+    private void enqueueFinished(List<Match> saved) {
+        for (Match m : saved) {
+            if (m.getStatus() == Match.MatchStatus.FINISHED
+                    && !outboxRepository.existsByMatchIdAndEventType(m.getId(), MatchOutboxEvent.EventType.MATCH_FINISHED)) {
+                outboxRepository.save(MatchOutboxEvent.builder()
+                        .matchId(m.getId())
+                        .eventType(MatchOutboxEvent.EventType.MATCH_FINISHED)
+                        .build());
+            }
+        }
+    }
+
+    /**
+     * Live-копия на этом узле — источник истины, поэтому при конфликте версии снимок не отбрасывается: строку мог
+     * записать другой узел, пока матч принадлежал ему, — берётся текущая версия строки и запись повторяется.
+     *
+     * @return false, если снимок поставлен обратно в очередь
+     */
+    private boolean persistSingle(PendingWrite write) {
+        Long matchId = write.snapshot().getId();
+        for (int attempt = 0; ; attempt++) {
+            try {
+                persist(List.of(write));
+                return true;
+            } catch (OptimisticLockingFailureException e) {
+                if (!liveMatches.isLive(matchId)) {
+                    log.error("Match {} is no longer live on this node, write-behind snapshot dropped: {}",
+                            matchId, e.getMessage());
+                    return true;
+                }
+                if (attempt > 0) {
+                    log.warn("Write-behind flush of match {} conflicted again, will retry: {}", matchId, e.getMessage());
+                    requeue(write);
+                    return false;
+                }
+                Optional<Long> current = matchRepository.findVersionById(matchId);
+                if (current.isEmpty()) {
+                    log.error("Match {} row is gone, write-behind snapshot dropped", matchId);
+                    return true;
+                }
+                log.warn("Match {} row version {} is ahead of the live copy, rewriting it", matchId, current.get());
+                persistedVersions.put(matchId, current.get());
+            } catch (Exception e) {
+                log.warn("Write-behind flush of match {} failed, will retry: {}", matchId, e.getMessage());
+                requeue(write);
+                return false;
+            }
+        }
+    }
+
+    /** Более новый снимок, поставленный за время записи, остаётся последним, события — после наших. */
+    private void requeue(PendingWrite failed) {
+        pending.merge(failed.snapshot().getId(), failed, (newer, old) -> old.followedBy(newer));
+    }
+
+    private List<PendingWrite> drain() {
+        List<PendingWrite> batch = new ArrayList<>(batchSize);
+        Iterator<Map.Entry<Long, PendingWrite>> it = pending.entrySet().iterator();
+        while (it.hasNext() && batch.size() < batchSize) {
+            Map.Entry<Long, PendingWrite> e = it.next();
+            if (pending.remove(e.getKey(), e.getValue())) {
+                batch.add(e.getValue());
+            }
+        }
+        return batch;
+    }
+
+    /** Забирает ещё не переданные на запись события журнала; копии без id, чтобы вставка была независимой. */
+    private static List<MatchReplayEvent> takeUnflushedEvents(Match live) {
+        List<MatchReplayEvent> log = live.getReplayLog();
+        synchronized (log) {
+            List<MatchReplayEvent> events = log.subList(live.getReplayLogFlushed(), log.size()).stream()
+                    .map(e -> e.toBuilder().id(null).build())
+                    .toList();
+            live.setReplayLogFlushed(log.size());
+            return events;
+        }
+    }
+
+    /** Снимок матча для записи; turn_count дублирует номер хода из game_state. */
+    private static Match snapshot(Match m) {
+        Match copy = m.persistentCopy();
+        if (m.getGameState() != null) {
+            copy.setTurnCount(m.getGameState().getTurnNumber());
+        }
+        return copy;
+    }
+
+    private record PendingWrite(Match snapshot, List<MatchReplayEvent> events) {
+
+        PendingWrite followedBy(PendingWrite newer) {
+            List<MatchReplayEvent> merged = new ArrayList<>(events.size() + newer.events.size());
+            merged.addAll(events);
+            merged.addAll(newer.events);
+            return new PendingWrite(newer.snapshot, merged);
+        }
+    }
+}
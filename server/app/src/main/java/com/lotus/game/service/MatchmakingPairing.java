@@ -0,0 +1,66 @@
+package com.lotus.game.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.ToLongFunction;
+
+/**
+ * Выбор пар среди заявок одного режима. Кандидаты — ближайшие соседи по рейтингу, которых допускают окна
+ * обеих заявок; пары берутся жадно от меньшей разницы рейтингов к большей, при равенстве — где дольше ждут.
+ */
+final class MatchmakingPairing {
+
+    /** Порядок заявок в очереди: по рейтингу, при равенстве — по времени постановки. */
+    static final Comparator<MatchmakingTicket> QUEUE_ORDER = Comparator
+            .comparingInt(MatchmakingTicket::rating)
+            .thenComparing(MatchmakingTicket::enqueuedAt)
+            .thenComparing(MatchmakingTicket::userId);
+
+    /** Сколько соседей по рейтингу рассматривается как кандидаты для каждой заявки. */
+    private static final int CANDIDATE_NEIGHBOURS = 3;
+
+    private MatchmakingPairing() {
+    }
+
+    /** @param sorted заявки в порядке {@link #QUEUE_ORDER} */
+    static List<MatchmakingQueue.Pair> select(List<MatchmakingTicket> sorted, ToLongFunction<MatchmakingTicket> window) {
+        if (sorted.size() < 2) {
+            return List.of();
+        }
+        List<Candidate> candidates = new ArrayList<>();
+        for (int i = 0; i < sorted.size(); i++) {
+            MatchmakingTicket a = sorted.get(i);
+            for (int j = i + 1; j < Math.min(sorted.size(), i + 1 + CANDIDATE_NEIGHBOURS); j++) {
+                MatchmakingTicket b = sorted.get(j);
+                long diff = (long) b.rating() - a.rating();
+                if (!a.userId().equals(b.userId()) && diff <= Math.min(window.applyAsLong(a), window.applyAsLong(b))) {
+                    candidates.add(new Candidate(a, b, diff, min(a.enqueuedAt(), b.enqueuedAt())));
+                }
+            }
+        }
+        candidates.sort(Comparator.comparingLong(Candidate::diff).thenComparing(Candidate::oldest));
+        Set<Long> taken = new HashSet<>();
+        List<MatchmakingQueue.Pair> pairs = new ArrayList<>();
+        for (Candidate c : candidates) {
+            if (taken.contains(c.a().userId()) || taken.contains(c.b().userId())) {
+                continue;
+            }
+            taken.add(c.a().userId());
+            taken.add(c.b().userId());
+            boolean aFirst = !c.b().enqueuedAt().isBefore(c.a().enqueuedAt());
+            pairs.add(aFirst ? new MatchmakingQueue.Pair(c.a(), c.b()) : new MatchmakingQueue.Pair(c.b(), c.a()));
+        }
+        return pairs;
+    }
+
+    private static Instant min(Instant a, Instant b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private record Candidate(MatchmakingTicket a, MatchmakingTicket b, long diff, Instant oldest) {
+    }
+}
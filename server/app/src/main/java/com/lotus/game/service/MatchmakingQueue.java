@@ -0,0 +1,36 @@
+package com.lotus.game.service;
+
+import com.lotus.game.entity.Match;
+
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Хранилище заявок матчмейкинга. Реализация выбирается app.matchmaking.queue-store:
+ * - memory (по умолчанию) — очередь в памяти, для одного инстанса
+ * - redis — общие очереди в Redis (sorted set по рейтингу), пары подбираются на любом инстансе
+ */
+public interface MatchmakingQueue {
+
+    /**
+     * Ставит заявку в очередь её режима, атомарно снимая предыдущую заявку игрока (в любом режиме): у игрока
+     * не бывает двух заявок, даже если поиск запущен параллельно из двух вкладок.
+     * @return заменённая заявка или null
+     */
+    MatchmakingTicket enqueue(MatchmakingTicket ticket);
+
+    /** Снимает заявку игрока. @return снятая заявка или null, если её не было (или её уже забрали в пару) */
+    MatchmakingTicket cancel(Long userId);
+
+    int size(Match.MatchMode mode);
+
+    /**
+     * Подбирает пары в очереди режима и атомарно изымает их: одну заявку не может получить больше одной пары.
+     * @param window допустимая разница рейтингов для заявки
+     */
+    List<Pair> claimPairs(Match.MatchMode mode, ToLongFunction<MatchmakingTicket> window);
+
+    /** Пара для матча; first ждал дольше и ходит первым. */
+    record Pair(MatchmakingTicket first, MatchmakingTicket second) {
+    }
+}
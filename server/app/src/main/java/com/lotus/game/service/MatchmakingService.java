@@ -0,0 +1,204 @@
+package com.lotus.game.service;
+
+import com.lotus.game.dto.game.MatchDto;
+import com.lotus.game.dto.game.MatchWsError;
+import com.lotus.game.entity.Deck;
+import com.lotus.game.entity.Match;
+import com.lotus.game.entity.User;
+import com.lotus.game.repository.DeckRepository;
+import com.lotus.game.repository.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Матчмейкинг. {@link #findMatch} только ставит заявку в очередь режима ({@link MatchmakingQueue}),
+ * пары подбирает фоновый тик: допустимая разница рейтингов растёт со временем ожидания, из всех допустимых
+ * пар сначала берутся самые близкие по рейтингу (см. {@link MatchmakingPairing}). Строка матча создаётся
+ * только для найденной пары.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MatchmakingService {
+
+    public static final String MATCHES_QUEUE = "/queue/matches";
+    public static final String MATCHES_ERRORS_QUEUE = "/queue/matches/errors";
+
+    private final MatchService matchService;
+    private final MatchmakingQueue queue;
+    private final DeckRepository deckRepository;
+    private final UserRepository userRepository;
+    private final HeroCatalog heroCatalog;
+    private final HeroProgressService heroProgressService;
+    private final ClusterMessaging messaging;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.matchmaking.rating-range:200}")
+    private int ratingRange;
+
+    @Value("${app.matchmaking.rating-range-growth-per-second:20}")
+    private int ratingRangeGrowthPerSecond;
+
+    @Value("${app.matchmaking.max-rating-range:1000}")
+    private int maxRatingRange;
+
+    @PostConstruct
+    void registerGauges() {
+        for (Match.MatchMode mode : Match.MatchMode.values()) {
+            if (!mode.isMatchmade()) continue;
+            Gauge.builder("lotus.matchmaking.queue.size", queue, q -> q.size(mode))
+                    .description("Заявки в очереди матчмейкинга")
+                    .tag("mode", mode.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Ставит заявку в очередь, одной операцией заменяя предыдущую заявку игрока. Результат подбора придёт
+     * в /queue/matches.
+     * @return заглушка со статусом WAITING без id
+     */
+    public MatchDto findMatch(Long userId, Long deckId, Match.MatchMode mode, String heroId) {
+        MatchmakingTicket ticket = createTicket(userId, deckId, mode, heroId);
+        MatchmakingTicket replaced = queue.enqueue(ticket);
+        if (replaced != null) {
+            recordWait(replaced, Instant.now(), "cancelled");
+        }
+        log.debug("Matchmaking: user {} queued ({} rating {})", userId, mode, ticket.rating());
+        return searching(ticket);
+    }
+
+    /**
+     * Тренировочный матч против серверного бота: начинается сразу, без очереди. Бот играет зеркалом —
+     * той же колодой и героем; первым ходит игрок.
+     */
+    public MatchDto startPractice(Long userId, Long deckId, String heroId) {
+        MatchmakingTicket ticket = createTicket(userId, deckId, Match.MatchMode.PRACTICE, heroId);
+        cancel(userId);
+        MatchmakingTicket bot = new MatchmakingTicket(PracticeBotService.BOT_PLAYER_ID, PracticeBotService.BOT_NAME,
+                ticket.deckId(), ticket.heroId(), ticket.rating(), Match.MatchMode.PRACTICE, ticket.enqueuedAt());
+        Match match = matchService.startMatch(ticket, bot);
+        log.debug("Practice: user {} started match {}", userId, match.getId());
+        return MatchDto.from(match, userId);
+    }
+
+    /** Отменяет поиск игрока. @return true, если заявка была в очереди */
+    public boolean cancel(Long userId) {
+        MatchmakingTicket ticket = queue.cancel(userId);
+        if (ticket == null) {
+            return false;
+        }
+        recordWait(ticket, Instant.now(), "cancelled");
+        return true;
+    }
+
+    public int queueSize(Match.MatchMode mode) {
+        return queue.size(mode);
+    }
+
+    @Scheduled(fixedDelayString = "${app.matchmaking.tick-interval-ms:250}")
+    public void tick() {
+        Instant now = Instant.now();
+        for (Match.MatchMode mode : Match.MatchMode.values()) {
+            if (!mode.isMatchmade()) continue;
+            List<MatchmakingQueue.Pair> pairs;
+            try {
+                pairs = queue.claimPairs(mode, ticket -> ratingWindow(ticket, now));
+            } catch (RuntimeException e) {
+                log.warn("Matchmaking tick for {} failed: {}", mode, e.getMessage());
+                continue;
+            }
+            pairs.forEach(pair -> startMatch(pair.first(), pair.second(), now));
+        }
+    }
+
+    /** Допустимая разница рейтингов для заявки: растёт со временем ожидания до max-rating-range. */
+    long ratingWindow(MatchmakingTicket ticket, Instant now) {
+        if (ticket.mode() == Match.MatchMode.CASUAL) {
+            return Long.MAX_VALUE;
+        }
+        long waitedSeconds = Math.max(0, Duration.between(ticket.enqueuedAt(), now).toSeconds());
+        return Math.min(maxRatingRange, ratingRange + waitedSeconds * ratingRangeGrowthPerSecond);
+    }
+
+    /**
+     * Первым ходит тот, кто дольше ждал. Если матч создать не удалось (например, колоду удалили),
+     * обе заявки снимаются, а игроки получают ошибку.
+     */
+    private void startMatch(MatchmakingTicket first, MatchmakingTicket second, Instant now) {
+        recordWait(first, now, "matched");
+        recordWait(second, now, "matched");
+        Match match;
+        try {
+            match = matchService.startMatch(first, second);
+        } catch (RuntimeException e) {
+            log.warn("Matchmaking: failed to start match for {} and {}: {}", first.userId(), second.userId(), e.getMessage());
+            MatchWsError error = new MatchWsError("Не удалось начать матч, попробуйте снова", e.getClass().getSimpleName());
+            messaging.sendToUser(first.username(), MATCHES_ERRORS_QUEUE, error);
+            messaging.sendToUser(second.username(), MATCHES_ERRORS_QUEUE, error);
+            return;
+        }
+        messaging.sendToUser(first.username(), MATCHES_QUEUE, MatchDto.from(match, first.userId()));
+        messaging.sendToUser(second.username(), MATCHES_QUEUE, MatchDto.from(match, second.userId()));
+        log.debug("Matchmaking: paired {} and {} in match {}", first.userId(), second.userId(), match.getId());
+    }
+
+    private void recordWait(MatchmakingTicket ticket, Instant now, String outcome) {
+        Timer.builder("lotus.matchmaking.wait")
+                .description("Время ожидания в очереди матчмейкинга")
+                .tag("mode", ticket.mode().name())
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(Duration.between(ticket.enqueuedAt(), now));
+    }
+
+    private MatchmakingTicket createTicket(Long userId, Long deckId, Match.MatchMode mode, String heroId) {
+        if (heroId == null || heroId.isBlank()) {
+            throw new IllegalArgumentException("Выберите героя");
+        }
+        heroCatalog.requireValid(heroId.trim());
+        if (!heroProgressService.canUseHero(userId, heroId.trim())) {
+            throw new IllegalArgumentException("Этот герой ещё не разблокирован. Завершайте матчи, чтобы открывать новых героев.");
+        }
+
+        Deck deck = deckRepository.findById(deckId)
+                .orElseThrow(() -> new IllegalArgumentException("Deck not found: " + deckId));
+        if (!deck.getUserId().equals(userId)) {
+            throw new IllegalArgumentException("Access denied to deck");
+        }
+        String deckHeroId = deck.getHeroId();
+        if (deckHeroId == null || deckHeroId.isBlank()) {
+            deckHeroId = HeroCatalog.DEFAULT_HERO_ID;
+        }
+        if (!deckHeroId.equals(heroId.trim())) {
+            throw new IllegalArgumentException("Эта колода привязана к другому герою. Выберите колоду для текущего героя.");
+        }
+
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new IllegalArgumentException("User not found: " + userId));
+        return new MatchmakingTicket(userId, user.getUsername(), deckId, heroId.trim(), user.getRating(), mode, Instant.now());
+    }
+
+    private static MatchDto searching(MatchmakingTicket ticket) {
+        return MatchDto.builder()
+                .player1Id(ticket.userId())
+                .deck1Id(ticket.deckId())
+                .hero1Id(ticket.heroId())
+                .matchMode(ticket.mode())
+                .status(Match.MatchStatus.WAITING)
+                .createdAt(ticket.enqueuedAt().toString())
+                .build();
+    }
+}
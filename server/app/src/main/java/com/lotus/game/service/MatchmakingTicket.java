@@ -0,0 +1,19 @@
+package com.lotus.game.service;
+
+import com.lotus.game.entity.Match;
+
+import java.time.Instant;
+
+/**
+ * Заявка игрока в очереди матчмейкинга.
+ */
+public record MatchmakingTicket(
+        Long userId,
+        String username,
+        Long deckId,
+        String heroId,
+        int rating,
+        Match.MatchMode mode,
+        Instant enqueuedAt
+) {
+}
@@ -0,0 +1,168 @@
+package com.lotus.game.service;
+
+import com.lotus.game.entity.Match;
+import com.lotus.game.entity.MatchOutboxEvent;
+import com.lotus.game.entity.PostMatchProcessed;
+import com.lotus.game.repository.MatchOutboxRepository;
+import com.lotus.game.repository.MatchOutcome;
+import com.lotus.game.repository.MatchRepository;
+import com.lotus.game.repository.PostMatchProcessedRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Асинхронная обработка завершённых матчей: рейтинг, прогресс героев и награда ({@link HeroProgressService}),
+ * статистика ({@link UserStatsService}). Событие MATCH_FINISHED кладёт в match_outbox write-behind в транзакции,
+ * сохраняющей матч, поэтому последнее действие партии не ждёт этих записей, а итоги не теряются при рестарте.
+ * <p>
+ * События читаются пачками по id и пачкой же применяются в одной транзакции; если пачка падает, события
+ * повторяются по одному, неудачные копят attempts и после max-attempts остаются в таблице для разбора.
+ * Применение идемпотентно по (user_id, match_id) — отметка в post_match_processed, так что повтор после сбоя
+ * или гонка двух узлов не начислят рейтинг и награду дважды. В кластере узел обрабатывает события своих матчей.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PostMatchPipeline {
+
+    private final MatchOutboxRepository outboxRepository;
+    private final MatchRepository matchRepository;
+    private final PostMatchProcessedRepository processedRepository;
+    private final RatingService ratingService;
+    private final HeroProgressService heroProgressService;
+    private final UserStatsService userStatsService;
+    private final ClusterNodes clusterNodes;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.match.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.match.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong lagMs = new AtomicLong();
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("lotus.match.outbox.pending", pending, AtomicLong::get)
+                .description("Необработанные события завершения матчей")
+                .register(meterRegistry);
+        Gauge.builder("lotus.match.outbox.lag", lagMs, ms -> ms.get() / 1000.0)
+                .description("Возраст самого старого необработанного события")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.match.outbox.poll-interval-ms:200}")
+    public void drain() {
+        Long afterId = 0L;
+        while (true) {
+            List<MatchOutboxEvent> page = outboxRepository.findPending(maxAttempts, afterId, PageRequest.of(0, batchSize));
+            List<MatchOutboxEvent> owned = page.stream()
+                    .filter(e -> clusterNodes.ownsMatch(e.getMatchId()))
+                    .toList();
+            if (!owned.isEmpty()) {
+                processBatch(owned);
+            }
+            if (page.size() < batchSize) {
+                break;
+            }
+            afterId = page.get(page.size() - 1).getId();
+        }
+        pending.set(outboxRepository.countByProcessedAtIsNull());
+        Instant oldest = outboxRepository.findOldestPendingCreatedAt();
+        lagMs.set(oldest != null ? Math.max(0, Duration.between(oldest, Instant.now()).toMillis()) : 0);
+    }
+
+    private void processBatch(List<MatchOutboxEvent> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(tx -> batch.forEach(this::process));
+            batch.forEach(this::delivered);
+        } catch (RuntimeException e) {
+            // одно событие не должно задерживать остальные
+            batch.forEach(this::processSingle);
+        }
+    }
+
+    private void processSingle(MatchOutboxEvent event) {
+        try {
+            transactionTemplate.executeWithoutResult(tx -> process(event));
+            delivered(event);
+        } catch (RuntimeException e) {
+            String error = e.getMessage() != null && e.getMessage().length() > 500 ? e.getMessage().substring(0, 500) : e.getMessage();
+            transactionTemplate.executeWithoutResult(tx -> outboxRepository.recordFailure(event.getId(), error));
+            if (event.getAttempts() + 1 >= maxAttempts) {
+                log.error("Post-match processing of match {} gave up after {} attempts: {}",
+                        event.getMatchId(), maxAttempts, error, e);
+            } else {
+                log.warn("Post-match processing of match {} failed, will retry: {}", event.getMatchId(), error);
+            }
+            outcome("failed");
+        }
+    }
+
+    private void process(MatchOutboxEvent event) {
+        matchRepository.findFinishedOutcome(event.getMatchId()).ifPresent(this::apply);
+        outboxRepository.markProcessed(event.getId(), Instant.now());
+    }
+
+    private void apply(MatchOutcome outcome) {
+        Long matchId = outcome.matchId();
+        List<Long> fresh = new ArrayList<>(2);
+        for (Long userId : new Long[]{outcome.player1Id(), outcome.player2Id()}) {
+            if (userId == null || PracticeBotService.isBot(userId)
+                    || processedRepository.existsByUserIdAndMatchId(userId, matchId)) {
+                continue;
+            }
+            processedRepository.save(PostMatchProcessed.builder()
+                    .userId(userId)
+                    .matchId(matchId)
+                    .processedAt(Instant.now())
+                    .build());
+            fresh.add(userId);
+        }
+        // рейтинг меняется парой; отметки обоих игроков пишутся одной транзакцией, так что они либо обе новые, либо нет
+        if (outcome.matchMode() == Match.MatchMode.RANKED && outcome.player2Id() != null && fresh.size() == 2) {
+            ratingService.updateRatingsAfterMatch(outcome.player1Id(), outcome.player2Id(), outcome.winnerId());
+        }
+        if (outcome.matchMode() != Match.MatchMode.PRACTICE) {
+            fresh.forEach(userId -> heroProgressService.onMatchFinished(userId, matchId));
+        }
+        userStatsService.apply(outcome);
+    }
+
+    private void delivered(MatchOutboxEvent event) {
+        Timer.builder("lotus.match.outbox.delay")
+                .description("Задержка от завершения матча до применения его итогов")
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(Duration.between(event.getCreatedAt(), Instant.now()));
+        outcome("processed");
+    }
+
+    private void outcome(String outcome) {
+        Counter.builder("lotus.match.outbox.events")
+                .description("Обработанные события завершения матчей")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+}
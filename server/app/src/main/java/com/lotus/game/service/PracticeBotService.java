@@ -0,0 +1,167 @@
+package com.lotus.game.service;
+
+import com.lotus.game.dto.game.AttackRequest;
+import com.lotus.game.dto.game.PlayCardRequest;
+import com.lotus.game.engine.GameAction;
+import com.lotus.game.engine.GameEngine;
+import com.lotus.game.engine.MatchState;
+import com.lotus.game.engine.SeededGameRandom;
+import com.lotus.game.engine.bot.SearchBot;
+import com.lotus.game.entity.Match;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Серверный бот тренировочных матчей ({@link Match.MatchMode#PRACTICE}). Ход бота считается {@link SearchBot}
+ * на копии состояния с бюджетом времени на действие; действие применяется тем же путём, что и действие игрока
+ * ({@link MatchService}), поэтому попадает в реплей, write-behind и рассылку.
+ * Поиск идёт на отдельном ограниченном пуле: очередь фиксированного размера, при переполнении ход бота
+ * откладывается до следующего обхода, а не занимает потоки запросов игроков.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PracticeBotService {
+
+    /** id бота в player2Id; настоящие пользователи начинаются с 1. */
+    public static final Long BOT_PLAYER_ID = 0L;
+    public static final String BOT_NAME = "Lotus Bot";
+    /** Защита от зацикливания: после стольких действий бот заканчивает ход. */
+    private static final int MAX_ACTIONS_PER_TURN = 40;
+
+    private final MatchService matchService;
+    private final MatchRules rules;
+    private final LiveMatchRegistry liveMatches;
+    private final MatchCommandExecutor commands;
+
+    private final SearchBot bot = new SearchBot(new GameEngine());
+    private final Set<Long> thinking = ConcurrentHashMap.newKeySet();
+    private ThreadPoolExecutor executor;
+
+    @Value("${app.practice.bot-threads:2}")
+    private int botThreads;
+
+    @Value("${app.practice.bot-queue-capacity:256}")
+    private int queueCapacity;
+
+    @Value("${app.practice.move-budget-ms:200}")
+    private long moveBudgetMs;
+
+    public static boolean isBot(Long playerId) {
+        return BOT_PLAYER_ID.equals(playerId);
+    }
+
+    @PostConstruct
+    void start() {
+        AtomicInteger n = new AtomicInteger();
+        executor = new ThreadPoolExecutor(botThreads, botThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread t = new Thread(r, "practice-bot-" + n.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    /** Вызывается после смены хода; если ходит бот, ставит его ход в очередь пула. */
+    public void onTurnChanged(Match match) {
+        if (match.getMatchMode() != Match.MatchMode.PRACTICE || match.getStatus() != Match.MatchStatus.IN_PROGRESS
+                || !isBot(match.getCurrentTurnPlayerId())) {
+            return;
+        }
+        Long matchId = match.getId();
+        if (!thinking.add(matchId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> playTurn(matchId));
+        } catch (RejectedExecutionException e) {
+            thinking.remove(matchId);
+            log.debug("Practice bot pool is full, match {} waits for the next sweep", matchId);
+        }
+    }
+
+    /** Подхватывает ходы бота, не попавшие в пул (переполнение, загрузка матча после рестарта). */
+    @Scheduled(fixedDelayString = "${app.practice.sweep-interval-ms:1000}")
+    public void sweep() {
+        for (Match match : liveMatches.all()) {
+            onTurnChanged(match);
+        }
+    }
+
+    private void playTurn(Long matchId) {
+        try {
+            SeededGameRandom rng = new SeededGameRandom(ThreadLocalRandom.current().nextLong());
+            for (int i = 0; i < MAX_ACTIONS_PER_TURN; i++) {
+                MatchState snapshot = commands.execute(matchId, () -> botSnapshot(matchId));
+                if (snapshot == null) {
+                    return;
+                }
+                GameAction action = bot.choose(snapshot, BOT_PLAYER_ID, TimeUnit.MILLISECONDS.toNanos(moveBudgetMs), rng);
+                if (action instanceof GameAction.EndTurn || !tryApply(matchId, action)) {
+                    break;
+                }
+            }
+            matchService.endTurn(matchId, BOT_PLAYER_ID);
+        } catch (RuntimeException e) {
+            log.warn("Practice bot failed in match {}: {}", matchId, e.getMessage());
+        } finally {
+            thinking.remove(matchId);
+        }
+    }
+
+    /** Копия состояния, если матч ещё live и ходит бот; читается в очереди команд матча. */
+    private MatchState botSnapshot(Long matchId) {
+        Match match = liveMatches.find(matchId).orElse(null);
+        if (match == null || match.getStatus() != Match.MatchStatus.IN_PROGRESS
+                || !Objects.equals(match.getCurrentTurnPlayerId(), BOT_PLAYER_ID)) {
+            return null;
+        }
+        return rules.snapshot(match);
+    }
+
+    /** @return false — действие отклонено правилами (состояние успело измениться), бот заканчивает ход */
+    private boolean tryApply(Long matchId, GameAction action) {
+        try {
+            if (action instanceof GameAction.PlayCard play) {
+                PlayCardRequest req = new PlayCardRequest();
+                req.setInstanceId(play.instanceId());
+                req.setTargetPosition(play.targetPosition());
+                req.setTargetInstanceId(play.targetInstanceId());
+                matchService.playCard(matchId, BOT_PLAYER_ID, req);
+            } else if (action instanceof GameAction.Attack attack) {
+                AttackRequest req = new AttackRequest();
+                req.setAttackerInstanceId(attack.attackerInstanceId());
+                req.setTargetInstanceId(attack.targetInstanceId());
+                matchService.attack(matchId, BOT_PLAYER_ID, req);
+            }
+            return true;
+        } catch (IllegalArgumentException e) {
+            log.debug("Practice bot action rejected in match {}: {}", matchId, e.getMessage());
+            return false;
+        }
+    }
+
+    public int queueDepth() {
+        return executor.getQueue().size();
+    }
+}
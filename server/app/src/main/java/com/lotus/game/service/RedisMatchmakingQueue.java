@@ -0,0 +1,180 @@
+package com.lotus.game.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lotus.game.entity.Match;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToLongFunction;
+
+/**
+ * Очереди матчмейкинга в Redis, общие для всех инстансов. Для каждого режима — sorted set
+ * matchmaking:queue:{MODE} (член — userId, score — рейтинг), сами заявки — JSON в хэше matchmaking:tickets.
+ * Пары выбирает тик только того узла, что держит аренду режима matchmaking:lease:{MODE}: очередь целиком
+ * читается одним узлом за тик, а не каждым. Остальные узлы пропускают тик и забирают аренду, если владелец
+ * не продлил её за tick-lease. Изымает пару Lua-скрипт: он удаляет обе заявки, только если обе ещё в очереди
+ * и не заменены, поэтому и при смене владельца аренды пару получает ровно один узел.
+ */
+@Component
+@ConditionalOnProperty(name = "app.matchmaking.queue-store", havingValue = "redis")
+@RequiredArgsConstructor
+@Slf4j
+public class RedisMatchmakingQueue implements MatchmakingQueue {
+
+    private static final String QUEUE_PREFIX = "matchmaking:queue:";
+    private static final String TICKETS_KEY = "matchmaking:tickets";
+    private static final String LEASE_PREFIX = "matchmaking:lease:";
+
+    /**
+     * KEYS: хэш заявок, очередь режима заявки, затем очереди всех режимов; ARGV: userId, JSON заявки, рейтинг.
+     * Снимает прежнюю заявку игрока из всех очередей и ставит новую; возвращает JSON заменённой заявки.
+     */
+    private static final RedisScript<String> ENQUEUE = new DefaultRedisScript<>("""
+            local previous = redis.call('HGET', KEYS[1], ARGV[1])
+            for i = 3, #KEYS do redis.call('ZREM', KEYS[i], ARGV[1]) end
+            redis.call('HSET', KEYS[1], ARGV[1], ARGV[2])
+            redis.call('ZADD', KEYS[2], ARGV[3], ARGV[1])
+            return previous
+            """, String.class);
+
+    /** KEYS: хэш заявок, очереди всех режимов; ARGV: userId. Возвращает JSON снятой заявки. */
+    private static final RedisScript<String> CANCEL = new DefaultRedisScript<>("""
+            local ticket = redis.call('HGET', KEYS[1], ARGV[1])
+            if not ticket then return false end
+            redis.call('HDEL', KEYS[1], ARGV[1])
+            for i = 2, #KEYS do redis.call('ZREM', KEYS[i], ARGV[1]) end
+            return ticket
+            """, String.class);
+
+    /** KEYS: аренда режима; ARGV: id узла, срок аренды в мс. Продлевает свою аренду или берёт свободную. */
+    private static final RedisScript<Long> ACQUIRE_LEASE = new DefaultRedisScript<>("""
+            local holder = redis.call('GET', KEYS[1])
+            if holder == ARGV[1] then
+                redis.call('PEXPIRE', KEYS[1], ARGV[2])
+                return 1
+            end
+            if holder then return 0 end
+            redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2])
+            return 1
+            """, Long.class);
+
+    /** KEYS: хэш заявок, очередь режима; ARGV: userId и JSON первой и второй заявки. */
+    private static final RedisScript<Long> CLAIM = new DefaultRedisScript<>("""
+            if redis.call('HGET', KEYS[1], ARGV[1]) ~= ARGV[2] then return 0 end
+            if redis.call('HGET', KEYS[1], ARGV[3]) ~= ARGV[4] then return 0 end
+            redis.call('HDEL', KEYS[1], ARGV[1], ARGV[3])
+            redis.call('ZREM', KEYS[2], ARGV[1], ARGV[3])
+            return 1
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final ClusterNodes clusterNodes;
+
+    @Value("${app.matchmaking.tick-lease-ms:2000}")
+    private long tickLeaseMs;
+
+    @Override
+    public MatchmakingTicket enqueue(MatchmakingTicket ticket) {
+        List<String> keys = new ArrayList<>();
+        keys.add(TICKETS_KEY);
+        keys.add(queueKey(ticket.mode()));
+        keys.addAll(allQueueKeys());
+        String json = redisTemplate.execute(ENQUEUE, keys,
+                String.valueOf(ticket.userId()), write(ticket), String.valueOf(ticket.rating()));
+        return json != null ? read(json) : null;
+    }
+
+    @Override
+    public MatchmakingTicket cancel(Long userId) {
+        List<String> keys = new ArrayList<>();
+        keys.add(TICKETS_KEY);
+        keys.addAll(allQueueKeys());
+        String json = redisTemplate.execute(CANCEL, keys, String.valueOf(userId));
+        return json != null ? read(json) : null;
+    }
+
+    @Override
+    public int size(Match.MatchMode mode) {
+        Long size = redisTemplate.opsForZSet().zCard(queueKey(mode));
+        return size != null ? size.intValue() : 0;
+    }
+
+    @Override
+    public List<Pair> claimPairs(Match.MatchMode mode, ToLongFunction<MatchmakingTicket> window) {
+        Long leased = redisTemplate.execute(ACQUIRE_LEASE, List.of(LEASE_PREFIX + mode.name()),
+                clusterNodes.nodeId(), String.valueOf(tickLeaseMs));
+        if (leased == null || leased != 1L) {
+            return List.of(); // пары этого режима подбирает другой узел
+        }
+        Set<String> userIds = redisTemplate.opsForZSet().range(queueKey(mode), 0, -1);
+        if (userIds == null || userIds.size() < 2) {
+            return List.of();
+        }
+        List<String> ids = new ArrayList<>(userIds);
+        List<Object> raw = redisTemplate.opsForHash().multiGet(TICKETS_KEY, new ArrayList<>(ids));
+        Map<Long, String> jsonByUser = new HashMap<>();
+        List<MatchmakingTicket> tickets = new ArrayList<>(ids.size());
+        for (Object value : raw) {
+            if (value == null) {
+                continue; // заявку сняли между чтениями
+            }
+            MatchmakingTicket ticket = read((String) value);
+            if (ticket.mode() != mode) {
+                continue; // заявку заменили заявкой другого режима между чтениями
+            }
+            jsonByUser.put(ticket.userId(), (String) value);
+            tickets.add(ticket);
+        }
+        tickets.sort(MatchmakingPairing.QUEUE_ORDER);
+
+        List<Pair> claimed = new ArrayList<>();
+        for (Pair pair : MatchmakingPairing.select(tickets, window)) {
+            Long ok = redisTemplate.execute(CLAIM, List.of(TICKETS_KEY, queueKey(mode)),
+                    String.valueOf(pair.first().userId()), jsonByUser.get(pair.first().userId()),
+                    String.valueOf(pair.second().userId()), jsonByUser.get(pair.second().userId()));
+            if (ok != null && ok == 1L) {
+                claimed.add(pair);
+            } else {
+                log.debug("Matchmaking: pair {} / {} already claimed elsewhere", pair.first().userId(), pair.second().userId());
+            }
+        }
+        return claimed;
+    }
+
+    private static String queueKey(Match.MatchMode mode) {
+        return QUEUE_PREFIX + mode.name();
+    }
+
+    private static List<String> allQueueKeys() {
+        return Arrays.stream(Match.MatchMode.values()).map(RedisMatchmakingQueue::queueKey).toList();
+    }
+
+    private String write(MatchmakingTicket ticket) {
+        try {
+            return objectMapper.writeValueAsString(ticket);
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to serialize matchmaking ticket", e);
+        }
+    }
+
+    private MatchmakingTicket read(String json) {
+        try {
+            return objectMapper.readValue(json, MatchmakingTicket.class);
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to read matchmaking ticket", e);
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.lotus.game.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Хешированное колесо таймеров: один поток обслуживает любое число отложенных задач. Колесо — кольцо из
+ * {@code size} корзин, стрелка сдвигается на одну корзину за тик; задача кладётся в корзину своего срока
+ * и ждёт нужное число полных оборотов. Постановка и отмена — O(1): из любых потоков они только кладут
+ * запись в очередь, а корзины (двусвязные списки) меняет исключительно поток колеса.
+ * <p>
+ * Точность — один тик. Задачи выполняются в потоке колеса, поэтому должны быть короткими: долгую работу
+ * нужно передавать в свой пул.
+ */
+@Slf4j
+public final class TimingWheel {
+
+    /** Сколько новых задач переносится в корзины за тик; остаток ждёт следующего тика. */
+    private static final int MAX_TRANSFERS_PER_TICK = 100_000;
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Queue<Timeout> pendingAdds = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> pendingCancels = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger scheduled = new AtomicInteger();
+    private final long startNanos;
+    private final Thread worker;
+    private volatile boolean running = true;
+    /** Номер текущего тика; меняется только потоком колеса. */
+    private long tick;
+
+    /**
+     * @param size число корзин, округляется вверх до степени двойки
+     */
+    public TimingWheel(String name, long tickDuration, TimeUnit unit, int size) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("Tick duration must be positive: " + tickDuration);
+        }
+        if (size <= 0 || size > (1 << 24)) {
+            throw new IllegalArgumentException("Wheel size must be in 1.." + (1 << 24) + ": " + size);
+        }
+        this.tickNanos = unit.toNanos(tickDuration);
+        int buckets = Integer.highestOneBit(size);
+        if (buckets < size) buckets <<= 1;
+        this.wheel = new Bucket[buckets];
+        for (int i = 0; i < buckets; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = buckets - 1;
+        this.startNanos = System.nanoTime();
+        this.worker = new Thread(this::run, name);
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /** Ставит задачу на выполнение через {@code delay}; вызывается из любого потока. */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        if (!running) {
+            throw new IllegalStateException("Timing wheel is stopped");
+        }
+        long deadline = System.nanoTime() - startNanos + Math.max(unit.toNanos(delay), 0);
+        Timeout timeout = new Timeout(task, deadline);
+        scheduled.incrementAndGet();
+        pendingAdds.add(timeout);
+        return timeout;
+    }
+
+    /** Задачи, поставленные и ещё не выполненные и не отменённые. */
+    public int size() {
+        return scheduled.get();
+    }
+
+    /** Останавливает поток колеса; невыполненные задачи отбрасываются. */
+    public void stop() {
+        running = false;
+        worker.interrupt();
+    }
+
+    private void run() {
+        while (running) {
+            long deadline = (tick + 1) * tickNanos;
+            long sleep = deadline - (System.nanoTime() - startNanos);
+            if (sleep > 0) {
+                LockSupport.parkNanos(this, sleep);
+                continue; // пробуждение может быть ранним
+            }
+            removeCancelled();
+            transferPending();
+            wheel[(int) (tick & mask)].expire(deadline);
+            tick++;
+        }
+    }
+
+    private void transferPending() {
+        for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+            Timeout timeout = pendingAdds.poll();
+            if (timeout == null) {
+                return;
+            }
+            if (timeout.state != Timeout.PENDING) {
+                continue; // отменён до попадания в корзину
+            }
+            long ticks = timeout.deadline / tickNanos;
+            timeout.remainingRounds = (ticks - tick) / wheel.length;
+            // срок в прошлом — в текущую корзину, чтобы не ждать полный оборот
+            Bucket bucket = wheel[(int) (Math.max(ticks, tick) & mask)];
+            bucket.add(timeout);
+        }
+    }
+
+    private void removeCancelled() {
+        Timeout timeout;
+        while ((timeout = pendingCancels.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    /** Отложенная задача колеса. */
+    public final class Timeout {
+
+        private static final int PENDING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+        private static final AtomicIntegerFieldUpdater<Timeout> STATE =
+                AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+        private final Runnable task;
+        private final long deadline;
+        private volatile int state = PENDING;
+
+        // поля ниже трогает только поток колеса
+        private long remainingRounds;
+        private Bucket bucket;
+        private Timeout prev;
+        private Timeout next;
+
+        private Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Отменяет задачу, если она ещё не начала выполняться; из корзины запись убирается на следующем тике.
+         * @return false — задача уже выполнена или отменена раньше
+         */
+        public boolean cancel() {
+            if (!STATE.compareAndSet(this, PENDING, CANCELLED)) {
+                return false;
+            }
+            scheduled.decrementAndGet();
+            pendingCancels.add(this);
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return state == CANCELLED;
+        }
+
+        private void expire() {
+            if (!STATE.compareAndSet(this, PENDING, EXPIRED)) {
+                return;
+            }
+            scheduled.decrementAndGet();
+            try {
+                task.run();
+            } catch (Throwable e) {
+                log.warn("Timer task failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    /** Корзина колеса — двусвязный список задач, который меняет только поток колеса. */
+    private static final class Bucket {
+
+        private Timeout head;
+        private Timeout tail;
+
+        void add(Timeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        void expire(long deadline) {
+            Timeout timeout = head;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                if (timeout.remainingRounds <= 0) {
+                    remove(timeout);
+                    if (timeout.deadline <= deadline) {
+                        timeout.expire();
+                    }
+                } else if (timeout.isCancelled()) {
+                    remove(timeout);
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        void remove(Timeout timeout) {
+            if (timeout.bucket != this) {
+                return;
+            }
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            } else {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+}
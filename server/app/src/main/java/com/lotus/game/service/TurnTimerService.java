@@ -0,0 +1,193 @@
+package com.lotus.game.service;
+
+import com.lotus.game.entity.Match;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Серверный таймер хода. Все live-матчи узла делят одно {@link TimingWheel}: на матч приходится одна запись
+ * в колесе, без своей задачи планировщика или потока. Таймер перевзводится на каждой границе хода
+ * (вызов из {@link MatchService} внутри очереди команд матча) и снимается при завершении матча.
+ * <p>
+ * По истечении срока ход завершается обычным {@link MatchService#endTurn} от имени игрока — с реплеем,
+ * write-behind и рассылкой. Игрок, пропустивший afk-turns ходов подряд, сдаётся ({@link MatchService#concede}).
+ * Любое собственное действие игрока обнуляет его счётчик пропусков.
+ * <p>
+ * Таймер живёт на узле-владельце матча. Матч, загруженный после рестарта или смены владельца, получает
+ * таймер при регистрации в {@link LiveMatchRegistry#getOrLoad} — с полным сроком на текущий ход.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TurnTimerService {
+
+    private final MatchService matchService;
+    private final LiveMatchRegistry liveMatches;
+    private final MatchCommandExecutor commands;
+    private final MeterRegistry meterRegistry;
+
+    /** Таймеры по id матча; поля записи меняются только в очереди команд своего матча. */
+    private final ConcurrentHashMap<Long, TurnTimer> timers = new ConcurrentHashMap<>();
+    private TimingWheel wheel;
+    private ThreadPoolExecutor executor;
+
+    @Value("${app.match.turn-timer.turn-seconds:75}")
+    private long turnSeconds;
+
+    @Value("${app.match.turn-timer.afk-turns:3}")
+    private int afkTurns;
+
+    @Value("${app.match.turn-timer.tick-ms:100}")
+    private long tickMs;
+
+    @Value("${app.match.turn-timer.wheel-size:512}")
+    private int wheelSize;
+
+    @Value("${app.match.turn-timer.threads:2}")
+    private int threads;
+
+    @PostConstruct
+    void start() {
+        wheel = new TimingWheel("turn-timer-wheel", tickMs, TimeUnit.MILLISECONDS, wheelSize);
+        AtomicInteger n = new AtomicInteger();
+        // очередь ограничена числом live-матчей: на матч не больше одного сработавшего таймера
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread t = new Thread(r, "turn-timer-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        Gauge.builder("lotus.match.turn.timers", wheel, TimingWheel::size)
+                .description("Взведённые таймеры хода на этом узле")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void stop() {
+        wheel.stop();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Вызывается в очереди команд матча после каждого действия и при старте матча: перевзводит таймер на новом
+     * ходе (или если его ещё нет) и снимает его у завершённого матча.
+     *
+     * @param actorId игрок, выполнивший действие
+     */
+    public void onCommit(Match match, Long actorId, boolean turnBoundary) {
+        if (turnSeconds <= 0) {
+            return;
+        }
+        Long matchId = match.getId();
+        TurnTimer timer = timers.get(matchId);
+        if (match.getStatus() != Match.MatchStatus.IN_PROGRESS) {
+            if (timer != null) {
+                timer.timeout.cancel();
+                timers.remove(matchId, timer);
+            }
+            match.setTurnDeadline(null);
+            return;
+        }
+        if (timer == null) {
+            timer = new TurnTimer();
+            timers.put(matchId, timer);
+        } else if (!timer.expiring) {
+            timer.idleTurns.remove(actorId);
+        }
+        if (timer.timeout != null && !turnBoundary) {
+            return;
+        }
+        if (timer.timeout != null) {
+            timer.timeout.cancel();
+        }
+        timer.playerId = match.getCurrentTurnPlayerId();
+        timer.turnNumber = turnNumber(match);
+        TurnTimer armed = timer;
+        timer.timeout = wheel.schedule(() -> dispatch(matchId, armed), turnSeconds, TimeUnit.SECONDS);
+        match.setTurnDeadline(Instant.now().plusSeconds(turnSeconds));
+    }
+
+    /** Поток колеса только передаёт сработавший таймер в пул. */
+    private void dispatch(Long matchId, TurnTimer timer) {
+        try {
+            executor.execute(() -> expire(matchId, timer));
+        } catch (RuntimeException e) {
+            log.debug("Turn timer of match {} dropped: {}", matchId, e.getMessage());
+        }
+    }
+
+    private void expire(Long matchId, TurnTimer timer) {
+        try {
+            commands.execute(matchId, () -> {
+                endExpiredTurn(matchId, timer);
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.warn("Turn timeout failed in match {}: {}", matchId, e.getMessage());
+        }
+    }
+
+    /** Выполняется в очереди команд матча, поэтому ход не может смениться между проверкой и действием. */
+    private void endExpiredTurn(Long matchId, TurnTimer timer) {
+        if (timers.get(matchId) != timer) {
+            return;
+        }
+        Match match = liveMatches.find(matchId).orElse(null);
+        if (match == null || match.getStatus() != Match.MatchStatus.IN_PROGRESS) {
+            timers.remove(matchId, timer); // матч завершён или передан другому узлу
+            return;
+        }
+        Long playerId = timer.playerId;
+        if (!Objects.equals(match.getCurrentTurnPlayerId(), playerId) || turnNumber(match) != timer.turnNumber) {
+            return; // ход уже сменился, таймер перевзведён
+        }
+        int idle = timer.idleTurns.merge(playerId, 1, Integer::sum);
+        boolean forfeit = afkTurns > 0 && idle >= afkTurns;
+        log.debug("Turn timeout in match {} for player {} ({} in a row)", matchId, playerId, idle);
+        timer.expiring = true;
+        try {
+            if (forfeit) {
+                matchService.concede(matchId, playerId);
+            } else {
+                matchService.endTurn(matchId, playerId);
+            }
+        } finally {
+            timer.expiring = false;
+        }
+        Counter.builder("lotus.match.turn.timeouts")
+                .description("Ходы, завершённые по таймеру")
+                .tag("outcome", forfeit ? "forfeit" : "end_turn")
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static int turnNumber(Match match) {
+        return match.getGameState() != null ? match.getGameState().getTurnNumber() : 0;
+    }
+
+    private static final class TurnTimer {
+        private TimingWheel.Timeout timeout;
+        private Long playerId;
+        private int turnNumber;
+        /** Ходы подряд, завершённые таймером, по игрокам. */
+        private final Map<Long, Integer> idleTurns = new HashMap<>();
+        /** Действие выполняет сам таймер — оно не считается активностью игрока. */
+        private boolean expiring;
+    }
+}
@@ -0,0 +1,82 @@
+package com.lotus.game.service;
+
+import com.lotus.game.entity.GameConfig;
+import com.lotus.game.repository.GameConfigRepository;
+import com.lotus.game.repository.MatchOutcome;
+import com.lotus.game.repository.MatchRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Однократное заполнение user_stats по матчам, завершённым до появления таблицы. Завершённые матчи читаются
+ * пачками по id (только сводные колонки, без состояния и реплея) в фоновом потоке, чтобы не задерживать старт.
+ * Матчи, которые завершаются во время прохода, учитываются обычным путём — отметка в match_stats_applied не даёт
+ * посчитать их дважды, как и параллельный проход на другом узле. По окончании в game_config ставится
+ * {@link #KEY_DONE}, и последующие старты проход пропускают.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserStatsBackfill {
+
+    public static final String KEY_DONE = "userStats.backfillDone";
+
+    private final MatchRepository matchRepository;
+    private final GameConfigRepository configRepository;
+    private final UserStatsService userStatsService;
+
+    @Value("${app.stats.backfill.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.stats.backfill.batch-size:500}")
+    private int batchSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled || isDone()) {
+            return;
+        }
+        Thread thread = new Thread(this::run, "user-stats-backfill");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run() {
+        try {
+            long scanned = 0;
+            long applied = 0;
+            Long afterId = 0L;
+            while (true) {
+                List<MatchOutcome> page = matchRepository.findFinishedOutcomes(afterId, PageRequest.of(0, batchSize));
+                for (MatchOutcome outcome : page) {
+                    if (userStatsService.record(outcome)) {
+                        applied++;
+                    }
+                }
+                scanned += page.size();
+                if (page.size() < batchSize) {
+                    break;
+                }
+                afterId = page.get(page.size() - 1).matchId();
+            }
+            configRepository.save(GameConfig.builder().configKey(KEY_DONE).configValue("true").build());
+            log.info("User stats backfill finished: {} finished matches scanned, {} applied", scanned, applied);
+        } catch (RuntimeException e) {
+            log.error("User stats backfill failed, will resume on next start: {}", e.getMessage(), e);
+        }
+    }
+
+    private boolean isDone() {
+        return configRepository.findByConfigKey(KEY_DONE)
+                .map(GameConfig::getConfigValue)
+                .map(Boolean::parseBoolean)
+                .orElse(false);
+    }
+}
@@ -0,0 +1,94 @@
+package com.lotus.game.service;
+
+import com.lotus.game.entity.UserStats;
+import com.lotus.game.repository.MatchOutcome;
+import com.lotus.game.repository.MatchStatsAppliedRepository;
+import com.lotus.game.repository.UserStatsRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Материализованная статистика игроков (user_stats): победы, поражения и ничьи в целом, по режимам и по героям.
+ * Результат матча применяется одной транзакцией вместе с отметкой в match_stats_applied, поэтому каждый матч
+ * учитывается ровно один раз — и обработчиком outbox ({@link PostMatchPipeline}), и при backfill
+ * ({@link UserStatsBackfill}).
+ */
+@Service
+@RequiredArgsConstructor
+public class UserStatsService {
+
+    private final UserStatsRepository statsRepository;
+    private final MatchStatsAppliedRepository appliedRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Учитывает матч в своей транзакции (backfill); при гонке с другим узлом запись повторяется один раз.
+     * @return false — матч уже учтён
+     */
+    public boolean record(MatchOutcome outcome) {
+        try {
+            return Boolean.TRUE.equals(transactionTemplate.execute(tx -> apply(outcome)));
+        } catch (DataIntegrityViolationException e) {
+            // параллельная запись того же матча или первой строки разреза: повтор увидит её результат
+            return Boolean.TRUE.equals(transactionTemplate.execute(tx -> apply(outcome)));
+        }
+    }
+
+    /** Итог по всем матчам — одна строка. */
+    public Optional<UserStats> totals(Long userId) {
+        return statsRepository.findByUserIdAndScope(userId, UserStats.SCOPE_ALL);
+    }
+
+    /** Все разрезы игрока: ALL, MODE:*, HERO:*. */
+    public List<UserStats> breakdown(Long userId) {
+        return statsRepository.findByUserIdOrderByScopeAsc(userId);
+    }
+
+    /**
+     * Учитывает матч в транзакции вызывающего ({@link PostMatchPipeline}) без повтора: нарушение уникальности
+     * откатывает её целиком, и событие обрабатывается заново.
+     * @return false — матч уже учтён
+     */
+    public boolean apply(MatchOutcome outcome) {
+        if (appliedRepository.existsById(outcome.matchId())) {
+            return false;
+        }
+        appliedRepository.insert(outcome.matchId(), Instant.now());
+        applyForPlayer(outcome, outcome.player1Id(), outcome.hero1Id());
+        applyForPlayer(outcome, outcome.player2Id(), outcome.hero2Id());
+        return true;
+    }
+
+    private void applyForPlayer(MatchOutcome outcome, Long userId, String heroId) {
+        if (userId == null || PracticeBotService.isBot(userId)) {
+            return;
+        }
+        Long winnerId = outcome.winnerId();
+        long wins = userId.equals(winnerId) ? 1 : 0;
+        long draws = winnerId == null ? 1 : 0;
+        long losses = 1 - wins - draws;
+        increment(userId, UserStats.SCOPE_ALL, wins, losses, draws);
+        increment(userId, UserStats.MODE_PREFIX + outcome.matchMode().name(), wins, losses, draws);
+        if (heroId != null) {
+            increment(userId, UserStats.HERO_PREFIX + heroId, wins, losses, draws);
+        }
+    }
+
+    private void increment(Long userId, String scope, long wins, long losses, long draws) {
+        if (statsRepository.increment(userId, scope, wins, losses, draws) == 0) {
+            statsRepository.saveAndFlush(UserStats.builder()
+                    .userId(userId)
+                    .scope(scope)
+                    .wins(wins)
+                    .losses(losses)
+                    .draws(draws)
+                    .build());
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.lotus.game.config;
+
+import com.lotus.game.engine.GameState;
+import com.lotus.game.engine.GameStateCodec;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameStateConverterTest {
+
+    /** game_state в том виде, в каком его писал JSON-конвертер до бинарного формата (после миграции в bytea). */
+    private static final String BASELINE_JSON = """
+            {"player1":{"heroId":"mage","heroName":"Маг","portraitUrl":null,"maxHeroHealth":30,"health":27,"mana":3,
+            "maxMana":5,"fatigueCounter":0,
+            "deck":[{"cardType":"MINION","cardId":4},{"cardType":"SPELL","cardId":2}],
+            "hand":[{"instanceId":"0b6f3c2e-8d1a-4d3e-9c55-1f0e7a3b9d21","cardType":"SPELL","cardId":1}],
+            "board":[{"instanceId":"5c9d1e7a-2b4f-4a6c-8e3d-7f1a2b3c4d5e","cardId":3,"attack":4,"currentHealth":2,
+            "maxHealth":4,"canAttack":true,"exhausted":false,"canAttackHero":false,"taunt":true,"divineShield":false,
+            "windfury":false,"stealth":false,"poisonous":true,"lifesteal":false,"rush":true,"attacksThisTurn":1,
+            "summonedByDeathrattle":false}]},
+            "player2":{"heroId":null,"heroName":null,"portraitUrl":null,"maxHeroHealth":30,"health":-2,"mana":0,
+            "maxMana":10,"fatigueCounter":3,"deck":[],"hand":[],"board":[]},
+            "turnNumber":12,"currentTurnPlayerId":7}
+            """;
+
+    private final GameStateConverter converter = new GameStateConverter();
+
+    @Test
+    void readsBaselineJsonRows() {
+        GameState state = converter.convertToEntityAttribute(BASELINE_JSON.getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(12, state.getTurnNumber());
+        assertEquals(7L, state.getCurrentTurnPlayerId());
+        GameState.PlayerState p1 = state.getPlayer1();
+        assertEquals("Маг", p1.getHeroName());
+        assertEquals(2, p1.getDeck().size());
+        assertEquals("SPELL", p1.getDeck().get(1).getCardType());
+        assertEquals("0b6f3c2e-8d1a-4d3e-9c55-1f0e7a3b9d21", p1.getHand().get(0).getInstanceId());
+        GameState.BoardMinion m = p1.getBoard().get(0);
+        assertTrue(m.isCanAttack());
+        assertFalse(m.isCanAttackHero());
+        assertTrue(m.isTaunt() && m.isPoisonous() && m.isRush());
+        assertEquals(1, m.getAttacksThisTurn());
+        assertEquals(-2, state.getPlayer2().getHealth());
+        assertEquals(3, state.getPlayer2().getFatigueCounter());
+    }
+
+    /** Строка, прочитанная из JSON, при следующей записи уходит в бинарный формат без потерь. */
+    @Test
+    void rewritesBaselineJsonAsBinaryWithoutLoss() {
+        GameState fromJson = converter.convertToEntityAttribute(BASELINE_JSON.getBytes(StandardCharsets.UTF_8));
+
+        byte[] binary = converter.convertToDatabaseColumn(fromJson);
+
+        assertTrue(GameStateCodec.isBinary(binary));
+        assertEquals(fromJson, converter.convertToEntityAttribute(binary));
+    }
+
+    @Test
+    void treatsMissingColumnAsNull() {
+        assertNull(converter.convertToEntityAttribute(null));
+        assertNull(converter.convertToEntityAttribute(new byte[0]));
+        assertNull(converter.convertToDatabaseColumn(null));
+    }
+
+    @Test
+    void deepCopyIsIndependent() {
+        GameState state = converter.convertToEntityAttribute(BASELINE_JSON.getBytes(StandardCharsets.UTF_8));
+
+        GameState copy = GameStateConverter.deepCopy(state);
+        copy.getPlayer1().getBoard().get(0).setAttack(99);
+        copy.getPlayer1().getHand().clear();
+
+        assertEquals(4, state.getPlayer1().getBoard().get(0).getAttack());
+        assertEquals(1, state.getPlayer1().getHand().size());
+    }
+}
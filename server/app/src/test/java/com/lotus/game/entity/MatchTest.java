@@ -0,0 +1,77 @@
+package com.lotus.game.entity;
+
+import com.lotus.game.dto.game.ReplayStepDto;
+import com.lotus.game.engine.GameState;
+import jakarta.persistence.Transient;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * {@link Match#persistentCopy()} переносит каждый столбец: поля перечисляются рефлексией, поэтому новый столбец,
+ * забытый в копии, роняет тест.
+ */
+class MatchTest {
+
+    @Test
+    void persistentCopyCarriesEveryColumn() throws IllegalAccessException {
+        Match source = new Match();
+        for (Field field : persistentFields()) {
+            field.set(source, sample(field));
+        }
+
+        Match copy = source.persistentCopy();
+
+        for (Field field : persistentFields()) {
+            assertEquals(field.get(source), field.get(copy), field.getName());
+        }
+        assertNotSame(source.getGameState(), copy.getGameState());
+        assertNotSame(source.getReplaySteps(), copy.getReplaySteps());
+    }
+
+    @Test
+    void persistentCopySkipsTransientState() {
+        Match source = new Match();
+        source.setPlayer1Username("alice");
+        source.setTurnDeadline(Instant.EPOCH);
+
+        Match copy = source.persistentCopy();
+
+        assertNull(copy.getPlayer1Username());
+        assertNull(copy.getTurnDeadline());
+    }
+
+    private static List<Field> persistentFields() {
+        List<Field> fields = new ArrayList<>();
+        for (Field field : Match.class.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic() || field.isAnnotationPresent(Transient.class)) {
+                continue;
+            }
+            field.setAccessible(true);
+            fields.add(field);
+        }
+        return fields;
+    }
+
+    /** Значение, отличное от значения по умолчанию, для каждого типа столбца матча. */
+    private static Object sample(Field field) {
+        Class<?> type = field.getType();
+        if (type == Long.class) return (long) field.getName().hashCode();
+        if (type == Integer.class) return field.getName().length();
+        if (type == String.class) return field.getName();
+        if (type == Instant.class) return Instant.ofEpochSecond(field.getName().hashCode() & 0xffff);
+        if (type == Match.MatchMode.class) return Match.MatchMode.PRACTICE;
+        if (type == Match.MatchStatus.class) return Match.MatchStatus.FINISHED;
+        if (type == GameState.class) return GameState.builder().turnNumber(7).currentTurnPlayerId(1L).build();
+        if (type == List.class) return new ArrayList<>(List.of(ReplayStepDto.builder().stepIndex(0).build()));
+        throw new IllegalStateException("No sample value for column " + field.getName() + " of type " + type.getName());
+    }
+}
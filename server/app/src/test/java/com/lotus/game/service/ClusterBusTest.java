@@ -0,0 +1,143 @@
+package com.lotus.game.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lotus.game.dto.cluster.MatchCommand;
+import com.lotus.game.dto.game.MatchDto;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Порядок доставок и независимость ответов от занятых команд в {@link ClusterBus} на настоящем redis-server.
+ * Два экземпляра шины с разными id узла изображают два инстанса приложения.
+ */
+class ClusterBusTest {
+
+    private static RedisServer redis;
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+    private static final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private final List<ClusterBus> started = new ArrayList<>();
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redis = new RedisServer(port);
+        redis.start();
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+        connectionFactory.afterPropertiesSet();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        connectionFactory.destroy();
+        redis.stop();
+    }
+
+    @AfterEach
+    void stopBuses() throws Exception {
+        for (ClusterBus bus : started) {
+            bus.stop();
+        }
+    }
+
+    @Test
+    void deliveriesArriveInPublishOrder() throws InterruptedException {
+        ClusterBus nodeA = bus("node-a");
+        ClusterBus nodeB = bus("node-b");
+        int count = 200;
+        List<String> received = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(count);
+        nodeB.onDelivery((username, destination, payload) -> {
+            String message = new String(payload, StandardCharsets.UTF_8);
+            if (Integer.parseInt(message) % 10 == 0) {
+                sleep(2);
+            }
+            synchronized (received) {
+                received.add(message);
+            }
+            done.countDown();
+        });
+
+        for (int i = 0; i < count; i++) {
+            nodeA.deliver("node-b", "alice", "/queue/match", String.valueOf(i).getBytes(StandardCharsets.UTF_8));
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(IntStream.range(0, count).mapToObj(String::valueOf).toList(), received);
+    }
+
+    @Test
+    void replyIsNotBlockedByBusyCommandThreads() throws Exception {
+        ClusterBus nodeA = bus("node-a");
+        ClusterBus nodeB = bus("node-b");
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        nodeA.onCommand(command -> MatchDto.builder().id(command.getMatchId()).build());
+        nodeB.onCommand(command -> {
+            blocked.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return MatchDto.builder().id(command.getMatchId()).build();
+        });
+
+        CompletableFuture<MatchDto> slow = CompletableFuture.supplyAsync(() -> nodeA.forward("node-b", command(1L)));
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+        try {
+            assertEquals(2L, nodeB.forward("node-a", command(2L)).getId());
+        } finally {
+            release.countDown();
+        }
+        assertEquals(1L, slow.get(5, TimeUnit.SECONDS).getId());
+    }
+
+    private ClusterBus bus(String nodeId) {
+        ClusterNodes nodes = new ClusterNodes(redisTemplate, "redis", nodeId, 6000, 5000, 2000);
+        ClusterBus bus = new ClusterBus(nodes, redisTemplate, connectionFactory, objectMapper);
+        ReflectionTestUtils.setField(bus, "forwardTimeoutMs", 2000L);
+        ReflectionTestUtils.setField(bus, "busThreads", 1);
+        bus.start();
+        started.add(bus);
+        return bus;
+    }
+
+    private static MatchCommand command(Long matchId) {
+        return MatchCommand.builder().type(MatchCommand.Type.GET).matchId(matchId).userId(1L).build();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.lotus.game.service;
+
+import com.lotus.game.dto.game.PlayCardRequest;
+import com.lotus.game.dto.game.ReplayPayload;
+import com.lotus.game.dto.game.ReplayStepDto;
+import com.lotus.game.engine.CardDefinitions;
+import com.lotus.game.engine.CardDefinitions.MinionDef;
+import com.lotus.game.engine.GameRandom;
+import com.lotus.game.engine.GameState;
+import com.lotus.game.engine.GameStateCodec;
+import com.lotus.game.engine.RecordingGameRandom;
+import com.lotus.game.entity.Match;
+import com.lotus.game.entity.MatchReplayEvent;
+import com.lotus.game.repository.MatchReplayEventRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Переигрывание шагов {@link MatchReplayService} по журналу, записанному настоящими {@link MatchRules}.
+ * Репозиторий, архив и реестр карт подменены.
+ */
+class MatchReplayServiceTest {
+
+    private static final long MATCH_ID = 7L;
+    private static final Long P1 = 1L;
+    private static final Long P2 = 2L;
+
+    private static final CardDefinitions PLAYED = CardDefinitions.of(1, List.of(minion(2, 3)), List.of());
+    /** Та же карта после правки в админке. */
+    private static final CardDefinitions EDITED = CardDefinitions.of(2, List.of(minion(5, 5)), List.of());
+
+    private final MatchReplayEventRepository repository = mock(MatchReplayEventRepository.class);
+    private final CardRegistry cardRegistry = mock(CardRegistry.class);
+    private final MatchRules rules = new MatchRules();
+    private final MatchReplayService replays = replayService();
+
+    @Test
+    void finishedMatchReplaysWithPinnedCardsAfterCardEdit() {
+        Match match = liveMatch();
+        replays.recordInit(match);
+        play(match, "m1");
+        byte[] afterPlay = GameStateCodec.encode(match.getGameState());
+        concede(match, P2);
+        assertEquals(Match.MatchStatus.FINISHED, match.getStatus());
+
+        when(repository.findByMatchIdOrderByStepIndexAsc(MATCH_ID)).thenReturn(List.copyOf(match.getReplayLog()));
+        when(cardRegistry.current()).thenReturn(EDITED);
+        when(cardRegistry.version(1L)).thenReturn(PLAYED);
+
+        ReplayStepDto step = replays.stateAt(match, false, 1);
+
+        assertArrayEquals(afterPlay, GameStateCodec.encode(step.getGameState()));
+        assertEquals(2, step.getGameState().getPlayer1().getBoard().get(0).getAttack());
+    }
+
+    @Test
+    void finishedTimelineIsCachedWithinByteBudget() {
+        Match match = finishedMatch();
+
+        replays.stateAt(match, false, 1);
+        replays.page(match, false, 0, 10);
+
+        verify(repository, times(1)).findByMatchIdOrderByStepIndexAsc(MATCH_ID);
+    }
+
+    @Test
+    void timelineOverByteBudgetIsNotCached() {
+        Match match = finishedMatch();
+        ReflectionTestUtils.setField(replays, "timelineCacheMaxBytes", 1L);
+
+        ReplayStepDto step = replays.stateAt(match, false, 1);
+        replays.page(match, false, 0, 10);
+
+        assertEquals(1, step.getGameState().getPlayer1().getBoard().size());
+        verify(repository, times(2)).findByMatchIdOrderByStepIndexAsc(MATCH_ID);
+    }
+
+    @Test
+    void replayDoesNotMutateCachedKeyframe() {
+        Match match = finishedMatch();
+
+        replays.stateAt(match, false, 1);
+        ReplayStepDto again = replays.stateAt(match, false, 1);
+
+        assertEquals(0, again.getGameState().getPlayer1().getHand().size());
+        assertEquals(1, again.getGameState().getPlayer1().getBoard().size());
+    }
+
+    @Test
+    void rulesRefuseMatchWithoutPinnedCards() {
+        Match match = liveMatch();
+        match.setCardDefinitions(null);
+
+        assertThrows(IllegalStateException.class, () -> rules.endTurn(match, P1, GameRandom.system()));
+    }
+
+    /** Сыгранный и завершённый матч: INIT, розыгрыш миньона, сдача P2; журнал отдаёт подменённый репозиторий. */
+    private Match finishedMatch() {
+        Match match = liveMatch();
+        replays.recordInit(match);
+        play(match, "m1");
+        concede(match, P2);
+        when(repository.findByMatchIdOrderByStepIndexAsc(MATCH_ID)).thenReturn(List.copyOf(match.getReplayLog()));
+        when(cardRegistry.version(1L)).thenReturn(PLAYED);
+        return match;
+    }
+
+    private void play(Match match, String instanceId) {
+        PlayCardRequest request = new PlayCardRequest();
+        request.setInstanceId(instanceId);
+        RecordingGameRandom rng = new RecordingGameRandom(GameRandom.system());
+        String description = rules.playCard(match, P1, request, rng);
+        replays.record(match, MatchReplayEvent.ActionType.PLAY, P1, description, MatchReplayService.payloadOf(request), rng);
+    }
+
+    private void concede(Match match, Long playerId) {
+        RecordingGameRandom rng = new RecordingGameRandom(GameRandom.system());
+        String description = rules.concede(match, playerId, rng);
+        replays.record(match, MatchReplayEvent.ActionType.CONCEDE, playerId, description, new ReplayPayload(), rng);
+    }
+
+    private MatchReplayService replayService() {
+        MatchReplayService service = new MatchReplayService(repository, rules, mock(MatchArchiveService.class), cardRegistry);
+        ReflectionTestUtils.setField(service, "keyframeInterval", 16);
+        ReflectionTestUtils.setField(service, "timelineCacheMaxBytes", 1L << 20);
+        return service;
+    }
+
+    private static Match liveMatch() {
+        GameState.PlayerState p1 = GameState.PlayerState.builder().mana(10).maxMana(10).build();
+        p1.getHand().add(new GameState.CardInHand("m1", "MINION", 1L));
+        GameState state = GameState.builder()
+                .player1(p1)
+                .player2(GameState.PlayerState.builder().mana(10).maxMana(10).build())
+                .turnNumber(1)
+                .currentTurnPlayerId(P1)
+                .build();
+        return Match.builder()
+                .id(MATCH_ID)
+                .player1Id(P1)
+                .player2Id(P2)
+                .status(Match.MatchStatus.IN_PROGRESS)
+                .currentTurnPlayerId(P1)
+                .cardDefinitionsVersion(PLAYED.version())
+                .cardDefinitions(PLAYED)
+                .gameState(state)
+                .build();
+    }
+
+    private static MinionDef minion(int attack, int health) {
+        return new MinionDef(1, "minion", 2, attack, health, false, false, false, false, false, false, false, false,
+                null, 0, null, null, 0, null);
+    }
+}
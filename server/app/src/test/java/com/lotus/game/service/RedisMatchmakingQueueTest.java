@@ -0,0 +1,263 @@
+package com.lotus.game.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lotus.game.entity.Match;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.ToLongFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Lua-скрипты и аренда тика {@link RedisMatchmakingQueue} на настоящем redis-server (встроенном, без Docker).
+ * Два экземпляра очереди с разными id узла изображают два инстанса приложения.
+ */
+class RedisMatchmakingQueueTest {
+
+    private static final long LEASE_MS = 300;
+    private static final ToLongFunction<MatchmakingTicket> ANY_RATING = t -> Long.MAX_VALUE;
+
+    private static RedisServer redis;
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+    private static final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private final RedisMatchmakingQueue nodeA = queue("node-a");
+    private final RedisMatchmakingQueue nodeB = queue("node-b");
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redis = new RedisServer(port);
+        redis.start();
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+        connectionFactory.afterPropertiesSet();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        connectionFactory.destroy();
+        redis.stop();
+    }
+
+    @AfterEach
+    void flushRedis() {
+        redisTemplate.execute(connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        }, true);
+    }
+
+    @Test
+    void enqueueReplacesPreviousTicketAcrossModes() {
+        assertNull(nodeA.enqueue(ticket(1L, 1000, Match.MatchMode.RANKED)));
+        MatchmakingTicket replaced = nodeB.enqueue(ticket(1L, 1000, Match.MatchMode.CASUAL));
+
+        assertNotNull(replaced);
+        assertEquals(Match.MatchMode.RANKED, replaced.mode());
+        assertEquals(0, nodeA.size(Match.MatchMode.RANKED));
+        assertEquals(1, nodeA.size(Match.MatchMode.CASUAL));
+    }
+
+    @Test
+    void cancelRemovesTicketOnce() {
+        nodeA.enqueue(ticket(1L, 1000, Match.MatchMode.RANKED));
+
+        MatchmakingTicket cancelled = nodeB.cancel(1L);
+
+        assertNotNull(cancelled);
+        assertEquals(1L, cancelled.userId());
+        assertEquals(0, nodeA.size(Match.MatchMode.RANKED));
+        assertNull(nodeA.cancel(1L));
+    }
+
+    @Test
+    void claimPairsRemovesBothTickets() {
+        nodeA.enqueue(ticket(1L, 1000, Match.MatchMode.RANKED));
+        nodeA.enqueue(ticket(2L, 1010, Match.MatchMode.RANKED));
+
+        List<MatchmakingQueue.Pair> pairs = nodeA.claimPairs(Match.MatchMode.RANKED, ANY_RATING);
+
+        assertEquals(1, pairs.size());
+        assertEquals(0, nodeA.size(Match.MatchMode.RANKED));
+        assertNull(nodeA.cancel(1L));
+        assertNull(nodeA.cancel(2L));
+    }
+
+    @Test
+    void onlyLeaseHolderClaimsModeAndLeaseIsPerMode() {
+        nodeA.enqueue(ticket(1L, 1000, Match.MatchMode.RANKED));
+        nodeA.enqueue(ticket(2L, 1010, Match.MatchMode.RANKED));
+        nodeA.enqueue(ticket(3L, 1000, Match.MatchMode.CASUAL));
+        nodeA.enqueue(ticket(4L, 1010, Match.MatchMode.CASUAL));
+
+        assertTrue(nodeA.claimPairs(Match.MatchMode.CASUAL, t -> -1).isEmpty()); // аренда CASUAL у A, пар нет
+        assertTrue(nodeB.claimPairs(Match.MatchMode.CASUAL, ANY_RATING).isEmpty());
+        assertEquals(2, nodeA.size(Match.MatchMode.CASUAL));
+
+        assertEquals(1, nodeB.claimPairs(Match.MatchMode.RANKED, ANY_RATING).size());
+        assertEquals(1, nodeA.claimPairs(Match.MatchMode.CASUAL, ANY_RATING).size());
+    }
+
+    @Test
+    void leaseMovesToAnotherNodeAfterExpiry() throws InterruptedException {
+        nodeA.enqueue(ticket(1L, 1000, Match.MatchMode.RANKED));
+        nodeA.enqueue(ticket(2L, 1010, Match.MatchMode.RANKED));
+        assertTrue(nodeA.claimPairs(Match.MatchMode.RANKED, t -> -1).isEmpty());
+        assertTrue(nodeB.claimPairs(Match.MatchMode.RANKED, ANY_RATING).isEmpty());
+
+        Thread.sleep(LEASE_MS * 2);
+
+        assertEquals(1, nodeB.claimPairs(Match.MatchMode.RANKED, ANY_RATING).size());
+    }
+
+    @Test
+    void competingClaimersGetEachPairOnce() throws Exception {
+        for (long id = 1; id <= 20; id++) {
+            nodeA.enqueue(ticket(id, 1000 + (int) id, Match.MatchMode.RANKED));
+        }
+        CountDownLatch start = new CountDownLatch(1);
+        Callable<List<MatchmakingQueue.Pair>> claimA = () -> {
+            start.await();
+            return nodeA.claimPairs(Match.MatchMode.RANKED, ANY_RATING);
+        };
+        Callable<List<MatchmakingQueue.Pair>> claimB = () -> {
+            start.await();
+            return nodeB.claimPairs(Match.MatchMode.RANKED, ANY_RATING);
+        };
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<List<MatchmakingQueue.Pair>> a = pool.submit(claimA);
+            Future<List<MatchmakingQueue.Pair>> b = pool.submit(claimB);
+            start.countDown();
+            List<MatchmakingQueue.Pair> all = new ArrayList<>(a.get());
+            all.addAll(b.get());
+
+            assertTrue(a.get().isEmpty() || b.get().isEmpty(), "only the lease holder pairs a mode");
+            assertEquals(10, all.size());
+            assertEquals(20, distinctUsers(all).size());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Аренда A истекает посреди его тика, и B успевает забрать ту же пару: CLAIM у A должен отказать, потому что
+     * заявок в хэше уже нет.
+     */
+    @Test
+    void claimFailsForPairTakenAfterLeaseExpired() {
+        nodeA.enqueue(ticket(1L, 1000, Match.MatchMode.RANKED));
+        nodeA.enqueue(ticket(2L, 1010, Match.MatchMode.RANKED));
+        List<MatchmakingQueue.Pair> claimedByB = new ArrayList<>();
+        AtomicBoolean stalled = new AtomicBoolean();
+
+        List<MatchmakingQueue.Pair> claimedByA = nodeA.claimPairs(Match.MatchMode.RANKED, t -> {
+            if (stalled.compareAndSet(false, true)) {
+                sleep(LEASE_MS * 2);
+                claimedByB.addAll(nodeB.claimPairs(Match.MatchMode.RANKED, ANY_RATING));
+            }
+            return Long.MAX_VALUE;
+        });
+
+        assertEquals(1, claimedByB.size());
+        assertTrue(claimedByA.isEmpty());
+    }
+
+    /** Отмена между чтением очереди и CLAIM: пара не изымается, заявка соперника остаётся в очереди. */
+    @Test
+    void cancelRacingClaimKeepsOpponentQueued() {
+        nodeA.enqueue(ticket(1L, 1000, Match.MatchMode.RANKED));
+        nodeA.enqueue(ticket(2L, 1010, Match.MatchMode.RANKED));
+        AtomicBoolean cancelled = new AtomicBoolean();
+
+        List<MatchmakingQueue.Pair> pairs = nodeA.claimPairs(Match.MatchMode.RANKED, t -> {
+            if (cancelled.compareAndSet(false, true)) {
+                nodeB.cancel(1L);
+            }
+            return Long.MAX_VALUE;
+        });
+
+        assertTrue(pairs.isEmpty());
+        assertEquals(1, nodeA.size(Match.MatchMode.RANKED));
+        assertNotNull(nodeA.cancel(2L));
+    }
+
+    /** Заявку заменили (новая колода) между чтением и CLAIM: устаревшая пара не изымается, новая заявка цела. */
+    @Test
+    void replacedTicketIsNotClaimedWithStaleJson() {
+        nodeA.enqueue(ticket(1L, 1000, Match.MatchMode.RANKED));
+        nodeA.enqueue(ticket(2L, 1010, Match.MatchMode.RANKED));
+        AtomicBoolean replaced = new AtomicBoolean();
+
+        List<MatchmakingQueue.Pair> pairs = nodeA.claimPairs(Match.MatchMode.RANKED, t -> {
+            if (replaced.compareAndSet(false, true)) {
+                nodeB.enqueue(new MatchmakingTicket(1L, "user1", 99L, "hero", 1000, Match.MatchMode.RANKED, Instant.now()));
+            }
+            return Long.MAX_VALUE;
+        });
+
+        assertTrue(pairs.isEmpty());
+        assertEquals(2, nodeA.size(Match.MatchMode.RANKED));
+        assertEquals(99L, nodeA.cancel(1L).deckId());
+    }
+
+    private static RedisMatchmakingQueue queue(String nodeId) {
+        ClusterNodes nodes = new ClusterNodes(redisTemplate, "standalone", nodeId, 6000, 5000, 2000);
+        RedisMatchmakingQueue queue = new RedisMatchmakingQueue(redisTemplate, objectMapper, nodes);
+        ReflectionTestUtils.setField(queue, "tickLeaseMs", LEASE_MS);
+        return queue;
+    }
+
+    private static MatchmakingTicket ticket(Long userId, int rating, Match.MatchMode mode) {
+        return new MatchmakingTicket(userId, "user" + userId, userId * 10, "hero", rating, mode,
+                Instant.parse("2026-01-01T00:00:00Z").plusSeconds(userId));
+    }
+
+    private static Set<Long> distinctUsers(List<MatchmakingQueue.Pair> pairs) {
+        Set<Long> users = new HashSet<>();
+        for (MatchmakingQueue.Pair p : pairs) {
+            users.add(p.first().userId());
+            users.add(p.second().userId());
+        }
+        return users;
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
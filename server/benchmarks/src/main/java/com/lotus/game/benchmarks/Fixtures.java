@@ -0,0 +1,174 @@
+package com.lotus.game.benchmarks;
+
+import com.lotus.game.engine.CardDefinitions;
+import com.lotus.game.engine.CardDefinitions.MinionDef;
+import com.lotus.game.engine.CardDefinitions.SpellDef;
+import com.lotus.game.engine.GameRandom;
+import com.lotus.game.engine.GameState;
+import com.lotus.game.engine.MatchState;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Реалистичные позиции середины партии для бенчмарков: 10-й ход, 10 маны, столы по 6–7 миньонов
+ * с ключевыми механиками, полные руки и остаток колоды. БД не нужна — определения карт собираются в памяти.
+ */
+final class Fixtures {
+
+    static final Long P1 = 1L;
+    static final Long P2 = 2L;
+
+    static final long VANILLA = 1;
+    static final long TAUNT = 2;
+    static final long SHIELD = 3;
+    static final long POISON = 4;
+    static final long LIFESTEAL = 5;
+    static final long WINDFURY = 6;
+    static final long BOMB = 7;
+    static final long SUMMONER = 8;
+    static final long TOKEN = 9;
+    static final long SHOOTER = 10;
+    static final long BOLT = 1;
+
+    static final CardDefinitions CARDS = CardDefinitions.of(1, List.of(
+            minion(VANILLA, "Vanilla", 3, 3, 4, "NONE", 0, null, "NONE", 0, null),
+            new MinionDef(TAUNT, "Taunt", 3, 2, 5, true, false, false, false, false, false, false, false,
+                    "NONE", 0, null, "NONE", 0, null),
+            new MinionDef(SHIELD, "Shield", 3, 3, 2, false, false, true, false, false, false, false, false,
+                    "NONE", 0, null, "NONE", 0, null),
+            new MinionDef(POISON, "Poison", 2, 1, 2, false, false, false, false, false, true, false, false,
+                    "NONE", 0, null, "NONE", 0, null),
+            new MinionDef(LIFESTEAL, "Lifesteal", 3, 3, 3, false, false, false, false, false, false, true, false,
+                    "NONE", 0, null, "NONE", 0, null),
+            new MinionDef(WINDFURY, "Windfury", 4, 2, 3, false, false, false, true, false, false, false, false,
+                    "NONE", 0, null, "NONE", 0, null),
+            minion(BOMB, "Bomb", 2, 2, 1, "NONE", 0, null, "DEAL_DAMAGE", 2, null),
+            minion(SUMMONER, "Summoner", 3, 2, 2, "NONE", 0, null, "SUMMON", 0, TOKEN),
+            minion(TOKEN, "Token", 1, 1, 1, "NONE", 0, null, "NONE", 0, null),
+            minion(SHOOTER, "Shooter", 4, 3, 3, "DEAL_DAMAGE", 2, null, "NONE", 0, null)
+    ), List.of(new SpellDef(BOLT, "Bolt", 2, 3)));
+
+    private Fixtures() {
+    }
+
+    /** Игрок 1 ходит; у него 6 миньонов (есть место для розыгрыша), у соперника полный стол. */
+    static MatchState midGame(GameRandom rng) {
+        return match(
+                player(rng, 30, board(rng, VANILLA, SHIELD, POISON, LIFESTEAL, WINDFURY, BOMB), 20),
+                player(rng, 30, board(rng, VANILLA, SHIELD, BOMB, SUMMONER, LIFESTEAL, WINDFURY, VANILLA), 20));
+    }
+
+    /** Столы 7 на 7 из миньонов с deathrattle, умирающих от любого урона: одна атака запускает цепочку. */
+    static MatchState deathrattleChain(GameRandom rng) {
+        return match(
+                player(rng, 30, board(rng, BOMB, BOMB, BOMB, BOMB, BOMB, BOMB, BOMB), 20),
+                player(rng, 30, board(rng, BOMB, BOMB, BOMB, BOMB, BOMB, BOMB, BOMB), 20));
+    }
+
+    /** Колода соперника пуста и усталость уже 3: следующий добор наносит урон. */
+    static MatchState fatigue(GameRandom rng) {
+        MatchState match = midGame(rng);
+        GameState.PlayerState enemy = match.getGame().getPlayer2();
+        enemy.getDeck().clear();
+        enemy.getHand().clear();
+        enemy.setFatigueCounter(3);
+        return match;
+    }
+
+    /** Колода из 30 карт для старта партии. */
+    static GameState.PlayerState opening() {
+        GameState.PlayerState p = new GameState.PlayerState();
+        p.setDeck(deck(30));
+        return p;
+    }
+
+    static String instanceOf(MatchState match, boolean own, long cardId) {
+        GameState.PlayerState p = own ? match.getGame().getPlayer1() : match.getGame().getPlayer2();
+        return p.getBoard().stream().filter(m -> m.getCardId() == cardId).findFirst().orElseThrow().getInstanceId();
+    }
+
+    static String inHand(MatchState match, String cardType, long cardId) {
+        return match.getGame().getPlayer1().getHand().stream()
+                .filter(c -> c.getCardType().equals(cardType) && c.getCardId() == cardId)
+                .findFirst().orElseThrow().getInstanceId();
+    }
+
+    private static MatchState match(GameState.PlayerState p1, GameState.PlayerState p2) {
+        GameState game = GameState.builder()
+                .player1(p1)
+                .player2(p2)
+                .turnNumber(10)
+                .currentTurnPlayerId(P1)
+                .build();
+        return MatchState.builder()
+                .player1Id(P1)
+                .player2Id(P2)
+                .currentTurnPlayerId(P1)
+                .game(game)
+                .cards(CARDS)
+                .build();
+    }
+
+    private static GameState.PlayerState player(GameRandom rng, int health, List<GameState.BoardMinion> board, int deckSize) {
+        List<GameState.CardInHand> hand = new ArrayList<>();
+        long[] handCards = {SHOOTER, VANILLA, TAUNT, SHIELD, POISON, BOMB, SUMMONER, WINDFURY, LIFESTEAL};
+        for (long id : handCards) {
+            hand.add(GameState.CardInHand.builder().instanceId(rng.nextInstanceId()).cardType("MINION").cardId(id).build());
+        }
+        hand.add(GameState.CardInHand.builder().instanceId(rng.nextInstanceId()).cardType("SPELL").cardId(BOLT).build());
+        return GameState.PlayerState.builder()
+                .heroId("lotus_guardian")
+                .heroName("Guardian")
+                .portraitUrl("")
+                .maxHeroHealth(30)
+                .health(health)
+                .mana(10)
+                .maxMana(10)
+                .deck(deck(deckSize))
+                .hand(hand)
+                .board(board)
+                .build();
+    }
+
+    private static List<GameState.BoardMinion> board(GameRandom rng, long... cardIds) {
+        List<GameState.BoardMinion> board = new ArrayList<>();
+        for (long id : cardIds) {
+            MinionDef def = CARDS.minion(id);
+            board.add(GameState.BoardMinion.builder()
+                    .instanceId(rng.nextInstanceId())
+                    .cardId(def.id())
+                    .attack(def.attack())
+                    .currentHealth(def.health())
+                    .maxHealth(def.health())
+                    .canAttack(true)
+                    .canAttackHero(true)
+                    .taunt(def.taunt())
+                    .divineShield(def.divineShield())
+                    .windfury(def.windfury())
+                    .poisonous(def.poisonous())
+                    .lifesteal(def.lifesteal())
+                    .build());
+        }
+        return board;
+    }
+
+    private static List<GameState.CardRef> deck(int size) {
+        List<GameState.CardRef> deck = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            boolean spell = i % 6 == 5;
+            deck.add(GameState.CardRef.builder()
+                    .cardType(spell ? "SPELL" : "MINION")
+                    .cardId(spell ? BOLT : 1 + (i % 10))
+                    .build());
+        }
+        return deck;
+    }
+
+    private static MinionDef minion(long id, String name, int cost, int attack, int health,
+                                    String battlecry, int battlecryValue, Long battlecrySummon,
+                                    String deathrattle, int deathrattleValue, Long deathrattleSummon) {
+        return new MinionDef(id, name, cost, attack, health, false, false, false, false, false, false, false, false,
+                battlecry, battlecryValue, battlecrySummon, deathrattle, deathrattleValue, deathrattleSummon);
+    }
+}
@@ -0,0 +1,113 @@
+package com.lotus.game.benchmarks;
+
+import com.lotus.game.engine.ActionResult;
+import com.lotus.game.engine.GameAction;
+import com.lotus.game.engine.GameEngine;
+import com.lotus.game.engine.MatchState;
+import com.lotus.game.engine.SeededGameRandom;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Горячие пути правил на столах по 7 миньонов. Действие мутирует состояние, поэтому каждая операция
+ * применяется к свежей копии позиции; стоимость самой копии измеряет {@link #copyBaseline()} —
+ * её нужно вычитать из остальных результатов.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameEngineBenchmark {
+
+    private final GameEngine engine = new GameEngine();
+    private SeededGameRandom rng;
+
+    private MatchState midGame;
+    private MatchState chain;
+    private MatchState fatigue;
+
+    private GameAction playMinionWithBattlecry;
+    private GameAction playSpell;
+    private GameAction attackDivineShield;
+    private GameAction attackPoisonous;
+    private GameAction attackDeathrattleChain;
+    private GameAction endTurnFatigue;
+
+    @Setup
+    public void setup() {
+        rng = new SeededGameRandom(42);
+        midGame = Fixtures.midGame(rng);
+        chain = Fixtures.deathrattleChain(rng);
+        fatigue = Fixtures.fatigue(rng);
+
+        playMinionWithBattlecry = new GameAction.PlayCard(Fixtures.P1,
+                Fixtures.inHand(midGame, "MINION", Fixtures.SHOOTER), null,
+                Fixtures.instanceOf(midGame, false, Fixtures.VANILLA));
+        playSpell = new GameAction.PlayCard(Fixtures.P1,
+                Fixtures.inHand(midGame, "SPELL", Fixtures.BOLT), null,
+                Fixtures.instanceOf(midGame, false, Fixtures.SUMMONER));
+        attackDivineShield = new GameAction.Attack(Fixtures.P1,
+                Fixtures.instanceOf(midGame, true, Fixtures.VANILLA),
+                Fixtures.instanceOf(midGame, false, Fixtures.SHIELD));
+        attackPoisonous = new GameAction.Attack(Fixtures.P1,
+                Fixtures.instanceOf(midGame, true, Fixtures.POISON),
+                Fixtures.instanceOf(midGame, false, Fixtures.LIFESTEAL));
+        attackDeathrattleChain = new GameAction.Attack(Fixtures.P1,
+                chain.getGame().getPlayer1().getBoard().get(0).getInstanceId(),
+                chain.getGame().getPlayer2().getBoard().get(0).getInstanceId());
+        endTurnFatigue = new GameAction.EndTurn(Fixtures.P1);
+    }
+
+    @Benchmark
+    public MatchState copyBaseline() {
+        return midGame.copy();
+    }
+
+    @Benchmark
+    public ActionResult playCardMinionBattlecry() {
+        return engine.apply(midGame.copy(), playMinionWithBattlecry, rng);
+    }
+
+    @Benchmark
+    public ActionResult playCardSpell() {
+        return engine.apply(midGame.copy(), playSpell, rng);
+    }
+
+    @Benchmark
+    public ActionResult attackDivineShield() {
+        return engine.apply(midGame.copy(), attackDivineShield, rng);
+    }
+
+    @Benchmark
+    public ActionResult attackPoisonous() {
+        return engine.apply(midGame.copy(), attackPoisonous, rng);
+    }
+
+    @Benchmark
+    public ActionResult attackDeathrattleChain() {
+        return engine.apply(chain.copy(), attackDeathrattleChain, rng);
+    }
+
+    @Benchmark
+    public ActionResult endTurnFatigue() {
+        return engine.apply(fatigue.copy(), endTurnFatigue, rng);
+    }
+
+    /** Старт партии: тасовка двух колод по 30 карт и стартовые руки (initGameState без чтения колод из БД). */
+    @Benchmark
+    public MatchState newGameShuffle() {
+        return engine.newGame(Fixtures.P1, Fixtures.P2, Fixtures.opening(), Fixtures.opening(), Fixtures.CARDS, rng);
+    }
+}
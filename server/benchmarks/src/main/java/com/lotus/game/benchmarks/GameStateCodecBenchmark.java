@@ -0,0 +1,65 @@
+package com.lotus.game.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lotus.game.engine.GameState;
+import com.lotus.game.engine.GameStateCodec;
+import com.lotus.game.engine.SeededGameRandom;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Путь состояния матча в БД и обратно (GameStateConverter в приложении): бинарный кодек для новых строк,
+ * JSON для старых и глубокая копия, которую делают рассылка и write-behind.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameStateCodecBenchmark {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private GameState state;
+    private byte[] binary;
+    private byte[] legacyJson;
+
+    @Setup
+    public void setup() throws IOException {
+        state = Fixtures.midGame(new SeededGameRandom(42)).getGame();
+        binary = GameStateCodec.encode(state);
+        legacyJson = MAPPER.writeValueAsBytes(state);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return GameStateCodec.encode(state);
+    }
+
+    @Benchmark
+    public GameState decode() {
+        return GameStateCodec.decode(binary);
+    }
+
+    @Benchmark
+    public GameState decodeLegacyJson() throws IOException {
+        return MAPPER.readValue(legacyJson, GameState.class);
+    }
+
+    @Benchmark
+    public GameState deepCopy() {
+        return state.copy();
+    }
+}
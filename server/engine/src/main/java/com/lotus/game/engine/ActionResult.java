@@ -0,0 +1,9 @@
+package com.lotus.game.engine;
+
+import java.util.List;
+
+/**
+ * Результат действия: описание для журнала реплея и события в порядке, в котором они произошли.
+ */
+public record ActionResult(String description, List<GameEvent> events) {
+}
@@ -0,0 +1,101 @@
+package com.lotus.game.engine;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Неизменяемый снимок определений карт для правил игры. Индекс по id — отсортированный long[]
+ * с бинарным поиском, без боксинга ключей. Новый снимок строится целиком при изменении карт
+ * (CardRegistry в приложении), а live-матч держит ссылку на версию, с которой начался.
+ */
+public final class CardDefinitions {
+
+    public record MinionDef(long id, String name, int manaCost, int attack, int health,
+                            boolean taunt, boolean charge, boolean divineShield, boolean windfury,
+                            boolean stealth, boolean poisonous, boolean lifesteal, boolean rush,
+                            String battlecryType, int battlecryValue, Long battlecrySummonCardId,
+                            String deathrattleType, int deathrattleValue, Long deathrattleSummonCardId) {
+    }
+
+    public record SpellDef(long id, String name, int manaCost, int damage) {
+    }
+
+    private final long version;
+    private final LongIndex<MinionDef> minions;
+    private final LongIndex<SpellDef> spells;
+
+    private CardDefinitions(long version, LongIndex<MinionDef> minions, LongIndex<SpellDef> spells) {
+        this.version = version;
+        this.minions = minions;
+        this.spells = spells;
+    }
+
+    public static CardDefinitions of(long version, List<MinionDef> minions, List<SpellDef> spells) {
+        return new CardDefinitions(version, LongIndex.of(minions, MinionDef::id), LongIndex.of(spells, SpellDef::id));
+    }
+
+    public List<MinionDef> minions() {
+        return minions.values();
+    }
+
+    public List<SpellDef> spells() {
+        return spells.values();
+    }
+
+    public long version() {
+        return version;
+    }
+
+    /** @return определение миньона или null, если карты нет в этой версии */
+    public MinionDef minion(long id) {
+        return minions.get(id);
+    }
+
+    /** @return определение заклинания или null, если карты нет в этой версии */
+    public SpellDef spell(long id) {
+        return spells.get(id);
+    }
+
+    public int size() {
+        return minions.size() + spells.size();
+    }
+
+    private static final class LongIndex<T> {
+
+        private final long[] keys;
+        private final Object[] values;
+
+        private LongIndex(long[] keys, Object[] values) {
+            this.keys = keys;
+            this.values = values;
+        }
+
+        static <T> LongIndex<T> of(List<T> items, ToLongFunction<T> key) {
+            List<T> sorted = items.stream().sorted(Comparator.comparingLong(key)).toList();
+            long[] keys = new long[sorted.size()];
+            Object[] values = new Object[sorted.size()];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = key.applyAsLong(sorted.get(i));
+                values[i] = sorted.get(i);
+            }
+            return new LongIndex<>(keys, values);
+        }
+
+        @SuppressWarnings("unchecked")
+        T get(long id) {
+            int i = Arrays.binarySearch(keys, id);
+            return i >= 0 ? (T) values[i] : null;
+        }
+
+        int size() {
+            return keys.length;
+        }
+
+        @SuppressWarnings("unchecked")
+        List<T> values() {
+            return (List<T>) List.of(values);
+        }
+    }
+}
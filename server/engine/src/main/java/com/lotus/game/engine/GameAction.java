@@ -0,0 +1,23 @@
+package com.lotus.game.engine;
+
+/**
+ * Действие игрока над матчем.
+ */
+public sealed interface GameAction {
+
+    Long playerId();
+
+    /** Розыгрыш карты из руки; targetPosition — место на столе для миньона, targetInstanceId — цель или "hero". */
+    record PlayCard(Long playerId, String instanceId, Integer targetPosition, String targetInstanceId) implements GameAction {
+    }
+
+    record Attack(Long playerId, String attackerInstanceId, String targetInstanceId) implements GameAction {
+    }
+
+    record EndTurn(Long playerId) implements GameAction {
+    }
+
+    /** Сдача: матч завершается победой соперника; допускается и не в свой ход. */
+    record Concede(Long playerId) implements GameAction {
+    }
+}
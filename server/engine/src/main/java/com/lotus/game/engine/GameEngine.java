@@ -0,0 +1,542 @@
+package com.lotus.game.engine;
+
+import com.lotus.game.engine.CardDefinitions.MinionDef;
+import com.lotus.game.engine.CardDefinitions.SpellDef;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Правила игры без Spring и I/O: состояние плюс действие на входе, новое состояние и события на выходе.
+ * Состояние ({@link MatchState}) мутируется на месте; все проверки выполняются до первой мутации, поэтому
+ * отклонённое действие (IllegalArgumentException) состояние не меняет. Вся случайность берётся из переданного
+ * {@link GameRandom}, поэтому действие можно детерминированно переиграть по записанным исходам.
+ * Движок не хранит состояния между вызовами и потокобезопасен.
+ */
+public final class GameEngine {
+
+    public static final int MAX_MANA = 10;
+    public static final int MAX_BOARD_SIZE = 7;
+    public static final int MAX_HAND_SIZE = 10;
+    public static final int DEFAULT_HERO_HEALTH = 30;
+    public static final String HERO_TARGET = "hero";
+
+    /**
+     * Начальное состояние матча: колоды тасуются, первый игрок получает 1 ману и 3 карты, второй — 4 карты.
+     * @param first  игрок 1 с героем, здоровьем и колодой (deck); рука и стол заполняются движком
+     * @param second игрок 2, аналогично
+     */
+    public MatchState newGame(Long player1Id, Long player2Id, GameState.PlayerState first, GameState.PlayerState second,
+                              CardDefinitions cards, GameRandom rng) {
+        rng.shuffle(first.getDeck());
+        rng.shuffle(second.getDeck());
+        first.setMana(1);
+        first.setMaxMana(1);
+        second.setMana(0);
+        second.setMaxMana(0);
+        first.setHand(new ArrayList<>());
+        second.setHand(new ArrayList<>());
+        first.setBoard(new ArrayList<>());
+        second.setBoard(new ArrayList<>());
+        drawCards(first, 3, rng);
+        drawCards(second, 4, rng);
+        GameState game = GameState.builder()
+                .player1(first)
+                .player2(second)
+                .turnNumber(1)
+                .currentTurnPlayerId(player1Id)
+                .build();
+        return MatchState.builder()
+                .player1Id(player1Id)
+                .player2Id(player2Id)
+                .currentTurnPlayerId(player1Id)
+                .game(game)
+                .cards(cards)
+                .build();
+    }
+
+    public ActionResult apply(MatchState match, GameAction action, GameRandom rng) {
+        Turn turn = new Turn(match, rng);
+        String description;
+        if (action instanceof GameAction.PlayCard play) {
+            description = turn.playCard(play);
+        } else if (action instanceof GameAction.Attack attack) {
+            description = turn.attack(attack);
+        } else if (action instanceof GameAction.Concede concede) {
+            description = turn.concede(concede);
+        } else {
+            description = turn.endTurn((GameAction.EndTurn) action);
+        }
+        return new ActionResult(description, turn.events);
+    }
+
+    public void drawCards(GameState.PlayerState player, int count, GameRandom rng) {
+        for (int i = 0; i < count && !player.getDeck().isEmpty() && player.getHand().size() < MAX_HAND_SIZE; i++) {
+            GameState.CardRef ref = player.getDeck().remove(0);
+            GameState.CardInHand inHand = new GameState.CardInHand();
+            inHand.setInstanceId(rng.nextInstanceId());
+            inHand.setCardType(ref.getCardType());
+            inHand.setCardId(ref.getCardId());
+            player.getHand().add(inHand);
+        }
+    }
+
+    private static int heroHealthCap(GameState.PlayerState p) {
+        Integer m = p.getMaxHeroHealth();
+        if (m != null && m > 0) return m;
+        return DEFAULT_HERO_HEALTH;
+    }
+
+    private static GameState.BoardMinion findTargetMinion(GameState.PlayerState owner, String instanceId) {
+        return owner.getBoard().stream()
+                .filter(m -> m.getInstanceId().equals(instanceId))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Цель не найдена"));
+    }
+
+    /** Применение одного действия: матч, источник случайности и накопленные события. */
+    private static final class Turn {
+
+        private final MatchState match;
+        private final GameState state;
+        private final GameRandom rng;
+        private final List<GameEvent> events = new ArrayList<>();
+
+        private Turn(MatchState match, GameRandom rng) {
+            this.match = match;
+            this.state = match.getGame();
+            this.rng = rng;
+        }
+
+        String playCard(GameAction.PlayCard request) {
+            Long userId = request.playerId();
+            requireActiveTurn(userId);
+
+            GameState.PlayerState player = playerState(userId);
+            GameState.PlayerState enemy = enemyState(userId);
+            Long enemyId = opponentOf(userId);
+
+            GameState.CardInHand cardInHand = player.getHand().stream()
+                    .filter(c -> c.getInstanceId().equals(request.instanceId()))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Card not in hand"));
+
+            if (!"MINION".equalsIgnoreCase(cardInHand.getCardType())) {
+                if ("SPELL".equalsIgnoreCase(cardInHand.getCardType())) {
+                    SpellDef spell = match.getCards().spell(cardInHand.getCardId());
+                    if (spell == null) {
+                        throw new IllegalArgumentException("Spell not found");
+                    }
+                    if (player.getMana() < spell.manaCost()) {
+                        throw new IllegalArgumentException("Not enough mana");
+                    }
+                    int dmg = spell.damage();
+                    GameState.BoardMinion target = null;
+                    if (dmg > 0) {
+                        if (request.targetInstanceId() == null || request.targetInstanceId().isBlank()) {
+                            throw new IllegalArgumentException("Укажите цель для заклинания (миньон или герой соперника)");
+                        }
+                        if (HERO_TARGET.equalsIgnoreCase(request.targetInstanceId())) {
+                            if (!enemy.getBoard().isEmpty()) {
+                                throw new IllegalArgumentException("Нельзя атаковать героя, пока на столе соперника есть миньоны");
+                            }
+                        } else {
+                            target = findTargetMinion(enemy, request.targetInstanceId());
+                            if (target.isStealth()) {
+                                throw new IllegalArgumentException("Нельзя выбрать цель со Stealth");
+                            }
+                        }
+                    }
+                    emit(GameEvent.Type.CARD_PLAYED, userId, cardInHand.getInstanceId(), spell.id(), spell.manaCost());
+                    if (dmg > 0) {
+                        if (target == null) {
+                            damageHero(enemy, enemyId, dmg, userId);
+                        } else {
+                            damageMinion(target, dmg, enemy, player);
+                        }
+                    }
+                    player.setMana(player.getMana() - spell.manaCost());
+                    player.getHand().removeIf(c -> c.getInstanceId().equals(request.instanceId()));
+                    return "Spell: " + spell.name();
+                }
+                throw new IllegalArgumentException("Only minions and spells can be played");
+            }
+
+            MinionDef minion = match.getCards().minion(cardInHand.getCardId());
+            if (minion == null) {
+                throw new IllegalArgumentException("Minion not found");
+            }
+            if (player.getMana() < minion.manaCost()) {
+                throw new IllegalArgumentException("Not enough mana");
+            }
+            if (player.getBoard().size() >= MAX_BOARD_SIZE) {
+                throw new IllegalArgumentException("Board is full");
+            }
+            int pos = request.targetPosition() != null ? request.targetPosition() : player.getBoard().size();
+            if (pos < 0 || pos > player.getBoard().size()) {
+                throw new IllegalArgumentException("Invalid board position");
+            }
+            GameState.BoardMinion battlecryTarget = resolveBattlecryTarget(minion, request.targetInstanceId(), player, enemy);
+
+            boolean hasCharge = minion.charge();
+            boolean hasRush = minion.rush();
+            boolean canAttackNow = hasCharge || hasRush;
+            boolean canAttackHeroNow = hasCharge; // Rush can only attack minions on play turn
+            GameState.BoardMinion boardMinion = buildBoardMinion(minion, canAttackNow, !canAttackNow, canAttackHeroNow, false);
+            player.getBoard().add(pos, boardMinion);
+            player.setMana(player.getMana() - minion.manaCost());
+            player.getHand().removeIf(c -> c.getInstanceId().equals(request.instanceId()));
+            emit(GameEvent.Type.CARD_PLAYED, userId, cardInHand.getInstanceId(), minion.id(), minion.manaCost());
+            emit(GameEvent.Type.MINION_SUMMONED, userId, boardMinion.getInstanceId(), minion.id(), 0);
+
+            applyBattlecry(minion, battlecryTarget, player, enemy, userId);
+            return "Minion: " + minion.name();
+        }
+
+        String attack(GameAction.Attack request) {
+            Long userId = request.playerId();
+            requireActiveTurn(userId);
+
+            GameState.PlayerState player = playerState(userId);
+            GameState.PlayerState enemy = enemyState(userId);
+
+            GameState.BoardMinion attacker = player.getBoard().stream()
+                    .filter(m -> m.getInstanceId().equals(request.attackerInstanceId()))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Attacker not found on board"));
+            if (!attacker.isCanAttack()) {
+                throw new IllegalArgumentException("Minion cannot attack (exhausted or already attacked)");
+            }
+
+            if (HERO_TARGET.equalsIgnoreCase(request.targetInstanceId())) {
+                if (!attacker.isCanAttackHero()) {
+                    throw new IllegalArgumentException("Миньон с Rush не может атаковать героя в первый ход");
+                }
+                if (!enemy.getBoard().isEmpty()) {
+                    throw new IllegalArgumentException("Нельзя атаковать героя, пока на столе соперника есть миньоны");
+                }
+                emit(GameEvent.Type.ATTACK, userId, attacker.getInstanceId(), attacker.getCardId(), attacker.getAttack());
+                int dmg = attacker.getAttack();
+                enemy.setHealth(enemy.getHealth() - dmg);
+                emit(GameEvent.Type.DAMAGE, opponentOf(userId), HERO_TARGET, null, dmg);
+                if (attacker.isLifesteal() && dmg > 0) {
+                    healHero(player, userId, dmg);
+                }
+                applyAttackExhaust(attacker);
+                if (enemy.getHealth() <= 0) {
+                    finish(userId);
+                }
+            } else {
+                GameState.BoardMinion target = enemy.getBoard().stream()
+                        .filter(m -> m.getInstanceId().equals(request.targetInstanceId()))
+                        .findFirst()
+                        .orElseThrow(() -> new IllegalArgumentException("Target not found"));
+                if (target.isStealth()) {
+                    throw new IllegalArgumentException("Нельзя атаковать миньона со Stealth");
+                }
+                boolean hasTaunt = enemy.getBoard().stream().anyMatch(GameState.BoardMinion::isTaunt);
+                if (hasTaunt && !target.isTaunt()) {
+                    throw new IllegalArgumentException("Сначала нужно атаковать миньона с Taunt");
+                }
+                emit(GameEvent.Type.ATTACK, userId, attacker.getInstanceId(), attacker.getCardId(), attacker.getAttack());
+                int dmg = attacker.getAttack();
+                boolean poisonousKill = attacker.isPoisonous();
+                if (target.isDivineShield()) {
+                    target.setDivineShield(false);
+                    emit(GameEvent.Type.SHIELD_BROKEN, opponentOf(userId), target.getInstanceId(), target.getCardId(), 0);
+                } else {
+                    target.setCurrentHealth(poisonousKill ? 0 : target.getCurrentHealth() - dmg);
+                    emit(GameEvent.Type.DAMAGE, opponentOf(userId), target.getInstanceId(), target.getCardId(), dmg);
+                }
+                int lifestealHeal = (attacker.isLifesteal() && (dmg > 0 || poisonousKill)) ? dmg : 0;
+                if (lifestealHeal > 0) {
+                    healHero(player, userId, lifestealHeal);
+                }
+                if (attacker.isDivineShield()) {
+                    attacker.setDivineShield(false);
+                    emit(GameEvent.Type.SHIELD_BROKEN, userId, attacker.getInstanceId(), attacker.getCardId(), 0);
+                } else {
+                    attacker.setCurrentHealth(attacker.getCurrentHealth() - target.getAttack());
+                    emit(GameEvent.Type.DAMAGE, userId, attacker.getInstanceId(), attacker.getCardId(), target.getAttack());
+                }
+                if (attacker.isStealth()) attacker.setStealth(false);
+                applyAttackExhaust(attacker);
+                if (target.getCurrentHealth() <= 0) {
+                    processMinionDeath(target, enemy, player);
+                }
+                if (attacker.getCurrentHealth() <= 0) {
+                    processMinionDeath(attacker, player, enemy);
+                }
+            }
+            return "Attack " + request.attackerInstanceId() + " -> " + request.targetInstanceId();
+        }
+
+        String endTurn(GameAction.EndTurn request) {
+            Long userId = request.playerId();
+            requireActiveTurn(userId);
+
+            Long nextPlayer = opponentOf(userId);
+            GameState.PlayerState nextState = playerState(nextPlayer);
+
+            nextState.setMana(Math.min(nextState.getMaxMana() + 1, MAX_MANA));
+            nextState.setMaxMana(Math.min(nextState.getMaxMana() + 1, MAX_MANA));
+            nextState.getBoard().forEach(m -> {
+                m.setCanAttack(true);
+                m.setExhausted(false);
+                m.setCanAttackHero(true);
+                m.setAttacksThisTurn(0);
+            });
+
+            int cardsToDraw = rng.nextInt(1, 4);
+            boolean diedFromFatigue = drawCardsWithFatigue(nextState, nextPlayer, cardsToDraw);
+            if (diedFromFatigue) {
+                finish(userId);
+            } else {
+                boolean bothDecksEmpty = state.getPlayer1().getDeck().isEmpty() && state.getPlayer2().getDeck().isEmpty();
+                boolean bothBoardsEmpty = state.getPlayer1().getBoard().isEmpty() && state.getPlayer2().getBoard().isEmpty();
+                if (bothDecksEmpty && bothBoardsEmpty) {
+                    int p1Hp = state.getPlayer1().getHealth();
+                    int p2Hp = state.getPlayer2().getHealth();
+                    finish(p1Hp > p2Hp ? match.getPlayer1Id() : p2Hp > p1Hp ? match.getPlayer2Id() : null);
+                } else {
+                    match.setCurrentTurnPlayerId(nextPlayer);
+                    state.setTurnNumber(state.getTurnNumber() + 1);
+                    state.setCurrentTurnPlayerId(nextPlayer);
+                    emit(GameEvent.Type.TURN_STARTED, nextPlayer, null, null, state.getTurnNumber());
+                }
+            }
+            return "End turn";
+        }
+
+        String concede(GameAction.Concede request) {
+            Long userId = request.playerId();
+            if (match.getStatus() != MatchState.Status.IN_PROGRESS) {
+                throw new IllegalArgumentException("Match is not in progress");
+            }
+            finish(opponentOf(userId));
+            return "Concede";
+        }
+
+        private void requireActiveTurn(Long userId) {
+            if (match.getStatus() != MatchState.Status.IN_PROGRESS) {
+                throw new IllegalArgumentException("Match is not in progress");
+            }
+            if (!match.getCurrentTurnPlayerId().equals(userId)) {
+                throw new IllegalArgumentException("Not your turn");
+            }
+        }
+
+        /** @param winnerId null — ничья */
+        private void finish(Long winnerId) {
+            match.setStatus(MatchState.Status.FINISHED);
+            match.setWinnerId(winnerId);
+            emit(GameEvent.Type.GAME_OVER, winnerId, null, null, 0);
+        }
+
+        /**
+         * Розыгрыш карт с учётом урона от усталости (fatigue).
+         * Когда колода пуста и игрок должен взять карту — он получает урон (1, 2, 3... за каждую «пропущенную» карту).
+         * @return true если игрок умер от усталости
+         */
+        private boolean drawCardsWithFatigue(GameState.PlayerState player, Long playerId, int count) {
+            for (int i = 0; i < count && player.getHand().size() < MAX_HAND_SIZE; i++) {
+                if (player.getDeck().isEmpty()) {
+                    int fatigue = player.getFatigueCounter() + 1;
+                    player.setFatigueCounter(fatigue);
+                    player.setHealth(player.getHealth() - fatigue);
+                    emit(GameEvent.Type.FATIGUE, playerId, HERO_TARGET, null, fatigue);
+                    if (player.getHealth() <= 0) return true;
+                } else {
+                    GameState.CardRef ref = player.getDeck().remove(0);
+                    GameState.CardInHand inHand = new GameState.CardInHand();
+                    inHand.setInstanceId(rng.nextInstanceId());
+                    inHand.setCardType(ref.getCardType());
+                    inHand.setCardId(ref.getCardId());
+                    player.getHand().add(inHand);
+                    emit(GameEvent.Type.CARD_DRAWN, playerId, inHand.getInstanceId(), inHand.getCardId(), 1);
+                }
+            }
+            return false;
+        }
+
+        private GameState.PlayerState playerState(Long userId) {
+            return match.getPlayer1Id().equals(userId) ? state.getPlayer1() : state.getPlayer2();
+        }
+
+        private GameState.PlayerState enemyState(Long userId) {
+            return match.getPlayer1Id().equals(userId) ? state.getPlayer2() : state.getPlayer1();
+        }
+
+        private Long opponentOf(Long userId) {
+            return match.getPlayer1Id().equals(userId) ? match.getPlayer2Id() : match.getPlayer1Id();
+        }
+
+        private Long ownerId(GameState.PlayerState owner) {
+            return state.getPlayer1() == owner ? match.getPlayer1Id() : match.getPlayer2Id();
+        }
+
+        /**
+         * Проверяет цель battlecry до того, как миньон выставлен на стол.
+         * @return миньон-цель; null — цель не нужна или это герой
+         */
+        private GameState.BoardMinion resolveBattlecryTarget(MinionDef minion, String tid,
+                                                             GameState.PlayerState player, GameState.PlayerState enemy) {
+            String type = minion.battlecryType();
+            if (type == null || "NONE".equalsIgnoreCase(type)) return null;
+            int val = minion.battlecryValue();
+
+            if ("DEAL_DAMAGE".equalsIgnoreCase(type) && val > 0) {
+                if (tid == null || tid.isBlank()) {
+                    throw new IllegalArgumentException("Battlecry Deal Damage: укажите цель (миньон или герой)");
+                }
+                if (HERO_TARGET.equalsIgnoreCase(tid)) {
+                    if (!enemy.getBoard().isEmpty()) throw new IllegalArgumentException("Нельзя атаковать героя, пока на столе соперника есть миньоны");
+                    return null;
+                }
+                GameState.BoardMinion target = findTargetMinion(enemy, tid);
+                if (target.isStealth()) throw new IllegalArgumentException("Нельзя выбрать цель со Stealth");
+                return target;
+            } else if ("HEAL".equalsIgnoreCase(type) && val > 0) {
+                if (tid == null || tid.isBlank()) {
+                    throw new IllegalArgumentException("Battlecry Heal: укажите цель (союзник или hero)");
+                }
+                return HERO_TARGET.equalsIgnoreCase(tid) ? null : findTargetMinion(player, tid);
+            } else if ("BUFF_ALLY".equalsIgnoreCase(type) && val > 0) {
+                if (tid == null || tid.isBlank()) {
+                    throw new IllegalArgumentException("Battlecry Buff: укажите союзного миньона");
+                }
+                return findTargetMinion(player, tid);
+            }
+            return null;
+        }
+
+        private void applyBattlecry(MinionDef minion, GameState.BoardMinion target,
+                                    GameState.PlayerState player, GameState.PlayerState enemy, Long userId) {
+            String type = minion.battlecryType();
+            if (type == null || "NONE".equalsIgnoreCase(type)) return;
+            int val = minion.battlecryValue();
+
+            if ("DEAL_DAMAGE".equalsIgnoreCase(type) && val > 0) {
+                if (target == null) {
+                    damageHero(enemy, opponentOf(userId), val, userId);
+                } else {
+                    damageMinion(target, val, enemy, player);
+                }
+            } else if ("HEAL".equalsIgnoreCase(type) && val > 0) {
+                if (target == null) {
+                    healHero(player, userId, val);
+                } else {
+                    int before = target.getCurrentHealth();
+                    target.setCurrentHealth(Math.min(target.getCurrentHealth() + val, target.getMaxHealth()));
+                    emit(GameEvent.Type.HEAL, userId, target.getInstanceId(), target.getCardId(), target.getCurrentHealth() - before);
+                }
+            } else if ("BUFF_ALLY".equalsIgnoreCase(type) && val > 0) {
+                target.setAttack(target.getAttack() + val);
+                target.setCurrentHealth(target.getCurrentHealth() + val);
+                target.setMaxHealth(target.getMaxHealth() + val);
+                emit(GameEvent.Type.BUFF, userId, target.getInstanceId(), target.getCardId(), val);
+            } else if ("SUMMON".equalsIgnoreCase(type) && minion.battlecrySummonCardId() != null) {
+                if (player.getBoard().size() >= MAX_BOARD_SIZE) return;
+                MinionDef summon = match.getCards().minion(minion.battlecrySummonCardId());
+                if (summon != null) {
+                    GameState.BoardMinion bm = buildBoardMinion(summon, false, true, true, false);
+                    player.getBoard().add(bm);
+                    emit(GameEvent.Type.MINION_SUMMONED, userId, bm.getInstanceId(), summon.id(), 0);
+                }
+            }
+        }
+
+        /** Урон герою соперника от карты; при смерти героя матч выигрывает attackerId. */
+        private void damageHero(GameState.PlayerState hero, Long heroOwnerId, int dmg, Long attackerId) {
+            hero.setHealth(hero.getHealth() - dmg);
+            emit(GameEvent.Type.DAMAGE, heroOwnerId, HERO_TARGET, null, dmg);
+            if (hero.getHealth() <= 0) {
+                finish(attackerId);
+            }
+        }
+
+        private void damageMinion(GameState.BoardMinion target, int dmg, GameState.PlayerState owner, GameState.PlayerState enemy) {
+            if (target.isDivineShield()) {
+                target.setDivineShield(false);
+                emit(GameEvent.Type.SHIELD_BROKEN, ownerId(owner), target.getInstanceId(), target.getCardId(), 0);
+                return;
+            }
+            target.setCurrentHealth(target.getCurrentHealth() - dmg);
+            emit(GameEvent.Type.DAMAGE, ownerId(owner), target.getInstanceId(), target.getCardId(), dmg);
+            if (target.getCurrentHealth() <= 0) {
+                processMinionDeath(target, owner, enemy);
+            }
+        }
+
+        private void healHero(GameState.PlayerState hero, Long heroOwnerId, int amount) {
+            int before = hero.getHealth();
+            hero.setHealth(Math.min(hero.getHealth() + amount, heroHealthCap(hero)));
+            emit(GameEvent.Type.HEAL, heroOwnerId, HERO_TARGET, null, hero.getHealth() - before);
+        }
+
+        private void processMinionDeath(GameState.BoardMinion dead, GameState.PlayerState owner, GameState.PlayerState enemy) {
+            owner.getBoard().remove(dead);
+            emit(GameEvent.Type.MINION_DIED, ownerId(owner), dead.getInstanceId(), dead.getCardId(), 0);
+            MinionDef minion = dead.getCardId() != null ? match.getCards().minion(dead.getCardId()) : null;
+            if (minion == null) return;
+            if (dead.isSummonedByDeathrattle()) return; // призванный deathrattle не вызывает свой deathrattle
+            String type = minion.deathrattleType();
+            if (type == null || "NONE".equalsIgnoreCase(type)) return;
+
+            if ("DEAL_DAMAGE".equalsIgnoreCase(type)) {
+                int dmg = minion.deathrattleValue();
+                if (dmg <= 0) return;
+                List<GameState.BoardMinion> enemies = enemy.getBoard();
+                if (!enemies.isEmpty()) {
+                    GameState.BoardMinion target = enemies.get(rng.nextInt(enemies.size()));
+                    damageMinion(target, dmg, enemy, owner);
+                } else {
+                    damageHero(enemy, ownerId(enemy), dmg, ownerId(owner));
+                }
+            } else if ("SUMMON".equalsIgnoreCase(type) && minion.deathrattleSummonCardId() != null) {
+                if (owner.getBoard().size() >= MAX_BOARD_SIZE) return;
+                MinionDef summon = match.getCards().minion(minion.deathrattleSummonCardId());
+                if (summon != null) {
+                    GameState.BoardMinion bm = buildBoardMinion(summon, false, true, true, true);
+                    owner.getBoard().add(bm);
+                    emit(GameEvent.Type.MINION_SUMMONED, ownerId(owner), bm.getInstanceId(), summon.id(), 0);
+                }
+            }
+        }
+
+        private GameState.BoardMinion buildBoardMinion(MinionDef minion, boolean canAttack, boolean exhausted,
+                                                       boolean canAttackHero, boolean summonedByDeathrattle) {
+            return GameState.BoardMinion.builder()
+                    .instanceId(rng.nextInstanceId())
+                    .cardId(minion.id())
+                    .attack(minion.attack())
+                    .currentHealth(minion.health())
+                    .maxHealth(minion.health())
+                    .canAttack(canAttack)
+                    .exhausted(exhausted)
+                    .canAttackHero(canAttackHero)
+                    .taunt(minion.taunt())
+                    .divineShield(minion.divineShield())
+                    .windfury(minion.windfury())
+                    .stealth(minion.stealth())
+                    .poisonous(minion.poisonous())
+                    .lifesteal(minion.lifesteal())
+                    .rush(minion.rush())
+                    .attacksThisTurn(0)
+                    .summonedByDeathrattle(summonedByDeathrattle)
+                    .build();
+        }
+
+        private void applyAttackExhaust(GameState.BoardMinion attacker) {
+            int next = attacker.getAttacksThisTurn() + 1;
+            attacker.setAttacksThisTurn(next);
+            boolean canAttackAgain = attacker.isWindfury() && next < 2;
+            attacker.setCanAttack(canAttackAgain);
+            attacker.setExhausted(!canAttackAgain);
+        }
+
+        private void emit(GameEvent.Type type, Long playerId, String instanceId, Long cardId, int amount) {
+            events.add(new GameEvent(type, playerId, instanceId, cardId, amount));
+        }
+    }
+}
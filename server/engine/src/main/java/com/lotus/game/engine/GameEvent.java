@@ -0,0 +1,24 @@
+package com.lotus.game.engine;
+
+/**
+ * Событие, произошедшее при применении действия. playerId — владелец затронутого героя/миньона
+ * (для CARD_PLAYED, ATTACK, TURN_STARTED — действующий игрок), instanceId — экземпляр карты или "hero",
+ * cardId — определение карты, amount — величина урона, лечения, усиления или число карт.
+ */
+public record GameEvent(Type type, Long playerId, String instanceId, Long cardId, int amount) {
+
+    public enum Type {
+        CARD_PLAYED,
+        MINION_SUMMONED,
+        ATTACK,
+        DAMAGE,
+        HEAL,
+        BUFF,
+        SHIELD_BROKEN,
+        MINION_DIED,
+        CARD_DRAWN,
+        FATIGUE,
+        TURN_STARTED,
+        GAME_OVER
+    }
+}
@@ -0,0 +1,55 @@
+package com.lotus.game.engine;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Источник случайности для правил матча. Все случайные решения (тасовка, добор, цель deathrattle,
+ * id экземпляров карт) идут через него — это позволяет записать исходы и детерминированно переиграть действие.
+ */
+public interface GameRandom {
+
+    /** Случайное число в [0, bound). */
+    int nextInt(int bound);
+
+    /** Случайное число в [origin, bound). */
+    int nextInt(int origin, int bound);
+
+    String nextInstanceId();
+
+    default <T> void shuffle(List<T> list) {
+        for (int i = list.size() - 1; i > 0; i--) {
+            int j = nextInt(i + 1);
+            T tmp = list.get(i);
+            list.set(i, list.get(j));
+            list.set(j, tmp);
+        }
+    }
+
+    static GameRandom system() {
+        return SystemGameRandom.INSTANCE;
+    }
+
+    final class SystemGameRandom implements GameRandom {
+        private static final SystemGameRandom INSTANCE = new SystemGameRandom();
+
+        private SystemGameRandom() {
+        }
+
+        @Override
+        public int nextInt(int bound) {
+            return ThreadLocalRandom.current().nextInt(bound);
+        }
+
+        @Override
+        public int nextInt(int origin, int bound) {
+            return ThreadLocalRandom.current().nextInt(origin, bound);
+        }
+
+        @Override
+        public String nextInstanceId() {
+            return UUID.randomUUID().toString();
+        }
+    }
+}
@@ -1,4 +1,4 @@
-package com.lotus.game.dto.game;
+package com.lotus.game.engine;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -21,8 +21,17 @@ public class GameState {
     private int turnNumber;
     private Long currentTurnPlayerId;
 
+    /** Структурная глубокая копия без сериализации. */
+    public GameState copy() {
+        return new GameState(
+                player1 != null ? player1.copy() : null,
+                player2 != null ? player2.copy() : null,
+                turnNumber,
+                currentTurnPlayerId);
+    }
+
     @Data
-    @Builder
+    @Builder(toBuilder = true)
     @NoArgsConstructor
     @AllArgsConstructor
     public static class PlayerState {
@@ -46,6 +55,16 @@ public class GameState {
         private List<CardInHand> hand = new ArrayList<>();
         @Builder.Default
         private List<BoardMinion> board = new ArrayList<>();
+
+        public PlayerState copy() {
+            List<CardRef> deckCopy = new ArrayList<>(deck != null ? deck.size() : 0);
+            if (deck != null) deck.forEach(c -> deckCopy.add(c != null ? c.copy() : null));
+            List<CardInHand> handCopy = new ArrayList<>(hand != null ? hand.size() : 0);
+            if (hand != null) hand.forEach(c -> handCopy.add(c != null ? c.copy() : null));
+            List<BoardMinion> boardCopy = new ArrayList<>(board != null ? board.size() : 0);
+            if (board != null) board.forEach(m -> boardCopy.add(m != null ? m.copy() : null));
+            return toBuilder().deck(deckCopy).hand(handCopy).board(boardCopy).build();
+        }
     }
 
     @Data
@@ -55,6 +74,10 @@ public class GameState {
     public static class CardRef {
         private String cardType;
         private Long cardId;
+
+        public CardRef copy() {
+            return new CardRef(cardType, cardId);
+        }
     }
 
     @Data
@@ -65,10 +88,14 @@ public class GameState {
         private String instanceId;
         private String cardType;
         private Long cardId;
+
+        public CardInHand copy() {
+            return new CardInHand(instanceId, cardType, cardId);
+        }
     }
 
     @Data
-    @Builder
+    @Builder(toBuilder = true)
     @NoArgsConstructor
     @AllArgsConstructor
     public static class BoardMinion {
@@ -101,5 +128,9 @@ public class GameState {
         /** Миньон призван deathrattle — его deathrattle не срабатывает при смерти (предотвращает бесконечную цепочку) */
         @Builder.Default
         private boolean summonedByDeathrattle = false;
+
+        public BoardMinion copy() {
+            return toBuilder().build();
+        }
     }
 }
@@ -0,0 +1,405 @@
+package com.lotus.game.engine;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Компактное бинарное представление {@link GameState} для колонки matches.game_state.
+ * <p>
+ * Формат: MAGIC, VERSION, затем поля в фиксированном порядке. Целые — varint (знаковые через zigzag),
+ * boolean-поля миньона упакованы в битовую маску, тип карты — байт-перечисление,
+ * instanceId в виде UUID занимает 16 байт вместо 36 символов.
+ */
+public final class GameStateCodec {
+
+    public static final byte MAGIC = (byte) 0xA7;
+    public static final byte VERSION = 1;
+
+    private static final int CARD_TYPE_NULL = 0;
+    private static final int CARD_TYPE_MINION = 1;
+    private static final int CARD_TYPE_SPELL = 2;
+    private static final int CARD_TYPE_OTHER = 3;
+
+    private static final int ID_NULL = 0;
+    private static final int ID_UUID = 1;
+    private static final int ID_STRING = 2;
+
+    private static final int P_HERO_ID = 1;
+    private static final int P_HERO_NAME = 1 << 1;
+    private static final int P_PORTRAIT = 1 << 2;
+    private static final int P_MAX_HERO_HEALTH = 1 << 3;
+
+    private static final int M_CAN_ATTACK = 1;
+    private static final int M_EXHAUSTED = 1 << 1;
+    private static final int M_CAN_ATTACK_HERO = 1 << 2;
+    private static final int M_TAUNT = 1 << 3;
+    private static final int M_DIVINE_SHIELD = 1 << 4;
+    private static final int M_WINDFURY = 1 << 5;
+    private static final int M_STEALTH = 1 << 6;
+    private static final int M_POISONOUS = 1 << 7;
+    private static final int M_LIFESTEAL = 1 << 8;
+    private static final int M_RUSH = 1 << 9;
+    private static final int M_SUMMONED_BY_DEATHRATTLE = 1 << 10;
+
+    private GameStateCodec() {
+    }
+
+    /** true, если данные записаны этим кодеком (а не старым JSON). */
+    public static boolean isBinary(byte[] data) {
+        return data != null && data.length >= 2 && data[0] == MAGIC;
+    }
+
+    public static byte[] encode(GameState state) {
+        Out out = new Out(512);
+        out.writeByte(MAGIC);
+        out.writeByte(VERSION);
+        out.writeVarInt(state.getTurnNumber());
+        out.writeNullableLong(state.getCurrentTurnPlayerId());
+        writePlayer(out, state.getPlayer1());
+        writePlayer(out, state.getPlayer2());
+        return out.toByteArray();
+    }
+
+    public static GameState decode(byte[] data) {
+        if (!isBinary(data)) {
+            throw new IllegalArgumentException("Not a binary GameState");
+        }
+        In in = new In(data);
+        in.readByte();
+        int version = in.readByte();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported GameState codec version: " + version);
+        }
+        GameState state = new GameState();
+        state.setTurnNumber(in.readVarInt());
+        state.setCurrentTurnPlayerId(in.readNullableLong());
+        state.setPlayer1(readPlayer(in));
+        state.setPlayer2(readPlayer(in));
+        return state;
+    }
+
+    private static void writePlayer(Out out, GameState.PlayerState p) {
+        int presence = 0;
+        if (p.getHeroId() != null) presence |= P_HERO_ID;
+        if (p.getHeroName() != null) presence |= P_HERO_NAME;
+        if (p.getPortraitUrl() != null) presence |= P_PORTRAIT;
+        if (p.getMaxHeroHealth() != null) presence |= P_MAX_HERO_HEALTH;
+        out.writeVarInt(presence);
+        if (p.getHeroId() != null) out.writeString(p.getHeroId());
+        if (p.getHeroName() != null) out.writeString(p.getHeroName());
+        if (p.getPortraitUrl() != null) out.writeString(p.getPortraitUrl());
+        if (p.getMaxHeroHealth() != null) out.writeSignedVarInt(p.getMaxHeroHealth());
+        out.writeSignedVarInt(p.getHealth());
+        out.writeSignedVarInt(p.getMana());
+        out.writeSignedVarInt(p.getMaxMana());
+        out.writeSignedVarInt(p.getFatigueCounter());
+
+        List<GameState.CardRef> deck = orEmpty(p.getDeck());
+        out.writeVarInt(deck.size());
+        for (GameState.CardRef ref : deck) {
+            writeCardType(out, ref.getCardType());
+            out.writeNullableLong(ref.getCardId());
+        }
+        List<GameState.CardInHand> hand = orEmpty(p.getHand());
+        out.writeVarInt(hand.size());
+        for (GameState.CardInHand c : hand) {
+            writeInstanceId(out, c.getInstanceId());
+            writeCardType(out, c.getCardType());
+            out.writeNullableLong(c.getCardId());
+        }
+        List<GameState.BoardMinion> board = orEmpty(p.getBoard());
+        out.writeVarInt(board.size());
+        for (GameState.BoardMinion m : board) {
+            writeInstanceId(out, m.getInstanceId());
+            out.writeNullableLong(m.getCardId());
+            out.writeSignedVarInt(m.getAttack());
+            out.writeSignedVarInt(m.getCurrentHealth());
+            out.writeSignedVarInt(m.getMaxHealth());
+            out.writeVarInt(m.getAttacksThisTurn());
+            out.writeVarInt(minionFlags(m));
+        }
+    }
+
+    private static GameState.PlayerState readPlayer(In in) {
+        GameState.PlayerState p = new GameState.PlayerState();
+        int presence = in.readVarInt();
+        p.setHeroId((presence & P_HERO_ID) != 0 ? in.readString() : null);
+        p.setHeroName((presence & P_HERO_NAME) != 0 ? in.readString() : null);
+        p.setPortraitUrl((presence & P_PORTRAIT) != 0 ? in.readString() : null);
+        p.setMaxHeroHealth((presence & P_MAX_HERO_HEALTH) != 0 ? in.readSignedVarInt() : null);
+        p.setHealth(in.readSignedVarInt());
+        p.setMana(in.readSignedVarInt());
+        p.setMaxMana(in.readSignedVarInt());
+        p.setFatigueCounter(in.readSignedVarInt());
+
+        int deckSize = in.readVarInt();
+        List<GameState.CardRef> deck = new ArrayList<>(deckSize);
+        for (int i = 0; i < deckSize; i++) {
+            String type = readCardType(in);
+            deck.add(new GameState.CardRef(type, in.readNullableLong()));
+        }
+        p.setDeck(deck);
+
+        int handSize = in.readVarInt();
+        List<GameState.CardInHand> hand = new ArrayList<>(handSize);
+        for (int i = 0; i < handSize; i++) {
+            String instanceId = readInstanceId(in);
+            String type = readCardType(in);
+            hand.add(new GameState.CardInHand(instanceId, type, in.readNullableLong()));
+        }
+        p.setHand(hand);
+
+        int boardSize = in.readVarInt();
+        List<GameState.BoardMinion> board = new ArrayList<>(boardSize);
+        for (int i = 0; i < boardSize; i++) {
+            GameState.BoardMinion m = new GameState.BoardMinion();
+            m.setInstanceId(readInstanceId(in));
+            m.setCardId(in.readNullableLong());
+            m.setAttack(in.readSignedVarInt());
+            m.setCurrentHealth(in.readSignedVarInt());
+            m.setMaxHealth(in.readSignedVarInt());
+            m.setAttacksThisTurn(in.readVarInt());
+            applyMinionFlags(m, in.readVarInt());
+            board.add(m);
+        }
+        p.setBoard(board);
+        return p;
+    }
+
+    private static int minionFlags(GameState.BoardMinion m) {
+        int f = 0;
+        if (m.isCanAttack()) f |= M_CAN_ATTACK;
+        if (m.isExhausted()) f |= M_EXHAUSTED;
+        if (m.isCanAttackHero()) f |= M_CAN_ATTACK_HERO;
+        if (m.isTaunt()) f |= M_TAUNT;
+        if (m.isDivineShield()) f |= M_DIVINE_SHIELD;
+        if (m.isWindfury()) f |= M_WINDFURY;
+        if (m.isStealth()) f |= M_STEALTH;
+        if (m.isPoisonous()) f |= M_POISONOUS;
+        if (m.isLifesteal()) f |= M_LIFESTEAL;
+        if (m.isRush()) f |= M_RUSH;
+        if (m.isSummonedByDeathrattle()) f |= M_SUMMONED_BY_DEATHRATTLE;
+        return f;
+    }
+
+    private static void applyMinionFlags(GameState.BoardMinion m, int f) {
+        m.setCanAttack((f & M_CAN_ATTACK) != 0);
+        m.setExhausted((f & M_EXHAUSTED) != 0);
+        m.setCanAttackHero((f & M_CAN_ATTACK_HERO) != 0);
+        m.setTaunt((f & M_TAUNT) != 0);
+        m.setDivineShield((f & M_DIVINE_SHIELD) != 0);
+        m.setWindfury((f & M_WINDFURY) != 0);
+        m.setStealth((f & M_STEALTH) != 0);
+        m.setPoisonous((f & M_POISONOUS) != 0);
+        m.setLifesteal((f & M_LIFESTEAL) != 0);
+        m.setRush((f & M_RUSH) != 0);
+        m.setSummonedByDeathrattle((f & M_SUMMONED_BY_DEATHRATTLE) != 0);
+    }
+
+    private static void writeCardType(Out out, String type) {
+        if (type == null) {
+            out.writeByte(CARD_TYPE_NULL);
+        } else if ("MINION".equals(type)) {
+            out.writeByte(CARD_TYPE_MINION);
+        } else if ("SPELL".equals(type)) {
+            out.writeByte(CARD_TYPE_SPELL);
+        } else {
+            out.writeByte(CARD_TYPE_OTHER);
+            out.writeString(type);
+        }
+    }
+
+    private static String readCardType(In in) {
+        return switch (in.readByte()) {
+            case CARD_TYPE_NULL -> null;
+            case CARD_TYPE_MINION -> "MINION";
+            case CARD_TYPE_SPELL -> "SPELL";
+            case CARD_TYPE_OTHER -> in.readString();
+            default -> throw new IllegalArgumentException("Corrupted GameState: unknown card type tag");
+        };
+    }
+
+    private static void writeInstanceId(Out out, String id) {
+        if (id == null) {
+            out.writeByte(ID_NULL);
+            return;
+        }
+        UUID uuid = parseCanonicalUuid(id);
+        if (uuid != null) {
+            out.writeByte(ID_UUID);
+            out.writeLong(uuid.getMostSignificantBits());
+            out.writeLong(uuid.getLeastSignificantBits());
+        } else {
+            out.writeByte(ID_STRING);
+            out.writeString(id);
+        }
+    }
+
+    private static String readInstanceId(In in) {
+        return switch (in.readByte()) {
+            case ID_NULL -> null;
+            case ID_UUID -> new UUID(in.readLong(), in.readLong()).toString();
+            case ID_STRING -> in.readString();
+            default -> throw new IllegalArgumentException("Corrupted GameState: unknown instance id tag");
+        };
+    }
+
+    /** UUID только в каноничной записи (36 символов, нижний регистр), чтобы декодирование давало ту же строку. */
+    private static UUID parseCanonicalUuid(String s) {
+        if (s.length() != 36) return null;
+        try {
+            UUID uuid = UUID.fromString(s);
+            return uuid.toString().equals(s) ? uuid : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static <T> List<T> orEmpty(List<T> list) {
+        return list != null ? list : List.of();
+    }
+
+    private static final class Out {
+        private byte[] buf;
+        private int pos;
+
+        Out(int capacity) {
+            buf = new byte[capacity];
+        }
+
+        void writeByte(int b) {
+            ensure(1);
+            buf[pos++] = (byte) b;
+        }
+
+        void writeVarInt(int v) {
+            ensure(5);
+            while ((v & ~0x7F) != 0) {
+                buf[pos++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            buf[pos++] = (byte) v;
+        }
+
+        void writeSignedVarInt(int v) {
+            writeVarInt((v << 1) ^ (v >> 31));
+        }
+
+        void writeVarLong(long v) {
+            ensure(10);
+            while ((v & ~0x7FL) != 0) {
+                buf[pos++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            buf[pos++] = (byte) v;
+        }
+
+        /** null кодируется нулём, остальные значения — zigzag + 1; у Long.MIN_VALUE он совпал бы с null. */
+        void writeNullableLong(Long v) {
+            if (v == null) {
+                writeVarLong(0);
+            } else if (v == Long.MIN_VALUE) {
+                throw new IllegalArgumentException("GameState id out of range: " + v);
+            } else {
+                writeVarLong(((v << 1) ^ (v >> 63)) + 1);
+            }
+        }
+
+        void writeLong(long v) {
+            ensure(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buf[pos++] = (byte) (v >>> shift);
+            }
+        }
+
+        void writeString(String s) {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buf, pos, bytes.length);
+            pos += bytes.length;
+        }
+
+        private void ensure(int extra) {
+            if (pos + extra > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, pos + extra));
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buf, pos);
+        }
+    }
+
+    private static final class In {
+        private final byte[] buf;
+        private int pos;
+
+        In(byte[] buf) {
+            this.buf = buf;
+        }
+
+        int readByte() {
+            require(1);
+            return buf[pos++] & 0xFF;
+        }
+
+        int readVarInt() {
+            int result = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                int b = readByte();
+                result |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return result;
+            }
+            throw new IllegalArgumentException("Corrupted GameState: varint too long");
+        }
+
+        int readSignedVarInt() {
+            int v = readVarInt();
+            return (v >>> 1) ^ -(v & 1);
+        }
+
+        long readVarLong() {
+            long result = 0;
+            for (int shift = 0; shift < 70; shift += 7) {
+                int b = readByte();
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return result;
+            }
+            throw new IllegalArgumentException("Corrupted GameState: varlong too long");
+        }
+
+        Long readNullableLong() {
+            long v = readVarLong();
+            if (v == 0) return null;
+            v -= 1;
+            return (v >>> 1) ^ -(v & 1);
+        }
+
+        long readLong() {
+            require(8);
+            long v = 0;
+            for (int i = 0; i < 8; i++) {
+                v = (v << 8) | (buf[pos++] & 0xFF);
+            }
+            return v;
+        }
+
+        String readString() {
+            int len = readVarInt();
+            require(len);
+            String s = new String(buf, pos, len, StandardCharsets.UTF_8);
+            pos += len;
+            return s;
+        }
+
+        private void require(int n) {
+            if (n < 0 || pos + n > buf.length) {
+                throw new IllegalArgumentException("Corrupted GameState: unexpected end of data");
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.lotus.game.engine;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Состояние матча для движка: игроки, статус, чей ход, игровое поле и версия карт, по которой идёт матч.
+ * Движок мутирует его на месте; чтобы сохранить предыдущее состояние, вызывающий берёт {@link #copy()}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MatchState {
+
+    private Long player1Id;
+    private Long player2Id;
+    @Builder.Default
+    private Status status = Status.IN_PROGRESS;
+    private Long winnerId;
+    private Long currentTurnPlayerId;
+    private GameState game;
+    private CardDefinitions cards;
+
+    /** Глубокая копия поля; определения карт неизменяемы и не копируются. */
+    public MatchState copy() {
+        return new MatchState(player1Id, player2Id, status, winnerId, currentTurnPlayerId,
+                game != null ? game.copy() : null, cards);
+    }
+
+    public boolean isFinished() {
+        return status == Status.FINISHED;
+    }
+
+    public enum Status {
+        IN_PROGRESS,
+        FINISHED
+    }
+}
@@ -0,0 +1,47 @@
+package com.lotus.game.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Делегирует в другой {@link GameRandom} и запоминает исходы — они сохраняются в журнал реплея.
+ */
+public class RecordingGameRandom implements GameRandom {
+
+    private final GameRandom delegate;
+    private final List<Integer> rolls = new ArrayList<>();
+    private final List<String> instanceIds = new ArrayList<>();
+
+    public RecordingGameRandom(GameRandom delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        int v = delegate.nextInt(bound);
+        rolls.add(v);
+        return v;
+    }
+
+    @Override
+    public int nextInt(int origin, int bound) {
+        int v = delegate.nextInt(origin, bound);
+        rolls.add(v);
+        return v;
+    }
+
+    @Override
+    public String nextInstanceId() {
+        String id = delegate.nextInstanceId();
+        instanceIds.add(id);
+        return id;
+    }
+
+    public List<Integer> getRolls() {
+        return rolls;
+    }
+
+    public List<String> getInstanceIds() {
+        return instanceIds;
+    }
+}
@@ -0,0 +1,43 @@
+package com.lotus.game.engine;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Воспроизводит записанные {@link RecordingGameRandom} исходы при переигрывании действия.
+ */
+public class ReplayGameRandom implements GameRandom {
+
+    private final Iterator<Integer> rolls;
+    private final Iterator<String> instanceIds;
+
+    public ReplayGameRandom(List<Integer> rolls, List<String> instanceIds) {
+        this.rolls = (rolls != null ? rolls : List.<Integer>of()).iterator();
+        this.instanceIds = (instanceIds != null ? instanceIds : List.<String>of()).iterator();
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        return nextRoll();
+    }
+
+    @Override
+    public int nextInt(int origin, int bound) {
+        return nextRoll();
+    }
+
+    @Override
+    public String nextInstanceId() {
+        if (!instanceIds.hasNext()) {
+            throw new IllegalStateException("Replay diverged: no recorded instance id left");
+        }
+        return instanceIds.next();
+    }
+
+    private int nextRoll() {
+        if (!rolls.hasNext()) {
+            throw new IllegalStateException("Replay diverged: no recorded roll left");
+        }
+        return rolls.next();
+    }
+}
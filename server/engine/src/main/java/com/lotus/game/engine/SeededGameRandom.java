@@ -0,0 +1,41 @@
+package com.lotus.game.engine;
+
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Детерминированный {@link GameRandom}: одинаковое зерно даёт одинаковую последовательность исходов
+ * и id экземпляров. Для симуляций и ботов; не потокобезопасен — один экземпляр на партию.
+ */
+public final class SeededGameRandom implements GameRandom {
+
+    private final SplittableRandom random;
+
+    public SeededGameRandom(long seed) {
+        this(new SplittableRandom(seed));
+    }
+
+    private SeededGameRandom(SplittableRandom random) {
+        this.random = random;
+    }
+
+    /** Независимый поток случайности, детерминированно выведенный из текущего. */
+    public SeededGameRandom split() {
+        return new SeededGameRandom(random.split());
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        return random.nextInt(bound);
+    }
+
+    @Override
+    public int nextInt(int origin, int bound) {
+        return random.nextInt(origin, bound);
+    }
+
+    @Override
+    public String nextInstanceId() {
+        return new UUID(random.nextLong(), random.nextLong()).toString();
+    }
+}
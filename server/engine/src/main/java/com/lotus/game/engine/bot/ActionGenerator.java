@@ -0,0 +1,103 @@
+package com.lotus.game.engine.bot;
+
+import com.lotus.game.engine.CardDefinitions;
+import com.lotus.game.engine.CardDefinitions.MinionDef;
+import com.lotus.game.engine.CardDefinitions.SpellDef;
+import com.lotus.game.engine.GameAction;
+import com.lotus.game.engine.GameEngine;
+import com.lotus.game.engine.GameState;
+import com.lotus.game.engine.MatchState;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Перечисляет действия, которые игрок может сделать в текущем состоянии: розыгрыши карт по доступной мане
+ * (с подходящими целями), атаки готовых миньонов с учётом Taunt/Stealth и конец хода (всегда последний).
+ * Проверки повторяют основные правила {@link GameEngine}; редкие отказы движка вызывающий просто пропускает.
+ */
+public final class ActionGenerator {
+
+    private ActionGenerator() {
+    }
+
+    public static List<GameAction> candidates(MatchState match, Long playerId) {
+        List<GameAction> result = new ArrayList<>();
+        if (match.isFinished() || !playerId.equals(match.getCurrentTurnPlayerId())) {
+            return result;
+        }
+        GameState state = match.getGame();
+        boolean first = playerId.equals(match.getPlayer1Id());
+        GameState.PlayerState me = first ? state.getPlayer1() : state.getPlayer2();
+        GameState.PlayerState enemy = first ? state.getPlayer2() : state.getPlayer1();
+        CardDefinitions cards = match.getCards();
+
+        List<String> enemyTargets = new ArrayList<>();
+        for (GameState.BoardMinion m : enemy.getBoard()) {
+            if (!m.isStealth()) enemyTargets.add(m.getInstanceId());
+        }
+        if (enemy.getBoard().isEmpty()) enemyTargets.add(GameEngine.HERO_TARGET);
+        List<String> allyTargets = new ArrayList<>();
+        for (GameState.BoardMinion m : me.getBoard()) {
+            allyTargets.add(m.getInstanceId());
+        }
+
+        for (GameState.CardInHand card : me.getHand()) {
+            if ("MINION".equalsIgnoreCase(card.getCardType())) {
+                MinionDef minion = cards.minion(card.getCardId());
+                if (minion == null || minion.manaCost() > me.getMana() || me.getBoard().size() >= GameEngine.MAX_BOARD_SIZE) {
+                    continue;
+                }
+                for (String target : battlecryTargets(minion, enemyTargets, allyTargets)) {
+                    result.add(new GameAction.PlayCard(playerId, card.getInstanceId(), null, target));
+                }
+            } else if ("SPELL".equalsIgnoreCase(card.getCardType())) {
+                SpellDef spell = cards.spell(card.getCardId());
+                if (spell == null || spell.manaCost() > me.getMana()) {
+                    continue;
+                }
+                if (spell.damage() > 0) {
+                    for (String target : enemyTargets) {
+                        result.add(new GameAction.PlayCard(playerId, card.getInstanceId(), null, target));
+                    }
+                } else {
+                    result.add(new GameAction.PlayCard(playerId, card.getInstanceId(), null, null));
+                }
+            }
+        }
+
+        boolean enemyTaunt = enemy.getBoard().stream().anyMatch(GameState.BoardMinion::isTaunt);
+        for (GameState.BoardMinion attacker : me.getBoard()) {
+            if (!attacker.isCanAttack()) continue;
+            if (enemy.getBoard().isEmpty() && attacker.isCanAttackHero()) {
+                result.add(new GameAction.Attack(playerId, attacker.getInstanceId(), GameEngine.HERO_TARGET));
+            }
+            for (GameState.BoardMinion target : enemy.getBoard()) {
+                if (target.isStealth() || (enemyTaunt && !target.isTaunt())) continue;
+                result.add(new GameAction.Attack(playerId, attacker.getInstanceId(), target.getInstanceId()));
+            }
+        }
+
+        result.add(new GameAction.EndTurn(playerId));
+        return result;
+    }
+
+    private static List<String> battlecryTargets(MinionDef minion, List<String> enemyTargets, List<String> allyTargets) {
+        String type = minion.battlecryType();
+        int val = minion.battlecryValue();
+        if ("DEAL_DAMAGE".equalsIgnoreCase(type) && val > 0) {
+            return enemyTargets;
+        }
+        if ("HEAL".equalsIgnoreCase(type) && val > 0) {
+            List<String> targets = new ArrayList<>(allyTargets);
+            targets.add(GameEngine.HERO_TARGET);
+            return targets;
+        }
+        if ("BUFF_ALLY".equalsIgnoreCase(type) && val > 0) {
+            return allyTargets;
+        }
+        List<String> none = new ArrayList<>(1);
+        none.add(null);
+        return none;
+    }
+}
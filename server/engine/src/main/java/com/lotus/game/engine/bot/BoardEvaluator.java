@@ -0,0 +1,39 @@
+package com.lotus.game.engine.bot;
+
+import com.lotus.game.engine.GameState;
+import com.lotus.game.engine.MatchState;
+
+/**
+ * Эвристическая оценка позиции с точки зрения игрока: здоровье героев, сила стола и карты в руке.
+ * Победа и поражение — крайние значения, чтобы поиск всегда предпочитал выигрывающий ход.
+ */
+public final class BoardEvaluator {
+
+    public static final int WIN = 1_000_000;
+
+    private BoardEvaluator() {
+    }
+
+    public static int score(MatchState match, Long playerId) {
+        if (match.isFinished()) {
+            if (match.getWinnerId() == null) return 0;
+            return playerId.equals(match.getWinnerId()) ? WIN : -WIN;
+        }
+        GameState state = match.getGame();
+        boolean first = playerId.equals(match.getPlayer1Id());
+        GameState.PlayerState me = first ? state.getPlayer1() : state.getPlayer2();
+        GameState.PlayerState enemy = first ? state.getPlayer2() : state.getPlayer1();
+        return side(me) - side(enemy);
+    }
+
+    private static int side(GameState.PlayerState p) {
+        int score = p.getHealth() * 2 + p.getHand().size() * 2;
+        for (GameState.BoardMinion m : p.getBoard()) {
+            score += m.getAttack() * 3 + m.getCurrentHealth() * 2;
+            if (m.isTaunt()) score += 2;
+            if (m.isDivineShield()) score += m.getAttack();
+            if (m.isPoisonous() || m.isLifesteal() || m.isWindfury()) score += 2;
+        }
+        return score;
+    }
+}
@@ -0,0 +1,40 @@
+package com.lotus.game.engine.bot;
+
+import com.lotus.game.engine.GameAction;
+import com.lotus.game.engine.GameEngine;
+import com.lotus.game.engine.GameRandom;
+import com.lotus.game.engine.MatchState;
+
+/**
+ * Жадный бот с просмотром на одно действие: применяет каждого кандидата к копии состояния и берёт лучший
+ * по {@link BoardEvaluator}. Ход заканчивается, когда ни одно действие не улучшает позицию.
+ * Случайность просмотра идёт из отдельного rng, реальная партия его не видит.
+ */
+public final class GreedyBot {
+
+    private final GameEngine engine;
+
+    public GreedyBot(GameEngine engine) {
+        this.engine = engine;
+    }
+
+    public GameAction choose(MatchState match, Long playerId, GameRandom lookahead) {
+        GameAction best = new GameAction.EndTurn(playerId);
+        int bestScore = BoardEvaluator.score(match, playerId);
+        for (GameAction action : ActionGenerator.candidates(match, playerId)) {
+            if (action instanceof GameAction.EndTurn) continue;
+            MatchState next = match.copy();
+            try {
+                engine.apply(next, action, lookahead);
+            } catch (IllegalArgumentException e) {
+                continue;
+            }
+            int score = BoardEvaluator.score(next, playerId);
+            if (score >= bestScore) {
+                best = action;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+}
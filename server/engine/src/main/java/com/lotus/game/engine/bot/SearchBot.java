@@ -0,0 +1,112 @@
+package com.lotus.game.engine.bot;
+
+import com.lotus.game.engine.GameAction;
+import com.lotus.game.engine.GameEngine;
+import com.lotus.game.engine.MatchState;
+import com.lotus.game.engine.SeededGameRandom;
+
+import java.util.List;
+
+/**
+ * Поиск хода с ограничением по времени: каждый кандидат применяется к копии состояния ({@link MatchState#copy()},
+ * без JSON), затем остаток своего хода и ответный ход соперника доигрываются {@link GreedyBot},
+ * а итог оценивается {@link BoardEvaluator}.
+ * Пока есть время, кандидаты получают новые выборки с другими исходами случайности (цели deathrattle, добор),
+ * выбирается лучший по средней оценке. Если время кончилось раньше, чем каждый кандидат получил выборку,
+ * берётся ход жадного бота.
+ */
+public final class SearchBot {
+
+    /** Защита от зацикливания при доигрывании хода. */
+    private static final int MAX_ROLLOUT_ACTIONS = 32;
+
+    private final GameEngine engine;
+    private final GreedyBot greedy;
+
+    public SearchBot(GameEngine engine) {
+        this.engine = engine;
+        this.greedy = new GreedyBot(engine);
+    }
+
+    /**
+     * @param budgetNanos время на выбор хода; проверяется между выборками, одна выборка — десятки микросекунд
+     */
+    public GameAction choose(MatchState match, Long playerId, long budgetNanos, SeededGameRandom rng) {
+        long deadline = System.nanoTime() + budgetNanos;
+        List<GameAction> candidates = ActionGenerator.candidates(match, playerId);
+        if (candidates.size() <= 1) {
+            return new GameAction.EndTurn(playerId);
+        }
+        GameAction fallback = greedy.choose(match, playerId, rng.split());
+
+        int n = candidates.size();
+        double[] total = new double[n];
+        int[] samples = new int[n];
+        boolean[] illegal = new boolean[n];
+        int legal = n;
+        boolean covered = false;
+        while (legal > 0 && System.nanoTime() < deadline) {
+            for (int i = 0; i < n && System.nanoTime() < deadline; i++) {
+                if (illegal[i]) continue;
+                Integer score = sample(match, candidates.get(i), playerId, rng.split());
+                if (score == null) {
+                    illegal[i] = true;
+                    legal--;
+                    continue;
+                }
+                total[i] += score;
+                samples[i]++;
+                if (i == n - 1) covered = true;
+            }
+        }
+        if (!covered) {
+            return fallback;
+        }
+        int best = -1;
+        double bestMean = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            if (samples[i] == 0) continue;
+            double mean = total[i] / samples[i];
+            if (mean > bestMean) {
+                bestMean = mean;
+                best = i;
+            }
+        }
+        return best >= 0 ? candidates.get(best) : fallback;
+    }
+
+    /**
+     * @return оценка после действия, жадного доигрывания своего хода и жадного ответного хода соперника;
+     * null — движок отклонил действие
+     */
+    private Integer sample(MatchState match, GameAction action, Long playerId, SeededGameRandom rng) {
+        MatchState state = match.copy();
+        try {
+            engine.apply(state, action, rng);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        playOut(state, playerId, rng);
+        if (!state.isFinished() && playerId.equals(state.getCurrentTurnPlayerId())) {
+            engine.apply(state, new GameAction.EndTurn(playerId), rng);
+        }
+        if (!state.isFinished()) {
+            playOut(state, state.getCurrentTurnPlayerId(), rng);
+        }
+        return BoardEvaluator.score(state, playerId);
+    }
+
+    /** Жадно доигрывает ход игрока до конца хода (сам конец хода не применяется). */
+    private void playOut(MatchState state, Long playerId, SeededGameRandom rng) {
+        for (int i = 0; i < MAX_ROLLOUT_ACTIONS && !state.isFinished()
+                && playerId.equals(state.getCurrentTurnPlayerId()); i++) {
+            GameAction next = greedy.choose(state, playerId, rng);
+            if (next instanceof GameAction.EndTurn) break;
+            try {
+                engine.apply(state, next, rng);
+            } catch (IllegalArgumentException e) {
+                break;
+            }
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.lotus.game.engine.sim;
+
+import com.lotus.game.engine.CardDefinitions;
+import com.lotus.game.engine.GameAction;
+import com.lotus.game.engine.GameEngine;
+import com.lotus.game.engine.GameState;
+import com.lotus.game.engine.MatchState;
+import com.lotus.game.engine.SeededGameRandom;
+import com.lotus.game.engine.bot.GreedyBot;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Самоигра бот против бота на настоящих правилах ({@link GameEngine}) для настройки баланса карт.
+ * Партии раскладываются по ядрам через fork/join; каждая партия детерминирована своим зерном,
+ * агрегаты — суммы, поэтому отчёт воспроизводим при любом числе потоков (кроме времени и games/s).
+ */
+public final class SelfPlaySimulator {
+
+    static final Long SIDE_A = 1L;
+    static final Long SIDE_B = 2L;
+    /** Партий в листовой задаче fork/join: меньше — больше накладных расходов на задачи. */
+    private static final int LEAF_GAMES = 8;
+    /** Защита от зацикливания бота внутри одного хода. */
+    private static final int MAX_ACTIONS_PER_TURN = 64;
+
+    private final GameEngine engine = new GameEngine();
+    private final GreedyBot bot = new GreedyBot(engine);
+
+    /**
+     * @param sideA шаблон игрока A: герой, здоровье и колода; копируется для каждой партии
+     * @param sideB шаблон игрока B
+     */
+    public SimulationReport run(CardDefinitions cards, GameState.PlayerState sideA, GameState.PlayerState sideB,
+                                SimulationConfig config) {
+        int parallelism = config.effectiveParallelism();
+        long started = System.nanoTime();
+        Totals totals;
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            totals = pool.invoke(new Batch(cards, sideA, sideB, config, 0, config.games()));
+        } finally {
+            pool.shutdown();
+        }
+        long elapsedNanos = Math.max(System.nanoTime() - started, 1);
+        return report(totals, cards, sideA, sideB, config, parallelism, elapsedNanos);
+    }
+
+    /** Одна партия; id игроков — SIDE_A и SIDE_B, первым ходит A в чётных партиях. */
+    Outcome play(CardDefinitions cards, GameState.PlayerState sideA, GameState.PlayerState sideB,
+                 SimulationConfig config, int index) {
+        SeededGameRandom rng = new SeededGameRandom(gameSeed(config.seed(), index));
+        SeededGameRandom lookahead = rng.split();
+        boolean aFirst = index % 2 == 0;
+        MatchState match = aFirst
+                ? engine.newGame(SIDE_A, SIDE_B, sideA.copy(), sideB.copy(), cards, rng)
+                : engine.newGame(SIDE_B, SIDE_A, sideB.copy(), sideA.copy(), cards, rng);
+
+        Set<CardKey> playedA = new HashSet<>();
+        Set<CardKey> playedB = new HashSet<>();
+        int actionsThisTurn = 0;
+        while (!match.isFinished() && match.getGame().getTurnNumber() <= config.maxTurns()) {
+            Long current = match.getCurrentTurnPlayerId();
+            GameAction action = actionsThisTurn >= MAX_ACTIONS_PER_TURN
+                    ? new GameAction.EndTurn(current)
+                    : bot.choose(match, current, lookahead);
+            CardKey card = action instanceof GameAction.PlayCard play ? cardInHand(match, play) : null;
+            try {
+                engine.apply(match, action, rng);
+            } catch (IllegalArgumentException e) {
+                action = new GameAction.EndTurn(current);
+                card = null;
+                engine.apply(match, action, rng);
+            }
+            actionsThisTurn = action instanceof GameAction.EndTurn ? 0 : actionsThisTurn + 1;
+            if (card != null) {
+                (SIDE_A.equals(current) ? playedA : playedB).add(card);
+            }
+        }
+        Long winner = match.isFinished() ? match.getWinnerId() : null;
+        return new Outcome(winner, match.getGame().getTurnNumber(), aFirst, !match.isFinished(), playedA, playedB);
+    }
+
+    /** id миньонов и заклинаний — разные пространства, поэтому карта определяется парой (тип, id). */
+    private static CardKey cardInHand(MatchState match, GameAction.PlayCard play) {
+        GameState state = match.getGame();
+        GameState.PlayerState player = play.playerId().equals(match.getPlayer1Id()) ? state.getPlayer1() : state.getPlayer2();
+        for (GameState.CardInHand card : player.getHand()) {
+            if (card.getInstanceId().equals(play.instanceId())) {
+                return new CardKey(card.getCardType(), card.getCardId());
+            }
+        }
+        return null;
+    }
+
+    static long gameSeed(long seed, int index) {
+        long z = seed + 0x9E3779B97F4A7C15L * (index + 1L);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    record CardKey(String type, Long id) {
+    }
+
+    record Outcome(Long winner, int turns, boolean aFirst, boolean turnLimit, Set<CardKey> playedA, Set<CardKey> playedB) {
+    }
+
+    private final class Batch extends RecursiveTask<Totals> {
+
+        private final CardDefinitions cards;
+        private final GameState.PlayerState sideA;
+        private final GameState.PlayerState sideB;
+        private final SimulationConfig config;
+        private final int from;
+        private final int to;
+
+        private Batch(CardDefinitions cards, GameState.PlayerState sideA, GameState.PlayerState sideB,
+                      SimulationConfig config, int from, int to) {
+            this.cards = cards;
+            this.sideA = sideA;
+            this.sideB = sideB;
+            this.config = config;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Totals compute() {
+            if (to - from <= LEAF_GAMES) {
+                Totals totals = new Totals();
+                for (int i = from; i < to; i++) {
+                    totals.add(play(cards, sideA, sideB, config, i));
+                }
+                return totals;
+            }
+            int mid = (from + to) >>> 1;
+            Batch left = new Batch(cards, sideA, sideB, config, from, mid);
+            left.fork();
+            Totals right = new Batch(cards, sideA, sideB, config, mid, to).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    /** Суммы по партиям; слияние коммутативно, поэтому порядок задач не влияет на результат. */
+    static final class Totals {
+        int games;
+        int winsA;
+        int winsB;
+        int firstPlayerWins;
+        int turnLimit;
+        long turns;
+        final Map<CardKey, int[]> playedA = new HashMap<>(); // карта -> {партий разыграна, из них побед}
+        final Map<CardKey, int[]> playedB = new HashMap<>();
+
+        void add(Outcome o) {
+            games++;
+            turns += o.turns();
+            if (o.turnLimit()) turnLimit++;
+            boolean aWon = SIDE_A.equals(o.winner());
+            boolean bWon = SIDE_B.equals(o.winner());
+            if (aWon) winsA++;
+            if (bWon) winsB++;
+            if ((aWon && o.aFirst()) || (bWon && !o.aFirst())) firstPlayerWins++;
+            count(playedA, o.playedA(), aWon);
+            count(playedB, o.playedB(), bWon);
+        }
+
+        Totals merge(Totals other) {
+            games += other.games;
+            winsA += other.winsA;
+            winsB += other.winsB;
+            firstPlayerWins += other.firstPlayerWins;
+            turnLimit += other.turnLimit;
+            turns += other.turns;
+            other.playedA.forEach((id, c) -> add(playedA, id, c[0], c[1]));
+            other.playedB.forEach((id, c) -> add(playedB, id, c[0], c[1]));
+            return this;
+        }
+
+        private static void count(Map<CardKey, int[]> played, Set<CardKey> cards, boolean won) {
+            for (CardKey id : cards) add(played, id, 1, won ? 1 : 0);
+        }
+
+        private static void add(Map<CardKey, int[]> played, CardKey id, int games, int wins) {
+            int[] c = played.computeIfAbsent(id, k -> new int[2]);
+            c[0] += games;
+            c[1] += wins;
+        }
+    }
+
+    private static SimulationReport report(Totals t, CardDefinitions cards, GameState.PlayerState sideA,
+                                           GameState.PlayerState sideB, SimulationConfig config,
+                                           int parallelism, long elapsedNanos) {
+        List<SimulationReport.CardImpact> impact = new ArrayList<>();
+        impact(impact, "A", sideA, t.playedA, t.winsA, t.games, cards);
+        impact(impact, "B", sideB, t.playedB, t.winsB, t.games, cards);
+        impact.sort(Comparator.comparingDouble((SimulationReport.CardImpact c) -> Math.abs(c.impact())).reversed());
+        double n = t.games;
+        return new SimulationReport(t.games, config.seed(), parallelism,
+                t.winsA / n, t.winsB / n, (t.games - t.winsA - t.winsB) / n, t.firstPlayerWins / n,
+                t.turns / n, t.turnLimit,
+                impact,
+                elapsedNanos / 1_000_000, t.games / (elapsedNanos / 1e9));
+    }
+
+    private static void impact(List<SimulationReport.CardImpact> out, String side, GameState.PlayerState template,
+                               Map<CardKey, int[]> played, int sideWins, int games, CardDefinitions cards) {
+        Set<CardKey> deck = new LinkedHashSet<>();
+        for (GameState.CardRef ref : template.getDeck()) {
+            deck.add(new CardKey(ref.getCardType(), ref.getCardId()));
+        }
+        for (CardKey key : deck) {
+            int[] c = played.getOrDefault(key, new int[2]);
+            int notPlayed = games - c[0];
+            double whenPlayed = c[0] > 0 ? (double) c[1] / c[0] : 0;
+            double whenNotPlayed = notPlayed > 0 ? (double) (sideWins - c[1]) / notPlayed : 0;
+            long id = key.id();
+            String name = "SPELL".equalsIgnoreCase(key.type())
+                    ? (cards.spell(id) != null ? cards.spell(id).name() : null)
+                    : (cards.minion(id) != null ? cards.minion(id).name() : null);
+            out.add(new SimulationReport.CardImpact(side, id, key.type(), name, c[0], whenPlayed, whenNotPlayed,
+                    c[0] > 0 && notPlayed > 0 ? whenPlayed - whenNotPlayed : 0));
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.lotus.game.engine.sim;
+
+/**
+ * Параметры прогона самоигры.
+ * @param games       число партий
+ * @param seed        базовое зерно; партия i играет с зерном, выведенным из (seed, i), поэтому результат
+ *                    не зависит от числа потоков и порядка выполнения
+ * @param parallelism число потоков fork/join; 0 — по числу ядер
+ * @param maxTurns    предел ходов, после которого партия считается ничьей
+ */
+public record SimulationConfig(int games, long seed, int parallelism, int maxTurns) {
+
+    public static final int DEFAULT_MAX_TURNS = 100;
+
+    public SimulationConfig {
+        if (games <= 0) throw new IllegalArgumentException("games must be positive");
+        if (parallelism < 0) throw new IllegalArgumentException("parallelism must be >= 0");
+        if (maxTurns <= 0) throw new IllegalArgumentException("maxTurns must be positive");
+    }
+
+    public int effectiveParallelism() {
+        return parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+}
@@ -0,0 +1,29 @@
+package com.lotus.game.engine.sim;
+
+import java.util.List;
+
+/**
+ * Итог прогона самоигры. Сторона A — первая колода/герой, B — вторая; первой ходит A в чётных партиях,
+ * B — в нечётных, поэтому преимущество первого хода не искажает winRateA/winRateB.
+ *
+ * @param averageTurns средняя длина партии в ходах (turnNumber на момент окончания)
+ * @param cardImpact   влияние карт, по убыванию |impact|
+ * @param gamesPerSecond пропускная способность прогона
+ */
+public record SimulationReport(int games, long seed, int parallelism,
+                               double winRateA, double winRateB, double drawRate, double firstPlayerWinRate,
+                               double averageTurns, int turnLimitReached,
+                               List<CardImpact> cardImpact,
+                               long elapsedMs, double gamesPerSecond) {
+
+    /**
+     * Влияние карты на исход для стороны, в колоде которой она есть.
+     * @param gamesPlayed      в скольких партиях карта была разыграна хотя бы раз
+     * @param winRateWhenPlayed доля побед стороны в этих партиях
+     * @param winRateWhenNotPlayed доля побед стороны в партиях, где карта не разыгрывалась
+     * @param impact           winRateWhenPlayed - winRateWhenNotPlayed
+     */
+    public record CardImpact(String side, long cardId, String cardType, String name,
+                             int gamesPlayed, double winRateWhenPlayed, double winRateWhenNotPlayed, double impact) {
+    }
+}
@@ -0,0 +1,408 @@
+package com.lotus.game.engine;
+
+import com.lotus.game.engine.CardDefinitions.MinionDef;
+import com.lotus.game.engine.CardDefinitions.SpellDef;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Правила {@link GameEngine} на собранных вручную позициях. Случайность задаётся {@link ReplayGameRandom}:
+ * броски и id экземпляров перечислены в тесте.
+ */
+class GameEngineTest {
+
+    private static final Long P1 = 1L;
+    private static final Long P2 = 2L;
+
+    private static final MinionDef VANILLA = minion(1, 2, 3, 3);
+    private static final MinionDef CHARGE = new MinionDef(2, "charge", 3, 3, 1, false, true, false, false, false, false, false, false,
+            null, 0, null, null, 0, null);
+    private static final MinionDef RUSH = new MinionDef(3, "rush", 2, 2, 2, false, false, false, false, false, false, false, true,
+            null, 0, null, null, 0, null);
+    private static final MinionDef SHIELDED = new MinionDef(4, "shield", 2, 2, 2, false, false, true, false, false, false, false, false,
+            null, 0, null, null, 0, null);
+    private static final MinionDef POISONOUS = new MinionDef(5, "poison", 1, 1, 1, false, false, false, false, false, true, false, false,
+            null, 0, null, null, 0, null);
+    private static final MinionDef TANK = minion(6, 5, 1, 10);
+    /** Deathrattle: 3 урона случайному вражескому миньону (или герою). */
+    private static final MinionDef BOMB = new MinionDef(7, "bomb", 1, 1, 1, false, false, false, false, false, false, false, false,
+            null, 0, null, "DEAL_DAMAGE", 3, null);
+    /** Deathrattle: призвать EGG_SPAWN. */
+    private static final MinionDef EGG = new MinionDef(8, "egg", 1, 0, 1, false, false, false, false, false, false, false, false,
+            null, 0, null, "SUMMON", 0, 9L);
+    /** Призванный deathrattle'ом: собственный deathrattle не срабатывает. */
+    private static final MinionDef EGG_SPAWN = new MinionDef(9, "spawn", 1, 1, 1, false, false, false, false, false, false, false, false,
+            null, 0, null, "DEAL_DAMAGE", 5, null);
+    private static final MinionDef STEALTHY = new MinionDef(10, "stealth", 1, 1, 1, false, false, false, false, true, false, false, false,
+            null, 0, null, null, 0, null);
+    private static final MinionDef TAUNT = new MinionDef(11, "taunt", 2, 1, 3, true, false, false, false, false, false, false, false,
+            null, 0, null, null, 0, null);
+    private static final MinionDef PINGER = new MinionDef(12, "pinger", 2, 2, 2, false, false, false, false, false, false, false, false,
+            "DEAL_DAMAGE", 2, null, null, 0, null);
+    private static final MinionDef BUFFER = new MinionDef(13, "buffer", 2, 1, 1, false, false, false, false, false, false, false, false,
+            "BUFF_ALLY", 2, null, null, 0, null);
+    private static final MinionDef SUMMONER = new MinionDef(14, "summoner", 2, 1, 1, false, false, false, false, false, false, false, false,
+            "SUMMON", 0, 1L, null, 0, null);
+    private static final SpellDef BOLT = new SpellDef(100, "bolt", 1, 3);
+
+    private static final CardDefinitions CARDS = CardDefinitions.of(1,
+            List.of(VANILLA, CHARGE, RUSH, SHIELDED, POISONOUS, TANK, BOMB, EGG, EGG_SPAWN, STEALTHY, TAUNT, PINGER, BUFFER, SUMMONER),
+            List.of(BOLT));
+
+    private final GameEngine engine = new GameEngine();
+
+    @Test
+    void divineShieldAbsorbsOneHitInEitherDirection() {
+        MatchState match = match();
+        GameState.BoardMinion attacker = onBoard(match, P1, SHIELDED, "a");
+        GameState.BoardMinion target = onBoard(match, P2, SHIELDED, "t");
+
+        ActionResult result = engine.apply(match, new GameAction.Attack(P1, "a", "t"), rng());
+
+        assertFalse(target.isDivineShield());
+        assertFalse(attacker.isDivineShield());
+        assertEquals(2, target.getCurrentHealth());
+        assertEquals(2, attacker.getCurrentHealth());
+        assertEquals(2, count(result, GameEvent.Type.SHIELD_BROKEN));
+        assertEquals(0, count(result, GameEvent.Type.DAMAGE));
+    }
+
+    @Test
+    void divineShieldAbsorbsSpellAndPoison() {
+        MatchState match = match();
+        inHand(match, P1, "SPELL", BOLT.id(), "bolt");
+        onBoard(match, P1, POISONOUS, "p");
+        GameState.BoardMinion target = onBoard(match, P2, SHIELDED, "t");
+
+        engine.apply(match, new GameAction.PlayCard(P1, "bolt", null, "t"), rng());
+        assertFalse(target.isDivineShield());
+        assertEquals(2, target.getCurrentHealth());
+
+        target.setDivineShield(true);
+        engine.apply(match, new GameAction.Attack(P1, "p", "t"), rng());
+        assertEquals(List.of(target), board(match, P2));
+        assertEquals(2, target.getCurrentHealth());
+    }
+
+    @Test
+    void poisonousKillsRegardlessOfHealth() {
+        MatchState match = match();
+        onBoard(match, P1, POISONOUS, "p");
+        onBoard(match, P2, TANK, "t");
+
+        engine.apply(match, new GameAction.Attack(P1, "p", "t"), rng());
+
+        assertTrue(board(match, P2).isEmpty());
+        assertTrue(board(match, P1).isEmpty(), "the tank hits back for 1");
+    }
+
+    @Test
+    void deathrattlesChainAcrossBoards() {
+        MatchState match = match();
+        onBoard(match, P1, TANK, "tank");
+        onBoard(match, P1, EGG, "egg");
+        onBoard(match, P2, BOMB, "bomb");
+
+        // бомба умирает и бьёт случайного врага (бросок 1 — яйцо), яйцо умирает и призывает spawn
+        ActionResult result = engine.apply(match, new GameAction.Attack(P1, "tank", "bomb"), rng(List.of(1), List.of("spawn")));
+
+        assertTrue(board(match, P2).isEmpty());
+        List<GameState.BoardMinion> mine = board(match, P1);
+        assertEquals(2, mine.size());
+        assertEquals("tank", mine.get(0).getInstanceId());
+        assertEquals(9, mine.get(0).getCurrentHealth());
+        GameState.BoardMinion spawn = mine.get(1);
+        assertEquals("spawn", spawn.getInstanceId());
+        assertTrue(spawn.isSummonedByDeathrattle());
+        assertFalse(spawn.isCanAttack());
+        assertEquals(List.of(GameEvent.Type.ATTACK, GameEvent.Type.DAMAGE, GameEvent.Type.DAMAGE,
+                        GameEvent.Type.MINION_DIED, GameEvent.Type.DAMAGE, GameEvent.Type.MINION_DIED,
+                        GameEvent.Type.MINION_SUMMONED),
+                result.events().stream().map(GameEvent::type).toList());
+    }
+
+    @Test
+    void minionSummonedByDeathrattleDoesNotTriggerItsOwnDeathrattle() {
+        MatchState match = match();
+        onBoard(match, P1, TANK, "tank");
+        onBoard(match, P2, EGG_SPAWN, "spawn").setSummonedByDeathrattle(true);
+
+        engine.apply(match, new GameAction.Attack(P1, "tank", "spawn"), rng());
+
+        assertTrue(board(match, P2).isEmpty());
+        assertEquals(9, board(match, P1).get(0).getCurrentHealth());
+        assertEquals(30, player(match, P1).getHealth());
+    }
+
+    @Test
+    void deathrattleHitsHeroOnEmptyBoardAndCanWinTheGame() {
+        MatchState match = match();
+        player(match, P1).setHealth(3);
+        inHand(match, P1, "SPELL", BOLT.id(), "bolt");
+        onBoard(match, P2, BOMB, "bomb");
+
+        engine.apply(match, new GameAction.PlayCard(P1, "bolt", null, "bomb"), rng());
+
+        assertTrue(board(match, P2).isEmpty());
+        assertEquals(0, player(match, P1).getHealth());
+        assertTrue(match.isFinished());
+        assertEquals(P2, match.getWinnerId());
+    }
+
+    @Test
+    void fatigueGrowsWithEachMissingCard() {
+        MatchState match = match();
+        player(match, P1).getDeck().add(new GameState.CardRef("MINION", VANILLA.id()));
+        player(match, P2).getDeck().add(new GameState.CardRef("MINION", VANILLA.id()));
+
+        ActionResult result = engine.apply(match, new GameAction.EndTurn(P1), rng(List.of(3), List.of("drawn")));
+
+        GameState.PlayerState next = player(match, P2);
+        assertEquals(1, next.getHand().size());
+        assertEquals(2, next.getFatigueCounter());
+        assertEquals(30 - 1 - 2, next.getHealth());
+        assertEquals(2, count(result, GameEvent.Type.FATIGUE));
+        assertEquals(P2, match.getCurrentTurnPlayerId());
+        assertEquals(2, match.getGame().getTurnNumber());
+    }
+
+    @Test
+    void fatigueDeathEndsTheGame() {
+        MatchState match = match();
+        player(match, P1).getDeck().add(new GameState.CardRef("MINION", VANILLA.id()));
+        onBoard(match, P1, VANILLA, "keeps-game-going");
+        player(match, P2).setHealth(3);
+        player(match, P2).setFatigueCounter(1);
+
+        engine.apply(match, new GameAction.EndTurn(P1), rng(List.of(3), List.of()));
+
+        assertTrue(match.isFinished());
+        assertEquals(P1, match.getWinnerId());
+        assertEquals(-2, player(match, P2).getHealth());
+    }
+
+    @Test
+    void emptyDecksAndBoardsEndTheGameOnHeroHealth() {
+        MatchState match = match();
+        player(match, P1).setHealth(12);
+        player(match, P2).setHealth(20);
+
+        engine.apply(match, new GameAction.EndTurn(P1), rng(List.of(1), List.of()));
+
+        assertTrue(match.isFinished());
+        assertEquals(P2, match.getWinnerId());
+        assertEquals(19, player(match, P2).getHealth());
+    }
+
+    @Test
+    void fullHandSkipsDrawAndFatigue() {
+        MatchState match = match();
+        for (int i = 0; i < GameEngine.MAX_HAND_SIZE; i++) {
+            inHand(match, P2, "MINION", VANILLA.id(), "h" + i);
+        }
+
+        engine.apply(match, new GameAction.EndTurn(P1), rng(List.of(3), List.of()));
+
+        assertEquals(0, player(match, P2).getFatigueCounter());
+        assertEquals(30, player(match, P2).getHealth());
+    }
+
+    @Test
+    void chargeAttacksHeroAtOnceAndRushOnlyMinions() {
+        MatchState match = match();
+        inHand(match, P1, "MINION", CHARGE.id(), "c");
+        inHand(match, P1, "MINION", RUSH.id(), "r");
+        inHand(match, P1, "MINION", VANILLA.id(), "v");
+
+        engine.apply(match, new GameAction.PlayCard(P1, "c", null, null), rng(List.of(), List.of("charge")));
+        engine.apply(match, new GameAction.PlayCard(P1, "r", null, null), rng(List.of(), List.of("rush")));
+        engine.apply(match, new GameAction.PlayCard(P1, "v", null, null), rng(List.of(), List.of("vanilla")));
+
+        assertRejected(match, new GameAction.Attack(P1, "vanilla", GameEngine.HERO_TARGET));
+        assertRejected(match, new GameAction.Attack(P1, "rush", GameEngine.HERO_TARGET));
+        engine.apply(match, new GameAction.Attack(P1, "charge", GameEngine.HERO_TARGET), rng());
+        assertEquals(27, player(match, P2).getHealth());
+
+        onBoard(match, P2, TANK, "tank");
+        engine.apply(match, new GameAction.Attack(P1, "rush", "tank"), rng());
+        assertEquals(8, board(match, P2).get(0).getCurrentHealth());
+        assertRejected(match, new GameAction.Attack(P1, "rush", "tank"));
+    }
+
+    @Test
+    void rushMinionAttacksHeroFromNextTurn() {
+        MatchState match = match();
+        inHand(match, P1, "MINION", RUSH.id(), "r");
+        player(match, P1).getDeck().add(new GameState.CardRef("MINION", VANILLA.id()));
+        player(match, P2).getDeck().add(new GameState.CardRef("MINION", VANILLA.id()));
+        engine.apply(match, new GameAction.PlayCard(P1, "r", null, null), rng(List.of(), List.of("rush")));
+
+        engine.apply(match, new GameAction.EndTurn(P1), rng(List.of(1), List.of("d2")));
+        engine.apply(match, new GameAction.EndTurn(P2), rng(List.of(1), List.of("d1")));
+        engine.apply(match, new GameAction.Attack(P1, "rush", GameEngine.HERO_TARGET), rng());
+
+        assertEquals(28, player(match, P2).getHealth());
+    }
+
+    @Test
+    void boardIsLimitedToSevenMinions() {
+        MatchState match = match();
+        for (int i = 0; i < GameEngine.MAX_BOARD_SIZE; i++) {
+            onBoard(match, P1, VANILLA, "m" + i);
+        }
+        inHand(match, P1, "MINION", VANILLA.id(), "eighth");
+
+        assertRejected(match, new GameAction.PlayCard(P1, "eighth", null, null));
+    }
+
+    @Test
+    void battlecrySummonIsSkippedOnFullBoard() {
+        MatchState match = match();
+        for (int i = 0; i < GameEngine.MAX_BOARD_SIZE - 1; i++) {
+            onBoard(match, P1, VANILLA, "m" + i);
+        }
+        inHand(match, P1, "MINION", SUMMONER.id(), "s");
+
+        engine.apply(match, new GameAction.PlayCard(P1, "s", null, null), rng(List.of(), List.of("summoner")));
+
+        assertEquals(GameEngine.MAX_BOARD_SIZE, board(match, P1).size());
+        assertEquals("summoner", board(match, P1).get(GameEngine.MAX_BOARD_SIZE - 1).getInstanceId());
+    }
+
+    @Test
+    void battlecryDamagesChosenEnemyAndBuffsChosenAlly() {
+        MatchState match = match();
+        onBoard(match, P1, VANILLA, "ally");
+        GameState.BoardMinion enemy = onBoard(match, P2, TANK, "tank");
+        inHand(match, P1, "MINION", PINGER.id(), "pinger");
+        inHand(match, P1, "MINION", BUFFER.id(), "buffer");
+
+        engine.apply(match, new GameAction.PlayCard(P1, "pinger", 0, "tank"), rng(List.of(), List.of("p")));
+        engine.apply(match, new GameAction.PlayCard(P1, "buffer", null, "ally"), rng(List.of(), List.of("b")));
+
+        assertEquals(8, enemy.getCurrentHealth());
+        assertEquals("p", board(match, P1).get(0).getInstanceId());
+        GameState.BoardMinion ally = board(match, P1).get(1);
+        assertEquals(5, ally.getAttack());
+        assertEquals(5, ally.getMaxHealth());
+    }
+
+    @Test
+    void rejectedActionsLeaveStateUnchanged() {
+        MatchState match = match();
+        player(match, P1).setMana(2);
+        onBoard(match, P1, VANILLA, "ready");
+        onBoard(match, P2, TAUNT, "taunt");
+        onBoard(match, P2, VANILLA, "plain");
+        onBoard(match, P2, STEALTHY, "hidden");
+        inHand(match, P1, "MINION", TANK.id(), "expensive");
+        inHand(match, P1, "MINION", PINGER.id(), "pinger");
+        inHand(match, P1, "MINION", BUFFER.id(), "buffer");
+        inHand(match, P1, "SPELL", BOLT.id(), "bolt");
+
+        assertRejected(match, new GameAction.EndTurn(P2));
+        assertRejected(match, new GameAction.PlayCard(P1, "missing", null, null));
+        assertRejected(match, new GameAction.PlayCard(P1, "expensive", null, null));
+        assertRejected(match, new GameAction.PlayCard(P1, "pinger", 5, "taunt"));
+        assertRejected(match, new GameAction.PlayCard(P1, "pinger", null, null));
+        assertRejected(match, new GameAction.PlayCard(P1, "pinger", null, "hidden"));
+        assertRejected(match, new GameAction.PlayCard(P1, "pinger", null, GameEngine.HERO_TARGET));
+        assertRejected(match, new GameAction.PlayCard(P1, "buffer", null, "taunt"));
+        assertRejected(match, new GameAction.PlayCard(P1, "bolt", null, null));
+        assertRejected(match, new GameAction.PlayCard(P1, "bolt", null, "hidden"));
+        assertRejected(match, new GameAction.Attack(P1, "ready", "plain"));
+        assertRejected(match, new GameAction.Attack(P1, "ready", "hidden"));
+        assertRejected(match, new GameAction.Attack(P1, "ready", GameEngine.HERO_TARGET));
+
+        match.setStatus(MatchState.Status.FINISHED);
+        assertRejected(match, new GameAction.Attack(P1, "ready", "taunt"));
+        assertRejected(match, new GameAction.Concede(P2));
+        assertNull(match.getWinnerId());
+    }
+
+    private void assertRejected(MatchState match, GameAction action) {
+        MatchState before = match.copy();
+        Executable apply = () -> engine.apply(match, action, rng(List.of(1, 1, 1), List.of("x", "y", "z")));
+        assertThrows(IllegalArgumentException.class, apply, action.toString());
+        assertEquals(before, match, action.toString());
+    }
+
+    private static MatchState match() {
+        return MatchState.builder()
+                .player1Id(P1)
+                .player2Id(P2)
+                .currentTurnPlayerId(P1)
+                .game(GameState.builder()
+                        .player1(freshPlayer())
+                        .player2(freshPlayer())
+                        .turnNumber(1)
+                        .currentTurnPlayerId(P1)
+                        .build())
+                .cards(CARDS)
+                .build();
+    }
+
+    private static GameState.PlayerState freshPlayer() {
+        return GameState.PlayerState.builder().mana(10).maxMana(10).build();
+    }
+
+    private static GameState.PlayerState player(MatchState match, Long playerId) {
+        return P1.equals(playerId) ? match.getGame().getPlayer1() : match.getGame().getPlayer2();
+    }
+
+    private static List<GameState.BoardMinion> board(MatchState match, Long playerId) {
+        return player(match, playerId).getBoard();
+    }
+
+    /** Миньон, готовый атаковать (как в начале хода владельца). */
+    private static GameState.BoardMinion onBoard(MatchState match, Long playerId, MinionDef def, String instanceId) {
+        GameState.BoardMinion m = GameState.BoardMinion.builder()
+                .instanceId(instanceId)
+                .cardId(def.id())
+                .attack(def.attack())
+                .currentHealth(def.health())
+                .maxHealth(def.health())
+                .canAttack(true)
+                .canAttackHero(true)
+                .taunt(def.taunt())
+                .divineShield(def.divineShield())
+                .windfury(def.windfury())
+                .stealth(def.stealth())
+                .poisonous(def.poisonous())
+                .lifesteal(def.lifesteal())
+                .rush(def.rush())
+                .build();
+        board(match, playerId).add(m);
+        return m;
+    }
+
+    private static void inHand(MatchState match, Long playerId, String type, long cardId, String instanceId) {
+        player(match, playerId).getHand().add(new GameState.CardInHand(instanceId, type, cardId));
+    }
+
+    private static GameRandom rng() {
+        return rng(List.of(), List.of());
+    }
+
+    private static GameRandom rng(List<Integer> rolls, List<String> instanceIds) {
+        return new ReplayGameRandom(new ArrayList<>(rolls), new ArrayList<>(instanceIds));
+    }
+
+    private static long count(ActionResult result, GameEvent.Type type) {
+        return result.events().stream().filter(e -> e.type() == type).count();
+    }
+
+    private static MinionDef minion(long id, int cost, int attack, int health) {
+        return new MinionDef(id, "minion-" + id, cost, attack, health, false, false, false, false, false, false, false, false,
+                null, 0, null, null, 0, null);
+    }
+}
@@ -0,0 +1,233 @@
+package com.lotus.game.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameStateCodecTest {
+
+    @Test
+    void roundTripsFullBoards() {
+        GameState state = GameState.builder()
+                .turnNumber(17)
+                .currentTurnPlayerId(42L)
+                .player1(player("hero-1", 7, 0))
+                .player2(player("hero-2", 7, 100))
+                .build();
+
+        byte[] encoded = GameStateCodec.encode(state);
+
+        assertTrue(GameStateCodec.isBinary(encoded));
+        assertEquals(state, GameStateCodec.decode(encoded));
+        assertArrayEquals(encoded, GameStateCodec.encode(GameStateCodec.decode(encoded)));
+    }
+
+    @Test
+    void roundTripsEveryMinionFlagOnItsOwn() {
+        List<BiConsumer<GameState.BoardMinion, Boolean>> flags = List.of(
+                GameState.BoardMinion::setCanAttack,
+                GameState.BoardMinion::setExhausted,
+                GameState.BoardMinion::setCanAttackHero,
+                GameState.BoardMinion::setTaunt,
+                GameState.BoardMinion::setDivineShield,
+                GameState.BoardMinion::setWindfury,
+                GameState.BoardMinion::setStealth,
+                GameState.BoardMinion::setPoisonous,
+                GameState.BoardMinion::setLifesteal,
+                GameState.BoardMinion::setRush,
+                GameState.BoardMinion::setSummonedByDeathrattle);
+        for (int i = 0; i < flags.size(); i++) {
+            GameState.BoardMinion minion = minion(1L, 0);
+            flags.forEach(f -> f.accept(minion, false));
+            flags.get(i).accept(minion, true);
+            GameState state = GameState.builder().player1(withBoard(minion)).build();
+
+            assertEquals(state, GameStateCodec.decode(GameStateCodec.encode(state)), "flag #" + i);
+        }
+    }
+
+    @Test
+    void roundTripsNullAndEmptyFields() {
+        GameState.PlayerState bare = GameState.PlayerState.builder()
+                .heroId(null)
+                .heroName(null)
+                .portraitUrl(null)
+                .maxHeroHealth(null)
+                .deck(new ArrayList<>(List.of(new GameState.CardRef(null, null))))
+                .hand(new ArrayList<>(List.of(new GameState.CardInHand(null, null, null))))
+                .board(new ArrayList<>())
+                .build();
+        GameState.BoardMinion noIds = minion(null, 0);
+        noIds.setInstanceId(null);
+        GameState state = GameState.builder()
+                .currentTurnPlayerId(null)
+                .player1(bare)
+                .player2(withBoard(noIds))
+                .build();
+
+        assertEquals(state, GameStateCodec.decode(GameStateCodec.encode(state)));
+    }
+
+    @Test
+    void decodesNullListsAsEmpty() {
+        GameState.PlayerState p = new GameState.PlayerState();
+        p.setDeck(null);
+        p.setHand(null);
+        p.setBoard(null);
+        GameState decoded = GameStateCodec.decode(GameStateCodec.encode(GameState.builder().player1(p).build()));
+
+        assertEquals(List.of(), decoded.getPlayer1().getDeck());
+        assertEquals(List.of(), decoded.getPlayer1().getHand());
+        assertEquals(List.of(), decoded.getPlayer1().getBoard());
+    }
+
+    @Test
+    void roundTripsNegativeAndBoundaryValues() {
+        int[] ints = {0, 1, -1, 63, 64, -64, -65, 127, 128, 16383, 16384, -16385, Integer.MAX_VALUE, Integer.MIN_VALUE};
+        long[] longs = {0L, 1L, -1L, 127L, 128L, -129L, 1L << 35, -(1L << 35), Long.MAX_VALUE, Long.MIN_VALUE + 1};
+        for (int v : ints) {
+            GameState.BoardMinion m = minion(5L, 0);
+            m.setAttack(v);
+            m.setCurrentHealth(v);
+            m.setMaxHealth(v);
+            m.setAttacksThisTurn(v);
+            GameState.PlayerState p = withBoard(m);
+            p.setHealth(v);
+            p.setMana(v);
+            p.setMaxMana(v);
+            p.setFatigueCounter(v);
+            p.setMaxHeroHealth(v);
+            GameState state = GameState.builder().turnNumber(v).player1(p).build();
+
+            assertEquals(state, GameStateCodec.decode(GameStateCodec.encode(state)), "int " + v);
+        }
+        for (long v : longs) {
+            GameState.PlayerState p = withBoard(minion(v, 0));
+            p.getDeck().add(new GameState.CardRef("SPELL", v));
+            GameState state = GameState.builder().currentTurnPlayerId(v).player1(p).build();
+
+            assertEquals(state, GameStateCodec.decode(GameStateCodec.encode(state)), "long " + v);
+        }
+    }
+
+    @Test
+    void rejectsIdThatWouldDecodeAsNull() {
+        GameState state = GameState.builder().currentTurnPlayerId(Long.MIN_VALUE).build();
+
+        assertThrows(IllegalArgumentException.class, () -> GameStateCodec.encode(state));
+    }
+
+    @Test
+    void packsCanonicalUuidInto16Bytes() {
+        String uuid = UUID.randomUUID().toString();
+        String notUuid = uuid.toUpperCase();
+
+        int packed = GameStateCodec.encode(withHandCard(uuid)).length;
+        int plain = GameStateCodec.encode(withHandCard(notUuid)).length;
+
+        // тег + 16 байт против тега + длины + 36 символов
+        assertEquals(plain - 21, packed);
+        assertEquals(notUuid, GameStateCodec.decode(GameStateCodec.encode(withHandCard(notUuid)))
+                .getPlayer1().getHand().get(0).getInstanceId());
+    }
+
+    @Test
+    void keepsUnknownCardTypesAndNonUuidIds() {
+        GameState.PlayerState p = new GameState.PlayerState();
+        p.getDeck().add(new GameState.CardRef("HERO_POWER", 3L));
+        p.getHand().add(new GameState.CardInHand("coin-1", "WEAPON", 4L));
+        p.getHand().add(new GameState.CardInHand("Имя", "MINION", 5L));
+        GameState state = GameState.builder().player1(p).build();
+
+        assertEquals(state, GameStateCodec.decode(GameStateCodec.encode(state)));
+    }
+
+    @Test
+    void rejectsCorruptedData() {
+        byte[] encoded = GameStateCodec.encode(GameState.builder().player1(player("h", 7, 0)).build());
+        byte[] wrongVersion = encoded.clone();
+        wrongVersion[1] = (byte) (GameStateCodec.VERSION + 1);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> GameStateCodec.decode(Arrays.copyOf(encoded, encoded.length - 3)));
+        assertThrows(IllegalArgumentException.class, () -> GameStateCodec.decode(wrongVersion));
+        assertThrows(IllegalArgumentException.class,
+                () -> GameStateCodec.decode("{\"turnNumber\":1}".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void doesNotTreatJsonAsBinary() {
+        assertFalse(GameStateCodec.isBinary("{\"player1\":{}}".getBytes(StandardCharsets.UTF_8)));
+        assertFalse(GameStateCodec.isBinary(new byte[]{GameStateCodec.MAGIC}));
+        assertFalse(GameStateCodec.isBinary(null));
+    }
+
+    private static GameState.PlayerState player(String heroId, int boardSize, long idBase) {
+        GameState.PlayerState p = GameState.PlayerState.builder()
+                .heroId(heroId)
+                .heroName("Герой " + heroId)
+                .portraitUrl("https://cdn.example/" + heroId + ".png")
+                .maxHeroHealth(30)
+                .health(23)
+                .mana(4)
+                .maxMana(9)
+                .fatigueCounter(2)
+                .build();
+        for (int i = 0; i < 10; i++) {
+            p.getDeck().add(new GameState.CardRef(i % 2 == 0 ? "MINION" : "SPELL", idBase + i));
+        }
+        for (int i = 0; i < 10; i++) {
+            p.getHand().add(new GameState.CardInHand(UUID.randomUUID().toString(), i % 3 == 0 ? "SPELL" : "MINION", idBase + i));
+        }
+        for (int i = 0; i < boardSize; i++) {
+            p.getBoard().add(minion(idBase + i, i));
+        }
+        return p;
+    }
+
+    /** Флаги миньона — биты i, чтобы на доске встречались разные сочетания. */
+    private static GameState.BoardMinion minion(Long cardId, int i) {
+        return GameState.BoardMinion.builder()
+                .instanceId(UUID.randomUUID().toString())
+                .cardId(cardId)
+                .attack(i + 1)
+                .currentHealth(i + 2)
+                .maxHealth(i + 3)
+                .attacksThisTurn(i % 3)
+                .canAttack((i & 1) != 0)
+                .exhausted((i & 2) != 0)
+                .canAttackHero((i & 4) == 0)
+                .taunt((i & 1) == 0)
+                .divineShield((i & 2) == 0)
+                .windfury((i & 4) != 0)
+                .stealth(i == 3)
+                .poisonous(i == 4)
+                .lifesteal(i == 5)
+                .rush(i == 6)
+                .summonedByDeathrattle(i == 2)
+                .build();
+    }
+
+    private static GameState.PlayerState withBoard(GameState.BoardMinion minion) {
+        GameState.PlayerState p = new GameState.PlayerState();
+        p.getBoard().add(minion);
+        return p;
+    }
+
+    private static GameState withHandCard(String instanceId) {
+        GameState.PlayerState p = new GameState.PlayerState();
+        p.getHand().add(new GameState.CardInHand(instanceId, "MINION", 1L));
+        return GameState.builder().player1(p).build();
+    }
+}
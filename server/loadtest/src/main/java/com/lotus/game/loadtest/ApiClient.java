@@ -0,0 +1,146 @@
+package com.lotus.game.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * REST-часть подготовки игрока: регистрация (или вход в уже созданный аккаунт), открытые карты и герои,
+ * колода из 30 карт. Вызовы синхронные — подготовку ведёт пул setup-threads, а не потоки WebSocket.
+ */
+final class ApiClient {
+
+    static final int DECK_SIZE = 30;
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient http;
+    private final ObjectMapper json;
+    private final String baseUrl;
+
+    ApiClient(HttpClient http, ObjectMapper json, String baseUrl) {
+        this.http = http;
+        this.json = json;
+        this.baseUrl = baseUrl;
+    }
+
+    record Session(long userId, String username, String accessToken) {
+    }
+
+    /** Карта из коллекции игрока — то, что нужно для выбора легального действия. */
+    record CardInfo(String cardType, long id, int manaCost, int damage, String battlecryType, int battlecryValue) {
+
+        String key() {
+            return key(cardType, id);
+        }
+
+        static String key(String cardType, long id) {
+            return cardType.toUpperCase() + ":" + id;
+        }
+    }
+
+    /** Регистрирует пользователя; если он уже есть (повторный прогон) — просто входит. */
+    Session registerOrLogin(String username, String password) throws IOException, InterruptedException {
+        ObjectNode register = json.createObjectNode()
+                .put("username", username)
+                .put("email", username + "@loadtest.local")
+                .put("password", password);
+        HttpResponse<String> registered = post("/api/auth/register", register, null);
+        if (registered.statusCode() >= 300 && registered.statusCode() != 400) {
+            throw new IOException("register " + username + ": HTTP " + registered.statusCode() + " " + registered.body());
+        }
+        ObjectNode login = json.createObjectNode()
+                .put("usernameOrEmail", username)
+                .put("password", password);
+        JsonNode body = expectOk(post("/api/auth/login", login, null), "login " + username);
+        if (body.path("requiresEmailVerification").asBoolean(false)) {
+            throw new IOException("login " + username + ": email verification is on (start the server with profile loadtest)");
+        }
+        return new Session(body.path("userId").asLong(), username, body.path("accessToken").asText());
+    }
+
+    List<CardInfo> collection(Session session) throws IOException, InterruptedException {
+        List<CardInfo> cards = new ArrayList<>();
+        for (JsonNode c : expectOk(get("/api/cards/collection", session), "collection")) {
+            cards.add(new CardInfo(c.path("cardType").asText(), c.path("id").asLong(), c.path("manaCost").asInt(),
+                    c.path("damage").asInt(0), c.path("battlecryType").asText("NONE"), c.path("battlecryValue").asInt(0)));
+        }
+        if (cards.isEmpty()) {
+            throw new IOException("collection of " + session.username() + " is empty");
+        }
+        return cards;
+    }
+
+    String unlockedHero(Session session) throws IOException, InterruptedException {
+        for (JsonNode hero : expectOk(get("/api/heroes", session), "heroes")) {
+            if (hero.path("unlocked").asBoolean(true)) return hero.path("id").asText();
+        }
+        throw new IOException("no unlocked hero for " + session.username());
+    }
+
+    /**
+     * Первая колода игрока с этим героем или новая: открытые карты по кругу, пока не наберётся 30.
+     *
+     * @return id колоды
+     */
+    long ensureDeck(Session session, String heroId, List<CardInfo> cards) throws IOException, InterruptedException {
+        for (JsonNode deck : expectOk(get("/api/decks", session), "decks")) {
+            if (heroId.equals(deck.path("heroId").asText())) return deck.path("id").asLong();
+        }
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (int i = 0; i < DECK_SIZE; i++) {
+            counts.merge(cards.get(i % cards.size()).key(), 1, Integer::sum);
+        }
+        ObjectNode request = json.createObjectNode()
+                .put("name", "Load test")
+                .put("heroId", heroId);
+        ArrayNode slots = request.putArray("cards");
+        counts.forEach((key, count) -> {
+            String[] parts = key.split(":");
+            slots.addObject()
+                    .put("cardType", parts[0])
+                    .put("cardId", Long.parseLong(parts[1]))
+                    .put("count", count);
+        });
+        return expectOk(post("/api/decks", request, session), "create deck").path("id").asLong();
+    }
+
+    private HttpResponse<String> get(String path, Session session) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(TIMEOUT)
+                .header("Authorization", "Bearer " + session.accessToken())
+                .GET()
+                .build();
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(String path, JsonNode body, Session session) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json.writeValueAsString(body)));
+        if (session != null) {
+            request.header("Authorization", "Bearer " + session.accessToken());
+        }
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private JsonNode expectOk(HttpResponse<String> response, String what) throws IOException {
+        if (response.statusCode() >= 300) {
+            throw new IOException(what + ": HTTP " + response.statusCode() + " " + response.body());
+        }
+        return json.readTree(response.body());
+    }
+}
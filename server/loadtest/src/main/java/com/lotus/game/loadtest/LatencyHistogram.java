@@ -0,0 +1,65 @@
+package com.lotus.game.loadtest;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Гистограмма задержек в микросекундах с логарифмически-линейными корзинами: до 256 мкс точно,
+ * дальше 128 корзин на каждую степень двойки (погрешность перцентиля меньше 1%). Память постоянная,
+ * запись без блокировок — пишут все игроки сразу, с любого потока WebSocket-клиента.
+ */
+final class LatencyHistogram {
+
+    private static final int SUB_BITS = 7;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int LINEAR_LIMIT = SUB_COUNT << 1;
+    private static final int MAX_SHIFT = 36 - SUB_BITS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(LINEAR_LIMIT + MAX_SHIFT * SUB_COUNT);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    void recordNanos(long nanos) {
+        long micros = Math.max(0, nanos / 1_000);
+        counts.incrementAndGet(index(micros));
+        total.incrementAndGet();
+        max.accumulateAndGet(micros, Math::max);
+    }
+
+    long count() {
+        return total.get();
+    }
+
+    long maxMicros() {
+        return max.get();
+    }
+
+    /** @param quantile от 0 до 1, например 0.999 — верхняя граница корзины, в которую попал перцентиль */
+    long percentileMicros(double quantile) {
+        long n = total.get();
+        if (n == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(quantile * n));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(upperBound(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    private static int index(long micros) {
+        if (micros < LINEAR_LIMIT) return (int) micros;
+        int shift = Math.min(63 - Long.numberOfLeadingZeros(micros) - SUB_BITS, MAX_SHIFT);
+        long mantissa = Math.min(micros >> shift, 2L * SUB_COUNT - 1);
+        return LINEAR_LIMIT + (shift - 1) * SUB_COUNT + (int) (mantissa - SUB_COUNT);
+    }
+
+    private static long upperBound(int index) {
+        if (index < LINEAR_LIMIT) return index;
+        int shift = (index - LINEAR_LIMIT) / SUB_COUNT + 1;
+        long mantissa = (index - LINEAR_LIMIT) % SUB_COUNT + SUB_COUNT;
+        return ((mantissa + 1) << shift) - 1;
+    }
+}
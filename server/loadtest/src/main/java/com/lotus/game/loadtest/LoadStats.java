@@ -0,0 +1,48 @@
+package com.lotus.game.loadtest;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Общие счётчики прогона. Пока идёт разгон (measuring = false), события не учитываются —
+ * в отчёт попадает только установившийся режим.
+ */
+final class LoadStats {
+
+    /** От отправки play/attack/end-turn до прихода дельты с новой версией к тому же игроку */
+    final LatencyHistogram actionToBroadcast = new LatencyHistogram();
+    /** От /app/matches/find до сообщения о найденном матче */
+    final LatencyHistogram matchmakingWait = new LatencyHistogram();
+
+    final LongAdder matchesStarted = new LongAdder();
+    final LongAdder matchesFinished = new LongAdder();
+    final LongAdder actions = new LongAdder();
+    final LongAdder rejectedActions = new LongAdder();
+    final LongAdder actionTimeouts = new LongAdder();
+    final LongAdder resyncs = new LongAdder();
+    final LongAdder chatSent = new LongAdder();
+    final LongAdder chatReceived = new LongAdder();
+    final LongAdder disconnects = new LongAdder();
+    final LongAdder setupFailures = new LongAdder();
+
+    private volatile boolean measuring;
+
+    void startMeasuring() {
+        measuring = true;
+    }
+
+    void stopMeasuring() {
+        measuring = false;
+    }
+
+    boolean measuring() {
+        return measuring;
+    }
+
+    void count(LongAdder counter) {
+        if (measuring) counter.increment();
+    }
+
+    void record(LatencyHistogram histogram, long nanos) {
+        if (measuring) histogram.recordNanos(nanos);
+    }
+}
@@ -0,0 +1,62 @@
+package com.lotus.game.loadtest;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Параметры прогона из аргументов командной строки вида --key=value.
+ *
+ * @param baseUrl         адрес узла, например http://localhost:8080
+ * @param clients         число симулированных игроков (чётное — играют друг с другом в CASUAL)
+ * @param durationSeconds длительность замера после разгона
+ * @param rampUpSeconds   за сколько секунд подключаются все игроки; их матчи в замер не входят
+ * @param setupThreads    сколько игроков одновременно проходят регистрацию, вход и сборку колоды
+ * @param thinkMillis     пауза «на раздумье» перед каждым действием
+ * @param chatEvery       каждое N-е действие сопровождается сообщением в чат матча (0 — без чата)
+ * @param actionTimeoutMillis сколько ждать рассылку после действия, прежде чем запросить полный снимок
+ * @param userPrefix      префикс имён пользователей; повторный прогон с тем же префиксом входит в готовые аккаунты
+ * @param password        пароль всех симулированных пользователей
+ */
+public record LoadTestConfig(String baseUrl, int clients, int durationSeconds, int rampUpSeconds,
+                             int setupThreads, int thinkMillis, int chatEvery, int actionTimeoutMillis,
+                             String userPrefix, String password) {
+
+    public LoadTestConfig {
+        if (clients < 2) {
+            throw new IllegalArgumentException("clients must be >= 2");
+        }
+        if (durationSeconds <= 0) {
+            throw new IllegalArgumentException("duration must be > 0");
+        }
+        if (setupThreads <= 0) {
+            throw new IllegalArgumentException("setup-threads must be > 0");
+        }
+        baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+    }
+
+    public static LoadTestConfig fromArgs(String[] args) {
+        Map<String, String> opts = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Unexpected argument: " + arg + " (expected --key=value)");
+            }
+            int eq = arg.indexOf('=');
+            opts.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return new LoadTestConfig(
+                opts.getOrDefault("url", "http://localhost:8080"),
+                Integer.parseInt(opts.getOrDefault("clients", "1000")),
+                Integer.parseInt(opts.getOrDefault("duration", "120")),
+                Integer.parseInt(opts.getOrDefault("ramp-up", "30")),
+                Integer.parseInt(opts.getOrDefault("setup-threads", "32")),
+                Integer.parseInt(opts.getOrDefault("think-ms", "200")),
+                Integer.parseInt(opts.getOrDefault("chat-every", "10")),
+                Integer.parseInt(opts.getOrDefault("action-timeout-ms", "5000")),
+                opts.getOrDefault("user-prefix", "lt"),
+                opts.getOrDefault("password", "loadtest1"));
+    }
+
+    public String wsUrl() {
+        return baseUrl.replaceFirst("^http", "ws") + "/ws/websocket";
+    }
+}
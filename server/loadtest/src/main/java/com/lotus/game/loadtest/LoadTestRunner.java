@@ -0,0 +1,121 @@
+package com.lotus.game.loadtest;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Точка входа loadtest.jar: поднимает clients симулированных игроков против одного узла, равномерно
+ * подключая их за ramp-up, затем duration секунд меряет установившийся режим и печатает отчёт:
+ * перцентили задержки «действие → рассылка», ожидание подбора и число сыгранных матчей в минуту на узел.
+ * <p>
+ * Сервер для офлайн-прогона: {@code ./mvnw -pl app spring-boot:run -Dspring-boot.run.profiles=loadtest}
+ * (H2 в памяти, без Redis, S3 и почты).
+ */
+public final class LoadTestRunner {
+
+    private static final long PROGRESS_INTERVAL_SECONDS = 10;
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromArgs(args);
+        ObjectMapper json = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        int cores = Runtime.getRuntime().availableProcessors();
+        ExecutorService ioExecutor = Executors.newFixedThreadPool(Math.max(4, cores * 2));
+        HttpClient http = HttpClient.newBuilder()
+                .executor(ioExecutor)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(Math.max(2, cores));
+        ExecutorService setupPool = Executors.newFixedThreadPool(config.setupThreads());
+        ApiClient api = new ApiClient(http, json, config.baseUrl());
+        LoadStats stats = new LoadStats();
+
+        System.out.printf("Load test: %d clients against %s, ramp-up %ds, measuring %ds%n",
+                config.clients(), config.baseUrl(), config.rampUpSeconds(), config.durationSeconds());
+        List<SimulatedPlayer> players = new ArrayList<>();
+        AtomicInteger ready = new AtomicInteger();
+        long rampNanos = TimeUnit.SECONDS.toNanos(config.rampUpSeconds());
+        long rampStart = System.nanoTime();
+        for (int i = 0; i < config.clients(); i++) {
+            SimulatedPlayer player = new SimulatedPlayer(i, config, api, http, json, stats, scheduler);
+            players.add(player);
+            long startAt = rampStart + rampNanos * i / config.clients();
+            setupPool.submit(() -> {
+                try {
+                    long wait = startAt - System.nanoTime();
+                    if (wait > 0) TimeUnit.NANOSECONDS.sleep(wait);
+                    player.setup();
+                    player.start();
+                    ready.incrementAndGet();
+                } catch (Exception e) {
+                    stats.setupFailures.increment();
+                    System.err.println("setup failed: " + e.getMessage());
+                }
+            });
+        }
+        setupPool.shutdown();
+        setupPool.awaitTermination(config.rampUpSeconds() + 600L, TimeUnit.SECONDS);
+        System.out.printf("Ramp-up done in %ds: %d players connected, %d failed%n",
+                TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - rampStart), ready.get(), stats.setupFailures.sum());
+
+        stats.startMeasuring();
+        long measureStart = System.nanoTime();
+        long deadline = measureStart + TimeUnit.SECONDS.toNanos(config.durationSeconds());
+        while (System.nanoTime() < deadline) {
+            TimeUnit.NANOSECONDS.sleep(Math.min(TimeUnit.SECONDS.toNanos(PROGRESS_INTERVAL_SECONDS), deadline - System.nanoTime()));
+            System.out.printf("  %3ds: %d matches finished, %d actions, p99 %s%n",
+                    TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - measureStart),
+                    stats.matchesFinished.sum() / 2, stats.actions.sum(),
+                    millis(stats.actionToBroadcast.percentileMicros(0.99)));
+        }
+        stats.stopMeasuring();
+        double seconds = (System.nanoTime() - measureStart) / 1e9;
+
+        report(config, stats, ready.get(), seconds);
+        players.forEach(SimulatedPlayer::stop);
+        scheduler.shutdownNow();
+        TimeUnit.SECONDS.sleep(1);
+        ioExecutor.shutdownNow();
+        System.exit(0);
+    }
+
+    private static void report(LoadTestConfig config, LoadStats stats, int connected, double seconds) {
+        LatencyHistogram latency = stats.actionToBroadcast;
+        LatencyHistogram wait = stats.matchmakingWait;
+        System.out.println();
+        System.out.println("=== Load test report ===");
+        System.out.printf("Node:                 %s%n", config.baseUrl());
+        System.out.printf("Players connected:    %d of %d (disconnected during run: %d)%n",
+                connected, config.clients(), stats.disconnects.sum());
+        System.out.printf("Measured window:      %.1fs%n", seconds);
+        System.out.printf("Matches started:      %d%n", stats.matchesStarted.sum() / 2);
+        System.out.printf("Matches finished:     %d (%.1f per minute on this node)%n",
+                stats.matchesFinished.sum() / 2, stats.matchesFinished.sum() / 2 * 60.0 / seconds);
+        System.out.printf("Actions:              %d (%.0f/s), rejected %d, timed out %d, resyncs %d%n",
+                stats.actions.sum(), stats.actions.sum() / seconds, stats.rejectedActions.sum(),
+                stats.actionTimeouts.sum(), stats.resyncs.sum());
+        System.out.printf("Chat messages:        %d sent, %d delivered%n", stats.chatSent.sum(), stats.chatReceived.sum());
+        System.out.printf("Action -> broadcast:  p50 %s  p99 %s  p99.9 %s  max %s  (n=%d)%n",
+                millis(latency.percentileMicros(0.50)), millis(latency.percentileMicros(0.99)),
+                millis(latency.percentileMicros(0.999)), millis(latency.maxMicros()), latency.count());
+        System.out.printf("Matchmaking wait:     p50 %s  p99 %s  max %s  (n=%d)%n",
+                millis(wait.percentileMicros(0.50)), millis(wait.percentileMicros(0.99)),
+                millis(wait.maxMicros()), wait.count());
+    }
+
+    private static String millis(long micros) {
+        return String.format("%.2fms", micros / 1000.0);
+    }
+}
@@ -0,0 +1,131 @@
+package com.lotus.game.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lotus.game.engine.GameState;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Клиентская копия проекции матча для одного игрока: полный снимок (MatchDto) плюс дельты
+ * /user/queue/match/{id} (MatchDeltaDto) — так же, как их применяет веб-клиент. Хранит только то,
+ * что нужно для выбора действия: ману, свою руку и оба стола.
+ */
+final class MatchView {
+
+    final long matchId;
+    private final long viewerId;
+    private final ObjectMapper json;
+
+    long version;
+    String status;
+    Long currentTurnPlayerId;
+    int seat;
+    int mana;
+    final List<GameState.CardInHand> hand = new ArrayList<>();
+    final List<GameState.BoardMinion> myBoard = new ArrayList<>();
+    final List<GameState.BoardMinion> enemyBoard = new ArrayList<>();
+
+    MatchView(long matchId, long viewerId, ObjectMapper json) {
+        this.matchId = matchId;
+        this.viewerId = viewerId;
+        this.json = json;
+    }
+
+    boolean isMyTurn() {
+        return "IN_PROGRESS".equals(status) && currentTurnPlayerId != null && currentTurnPlayerId == viewerId;
+    }
+
+    boolean isFinished() {
+        return "FINISHED".equals(status);
+    }
+
+    /** Полный снимок MatchDto (ответ подбора, /get или snapshot внутри дельты). */
+    void applySnapshot(JsonNode match) throws JsonProcessingException {
+        version = match.path("stateVersion").asLong();
+        status = match.path("status").asText();
+        currentTurnPlayerId = match.path("currentTurnPlayerId").isNumber() ? match.path("currentTurnPlayerId").asLong() : null;
+        seat = match.path("player1Id").asLong() == viewerId ? 1 : 2;
+        JsonNode state = match.path("gameState");
+        JsonNode me = state.path(seat == 1 ? "player1" : "player2");
+        JsonNode enemy = state.path(seat == 1 ? "player2" : "player1");
+        mana = me.path("mana").asInt();
+        replace(hand, me.path("hand"), GameState.CardInHand.class);
+        replace(myBoard, me.path("board"), GameState.BoardMinion.class);
+        replace(enemyBoard, enemy.path("board"), GameState.BoardMinion.class);
+    }
+
+    /**
+     * Применяет дельту, если она продолжает текущую версию.
+     *
+     * @return false — пропущена версия, нужен полный снимок
+     */
+    boolean applyDelta(JsonNode delta) throws JsonProcessingException {
+        if (delta.hasNonNull("snapshot")) {
+            applySnapshot(delta.get("snapshot"));
+            version = delta.path("version").asLong();
+            return true;
+        }
+        if (delta.path("baseVersion").asLong() != version) {
+            return false;
+        }
+        version = delta.path("version").asLong();
+        if (delta.hasNonNull("status")) status = delta.get("status").asText();
+        if (delta.hasNonNull("currentTurnPlayerId")) currentTurnPlayerId = delta.get("currentTurnPlayerId").asLong();
+        JsonNode me = delta.path(seat == 1 ? "player1" : "player2");
+        JsonNode enemy = delta.path(seat == 1 ? "player2" : "player1");
+        if (me.hasNonNull("mana")) mana = me.get("mana").asInt();
+        if (me.hasNonNull("hand")) {
+            replace(hand, me.get("hand"), GameState.CardInHand.class);
+        } else {
+            if (me.hasNonNull("handRemoved")) {
+                List<String> removed = new ArrayList<>();
+                me.get("handRemoved").forEach(id -> removed.add(id.asText()));
+                hand.removeIf(c -> removed.contains(c.getInstanceId()));
+            }
+            if (me.hasNonNull("handAdded")) {
+                hand.addAll(read(me.get("handAdded"), GameState.CardInHand.class));
+            }
+        }
+        patchBoard(myBoard, me);
+        patchBoard(enemyBoard, enemy);
+        return true;
+    }
+
+    private void patchBoard(List<GameState.BoardMinion> board, JsonNode patch) throws JsonProcessingException {
+        Map<String, GameState.BoardMinion> byId = new HashMap<>();
+        board.forEach(m -> byId.put(m.getInstanceId(), m));
+        if (patch.hasNonNull("boardUpserts")) {
+            for (GameState.BoardMinion m : read(patch.get("boardUpserts"), GameState.BoardMinion.class)) {
+                byId.put(m.getInstanceId(), m);
+            }
+        }
+        if (patch.hasNonNull("boardOrder")) {
+            board.clear();
+            patch.get("boardOrder").forEach(id -> {
+                GameState.BoardMinion m = byId.get(id.asText());
+                if (m != null) board.add(m);
+            });
+        } else {
+            board.replaceAll(m -> byId.get(m.getInstanceId()));
+        }
+    }
+
+    private <T> void replace(List<T> target, JsonNode array, Class<T> type) throws JsonProcessingException {
+        target.clear();
+        target.addAll(read(array, type));
+    }
+
+    private <T> List<T> read(JsonNode array, Class<T> type) throws JsonProcessingException {
+        List<T> result = new ArrayList<>();
+        if (array == null || !array.isArray()) return result;
+        for (JsonNode node : array) {
+            result.add(json.treeToValue(node, type));
+        }
+        return result;
+    }
+}
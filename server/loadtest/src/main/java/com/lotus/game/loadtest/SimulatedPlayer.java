@@ -0,0 +1,318 @@
+package com.lotus.game.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.lotus.game.engine.GameEngine;
+import com.lotus.game.engine.GameState;
+
+import java.net.http.HttpClient;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Один симулированный игрок: регистрируется, собирает колоду, держит STOMP-сессию и играет матч за матчем
+ * случайными легальными действиями, как живой клиент: ждёт рассылку после каждого своего действия,
+ * применяет дельты к {@link MatchView}, иногда пишет в чат матча.
+ * <p>
+ * Все переходы состояния — под монитором игрока: сообщения приходят с потоков WebSocket-клиента,
+ * ходы и таймауты — с общего планировщика.
+ */
+final class SimulatedPlayer {
+
+    /** Доля случайных досрочных концов хода, чтобы партии не шли по одному сценарию */
+    private static final double EARLY_END_TURN = 0.05;
+    /** После стольких отказов подряд игрок просто заканчивает ход */
+    private static final int MAX_REJECTS_IN_A_ROW = 3;
+    /** Матч без единого сообщения дольше этого считается брошенным соперником */
+    private static final long MATCH_IDLE_TIMEOUT_MS = 60_000;
+
+    private final int index;
+    private final LoadTestConfig config;
+    private final ApiClient api;
+    private final HttpClient http;
+    private final ObjectMapper json;
+    private final LoadStats stats;
+    private final ScheduledExecutorService scheduler;
+    private final SplittableRandom random;
+
+    private final Map<String, ApiClient.CardInfo> cards = new HashMap<>();
+    private ApiClient.Session session;
+    private String heroId;
+    private long deckId;
+    private StompClient stomp;
+
+    private volatile boolean running;
+    private long searchStartedAt;
+    private MatchView view;
+    private final List<String> matchSubscriptions = new ArrayList<>();
+    private long lastMatchMessageAt;
+    private boolean actScheduled;
+    private long pendingSentAt;
+    private long pendingBaseVersion = -1;
+    private int rejectsInARow;
+    private int actionsSent;
+
+    SimulatedPlayer(int index, LoadTestConfig config, ApiClient api, HttpClient http, ObjectMapper json,
+                    LoadStats stats, ScheduledExecutorService scheduler) {
+        this.index = index;
+        this.config = config;
+        this.api = api;
+        this.http = http;
+        this.json = json;
+        this.stats = stats;
+        this.scheduler = scheduler;
+        this.random = new SplittableRandom(index);
+    }
+
+    /** Регистрация, колода и STOMP-подключение; блокирует поток подготовки. */
+    void setup() throws Exception {
+        session = api.registerOrLogin(String.format("%s-%05d", config.userPrefix(), index), config.password());
+        List<ApiClient.CardInfo> collection = api.collection(session);
+        collection.forEach(c -> cards.put(c.key(), c));
+        heroId = api.unlockedHero(session);
+        deckId = api.ensureDeck(session, heroId, collection);
+        stomp = StompClient.connect(http, config.wsUrl(), session.accessToken(), this::onDisconnected)
+                .get(30, TimeUnit.SECONDS);
+        stomp.subscribe("/user/queue/matches", this::onMatch);
+        stomp.subscribe("/user/queue/matches/errors", this::onActionError);
+        scheduler.scheduleWithFixedDelay(this::watchdog, config.actionTimeoutMillis(), config.actionTimeoutMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    synchronized void start() {
+        running = true;
+        search();
+    }
+
+    synchronized void stop() {
+        running = false;
+        if (stomp != null && !stomp.isClosed()) {
+            stomp.sendJson("/app/matches/cancel", "{}");
+            stomp.close();
+        }
+    }
+
+    private void search() {
+        if (!running || stomp.isClosed()) return;
+        searchStartedAt = System.nanoTime();
+        ObjectNode request = json.createObjectNode()
+                .put("deckId", deckId)
+                .put("mode", "CASUAL")
+                .put("heroId", heroId);
+        stomp.sendJson("/app/matches/find", request.toString());
+    }
+
+    /** /user/queue/matches: подтверждение поиска (WAITING), найденный матч или ответ на /get. */
+    private synchronized void onMatch(String body) {
+        if (!running) return;
+        try {
+            JsonNode match = json.readTree(body);
+            if (!match.hasNonNull("id") || "WAITING".equals(match.path("status").asText())) return;
+            long matchId = match.get("id").asLong();
+            if (view == null || view.matchId != matchId) {
+                if ("FINISHED".equals(match.path("status").asText())) return;
+                openMatch(matchId);
+            }
+            view.applySnapshot(match);
+            lastMatchMessageAt = System.nanoTime();
+            afterUpdate();
+        } catch (Exception e) {
+            System.err.println("player " + index + ": bad match message: " + e.getMessage());
+        }
+    }
+
+    private void openMatch(long matchId) {
+        if (searchStartedAt != 0) {
+            stats.record(stats.matchmakingWait, System.nanoTime() - searchStartedAt);
+            searchStartedAt = 0;
+        }
+        stats.count(stats.matchesStarted);
+        view = new MatchView(matchId, session.userId(), json);
+        matchSubscriptions.add(stomp.subscribe("/user/queue/match/" + matchId, this::onDelta));
+        matchSubscriptions.add(stomp.subscribe("/topic/chat/match/" + matchId, msg -> stats.count(stats.chatReceived)));
+        pendingBaseVersion = -1;
+        rejectsInARow = 0;
+    }
+
+    /** /user/queue/match/{id}: дельта после любого действия любого из игроков. */
+    private synchronized void onDelta(String body) {
+        if (!running || view == null) return;
+        try {
+            JsonNode delta = json.readTree(body);
+            if (delta.path("matchId").asLong() != view.matchId) return;
+            lastMatchMessageAt = System.nanoTime();
+            if (!view.applyDelta(delta)) {
+                resync();
+                return;
+            }
+            if (pendingBaseVersion >= 0 && view.version > pendingBaseVersion) {
+                stats.record(stats.actionToBroadcast, System.nanoTime() - pendingSentAt);
+                pendingBaseVersion = -1;
+                rejectsInARow = 0;
+            }
+            afterUpdate();
+        } catch (Exception e) {
+            System.err.println("player " + index + ": bad delta: " + e.getMessage());
+        }
+    }
+
+    /** Отказ в действии приходит в /user/queue/matches/errors; проекция могла устареть — берём снимок. */
+    private synchronized void onActionError(String body) {
+        if (!running || pendingBaseVersion < 0) return;
+        stats.count(stats.rejectedActions);
+        pendingBaseVersion = -1;
+        rejectsInARow++;
+        resync();
+    }
+
+    private void afterUpdate() {
+        if (view.isFinished()) {
+            finishMatch();
+        } else if (view.isMyTurn() && pendingBaseVersion < 0 && !actScheduled) {
+            actScheduled = true;
+            scheduler.schedule(this::act, config.thinkMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void finishMatch() {
+        stats.count(stats.matchesFinished);
+        matchSubscriptions.forEach(stomp::unsubscribe);
+        matchSubscriptions.clear();
+        view = null;
+        pendingBaseVersion = -1;
+        scheduler.schedule(this::searchAgain, config.thinkMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void searchAgain() {
+        if (view == null) search();
+    }
+
+    private synchronized void act() {
+        actScheduled = false;
+        if (!running || view == null || !view.isMyTurn() || pendingBaseVersion >= 0 || stomp.isClosed()) return;
+        String prefix = "/app/matches/" + view.matchId;
+        pendingSentAt = System.nanoTime();
+        pendingBaseVersion = view.version;
+        stats.count(stats.actions);
+        Move move = rejectsInARow >= MAX_REJECTS_IN_A_ROW ? null : chooseMove();
+        if (move == null) {
+            stomp.sendJson(prefix + "/end-turn", "{}");
+        } else if (move.attack()) {
+            stomp.sendJson(prefix + "/attack", json.createObjectNode()
+                    .put("attackerInstanceId", move.instanceId())
+                    .put("targetInstanceId", move.target())
+                    .toString());
+        } else {
+            stomp.sendJson(prefix + "/play", json.createObjectNode()
+                    .put("instanceId", move.instanceId())
+                    .put("targetInstanceId", move.target())
+                    .toString());
+        }
+        actionsSent++;
+        if (config.chatEvery() > 0 && actionsSent % config.chatEvery() == 0) {
+            stomp.sendJson("/app/chat/send/match/" + view.matchId,
+                    json.createObjectNode().put("text", "gg #" + actionsSent).toString());
+            stats.count(stats.chatSent);
+        }
+    }
+
+    /** Действие хода: розыгрыш карты или атака; null — конец хода. */
+    private record Move(boolean attack, String instanceId, String target) {
+    }
+
+    /** Случайное из легальных действий — те же правила, что у движкового ActionGenerator, по своей проекции. */
+    private Move chooseMove() {
+        List<Move> moves = new ArrayList<>();
+        List<String> enemyTargets = new ArrayList<>();
+        for (GameState.BoardMinion m : view.enemyBoard) {
+            if (!m.isStealth()) enemyTargets.add(m.getInstanceId());
+        }
+        if (view.enemyBoard.isEmpty()) enemyTargets.add(GameEngine.HERO_TARGET);
+        List<String> allyTargets = new ArrayList<>();
+        view.myBoard.forEach(m -> allyTargets.add(m.getInstanceId()));
+
+        for (GameState.CardInHand card : view.hand) {
+            ApiClient.CardInfo info = cards.get(ApiClient.CardInfo.key(card.getCardType(), card.getCardId()));
+            if (info == null || info.manaCost() > view.mana) continue;
+            List<String> targets;
+            if ("MINION".equalsIgnoreCase(info.cardType())) {
+                if (view.myBoard.size() >= GameEngine.MAX_BOARD_SIZE) continue;
+                targets = battlecryTargets(info, enemyTargets, allyTargets);
+            } else {
+                targets = info.damage() > 0 ? enemyTargets : singleNull();
+            }
+            targets.forEach(t -> moves.add(new Move(false, card.getInstanceId(), t)));
+        }
+
+        boolean enemyTaunt = view.enemyBoard.stream().anyMatch(GameState.BoardMinion::isTaunt);
+        for (GameState.BoardMinion attacker : view.myBoard) {
+            if (!attacker.isCanAttack()) continue;
+            if (view.enemyBoard.isEmpty() && attacker.isCanAttackHero()) {
+                moves.add(new Move(true, attacker.getInstanceId(), GameEngine.HERO_TARGET));
+            }
+            for (GameState.BoardMinion target : view.enemyBoard) {
+                if (target.isStealth() || (enemyTaunt && !target.isTaunt())) continue;
+                moves.add(new Move(true, attacker.getInstanceId(), target.getInstanceId()));
+            }
+        }
+        if (moves.isEmpty() || random.nextDouble() < EARLY_END_TURN) return null;
+        return moves.get(random.nextInt(moves.size()));
+    }
+
+    private static List<String> battlecryTargets(ApiClient.CardInfo info, List<String> enemyTargets, List<String> allyTargets) {
+        if (info.battlecryValue() <= 0) return singleNull();
+        return switch (info.battlecryType().toUpperCase()) {
+            case "DEAL_DAMAGE" -> enemyTargets;
+            case "HEAL" -> {
+                List<String> targets = new ArrayList<>(allyTargets);
+                targets.add(GameEngine.HERO_TARGET);
+                yield targets;
+            }
+            case "BUFF_ALLY" -> allyTargets.isEmpty() ? singleNull() : allyTargets;
+            default -> singleNull();
+        };
+    }
+
+    private static List<String> singleNull() {
+        List<String> none = new ArrayList<>(1);
+        none.add(null);
+        return none;
+    }
+
+    private void resync() {
+        if (view == null || stomp.isClosed()) return;
+        stats.count(stats.resyncs);
+        stomp.sendJson("/app/matches/" + view.matchId + "/get", "{}");
+    }
+
+    /** Рассылка не пришла за action-timeout — запрашиваем снимок; матч без сообщений слишком долго бросаем. */
+    private synchronized void watchdog() {
+        if (!running || view == null) return;
+        long now = System.nanoTime();
+        if (pendingBaseVersion >= 0 && now - pendingSentAt > TimeUnit.MILLISECONDS.toNanos(config.actionTimeoutMillis())) {
+            stats.count(stats.actionTimeouts);
+            pendingBaseVersion = -1;
+            resync();
+        } else if (now - lastMatchMessageAt > TimeUnit.MILLISECONDS.toNanos(MATCH_IDLE_TIMEOUT_MS)) {
+            System.err.println("player " + index + ": match " + view.matchId + " idle, leaving it");
+            matchSubscriptions.forEach(stomp::unsubscribe);
+            matchSubscriptions.clear();
+            view = null;
+            search();
+        }
+    }
+
+    private void onDisconnected(String reason) {
+        stats.disconnects.increment();
+        if (running) {
+            System.err.println("player " + index + ": disconnected: " + reason);
+        }
+        running = false;
+    }
+}
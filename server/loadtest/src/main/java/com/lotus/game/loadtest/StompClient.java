@@ -0,0 +1,189 @@
+package com.lotus.game.loadtest;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Минимальный STOMP 1.2 поверх java.net.http.WebSocket (сырой транспорт SockJS: /ws/websocket).
+ * Хватает того, что делает браузерный клиент: CONNECT с заголовком token, SUBSCRIBE/UNSUBSCRIBE, SEND с JSON.
+ * Сообщения раздаются обработчикам подписок по заголовку subscription; отправки идут строго по одной,
+ * как того требует WebSocket API.
+ */
+final class StompClient implements WebSocket.Listener {
+
+    private static final char NUL = '\0';
+
+    private final Map<String, Consumer<String>> subscriptions = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriptionIds = new AtomicInteger();
+    private final CompletableFuture<Void> connected = new CompletableFuture<>();
+    private final StringBuilder incoming = new StringBuilder();
+    private final ByteArrayOutputStream incomingBinary = new ByteArrayOutputStream();
+    private final Consumer<String> onError;
+
+    private CompletableFuture<WebSocket> sendTail;
+    private volatile boolean closed;
+
+    private StompClient(Consumer<String> onError) {
+        this.onError = onError;
+    }
+
+    /**
+     * Открывает WebSocket и проходит STOMP CONNECT.
+     *
+     * @param onError вызывается на STOMP ERROR и при обрыве соединения
+     * @return клиент, когда сервер ответил CONNECTED
+     */
+    static CompletableFuture<StompClient> connect(HttpClient http, String url, String token, Consumer<String> onError) {
+        StompClient client = new StompClient(onError);
+        client.sendTail = http.newWebSocketBuilder()
+                .buildAsync(URI.create(url), client)
+                .thenCompose(ws -> ws.sendText(frame("CONNECT", Map.of(
+                        "accept-version", "1.2",
+                        "host", URI.create(url).getHost(),
+                        "heart-beat", "0,0",
+                        "token", token), null), true));
+        return client.sendTail.thenCompose(ws -> client.connected).thenApply(v -> client);
+    }
+
+    /** @return id подписки для {@link #unsubscribe(String)} */
+    String subscribe(String destination, Consumer<String> handler) {
+        String id = "sub-" + subscriptionIds.incrementAndGet();
+        subscriptions.put(id, handler);
+        send(frame("SUBSCRIBE", Map.of("id", id, "destination", destination), null));
+        return id;
+    }
+
+    void unsubscribe(String id) {
+        if (subscriptions.remove(id) != null) {
+            send(frame("UNSUBSCRIBE", Map.of("id", id), null));
+        }
+    }
+
+    void sendJson(String destination, String json) {
+        send(frame("SEND", Map.of("destination", destination, "content-type", "application/json"), json));
+    }
+
+    void close() {
+        closed = true;
+        synchronized (this) {
+            sendTail = sendTail.thenCompose(ws -> ws.sendText(frame("DISCONNECT", Map.of(), null), true))
+                    .thenCompose(ws -> ws.sendClose(WebSocket.NORMAL_CLOSURE, "bye"));
+        }
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    private synchronized void send(String frame) {
+        if (closed) return;
+        sendTail = sendTail.thenCompose(ws -> ws.sendText(frame, true));
+        sendTail.exceptionally(e -> {
+            fail("send failed: " + e.getMessage());
+            return null;
+        });
+    }
+
+    @Override
+    public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+        incoming.append(data);
+        if (last) drainFrames();
+        webSocket.request(1);
+        return null;
+    }
+
+    /** Кадры с байтовым телом (рассылки матча) сервер шлёт бинарными сообщениями — текст STOMP в UTF-8. */
+    @Override
+    public CompletionStage<?> onBinary(WebSocket webSocket, ByteBuffer data, boolean last) {
+        byte[] chunk = new byte[data.remaining()];
+        data.get(chunk);
+        incomingBinary.write(chunk, 0, chunk.length);
+        if (last) {
+            incoming.append(incomingBinary.toString(StandardCharsets.UTF_8));
+            incomingBinary.reset();
+            drainFrames();
+        }
+        webSocket.request(1);
+        return null;
+    }
+
+    private void drainFrames() {
+        int start = 0;
+        for (int i = 0; i < incoming.length(); i++) {
+            if (incoming.charAt(i) == NUL) {
+                dispatch(incoming.substring(start, i));
+                start = i + 1;
+            }
+        }
+        incoming.delete(0, start);
+    }
+
+    @Override
+    public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+        fail("closed " + statusCode + " " + reason);
+        return null;
+    }
+
+    @Override
+    public void onError(WebSocket webSocket, Throwable error) {
+        fail("websocket error: " + error.getMessage());
+    }
+
+    private void dispatch(String raw) {
+        int pos = 0;
+        while (pos < raw.length() && (raw.charAt(pos) == '\n' || raw.charAt(pos) == '\r')) pos++;
+        if (pos == raw.length()) return; // heartbeat
+        int headerEnd = raw.indexOf("\n\n", pos);
+        if (headerEnd < 0) headerEnd = raw.length();
+        String[] lines = raw.substring(pos, headerEnd).split("\r?\n");
+        String command = lines[0];
+        Map<String, String> headers = new HashMap<>();
+        for (int i = 1; i < lines.length; i++) {
+            int colon = lines[i].indexOf(':');
+            if (colon > 0) headers.putIfAbsent(lines[i].substring(0, colon), lines[i].substring(colon + 1));
+        }
+        String body = headerEnd + 2 <= raw.length() ? raw.substring(headerEnd + 2) : "";
+        switch (command) {
+            case "CONNECTED" -> connected.complete(null);
+            case "MESSAGE" -> {
+                Consumer<String> handler = subscriptions.get(headers.get("subscription"));
+                if (handler != null) handler.accept(body);
+            }
+            case "ERROR" -> fail("STOMP ERROR: " + headers.getOrDefault("message", body));
+            default -> {
+            }
+        }
+    }
+
+    private void fail(String message) {
+        if (!connected.isDone()) {
+            connected.completeExceptionally(new IllegalStateException(message));
+        }
+        if (!closed) {
+            closed = true;
+            onError.accept(message);
+        }
+    }
+
+    private static String frame(String command, Map<String, String> headers, String body) {
+        StringBuilder sb = new StringBuilder(command).append('\n');
+        headers.forEach((k, v) -> sb.append(k).append(':').append(v).append('\n'));
+        if (body != null) {
+            sb.append("content-length:").append(body.getBytes(StandardCharsets.UTF_8).length).append('\n');
+        }
+        sb.append('\n');
+        if (body != null) sb.append(body);
+        return sb.append(NUL).toString();
+    }
+}